@@ -6,42 +6,70 @@ import com.defano.jmonet.canvas.observable.CanvasCommitObserver;
 import com.defano.jmonet.canvas.surface.AbstractPaintSurface;
 import com.defano.jmonet.context.GraphicsContext;
 import com.defano.jmonet.tools.util.MathUtils;
-import io.reactivex.subjects.BehaviorSubject;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.function.Supplier;
 
 /**
  * A scrollable, Swing component that can be painted upon using the paint tools in {@link com.defano.jmonet.tools}. See
  * {@link JMonetCanvas} for a canvas with an undo/redo buffer.
+ * <p>
+ * The scratch buffers are tiled (see {@link com.defano.jmonet.canvas.layer.TiledBuffer}), consuming memory only where
+ * tools draw; {@link JMonetCanvas} tiles its canvas image likewise. Because the canvas image is also accessible as a
+ * {@link BufferedImage} (see {@link #getCanvasImage()}), a canvas may not exceed {@link #MAX_CANVAS_PIXELS}.
  */
 public abstract class AbstractPaintCanvas extends AbstractPaintSurface implements PaintCanvas {
 
+    /**
+     * The greatest number of pixels (width times height) a canvas may contain; the most a {@link BufferedImage} can
+     * address (roughly 46,000 pixels square). Memory consumed by a tiled canvas depends on how much of it has been
+     * painted, not on its size.
+     */
+    public static final long MAX_CANVAS_PIXELS = Integer.MAX_VALUE - 1;
+
     private final ArrayList<CanvasCommitObserver> observers = new ArrayList<>();
-    private final BehaviorSubject<Integer> gridSpacingSubject = BehaviorSubject.createDefault(1);
+    private volatile int gridSpacing = 1;
     private final Scratch scratch;
     private Paint canvasBackground;
 
+    // Incremented on each commit and each change of canvas size; see getModificationStamp()
+    private volatile long commitStamp;
+
     public AbstractPaintCanvas(Dimension dimension) {
-        super(dimension);
+        super(checkCanvasSize(dimension));
         scratch = new Scratch(dimension.width, dimension.height);
     }
 
     /**
      * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException If the canvas would contain more than {@link #MAX_CANVAS_PIXELS} pixels
      */
     @Override
     public void setCanvasSize(Dimension dimension) {
-        setSurfaceDimension(dimension);
+        setSurfaceDimension(checkCanvasSize(dimension));
 
         if (scratch != null) {
             scratch.setSize(dimension.width, dimension.height);
         }
 
+        commitStamp++;
         repaint();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Incremented each time commit observers are notified of a change and each time the canvas is resized; subclasses
+     * modifying the canvas image in some other way should override this method.
+     */
+    @Override
+    public long getModificationStamp() {
+        return commitStamp;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -64,20 +92,33 @@ public abstract class AbstractPaintCanvas extends AbstractPaintSurface implement
     public void dispose() {
         super.dispose();
 
-        gridSpacingSubject.onComplete();
         observers.clear();
         setTransferHandler(null);
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The returned scratch layers share the tiles of the scratch buffers; clearing the scratch does not modify them.
      */
     @Override
     public ImageLayer[] getImageLayers() {
-        return new ImageLayer[]{
-                new ImageLayer(getCanvasImage()),
-                getScratch().getRemoveScratchLayer(),
-                getScratch().getAddScratchLayer()};
+        ImageLayer[] scratchLayers = getScratch().getLayerSet().getImageLayers();
+
+        ImageLayer[] layers = new ImageLayer[scratchLayers.length + 1];
+        layers[0] = getCanvasImageLayer();
+        System.arraycopy(scratchLayers, 0, layers, 1, scratchLayers.length);
+
+        return layers;
+    }
+
+    /**
+     * Gets the layer in which the canvas image is painted, beneath the scratch layers.
+     *
+     * @return An image layer drawing {@link #getCanvasImage()} at the canvas origin.
+     */
+    protected ImageLayer getCanvasImageLayer() {
+        return new ImageLayer(getCanvasImage());
     }
 
     /**
@@ -116,7 +157,7 @@ public abstract class AbstractPaintCanvas extends AbstractPaintSurface implement
     public Point convertViewPointToModel(Point p) {
         Point error = getScrollError();
         int gridSpacing = getGridSpacing();
-        double scale = getScaleObservable().blockingFirst();
+        double scale = getScale();
 
         int x = p.x - error.x;                                          // Adjust for ignored scroll offset
         x = MathUtils.nearestFloor(x, (int) (gridSpacing * scale));     // Snap to grid
@@ -135,7 +176,7 @@ public abstract class AbstractPaintCanvas extends AbstractPaintSurface implement
     @Override
     public Point convertModelPointToView(Point p) {
         Point error = getScrollError();
-        double scale = getScaleObservable().blockingFirst();
+        double scale = getScale();
 
         int x = (int) (p.x * scale) + error.x;
         int y = (int) (p.y * scale) + error.y;
@@ -143,6 +184,22 @@ public abstract class AbstractPaintCanvas extends AbstractPaintSurface implement
         return new Point(x, y);
     }
 
+    /**
+     * Assures the image of a canvas of the given size can be addressed as a {@link BufferedImage}.
+     *
+     * @param dimension The size of the canvas
+     * @return The given size
+     * @throws IllegalArgumentException If the canvas would contain more than {@link #MAX_CANVAS_PIXELS} pixels
+     */
+    static Dimension checkCanvasSize(Dimension dimension) {
+        if ((long) dimension.width * dimension.height > MAX_CANVAS_PIXELS) {
+            throw new IllegalArgumentException("Canvas of " + dimension.width + "x" + dimension.height +
+                    " pixels exceeds the " + MAX_CANVAS_PIXELS + " pixels an image can address.");
+        }
+
+        return dimension;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -165,7 +222,7 @@ public abstract class AbstractPaintCanvas extends AbstractPaintSurface implement
      */
     @Override
     public void setGridSpacing(int grid) {
-        this.gridSpacingSubject.onNext(grid);
+        this.gridSpacing = grid;
     }
 
     /**
@@ -173,7 +230,7 @@ public abstract class AbstractPaintCanvas extends AbstractPaintSurface implement
      */
     @Override
     public int getGridSpacing() {
-        return gridSpacingSubject.blockingFirst();
+        return gridSpacing;
     }
 
     /**
@@ -212,9 +269,25 @@ public abstract class AbstractPaintCanvas extends AbstractPaintSurface implement
     }
 
     protected void fireCanvasCommitObservers(PaintCanvas canvas, ImageLayerSet imageLayerSet, BufferedImage canvasImage) {
+        commitStamp++;
         for (CanvasCommitObserver thisObserver : observers) {
             thisObserver.onCommit(canvas, imageLayerSet, canvasImage);
         }
     }
 
+    /**
+     * Notifies observers of a commit, producing the canvas image passed to them only if there are any observers.
+     *
+     * @param canvas        The canvas on which the commit occurred
+     * @param imageLayerSet The set of changes committed, or null
+     * @param canvasImage   Produces the resulting canvas image; invoked at most once
+     */
+    protected void fireCanvasCommitObservers(PaintCanvas canvas, ImageLayerSet imageLayerSet, Supplier<BufferedImage> canvasImage) {
+        if (!observers.isEmpty()) {
+            fireCanvasCommitObservers(canvas, imageLayerSet, canvasImage.get());
+        } else {
+            commitStamp++;
+        }
+    }
+
 }
@@ -0,0 +1,147 @@
+package com.defano.jmonet.canvas;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A region of a scratch buffer that has been modified, tracked as a bitmap of fixed-size tiles.
+ * <p>
+ * Unlike a single bounding rectangle, a tiled region grows only by the tiles a change touches; a stroke drawn corner to
+ * corner across the buffer dirties a diagonal band of tiles rather than the entire buffer. The region can be decomposed
+ * into a small set of non-overlapping rectangles, which can each be painted or committed independently without any
+ * pixel being drawn twice.
+ */
+class DirtyRegion {
+
+    /**
+     * The width and height of a tile, in pixels.
+     */
+    static final int TILE_SIZE = 64;
+
+    private final Rectangle extent;
+    private final int columns;
+    private final BitSet tiles = new BitSet();
+
+    // Bounding rectangle of all dirtied regions
+    private Rectangle bounds = new Rectangle();
+
+    /**
+     * Creates an empty dirty region of a buffer with the given size.
+     *
+     * @param width  The width of the buffer
+     * @param height The height of the buffer
+     */
+    DirtyRegion(int width, int height) {
+        this.extent = new Rectangle(0, 0, width, height);
+        this.columns = (width + TILE_SIZE - 1) / TILE_SIZE;
+    }
+
+    /**
+     * Creates a dirty region of a buffer with the given size, initially comprising a given rectangle.
+     *
+     * @param width  The width of the buffer
+     * @param height The height of the buffer
+     * @param dirty  The initially dirty region of the buffer
+     */
+    DirtyRegion(int width, int height, Rectangle dirty) {
+        this(width, height);
+        add(dirty);
+    }
+
+    /**
+     * Adds the given rectangle to the dirty region. Portions of the rectangle outside the buffer are ignored.
+     *
+     * @param rectangle The newly dirtied region of the buffer
+     */
+    void add(Rectangle rectangle) {
+        Rectangle dirtied = extent.intersection(rectangle);
+
+        if (dirtied.isEmpty()) {
+            return;
+        }
+
+        for (int row = dirtied.y / TILE_SIZE; row <= (dirtied.y + dirtied.height - 1) / TILE_SIZE; row++) {
+            tiles.set(row * columns + dirtied.x / TILE_SIZE, row * columns + (dirtied.x + dirtied.width - 1) / TILE_SIZE + 1);
+        }
+
+        bounds = bounds.isEmpty() ? dirtied : bounds.union(dirtied);
+    }
+
+    /**
+     * Determines if any portion of the buffer has been dirtied.
+     *
+     * @return True if the region is empty; false otherwise.
+     */
+    boolean isEmpty() {
+        return tiles.isEmpty();
+    }
+
+    /**
+     * Gets the smallest rectangle enclosing every dirtied portion of the buffer.
+     *
+     * @return The bounds of the dirty region; an empty rectangle if nothing has been dirtied.
+     */
+    Rectangle getBounds() {
+        return new Rectangle(bounds);
+    }
+
+    /**
+     * Decomposes the dirty region into non-overlapping rectangles which together cover every dirtied portion of the
+     * buffer. Horizontally adjacent dirty tiles are joined, as are runs of identical width in adjacent rows of tiles.
+     *
+     * @return The rectangles of the dirty region; empty if nothing has been dirtied.
+     */
+    List<Rectangle> getRectangles() {
+        List<Rectangle> rectangles = new ArrayList<>();
+        List<Rectangle> previousRow = new ArrayList<>();
+        List<Rectangle> thisRow = new ArrayList<>();
+        int rows = (extent.height + TILE_SIZE - 1) / TILE_SIZE;
+
+        for (int row = 0; row < rows; row++) {
+            int rowStart = row * columns;
+            int rowEnd = rowStart + columns;
+
+            for (int start = tiles.nextSetBit(rowStart); start >= 0 && start < rowEnd; start = tiles.nextSetBit(start)) {
+                int end = Math.min(rowEnd, tiles.nextClearBit(start));
+                Rectangle run = new Rectangle((start - rowStart) * TILE_SIZE, row * TILE_SIZE, (end - start) * TILE_SIZE, TILE_SIZE);
+                thisRow.add(extendOrAdd(run, previousRow, rectangles));
+                start = end;
+            }
+
+            List<Rectangle> swap = previousRow;
+            previousRow = thisRow;
+            thisRow = swap;
+            thisRow.clear();
+        }
+
+        // Trim tiles to the dirtied bounds (and to the buffer)
+        for (Rectangle thisRectangle : rectangles) {
+            thisRectangle.setBounds(thisRectangle.intersection(bounds));
+        }
+
+        return rectangles;
+    }
+
+    /**
+     * Extends a rectangle from the previous row of tiles downward to cover a run of tiles directly beneath it with the
+     * same horizontal extent, or adds the run as a new rectangle if there is no such rectangle.
+     *
+     * @param run         A run of dirty tiles in the current row
+     * @param previousRow The rectangles ending in the previous row of tiles
+     * @param rectangles  All rectangles produced thus far
+     * @return The rectangle covering the run
+     */
+    private Rectangle extendOrAdd(Rectangle run, List<Rectangle> previousRow, List<Rectangle> rectangles) {
+        for (Rectangle thisRectangle : previousRow) {
+            if (thisRectangle.x == run.x && thisRectangle.width == run.width) {
+                thisRectangle.height += run.height;
+                return thisRectangle;
+            }
+        }
+
+        rectangles.add(run);
+        return run;
+    }
+}
@@ -1,14 +1,18 @@
 package com.defano.jmonet.canvas;
 
-import com.defano.jmonet.context.AwtGraphicsContext;
-import com.defano.jmonet.context.GraphicsContext;
 import com.defano.jmonet.transform.image.ApplyPixelTransform;
 import com.defano.jmonet.transform.image.PixelTransform;
 import com.defano.jmonet.transform.image.StaticImageTransform;
+import com.defano.jmonet.transform.image.TransformExecutor;
+import com.defano.jmonet.transform.image.TransformFuture;
 import com.defano.jmonet.transform.image.Transformable;
 import com.defano.jmonet.canvas.layer.ImageLayer;
 import com.defano.jmonet.canvas.layer.ImageLayerSet;
-import com.defano.jmonet.canvas.layer.LayeredImage;
+import com.defano.jmonet.canvas.layer.LayerSetArchive;
+import com.defano.jmonet.canvas.layer.LayerTileStore;
+import com.defano.jmonet.canvas.layer.MagnifiedImageCache;
+import com.defano.jmonet.canvas.layer.TiledBuffer;
+import com.defano.jmonet.canvas.layer.TiledImage;
 import com.defano.jmonet.canvas.observable.LayerSetObserver;
 import io.reactivex.Observable;
 import io.reactivex.subjects.BehaviorSubject;
@@ -17,10 +21,14 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * A paint canvas with a built-in undo and redo buffer.
+ * <p>
+ * Changes that are no longer undoable are kept in a sparse {@link TiledImage}, and the flattened canvas image is kept in
+ * a {@link TiledBuffer}, so that memory is consumed only where the canvas has paint. Commits, undos and redos re-draw
+ * only the tiles they affect, painting draws only the tiles that are visible, and snapshots of the canvas image (see
+ * {@link #getCanvasImage()}) share tiles with the canvas rather than copying its pixels.
  */
 @SuppressWarnings("unused")
 public class JMonetCanvas extends AbstractPaintCanvas implements LayerSetObserver, Transformable, Undoable {
@@ -29,19 +37,40 @@ public class JMonetCanvas extends AbstractPaintCanvas implements LayerSetObserve
     private final int maxUndoBufferDepth;
 
     // An internal index into the list of layer sets; moves left and right to denote undo/redo
-    private final BehaviorSubject<Integer> undoBufferPointer = BehaviorSubject.createDefault(-1);
+    private volatile int undoBufferPointer = -1;
 
-    // Image elements that are no longer undoable; null until the undo depth has been exceeded.
-    private BufferedImage permanent;
+    // Publishes each change to the undo buffer pointer; observers should read state from the canvas, not the subject
+    private final BehaviorSubject<Integer> undoBufferPointerSubject = BehaviorSubject.createDefault(-1);
+
+    // Image elements that are no longer undoable; tiles are allocated only where such elements have left paint
+    private final TiledImage permanent = new TiledImage();
 
     // List of changes as they're committed from the scratch buffer; lower indices are older; higher indices are newer
-    private List<ImageLayerSet> undoBuffer = new ArrayList<>();
+    private final List<ImageLayerSet> undoBuffer = new ArrayList<>();
+
+    // Cached copy of last computed canvas image (don't want to have to merge all layers together at each request);
+    // kept current by compositing or re-flattening only the tiles affected by each commit, undo or redo
+    private TiledBuffer cachedCanvasImage;
+
+    // Incremented whenever the permanent image, the undo buffer, or a change within it is modified
+    private long modificationStamp;
+
+    // Modification stamp at which cachedCanvasImage was last current
+    private long cachedCanvasImageStamp = -1;
 
-    // Cached copy of last computed canvas image (don't want to have to merge all layers together at each request)
-    private BufferedImage cachedCanvasImage;
+    // Copy of the cached canvas image returned by getCanvasImage(), sharing its tiles; replaced, never modified, once
+    // the canvas changes
+    private BufferedImage canvasImageSnapshot;
+    private long canvasImageSnapshotStamp = -1;
 
-    // Hash of cachedCanvasImage (for detecting changes)
-    private long cachedCanvasImageHash;
+    // Magnified renderings of the cached canvas image, used when painting zoomed in
+    private final MagnifiedImageCache magnifiedCanvasImage = new MagnifiedImageCache();
+
+    // Splits committed changes into de-duplicated tiles, retaining only tiles that modify the canvas
+    private final LayerTileStore undoTileStore = new LayerTileStore();
+
+    // Compresses, then spills to disk, the oldest changes in the undo buffer when it exceeds its memory budget
+    private final LayerSetArchive undoArchive;
 
     /**
      * Creates a new canvas with a given image initially displayed in it with a specified undo buffer depth.
@@ -51,10 +80,21 @@ public class JMonetCanvas extends AbstractPaintCanvas implements LayerSetObserve
      */
     @SuppressWarnings("WeakerAccess")
     public JMonetCanvas(BufferedImage initialImage, int undoBufferDepth) {
-        super(new Dimension(initialImage.getWidth(), initialImage.getHeight()));
-        this.maxUndoBufferDepth = Math.max(1, undoBufferDepth);
-        setSize(initialImage.getWidth(), initialImage.getHeight());
-        makePermanent(new ImageLayerSet(new ImageLayer(initialImage)));
+        this(initialImage, undoBufferDepth, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new canvas with a given image initially displayed in it with a specified undo buffer depth and memory
+     * budget. When the undoable changes occupy more than the budgeted number of bytes, the oldest changes are
+     * compressed in memory and, if need be, spilled to a temporary file; they are restored when undone.
+     *
+     * @param initialImage           The image to be displayed in the canvas.
+     * @param undoBufferDepth        The depth of the undo buffer (number of undo operations)
+     * @param undoBufferMemoryBudget The number of bytes of pixel data the undo buffer may retain in memory
+     */
+    @SuppressWarnings("WeakerAccess")
+    public JMonetCanvas(BufferedImage initialImage, int undoBufferDepth, long undoBufferMemoryBudget) {
+        this(new Dimension(initialImage.getWidth(), initialImage.getHeight()), initialImage, undoBufferDepth, undoBufferMemoryBudget);
     }
 
     /**
@@ -65,7 +105,21 @@ public class JMonetCanvas extends AbstractPaintCanvas implements LayerSetObserve
      */
     @SuppressWarnings("WeakerAccess")
     public JMonetCanvas(Dimension dimension, int undoBufferDepth) {
-        this(new BufferedImage(dimension.width, dimension.height, BufferedImage.TYPE_INT_ARGB), undoBufferDepth);
+        this(dimension, undoBufferDepth, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new canvas with a transparent image displayed inside it and a specified undo buffer depth and memory
+     * budget.
+     *
+     * @param dimension              The size of the canvas.
+     * @param undoBufferDepth        The depth of the undo buffer (number of undo operations)
+     * @param undoBufferMemoryBudget The number of bytes of pixel data the undo buffer may retain in memory
+     * @see #JMonetCanvas(BufferedImage, int, long)
+     */
+    @SuppressWarnings("WeakerAccess")
+    public JMonetCanvas(Dimension dimension, int undoBufferDepth, long undoBufferMemoryBudget) {
+        this(dimension, null, undoBufferDepth, undoBufferMemoryBudget);
     }
 
     /**
@@ -87,15 +141,34 @@ public class JMonetCanvas extends AbstractPaintCanvas implements LayerSetObserve
         this(dimension, 12);
     }
 
+    private JMonetCanvas(Dimension dimension, BufferedImage initialImage, int undoBufferDepth, long undoBufferMemoryBudget) {
+        super(dimension);
+        this.maxUndoBufferDepth = Math.max(1, undoBufferDepth);
+        this.undoArchive = new LayerSetArchive(undoBufferMemoryBudget);
+        setSize(dimension.width, dimension.height);
+
+        // A transparent canvas needs no initial image; nothing is allocated until something is painted
+        if (initialImage != null) {
+            makePermanent(new ImageLayerSet(new ImageLayer(initialImage)));
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public ImageLayerSet undo() {
 
         if (hasUndoableChanges()) {
-            ImageLayerSet undid = undoBuffer.get(undoBufferPointer.blockingFirst());
+            ImageLayerSet undid = undoBuffer.get(undoBufferPointer);
+            boolean cached = isCanvasImageCached();
+
+            setUndoBufferPointer(undoBufferPointer - 1);
 
-            undoBufferPointer.onNext(undoBufferPointer.blockingFirst() - 1);
-            fireCanvasCommitObservers(this, null, getCanvasImage());
+            // Only pixels within the bounds of the undone change could have been affected by it
+            if (cached) {
+                reflattenCanvasImage(undid.getBounds());
+            }
+
+            fireCanvasCommitObservers(this, null, this::getCanvasImage);
             this.repaint();
 
             return undid;
@@ -109,8 +182,16 @@ public class JMonetCanvas extends AbstractPaintCanvas implements LayerSetObserve
     public boolean redo() {
 
         if (hasRedoableChanges()) {
-            undoBufferPointer.onNext(undoBufferPointer.blockingFirst() + 1);
-            fireCanvasCommitObservers(this, null, getCanvasImage());
+            boolean cached = isCanvasImageCached();
+
+            setUndoBufferPointer(undoBufferPointer + 1);
+
+            // Redoing a change is equivalent to drawing it atop the current canvas image
+            if (cached) {
+                compositeCanvasImage(undoBuffer.get(undoBufferPointer));
+            }
+
+            fireCanvasCommitObservers(this, null, this::getCanvasImage);
             this.repaint();
 
             return true;
@@ -133,19 +214,19 @@ public class JMonetCanvas extends AbstractPaintCanvas implements LayerSetObserve
             throw new IndexOutOfBoundsException("Index exceeds depth of undo buffer.");
         }
 
-        return undoBuffer.get(undoBufferPointer.blockingFirst() - index);
+        return undoBuffer.get(undoBufferPointer - index);
     }
 
     /** {@inheritDoc} */
     @Override
     public boolean hasUndoableChanges() {
-        return undoBufferPointer.blockingFirst() >= 0;
+        return undoBufferPointer >= 0;
     }
 
     /** {@inheritDoc} */
     @Override
     public boolean hasRedoableChanges() {
-        return undoBufferPointer.blockingFirst() < undoBuffer.size() - 1;
+        return undoBufferPointer < undoBuffer.size() - 1;
     }
 
     /** {@inheritDoc} */
@@ -157,13 +238,33 @@ public class JMonetCanvas extends AbstractPaintCanvas implements LayerSetObserve
     /** {@inheritDoc} */
     @Override
     public int getUndoBufferDepth() {
-        return undoBufferPointer.blockingFirst() + 1;
+        return undoBufferPointer + 1;
     }
 
     /** {@inheritDoc} */
     @Override
     public int getRedoBufferDepth() {
-        return undoBuffer.size() - undoBufferPointer.blockingFirst() - 1;
+        return undoBuffer.size() - undoBufferPointer - 1;
+    }
+
+    /**
+     * Gets the number of bytes of pixel data the undo buffer may retain in memory before its oldest changes are
+     * archived.
+     *
+     * @return The undo buffer's memory budget, in bytes; {@link Long#MAX_VALUE} when unlimited.
+     */
+    public long getUndoBufferMemoryBudget() {
+        return undoArchive.getMemoryBudget();
+    }
+
+    /**
+     * Gets the number of bytes of pixel data presently retained in memory by the undo buffer, including changes that
+     * have been compressed but not spilled to disk.
+     *
+     * @return The undo buffer's memory usage, in bytes.
+     */
+    public long getUndoBufferMemoryUsage() {
+        return undoArchive.getMemoryUsage(undoBuffer);
     }
 
     /**
@@ -172,7 +273,7 @@ public class JMonetCanvas extends AbstractPaintCanvas implements LayerSetObserve
      * @return An observable of when the undo operation is supported.
      */
     public Observable<Boolean> isUndoableObservable() {
-        return undoBufferPointer.map(integer -> hasUndoableChanges());
+        return undoBufferPointerSubject.map(integer -> hasUndoableChanges());
     }
 
     /**
@@ -181,11 +282,14 @@ public class JMonetCanvas extends AbstractPaintCanvas implements LayerSetObserve
      * @return An observable of when the redo operation is supported.
      */
     public Observable<Boolean> isRedoableObservable() {
-        return undoBufferPointer.map(integer -> hasRedoableChanges());
+        return undoBufferPointerSubject.map(integer -> hasRedoableChanges());
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The committed layer set is compacted into tiles shared with other changes in the undo buffer; its layers' images
+     * are thereafter read-only (see {@link ImageLayer#getImage()}), and the set should not be modified.
      */
     @Override
     public void commit(ImageLayerSet imageLayerSet) {
@@ -193,21 +297,45 @@ public class JMonetCanvas extends AbstractPaintCanvas implements LayerSetObserve
         // Special case: ChangeSet may be modified after it has been committed; listen for this so that we can notify observers of our own
         imageLayerSet.addLayerSetObserver(this);
 
+        // Store only the portions of the change that modify the canvas, rather than the full rasters it was drawn on
+        undoTileStore.compact(imageLayerSet);
+
+        // Determine if the cached canvas image reflects the buffer state prior to this commit
+        boolean cached = isCanvasImageCached();
+        ImageLayerSet evicted = null;
+
         // Clear the redo elements from the buffer; can't perform redo after committing a new change
-        undoBuffer = undoBuffer.subList(0, undoBufferPointer.blockingFirst() + 1);
+        List<ImageLayerSet> redoable = undoBuffer.subList(undoBufferPointer + 1, undoBuffer.size());
+        redoable.forEach(undoArchive::release);
+        redoable.clear();
 
         // Add the change to the undo buffer
         undoBuffer.add(imageLayerSet);
 
         // If we've exceeded the max undo size, trim the buffer and write the evicted image element to the base canvas
         if (undoBuffer.size() > maxUndoBufferDepth) {
-            makePermanent(undoBuffer.remove(0));
+            evicted = undoBuffer.remove(0);
+            makePermanent(evicted);
+            undoArchive.release(evicted);
         }
 
+        // Archive the oldest changes if the buffer has outgrown its memory budget; the newest change is never archived
+        undoArchive.enforceBudget(undoBuffer, 1);
+
         // Finally, move our pointer to the tail of the buffer
-        undoBufferPointer.onNext(undoBuffer.size() - 1);
+        setUndoBufferPointer(undoBuffer.size() - 1);
+
+        // Bring the cached canvas image up to date without re-flattening the entire buffer
+        if (cached) {
+            compositeCanvasImage(imageLayerSet);
+
+            // Pixels of the evicted change now live in the permanent image; re-flatten them from their new source
+            if (evicted != null) {
+                reflattenCanvasImage(evicted.getBounds());
+            }
+        }
 
-        fireCanvasCommitObservers(this, imageLayerSet, getCanvasImage());
+        fireCanvasCommitObservers(this, imageLayerSet, this::getCanvasImage);
 
         getScratch().clear();
         this.repaint();
@@ -215,32 +343,68 @@ public class JMonetCanvas extends AbstractPaintCanvas implements LayerSetObserve
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The returned image is a snapshot of the canvas; it is not modified by subsequent commits, undos or redos, each of
+     * which causes a new image to be returned. Consecutive calls between changes return the same image. The snapshot
+     * is an image adapter over tiles shared with the canvas (see {@link TiledBuffer#asBufferedImage()}); no pixels are
+     * copied until a tile is next modified. Callers that only need to read the canvas while it is not changing may use
+     * {@link #getLiveCanvasImage()} to avoid marking tiles as shared.
      */
     @Override
     public BufferedImage getCanvasImage() {
+        TiledBuffer canvasImage = getFlattenedCanvasImage();
 
-        // Creating an image by overlaying/merging ChangeSets is expensive; return cached copy when available
-        if (cachedCanvasImageHash != getCanvasImageHash()) {
-            cachedCanvasImage = new BufferedImage(getCanvasSize().width, getCanvasSize().height, BufferedImage.TYPE_INT_ARGB);
+        if (canvasImageSnapshot == null || canvasImageSnapshotStamp != modificationStamp ||
+                canvasImageSnapshot.getWidth() != canvasImage.getWidth() ||
+                canvasImageSnapshot.getHeight() != canvasImage.getHeight()) {
+            canvasImageSnapshot = canvasImage.copy().asBufferedImage();
+            canvasImageSnapshotStamp = modificationStamp;
+        }
 
-            if (permanent != null) {
-                overlayImage(permanent, cachedCanvasImage, AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
-            }
+        return canvasImageSnapshot;
+    }
 
-            for (int index = 0; index <= undoBufferPointer.blockingFirst(); index++) {
-                overlayImage(undoBuffer.get(index), cachedCanvasImage);
-            }
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned image is an adapter over the tiles of the canvas (see {@link TiledBuffer#asBufferedImage()}), which
+     * is maintained incrementally and is modified in place by subsequent commits, undos and redos.
+     */
+    @Override
+    public BufferedImage getLiveCanvasImage() {
+        return getFlattenedCanvasImage().asBufferedImage();
+    }
 
-            cachedCanvasImageHash = getCanvasImageHash();
-        }
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Deletes the temporary file holding any undoable changes spilled to disk.
+     */
+    @Override
+    public void dispose() {
+        super.dispose();
+        undoArchive.close();
+        magnifiedCanvasImage.clear();
+    }
 
-        return cachedCanvasImage;
+    /**
+     * {@inheritDoc}
+     * <p>
+     * When zoomed in, the canvas image is painted from magnified tiles cached between paints; only tiles covering a
+     * region modified by a commit, undo or redo are re-rendered.
+     */
+    @Override
+    protected ImageLayer getCanvasImageLayer() {
+        return getScale() > 1 ?
+                magnifiedCanvasImage.getImageLayer(getFlattenedCanvasImage(), getScale()) :
+                getFlattenedCanvasImage().getImageLayer();
     }
 
     /** {@inheritDoc} */
     @Override
     public void onLayerSetModified(ImageLayerSet modified) {
-        fireCanvasCommitObservers(JMonetCanvas.this, modified, getCanvasImage());
+        modificationStamp++;
+        fireCanvasCommitObservers(JMonetCanvas.this, modified, this::getCanvasImage);
     }
 
     /** {@inheritDoc} */
@@ -256,84 +420,128 @@ public class JMonetCanvas extends AbstractPaintCanvas implements LayerSetObserve
         transform(new ApplyPixelTransform(transform));
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public long getModificationStamp() {
+        return modificationStamp;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TransformFuture transformAsync(StaticImageTransform transform) {
+        long submittedStamp = modificationStamp;
+        return TransformExecutor.getInstance().submit(this, getFlattenedCanvasImage().toBufferedImage(), transform,
+                () -> modificationStamp == submittedStamp,
+                transformed -> commit(new ImageLayerSet(transformed)));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TransformFuture transformAsync(PixelTransform transform) {
+        return transformAsync(new ApplyPixelTransform(transform));
+    }
+
+    /**
+     * Gets the flattened canvas image, flattening the permanent image and the undo buffer if the cached image is not
+     * current.
+     *
+     * @return The cached canvas image
+     */
+    private TiledBuffer getFlattenedCanvasImage() {
+
+        // Creating an image by overlaying/merging ChangeSets is expensive; return cached copy when available
+        if (!isCanvasImageCached()) {
+            cachedCanvasImage = new TiledBuffer(getCanvasSize().width, getCanvasSize().height);
+            flattenCanvasImage(null);
+            cachedCanvasImageStamp = modificationStamp;
+        }
+
+        return cachedCanvasImage;
+    }
+
+    /**
+     * Moves the undo buffer pointer and notifies observers of the change.
+     *
+     * @param pointer The index of the most recently applied change in the undo buffer, or -1 if none are applied.
+     */
+    private void setUndoBufferPointer(int pointer) {
+        undoBufferPointer = pointer;
+        modificationStamp++;
+        undoBufferPointerSubject.onNext(pointer);
+    }
+
     /**
      * Applies a {@link ImageLayerSet} to the permanent (not-undoable) layer of the canvas. Invoked when a committed change
      * has been evicted from the undo buffer as a result of exceeding its depth, or when applying an initial, base image
      * at construction.
      * <p>
-     * If there is no permanent image in place, the given image is made permanent. Otherwise, the given image is
-     * drawn atop the permanent image.
+     * The given image is drawn atop the permanent image, modifying (and allocating) only those tiles of the permanent
+     * image that it overlaps.
      */
     private void makePermanent(ImageLayerSet imageLayerSet) {
-        Dimension changeSetDim = imageLayerSet.getSize();
-
-        if (permanent == null) {
-            permanent = new BufferedImage(changeSetDim.width, changeSetDim.height, BufferedImage.TYPE_INT_ARGB);
-        } else if (changeSetDim.width > permanent.getWidth() || changeSetDim.height > permanent.getHeight()) {
-            resizePermanent(changeSetDim);
-        }
-
-        overlayImage(imageLayerSet, permanent);
+        permanent.draw(imageLayerSet);
         imageLayerSet.removeLayerSetObserver(this);
+        modificationStamp++;
     }
 
     /**
-     * Resize the permanent image buffer to the specified dimension, leaving any existing permanent image in place at
-     * (0, 0).
-     * <p>
-     * The "permanent" image represents all the composited changes that have fallen out of the undo/redo buffer and can
-     * no longer be undone.
+     * Determines if the cached canvas image is current with respect to the permanent image, the undo buffer and the
+     * size of the canvas.
      *
-     * @param dim The new dimension of the permanent image buffer.
+     * @return True if {@link #getFlattenedCanvasImage()} can return the cached image as-is; false otherwise.
      */
-    private void resizePermanent(Dimension dim) {
-        BufferedImage newPerm = new BufferedImage(dim.width, dim.height, BufferedImage.TYPE_INT_ARGB);
-        if (permanent != null) {
-            Graphics2D g = newPerm.createGraphics();
-            g.drawImage(permanent, 0, 0, null);
-            g.dispose();
-        }
-        permanent = newPerm;
+    private boolean isCanvasImageCached() {
+        return cachedCanvasImage != null &&
+                cachedCanvasImage.getWidth() == getCanvasSize().width &&
+                cachedCanvasImage.getHeight() == getCanvasSize().height &&
+                cachedCanvasImageStamp == modificationStamp;
     }
 
     /**
-     * Draws the source image atop the existing destination image using the provided {@link AlphaComposite} mode.
+     * Draws a newly applied {@link ImageLayerSet} atop the cached canvas image. Produces the same image as re-flattening
+     * the buffer, provided the layer set is the last applied change and the cache was current prior to applying it.
      *
-     * @param source      The source image to draw
-     * @param destination The destination image on which to draw the source
-     * @param composite   The alpha-composite mode to use.
+     * @param imageLayerSet The layer set that was just applied
      */
-    private void overlayImage(BufferedImage source, BufferedImage destination, AlphaComposite composite) {
-        Graphics2D g2d = (Graphics2D) destination.getGraphics();
-        g2d.setComposite(composite);
-        g2d.drawImage(source, 0, 0, null);
-        g2d.dispose();
+    private void compositeCanvasImage(ImageLayerSet imageLayerSet) {
+        cachedCanvasImage.draw(imageLayerSet, null);
+        magnifiedCanvasImage.invalidate(imageLayerSet.getBounds());
+        cachedCanvasImageStamp = modificationStamp;
     }
 
     /**
-     * Draws a {@link ImageLayerSet} atop an existing image.
+     * Re-flattens the portion of the cached canvas image bounded by a given region, leaving pixels outside the region
+     * untouched.
      *
-     * @param layeredImage The set of changes to be drawn
-     * @param destination  The image on which to draw them
+     * @param region The region of the canvas image to recompute
      */
-    private void overlayImage(LayeredImage layeredImage, BufferedImage destination) {
-        GraphicsContext g = new AwtGraphicsContext((Graphics2D) destination.getGraphics());
-        layeredImage.paint(g, 1.0, null);
-        g.dispose();
+    private void reflattenCanvasImage(Rectangle region) {
+        Rectangle dirty = region.intersection(cachedCanvasImage.getBounds());
+
+        if (!dirty.isEmpty()) {
+            flattenCanvasImage(dirty);
+            magnifiedCanvasImage.invalidate(dirty);
+        }
+
+        cachedCanvasImageStamp = modificationStamp;
     }
 
     /**
-     * Calculates a hashcode representing the image currently returned by {@link #getCanvasImage()}. Used to determine
-     * if the last image generated by {@link #getCanvasImage()} can be reused given the current state of the undo
-     * buffer and perm layer.
+     * Composites the permanent image and each applied change in the undo buffer onto the cached canvas image, clipped
+     * to a given region. Pixels inside the region are cleared prior to being redrawn; only tiles within the region are
+     * modified, and layers outside of it (including archived layers) are skipped without being drawn.
      *
-     * @return A hashcode representing the image produced by {@link #getCanvasImage()}.
+     * @param clip The region of the canvas image to flatten, or null to flatten the entire image.
      */
-    private long getCanvasImageHash() {
-        if (undoBufferPointer.blockingFirst() >= 0) {
-            return Objects.hash(permanent, undoBuffer.subList(undoBufferPointer.blockingFirst(), undoBuffer.size()));
-        } else {
-            return Objects.hash(permanent);
+    private void flattenCanvasImage(Rectangle clip) {
+        if (clip != null) {
+            cachedCanvasImage.clear(clip);
+        }
+
+        cachedCanvasImage.draw(permanent, clip);
+
+        for (int index = 0; index <= undoBufferPointer; index++) {
+            cachedCanvasImage.draw(undoBuffer.get(index), clip);
         }
     }
 }
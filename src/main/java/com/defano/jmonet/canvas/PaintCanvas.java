@@ -21,7 +21,9 @@ public interface PaintCanvas extends PaintSurface, ScaledLayeredImage {
     void commit();
 
     /**
-     * Commits the given {@link ImageLayerSet} to the canvas.
+     * Commits the given {@link ImageLayerSet} to the canvas. Layers produced by the {@link Scratch} share its buffers
+     * and reflect any drawing on the scratch until it is next cleared; implementations retaining such a layer should
+     * clear the scratch once the set is committed.
      *
      * @param imageLayerSet The {@link ImageLayerSet} to be committed.
      */
@@ -36,6 +38,9 @@ public interface PaintCanvas extends PaintSurface, ScaledLayeredImage {
      * Gets the Scratch buffer associated with this canvas. The scratch buffer provides a mechanism for tools to draw
      * ephemeral changes (like marching ants, text tool caret, etc.) to the canvas without actually modifying the
      * underlying image.
+     * <p>
+     * Layers obtained from the scratch share its buffers, which are erased and reused when it is cleared only if no such
+     * layer remains reachable (see {@link Scratch}).
      *
      * @return The scratch buffer.
      */
@@ -43,12 +48,40 @@ public interface PaintCanvas extends PaintSurface, ScaledLayeredImage {
 
     /**
      * Gets the image that has been painted on this canvas, not including any ephemeral changes that have been made via
-     * the scratch buffer but have not been committed to the canvas.
+     * the scratch buffer but have not been committed to the canvas. The returned image is not modified by subsequent
+     * changes to the canvas.
      *
      * @return The canvas image.
      */
     BufferedImage getCanvasImage();
 
+    /**
+     * Gets the image that has been painted on this canvas for reading, without copying it if the canvas can avoid doing
+     * so. Unlike {@link #getCanvasImage()}, the returned image may be modified by subsequent changes to the canvas;
+     * callers must not modify it, nor retain it beyond the next change to the canvas.
+     * <p>
+     * The default implementation returns {@link #getCanvasImage()}.
+     *
+     * @return The canvas image.
+     */
+    default BufferedImage getLiveCanvasImage() {
+        return getCanvasImage();
+    }
+
+    /**
+     * Gets a value that increases each time the canvas image is modified (for example, by a commit, undo or redo). Two
+     * calls returning the same value indicate that the canvas image was not modified in between; this allows work
+     * computed from a snapshot of the canvas image to be discarded if the canvas has since changed.
+     * <p>
+     * The default implementation cannot detect modifications and always returns zero, in which case work computed from
+     * a snapshot is never discarded as stale.
+     *
+     * @return The modification stamp of the canvas image
+     */
+    default long getModificationStamp() {
+        return 0;
+    }
+
     /**
      * Gets the (un-scaled) dimensions of the canvas (that is, the size of the image which can be painted). This
      * dimension is unrelated to the size of the Swing component that displays/encapsulates it.
@@ -59,7 +92,9 @@ public interface PaintCanvas extends PaintSurface, ScaledLayeredImage {
 
     /**
      * Specifies the (un-scaled) size of this painting surface. This determines the size of the image that can be
-     * painted, but is unrelated to the size of Swing component that displays/encapsulates it.
+     * painted, but is unrelated to the size of Swing component that displays/encapsulates it. The canvas image and
+     * scratch buffers are allocated at this size, so very large canvases require correspondingly large amounts of
+     * memory.
      *
      * @param surfaceDimensions The dimensions of the painting surface
      */
@@ -2,12 +2,15 @@ package com.defano.jmonet.canvas;
 
 import com.defano.jmonet.canvas.layer.ImageLayer;
 import com.defano.jmonet.canvas.layer.ImageLayerSet;
-import com.defano.jmonet.context.AwtGraphicsContext;
+import com.defano.jmonet.canvas.layer.TiledBuffer;
+import com.defano.jmonet.canvas.layer.TiledGraphicsContext;
 import com.defano.jmonet.context.GraphicsContext;
+import com.defano.jmonet.model.Interpolation;
 import com.defano.jmonet.tools.base.Tool;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
 
 /**
  * A scratch buffer on which to draw ephemeral changes to the canvas.
@@ -23,26 +26,41 @@ import java.awt.image.BufferedImage;
  * graphic to the canvas using composite mode {@link AlphaComposite#SRC_OVER}; the remove scratch uses
  * {@link AlphaComposite#DST_OUT}.
  * <p>
- * The dimension of the scratch buffer always matches the dimension of the canvas, but for performance, the scratch
- * buffer manages a dirty region to paint only the portion of the buffer that the tool has modified.
+ * The dimension of the scratch buffer always matches the dimension of the canvas, but each buffer is a
+ * {@link TiledBuffer} whose tiles are allocated only where a tool draws, and the scratch manages a dirty region (a set of
+ * tiles) to paint and commit only the portions of the buffer that the tool has modified. Tools must draw only within
+ * the bounds they provide when requesting a graphics context (drawing elsewhere may be lost).
+ * <p>
+ * Layers produced by the scratch share the tiles of its buffers. Clearing the scratch erases a buffer in place (reusing
+ * a few of its tiles) only when no layer produced from it remains reachable; otherwise, the buffer is left to those
+ * layers and a spare buffer is swapped in, so a retained layer keeps the image it had when it was produced.
  */
 public class Scratch {
 
-    // Region of the addScratch and removeScratch that have been dirtied by tools (null implies no changes)
-    private Rectangle addScratchDirtyRgn;
-    private Rectangle removeScratchDirtyRgn;
+    // Maximum number of released tiles each buffer retains for reuse
+    private static final int MAX_SPARE_TILES = 16;
+
+    // Region of the addScratch and removeScratch that have been dirtied by tools
+    private DirtyRegion addScratchDirtyRgn;
+    private DirtyRegion removeScratchDirtyRgn;
+
+    // Region of either buffer dirtied since the last call to takeRecentlyDirtiedRegion() (null implies no changes)
+    private Rectangle recentlyDirtiedRgn;
 
     // Dimension of the scratch buffer
     private int width;
     private int height;
 
     // Scratch buffer data
-    private BufferedImage addScratch;
-    private BufferedImage removeScratch;
+    private final ScratchBuffer addScratch;
+    private final ScratchBuffer removeScratch;
 
     // Graphics context created from the buffers
-    private GraphicsContext addScratchGraphics;
-    private GraphicsContext removeScratchGraphics;
+    private TiledGraphicsContext addScratchGraphics;
+    private TiledGraphicsContext removeScratchGraphics;
+
+    // Anti-aliasing mode applied to each graphics context (null implies the context's default)
+    private Interpolation antialiasingMode;
 
     /**
      * Creates a scratch unbound to any tool with a given dimension.
@@ -53,6 +71,8 @@ public class Scratch {
     public Scratch(int width, int height) {
         this.width = width;
         this.height = height;
+        this.addScratch = new ScratchBuffer();
+        this.removeScratch = new ScratchBuffer();
         clear();
     }
 
@@ -66,17 +86,11 @@ public class Scratch {
         this.width = width;
         this.height = height;
 
-        BufferedImage newAddScratch = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        Graphics newAddScratchGraphics = newAddScratch.getGraphics();
-        newAddScratchGraphics.drawImage(addScratch, 0, 0, null);
-        setAddScratch(newAddScratch, null);
-        newAddScratchGraphics.dispose();
-
-        BufferedImage newRemoveScratch = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        Graphics newRemoveScratchGraphics = newRemoveScratch.getGraphics();
-        newRemoveScratchGraphics.drawImage(removeScratch, 0, 0, null);
-        setRemoveScratch(newRemoveScratch, null);
-        newRemoveScratchGraphics.dispose();
+        addScratch.resize();
+        installAddScratch(null);
+
+        removeScratch.resize();
+        installRemoveScratch(null);
     }
 
     /**
@@ -105,20 +119,23 @@ public class Scratch {
     public void clear() {
         clearAddScratch();
         clearRemoveScratch();
+        recentlyDirtiedRgn = null;
     }
 
     /**
      * Clears the remove-scratch buffer, restoring it to its original, unmodified (fully transparent) state.
      */
     public void clearRemoveScratch() {
-        setRemoveScratch(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), null);
+        removeScratch.clear();
+        installRemoveScratch(null);
     }
 
     /**
      * Clears the add-scratch buffer, restoring it to its original, unmodified (fully transparent) state.
      */
     public void clearAddScratch() {
-        setAddScratch(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), null);
+        addScratch.clear();
+        installAddScratch(null);
     }
 
     /**
@@ -155,7 +172,8 @@ public class Scratch {
      * @return The remove-scratch buffer ready for use.
      */
     public GraphicsContext getRemoveScratchGraphics(Tool tool, Shape bounds) {
-        removeScratchDirtyRgn = updateDirtiedRgn(bounds, removeScratchDirtyRgn);
+        updateDirtiedRgn(bounds, removeScratchDirtyRgn);
+        removeScratchGraphics.setDrawingBounds(getDrawingBounds(bounds));
 
         if (tool != null) {
             removeScratchGraphics.setAntialiasingMode(tool.getAttributes().getAntiAliasing());
@@ -198,7 +216,8 @@ public class Scratch {
      * @return The remove-scratch buffer ready for use.
      */
     public GraphicsContext getAddScratchGraphics(Tool tool, Shape bounds) {
-        addScratchDirtyRgn = updateDirtiedRgn(bounds, addScratchDirtyRgn);
+        updateDirtiedRgn(bounds, addScratchDirtyRgn);
+        addScratchGraphics.setDrawingBounds(getDrawingBounds(bounds));
 
         if (tool != null) {
             addScratchGraphics.setAntialiasingMode(tool.getAttributes().getAntiAliasing());
@@ -208,89 +227,93 @@ public class Scratch {
     }
 
     /**
-     * Replaces the current add-scratch buffer with a provided image. Set the buffer's clipping region to the bounds
-     * provided.
+     * Sets the anti-aliasing mode of both the add- and remove-scratch graphics contexts, including those created when
+     * the scratch is next cleared. Unlike requesting a graphics context, this does not mark any region of the buffers
+     * as dirty or written.
+     *
+     * @param antialiasingMode The anti-aliasing mode with which to draw on the scratch
+     */
+    public void setAntialiasingMode(Interpolation antialiasingMode) {
+        this.antialiasingMode = antialiasingMode;
+        addScratchGraphics.setAntialiasingMode(antialiasingMode);
+        removeScratchGraphics.setAntialiasingMode(antialiasingMode);
+    }
+
+    /**
+     * Replaces the contents of the add-scratch buffer with a provided image, drawn at the origin. The image is copied
+     * into the buffer's tiles (allocating only those where it has paint) and is not modified by the scratch.
      *
      * @param addScratch The new add-scratch image.
      * @param dirtyRgn The dirty region of the new buffer; null means no area is dirty, whereas a rectangle whose dimensions
      *             equal those of the image means the entire buffer is dirty.
      */
     public void setAddScratch(BufferedImage addScratch, Rectangle dirtyRgn) {
-        if (addScratchGraphics != null) {
-            addScratchGraphics.dispose();
-        }
-
-        this.addScratch = addScratch;
-        this.addScratchGraphics = new AwtGraphicsContext(this.addScratch.createGraphics());
-        this.addScratchDirtyRgn = dirtyRgn;
+        this.addScratch.clear().draw(new ImageLayer(new Point(), addScratch, AlphaComposite.Src), null);
+        installAddScratch(dirtyRgn);
     }
 
     /**
-     * Replaces the current remove-scratch buffer with a provided image. Sets the buffer's clipping region to the bounds
-     * of the image.
+     * Replaces the contents of the remove-scratch buffer with a provided image, drawn at the origin. The image is
+     * copied into the buffer's tiles (allocating only those where it has paint) and is not modified by the scratch.
      *
      * @param removeScratch The new remove-scratch image.
      * @param dirtyRgn The dirty region of the new buffer; null means no area is dirty, whereas a rectangle whose dimensions
      *             equal those of the image means the entire buffer is dirty.
      */
     public void setRemoveScratch(BufferedImage removeScratch, Rectangle dirtyRgn) {
-        if (removeScratchGraphics != null) {
-            removeScratchGraphics.dispose();
-        }
-
-        this.removeScratch = removeScratch;
-        this.removeScratchGraphics = new AwtGraphicsContext(this.removeScratch.createGraphics());
-        this.removeScratchDirtyRgn = dirtyRgn;
+        this.removeScratch.clear().draw(new ImageLayer(new Point(), removeScratch, AlphaComposite.Src), null);
+        installRemoveScratch(dirtyRgn);
     }
 
     /**
-     * Gets an {@link ImageLayer} representing the remove-scratch image.
+     * Gets an {@link ImageLayer} representing the dirty region of the remove-scratch image. The layer paints the
+     * buffer's tiles directly and its image is an adapter over them (see {@link TiledBuffer#asBufferedImage()}); the
+     * layer reflects subsequent drawing on the scratch, but not clearing it.
      *
      * @return The remove-scratch, as a {@link ImageLayer}
      */
     public ImageLayer getRemoveScratchLayer() {
 
-        if (removeScratchDirtyRgn == null || removeScratchDirtyRgn.isEmpty()) {
+        if (removeScratchDirtyRgn.isEmpty()) {
             return null;
         }
 
-        return new ImageLayer(
-                removeScratchDirtyRgn.getLocation(),
-                removeScratch.getSubimage(removeScratchDirtyRgn.x, removeScratchDirtyRgn.y, removeScratchDirtyRgn.width, removeScratchDirtyRgn.height),
-                AlphaComposite.getInstance(AlphaComposite.DST_OUT, 1.0f));
+        return getRemoveScratchLayer(removeScratchDirtyRgn.getBounds());
     }
 
     /**
-     * Gets an {@link ImageLayer} representing the add-scratch image.
+     * Gets an {@link ImageLayer} representing the dirty region of the add-scratch image. The layer paints the buffer's
+     * tiles directly and its image is an adapter over them (see {@link TiledBuffer#asBufferedImage()}); the layer
+     * reflects subsequent drawing on the scratch, but not clearing it.
      *
      * @return The add-scratch, as a {@link ImageLayer}
      */
     public ImageLayer getAddScratchLayer() {
 
-        if (addScratchDirtyRgn == null || addScratchDirtyRgn.isEmpty()) {
+        if (addScratchDirtyRgn.isEmpty()) {
             return null;
         }
 
-        return new ImageLayer(
-                addScratchDirtyRgn.getLocation(),
-                addScratch.getSubimage(addScratchDirtyRgn.x, addScratchDirtyRgn.y, addScratchDirtyRgn.width, addScratchDirtyRgn.height),
-                AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
+        return getAddScratchLayer(addScratchDirtyRgn.getBounds());
     }
 
     /**
-     * Gets an {@link ImageLayerSet} comprised of the add-scratch overlaid upon the remove-scratch.
+     * Gets an {@link ImageLayerSet} comprised of the add-scratch overlaid upon the remove-scratch. Each buffer
+     * contributes one layer per allocated tile within each rectangle of its dirty region, so that unmodified portions of
+     * the buffer are neither painted nor committed. The layers of the set share the tiles of the scratch buffers; they
+     * reflect subsequent drawing on the scratch, but not clearing it (see {@link Scratch}).
      *
      * @return The scratch buffer as a {@link ImageLayerSet}.
      */
     public ImageLayerSet getLayerSet() {
         ImageLayerSet imageLayerSet = new ImageLayerSet();
 
-        if (removeScratchDirtyRgn != null) {
-            imageLayerSet.addLayer(getRemoveScratchLayer());
+        for (Rectangle thisRegion : removeScratchDirtyRgn.getRectangles()) {
+            addLayers(imageLayerSet, removeScratch.getBuffer().getImageLayers(thisRegion, AlphaComposite.getInstance(AlphaComposite.DST_OUT, 1.0f)), removeScratch);
         }
 
-        if (addScratchDirtyRgn != null) {
-            imageLayerSet.addLayer(getAddScratchLayer());
+        for (Rectangle thisRegion : addScratchDirtyRgn.getRectangles()) {
+            addLayers(imageLayerSet, addScratch.getBuffer().getImageLayers(thisRegion, AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f)), addScratch);
         }
 
         return imageLayerSet;
@@ -321,15 +344,100 @@ public class Scratch {
      * @return The region of the scratch buffer that has been marked as dirty by tools.
      */
     public Rectangle getDirtyRegion() {
-        if (addScratchDirtyRgn == null) {
-            return removeScratchDirtyRgn;
+        if (addScratchDirtyRgn.isEmpty()) {
+            return removeScratchDirtyRgn.isEmpty() ? null : removeScratchDirtyRgn.getBounds();
+        }
+
+        if (removeScratchDirtyRgn.isEmpty()) {
+            return addScratchDirtyRgn.getBounds();
+        }
+
+        return addScratchDirtyRgn.getBounds().union(removeScratchDirtyRgn.getBounds());
+    }
+
+    /**
+     * Gets a rectangle identifying the region of the scratch buffer that has been dirtied since this method was last
+     * invoked (or since the scratch was last cleared); that is, the portion of the canvas that needs to be repainted to
+     * display the most recent changes made by a tool.
+     *
+     * @return The region of the scratch buffer dirtied since the last call to this method, or null if no region has
+     * been dirtied.
+     */
+    public Rectangle takeRecentlyDirtiedRegion() {
+        Rectangle recentlyDirtied = recentlyDirtiedRgn;
+        recentlyDirtiedRgn = null;
+        return recentlyDirtied;
+    }
+
+    /**
+     * Creates a new graphics context on which to draw the add-scratch buffer (tools may dispose of, or modify the state
+     * of, the context they are given), and resets its dirty region.
+     *
+     * @param dirtyRgn The dirty region of the buffer
+     */
+    private void installAddScratch(Rectangle dirtyRgn) {
+        if (addScratchGraphics != null) {
+            addScratchGraphics.dispose();
+        }
+
+        this.addScratchGraphics = this.addScratch.getBuffer().createGraphics();
+
+        if (antialiasingMode != null) {
+            this.addScratchGraphics.setAntialiasingMode(antialiasingMode);
+        }
+
+        this.addScratchDirtyRgn = new DirtyRegion(width, height);
+        updateDirtiedRgn(dirtyRgn, addScratchDirtyRgn);
+    }
+
+    /**
+     * Creates a new graphics context on which to draw the remove-scratch buffer, and resets its dirty region.
+     *
+     * @param dirtyRgn The dirty region of the buffer
+     */
+    private void installRemoveScratch(Rectangle dirtyRgn) {
+        if (removeScratchGraphics != null) {
+            removeScratchGraphics.dispose();
         }
 
-        if (removeScratchDirtyRgn == null) {
-            return addScratchDirtyRgn;
+        this.removeScratchGraphics = this.removeScratch.getBuffer().createGraphics();
+
+        if (antialiasingMode != null) {
+            this.removeScratchGraphics.setAntialiasingMode(antialiasingMode);
+        }
+
+        this.removeScratchDirtyRgn = new DirtyRegion(width, height);
+        updateDirtiedRgn(dirtyRgn, removeScratchDirtyRgn);
+    }
+
+    /**
+     * Creates a transparent buffer the size of this scratch.
+     *
+     * @return A new buffer, in which no tiles are allocated
+     */
+    private TiledBuffer newBuffer() {
+        return new TiledBuffer(width, height, TiledBuffer.DEFAULT_TILE_SIZE, MAX_SPARE_TILES);
+    }
+
+    /**
+     * Gets the region of a buffer whose tiles receive the drawing operations of a tool drawing within the given bounds;
+     * the bounds, enlarged to the tiles of the dirty region, whose pixels are painted and committed.
+     *
+     * @param bounds The bounds the tool will draw within, or null if the tool may draw anywhere
+     * @return The drawing bounds, or null to allow drawing anywhere
+     */
+    private Rectangle getDrawingBounds(Shape bounds) {
+        if (bounds == null) {
+            return null;
         }
 
-        return addScratchDirtyRgn.union(removeScratchDirtyRgn);
+        Rectangle drawn = bounds.getBounds();
+        int x1 = Math.floorDiv(drawn.x, DirtyRegion.TILE_SIZE) * DirtyRegion.TILE_SIZE;
+        int y1 = Math.floorDiv(drawn.y, DirtyRegion.TILE_SIZE) * DirtyRegion.TILE_SIZE;
+        int x2 = Math.floorDiv(drawn.x + drawn.width + DirtyRegion.TILE_SIZE - 1, DirtyRegion.TILE_SIZE) * DirtyRegion.TILE_SIZE;
+        int y2 = Math.floorDiv(drawn.y + drawn.height + DirtyRegion.TILE_SIZE - 1, DirtyRegion.TILE_SIZE) * DirtyRegion.TILE_SIZE;
+
+        return drawn.isEmpty() ? new Rectangle() : new Rectangle(x1, y1, x2 - x1, y2 - y1);
     }
 
     /**
@@ -348,22 +456,149 @@ public class Scratch {
     }
 
     /**
-     * Returns the union of the bounds of the given shape with a given dirty region rectangle, intersected by the bounds
-     * of this buffer.
+     * Adds the bounds of the given shape to a dirty region, and to the region dirtied since the last call to
+     * {@link #takeRecentlyDirtiedRegion()}.
      *
-     * @param shape   The shape representing the bounds to be added to the existing region
-     * @param dirtyRgn A rectangle identifying a region of the scratch buffer that has been dirtied
-     * @return A union of the previously dirtied region and the newly dirtied region
+     * @param shape    The shape representing the bounds to be added to the existing region, or null if no region has
+     *                 been dirtied
+     * @param dirtyRgn The dirty region of the buffer on which the shape is drawn
      */
-    private Rectangle updateDirtiedRgn(Shape shape, Rectangle dirtyRgn) {
+    private void updateDirtiedRgn(Shape shape, DirtyRegion dirtyRgn) {
         if (shape != null) {
-            if (dirtyRgn == null || dirtyRgn.isEmpty()) {
-                dirtyRgn = getBounds().intersection(shape.getBounds());
+            Rectangle dirtied = getBounds().intersection(shape.getBounds());
+
+            if (!dirtied.isEmpty()) {
+                dirtyRgn.add(dirtied);
+                recentlyDirtiedRgn = recentlyDirtiedRgn == null ? dirtied : recentlyDirtiedRgn.union(dirtied);
+            }
+        }
+    }
+
+    private ImageLayer getRemoveScratchLayer(Rectangle region) {
+        return new ScratchLayer(region, removeScratch, AlphaComposite.getInstance(AlphaComposite.DST_OUT, 1.0f));
+    }
+
+    private ImageLayer getAddScratchLayer(Rectangle region) {
+        return new ScratchLayer(region, addScratch, AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
+    }
+
+    private void addLayers(ImageLayerSet imageLayerSet, ImageLayer[] tileLayers, ScratchBuffer scratchBuffer) {
+        for (ImageLayer thisLayer : tileLayers) {
+            imageLayerSet.addLayer(new ScratchLayer(thisLayer.getLocation(), thisLayer.getImage(), thisLayer.getComposite(), scratchBuffer.lease()));
+        }
+    }
+
+    /**
+     * One of the scratch buffers, which is erased in place when cleared only if no layer produced from it remains
+     * reachable. Each layer references the lease under which it was produced; a buffer still leased when cleared is
+     * left to its layers and replaced by the spare buffer (or by a new buffer, if the spare is leased, too).
+     */
+    private class ScratchBuffer {
+
+        private TiledBuffer buffer = newBuffer();
+        private WeakReference<Object> lease = new WeakReference<>(null);
+
+        // The buffer most recently replaced, erased and reused once its layers are no longer reachable
+        private TiledBuffer spare;
+        private WeakReference<Object> spareLease;
+
+        private TiledBuffer getBuffer() {
+            return buffer;
+        }
+
+        /**
+         * Gets an object to be referenced by each layer sharing the tiles of this buffer; the buffer is not erased while
+         * the object is reachable.
+         *
+         * @return The lease of the buffer
+         */
+        private Object lease() {
+            Object lease = this.lease.get();
+
+            if (lease == null) {
+                lease = new Object();
+                this.lease = new WeakReference<>(lease);
+            }
+
+            return lease;
+        }
+
+        /**
+         * Erases this buffer, or swaps in a transparent buffer if layers produced from it remain reachable.
+         *
+         * @return The erased buffer
+         */
+        private TiledBuffer clear() {
+            if (lease.get() == null) {
+                buffer.clear(null);
+                return buffer;
+            }
+
+            TiledBuffer cleared;
+            if (spare != null && spareLease.get() == null) {
+                spare.clear(null);
+                cleared = spare;
             } else {
-                dirtyRgn = getBounds().intersection(dirtyRgn.union(shape.getBounds()));
+                cleared = newBuffer();
             }
+
+            spare = buffer;
+            spareLease = lease;
+            buffer = cleared;
+            lease = new WeakReference<>(null);
+
+            return buffer;
+        }
+
+        /**
+         * Replaces this buffer with one the size of the scratch, keeping as much of its image as possible.
+         */
+        private void resize() {
+            TiledBuffer resized = newBuffer();
+            resized.draw(buffer, null);
+
+            buffer = resized;
+            lease = new WeakReference<>(null);
+            spare = null;
         }
+    }
+
+    /**
+     * A layer sharing the tiles of one of the scratch buffers. The layer holds the lease under which it was produced,
+     * preventing the scratch from erasing the tiles while the layer is reachable.
+     */
+    private class ScratchLayer extends ImageLayer {
 
-        return dirtyRgn;
+        @SuppressWarnings({"FieldCanBeLocal", "unused"})
+        private final Object lease;
+
+        // The buffer whose region this layer paints tile-by-tile, or null if the layer's image is a piece of one tile
+        private final TiledBuffer buffer;
+
+        private ScratchLayer(Point location, BufferedImage image, Composite composite, Object lease) {
+            super(location, image, composite);
+            this.lease = lease;
+            this.buffer = null;
+        }
+
+        private ScratchLayer(Rectangle region, ScratchBuffer scratchBuffer, Composite composite) {
+            super(region.getLocation(), scratchBuffer.getBuffer().asBufferedImage().getSubimage(region.x, region.y, region.width, region.height), composite);
+            this.lease = scratchBuffer.lease();
+            this.buffer = scratchBuffer.getBuffer();
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * A layer spanning the tiles of a buffer draws only the tiles within the clipping rectangle.
+         */
+        @Override
+        public void paint(GraphicsContext g, double scale, Rectangle clip) {
+            if (buffer == null) {
+                super.paint(g, scale, clip);
+            } else {
+                buffer.paint(g, scale, clip, getBounds(), getComposite());
+            }
+        }
     }
 }
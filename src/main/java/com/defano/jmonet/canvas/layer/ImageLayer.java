@@ -64,6 +64,7 @@ public class ImageLayer {
      *              this rectangle will be drawn. When null, the entire image will be drawn.
      */
     public void paint(GraphicsContext g, double scale, Rectangle clip) {
+        BufferedImage image = getSharedImage();
         g.setComposite(composite);
 
         // When a clipping region is not specified, draw the entire image layer
@@ -107,6 +108,9 @@ public class ImageLayer {
 
     /**
      * Gets the image associated with this layer.
+     * <p>
+     * Layers whose image is shared with other layers (such as the tiles of a compacted or archived layer set) return a
+     * copy of it; modifying the returned image has no effect on such a layer.
      *
      * @return The layer's image.
      */
@@ -114,6 +118,16 @@ public class ImageLayer {
         return image;
     }
 
+    /**
+     * Gets the image drawn by this layer without copying it, even if it is shared with other layers. The returned image
+     * must not be modified.
+     *
+     * @return The layer's image.
+     */
+    BufferedImage getSharedImage() {
+        return getImage();
+    }
+
     /**
      * Gets the alpha composite mode used to overlay this image on the base.
      *
@@ -129,11 +143,27 @@ public class ImageLayer {
      * @return The image size
      */
     public Dimension getDisplayedSize() {
-        return new Dimension(location.x + image.getWidth(), location.y + image.getHeight());
+        Dimension storedSize = getStoredSize();
+        return new Dimension(location.x + storedSize.width, location.y + storedSize.height);
     }
 
+    /**
+     * Gets the dimensions of this layer's image.
+     *
+     * @return The image size
+     */
     public Dimension getStoredSize() {
         return new Dimension(image.getWidth(), image.getHeight());
     }
 
+    /**
+     * Gets the region of the destination image that this layer is drawn into; that is, a rectangle located at this
+     * layer's location and sized to its image.
+     *
+     * @return The bounds of this layer
+     */
+    public Rectangle getBounds() {
+        return new Rectangle(location, getStoredSize());
+    }
+
 }
@@ -6,7 +6,6 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * A set of images rendered by layering one atop another. Each layer specifies an {@link AlphaComposite} mode to use
@@ -16,6 +15,7 @@ public class ImageLayerSet implements LayeredImage {
 
     private final List<LayerSetObserver> observers = new ArrayList<>();
     private final List<ImageLayer> layers = new ArrayList<>();
+    private long modificationStamp;
 
     /**
      * Constructs an empty ImageLayerSet.
@@ -50,9 +50,22 @@ public class ImageLayerSet implements LayeredImage {
      */
     public void addLayer(ImageLayer layer) {
         layers.add(layer);
+        modificationStamp++;
         fireLayerSetObservers();
     }
 
+    /**
+     * Replaces the layers of this LayerSet with an equivalent set of layers (i.e., layers that produce the same image
+     * when painted), as when compacting the set for storage. Observers are not notified as the image represented by
+     * this set is unchanged.
+     *
+     * @param equivalentLayers The layers that replace the existing layers of this set.
+     */
+    void replaceLayers(List<ImageLayer> equivalentLayers) {
+        layers.clear();
+        layers.addAll(equivalentLayers);
+    }
+
     /**
      * The number of layers in this LayerSet.
      *
@@ -70,6 +83,35 @@ public class ImageLayerSet implements LayeredImage {
         return layers.toArray(new ImageLayer[0]);
     }
 
+    /**
+     * Gets a value that increases each time a layer is added to this set. Two calls returning the same value indicate
+     * that the set produces the same image in both cases (replacing layers with equivalent layers does not change the
+     * stamp).
+     *
+     * @return The modification stamp of this set
+     */
+    public long getModificationStamp() {
+        return modificationStamp;
+    }
+
+    /**
+     * Calculates the smallest rectangle enclosing every layer in this set; the region of the destination image that may
+     * be modified by drawing this set.
+     *
+     * @return The bounds of this layer set; an empty rectangle if this set contains no layers.
+     */
+    public Rectangle getBounds() {
+        Rectangle bounds = null;
+
+        for (ImageLayer thisLayer : layers) {
+            if (thisLayer != null) {
+                bounds = bounds == null ? thisLayer.getBounds() : bounds.union(thisLayer.getBounds());
+            }
+        }
+
+        return bounds == null ? new Rectangle() : bounds;
+    }
+
     /**
      * Adds an observer to this ChangeSet to notify listeners of new changes added to it.
      *
@@ -95,12 +137,12 @@ public class ImageLayerSet implements LayeredImage {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ImageLayerSet imageLayerSet = (ImageLayerSet) o;
-        return imageLayerSet.hashCode() == hashCode();
+        return layers.equals(imageLayerSet.layers);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(layers.toArray());
+        return layers.hashCode();
     }
 
     private void fireLayerSetObservers() {
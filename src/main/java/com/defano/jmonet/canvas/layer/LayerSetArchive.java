@@ -0,0 +1,421 @@
+package com.defano.jmonet.canvas.layer;
+
+import com.defano.jmonet.tools.util.ImageUtils;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Limits the amount of memory consumed by a history of {@link ImageLayerSet}s (i.e., an undo buffer) by archiving the
+ * layers of older sets.
+ * <p>
+ * When the history exceeds its memory budget, the oldest layer sets are first compressed losslessly in memory; if the
+ * budget is still exceeded, their compressed pixels are then spilled to a temporary file. Archived layers are
+ * restored on demand when painted (and are retained in memory only for as long as memory is not needed elsewhere), so
+ * archiving a layer set never changes the image it produces.
+ */
+public class LayerSetArchive {
+
+    private final long memoryBudget;
+
+    // Temporary file holding spilled rasters, created on first use; regions freed by released rasters are reused
+    private File spillFile;
+    private RandomAccessFile spill;
+    private long spillLength;
+    private final TreeMap<Long, Integer> freeExtents = new TreeMap<>();
+
+    // Compressed raster of each image archived so far, so that layer sets sharing an image (or a tile of one) share
+    // its compressed raster, too. BufferedImage does not override equals(), so images are keyed by identity; entries
+    // are dropped once no layer set retains the image.
+    private final Map<BufferedImage, ArchivedRaster> archivedRasters = new WeakHashMap<>();
+
+    /**
+     * Creates an archive that limits a layer set history to a given number of bytes.
+     *
+     * @param memoryBudget The maximum number of bytes of pixel data the history should retain in memory; use
+     *                     {@link Long#MAX_VALUE} to never archive.
+     */
+    public LayerSetArchive(long memoryBudget) {
+        this.memoryBudget = Math.max(0, memoryBudget);
+    }
+
+    /**
+     * Gets the number of bytes of pixel data the history is permitted to retain in memory.
+     *
+     * @return The memory budget, in bytes.
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Calculates the number of bytes of pixel data retained in memory by the given history: the size of each
+     * un-archived layer's raster plus the size of each compressed, un-spilled layer. Images and compressed rasters
+     * shared by several layers (in the same or in different layer sets) are counted once.
+     *
+     * @param history The layer sets whose memory use should be calculated.
+     * @return The memory used by the history, in bytes.
+     */
+    public long getMemoryUsage(List<ImageLayerSet> history) {
+        Map<Object, Boolean> counted = new IdentityHashMap<>();
+        long usage = 0;
+
+        for (ImageLayerSet thisLayerSet : history) {
+            usage += getMemoryUsage(thisLayerSet, counted);
+        }
+
+        return usage;
+    }
+
+    /**
+     * Archives the oldest layer sets in a history until its memory usage is within budget, or until no further layer
+     * sets may be archived. Layer sets are compressed in memory before any is spilled to disk.
+     *
+     * @param history  The history of layer sets, ordered oldest first.
+     * @param retained The number of newest layer sets in the history that should never be archived.
+     */
+    public void enforceBudget(List<ImageLayerSet> history, int retained) {
+        if (memoryBudget == Long.MAX_VALUE) {
+            return;
+        }
+
+        // Usage is recalculated after archiving each layer set; an image shared with another layer set remains in
+        // memory until every layer set sharing it has been archived
+        List<ImageLayerSet> archivable = history.subList(0, Math.max(0, history.size() - retained));
+
+        for (int index = 0; index < archivable.size() && getMemoryUsage(history) > memoryBudget; index++) {
+            compress(archivable.get(index));
+        }
+
+        for (int index = 0; index < archivable.size() && getMemoryUsage(history) > memoryBudget; index++) {
+            spill(archivable.get(index));
+        }
+    }
+
+    /**
+     * Indicates that a layer set has left the history (i.e., has been evicted from an undo buffer). Any pixels it
+     * spilled to disk are read back into memory in compressed form, freeing the space they occupied on disk. Pixels
+     * shared with layer sets remaining in the history are thus held in memory until the budget is next enforced.
+     *
+     * @param layerSet The layer set that is no longer part of the history.
+     */
+    public void release(ImageLayerSet layerSet) {
+        for (ArchivedRaster thisRaster : getArchivedRasters(layerSet)) {
+            thisRaster.unspill();
+        }
+    }
+
+    /**
+     * Deletes the temporary file used to hold spilled layers. Any layer sets that remain spilled to disk can no longer
+     * be restored once this archive has been closed.
+     */
+    public void close() {
+        if (spill != null) {
+            try {
+                spill.close();
+            } catch (IOException ignored) {
+                // Nothing to do
+            }
+
+            //noinspection ResultOfMethodCallIgnored
+            spillFile.delete();
+            spill = null;
+        }
+    }
+
+    /**
+     * Gets the length of the temporary file used to hold spilled layers.
+     *
+     * @return The length of the spill file, in bytes, or zero if no layer has been spilled.
+     * @throws IOException If the length of the file cannot be determined
+     */
+    long getSpillFileLength() throws IOException {
+        return spill == null ? 0 : spill.length();
+    }
+
+    /**
+     * Replaces each un-archived ARGB layer in the given set with an equivalent layer whose pixels are compressed in
+     * memory. Layers sharing the same image, in this or any previously compressed layer set, share the same compressed
+     * raster.
+     *
+     * @param layerSet The layer set to compress
+     */
+    private void compress(ImageLayerSet layerSet) {
+        List<ImageLayer> compressed = new ArrayList<>();
+
+        for (ImageLayer thisLayer : layerSet.getImageLayers()) {
+            if (thisLayer == null || thisLayer instanceof ArchivedImageLayer ||
+                    thisLayer.getSharedImage().getType() != BufferedImage.TYPE_INT_ARGB) {
+                compressed.add(thisLayer);
+            } else {
+                ArchivedRaster raster = archivedRasters.computeIfAbsent(thisLayer.getSharedImage(), ArchivedRaster::new);
+                compressed.add(new ArchivedImageLayer(thisLayer.getLocation(), raster, thisLayer.getComposite()));
+            }
+        }
+
+        layerSet.replaceLayers(compressed);
+    }
+
+    /**
+     * Writes the compressed pixels of each archived layer in a set to disk, releasing them from memory. Has no effect
+     * if a temporary file cannot be written, in which case the compressed pixels remain in memory.
+     *
+     * @param layerSet The layer set to spill
+     */
+    private void spill(ImageLayerSet layerSet) {
+        for (ArchivedRaster thisRaster : getArchivedRasters(layerSet)) {
+            if (!thisRaster.spill()) {
+                return;
+            }
+        }
+    }
+
+    private long getMemoryUsage(ImageLayerSet layerSet, Map<Object, Boolean> counted) {
+        long usage = 0;
+
+        for (ImageLayer thisLayer : layerSet.getImageLayers()) {
+            if (thisLayer instanceof ArchivedImageLayer) {
+                ArchivedRaster raster = ((ArchivedImageLayer) thisLayer).raster;
+                if (counted.put(raster, true) == null) {
+                    usage += raster.getMemoryUsage();
+                }
+            } else if (thisLayer != null && counted.put(thisLayer.getSharedImage(), true) == null) {
+                usage += 4L * thisLayer.getStoredSize().width * thisLayer.getStoredSize().height;
+            }
+        }
+
+        return usage;
+    }
+
+    private List<ArchivedRaster> getArchivedRasters(ImageLayerSet layerSet) {
+        Map<ArchivedRaster, Boolean> rasters = new IdentityHashMap<>();
+        for (ImageLayer thisLayer : layerSet.getImageLayers()) {
+            if (thisLayer instanceof ArchivedImageLayer) {
+                rasters.put(((ArchivedImageLayer) thisLayer).raster, true);
+            }
+        }
+
+        return new ArrayList<>(rasters.keySet());
+    }
+
+    /**
+     * Reserves a region of the spill file large enough to hold the given number of bytes, reusing a previously freed
+     * region when one is large enough.
+     *
+     * @param length The number of bytes to reserve
+     * @return The offset into the spill file of the reserved region
+     * @throws IOException If the spill file cannot be created
+     */
+    private long allocate(int length) throws IOException {
+        if (spill == null) {
+            spillFile = File.createTempFile("jmonet-undo", ".tmp");
+            spillFile.deleteOnExit();
+            spill = new RandomAccessFile(spillFile, "rw");
+        }
+
+        for (Map.Entry<Long, Integer> thisExtent : freeExtents.entrySet()) {
+            if (thisExtent.getValue() >= length) {
+                freeExtents.remove(thisExtent.getKey());
+                if (thisExtent.getValue() > length) {
+                    freeExtents.put(thisExtent.getKey() + length, thisExtent.getValue() - length);
+                }
+                return thisExtent.getKey();
+            }
+        }
+
+        spillLength += length;
+        return spillLength - length;
+    }
+
+    /**
+     * Returns a region of the spill file to the pool of free regions, coalescing it with adjacent free regions.
+     *
+     * @param offset The offset of the region
+     * @param length The length of the region
+     */
+    private void free(long offset, int length) {
+        Map.Entry<Long, Integer> previous = freeExtents.lowerEntry(offset);
+        if (previous != null && previous.getKey() + previous.getValue() == offset) {
+            freeExtents.remove(previous.getKey());
+            offset = previous.getKey();
+            length += previous.getValue();
+        }
+
+        Integer next = freeExtents.remove(offset + length);
+        if (next != null) {
+            length += next;
+        }
+
+        // Trailing free space is returned by shrinking the file
+        if (offset + length == spillLength) {
+            spillLength = offset;
+            try {
+                spill.setLength(spillLength);
+            } catch (IOException ignored) {
+                // File keeps its length; the space beyond spillLength is reused by the next allocation
+            }
+        } else {
+            freeExtents.put(offset, length);
+        }
+    }
+
+    private static byte[] deflate(BufferedImage image) {
+        int[] pixels = (int[]) image.getRaster().getDataElements(0, 0, image.getWidth(), image.getHeight(), null);
+        ByteBuffer bytes = ByteBuffer.allocate(pixels.length * 4);
+        bytes.asIntBuffer().put(pixels);
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        deflater.setInput(bytes.array());
+        deflater.finish();
+
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            deflated.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+
+        return deflated.toByteArray();
+    }
+
+    private static BufferedImage inflate(byte[] deflated, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        byte[] bytes = new byte[width * height * 4];
+
+        Inflater inflater = new Inflater();
+        inflater.setInput(deflated);
+        try {
+            int inflatedLength = 0;
+            while (inflatedLength < bytes.length && !inflater.finished()) {
+                inflatedLength += inflater.inflate(bytes, inflatedLength, bytes.length - inflatedLength);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Archived layer is corrupt.", e);
+        } finally {
+            inflater.end();
+        }
+
+        ByteBuffer.wrap(bytes).asIntBuffer().get(((DataBufferInt) image.getRaster().getDataBuffer()).getData());
+        return image;
+    }
+
+    /**
+     * The losslessly compressed pixels of an archived image; held in memory or spilled to the archive's temporary file.
+     */
+    private class ArchivedRaster {
+        private final int width;
+        private final int height;
+
+        private byte[] deflated;            // Compressed pixels; null while spilled
+        private long spillOffset;           // Location of the compressed pixels in the spill file, when spilled
+        private int spillLength;
+
+        // Most recently restored image; retained only until memory is needed elsewhere
+        private SoftReference<BufferedImage> restored;
+
+        private ArchivedRaster(BufferedImage image) {
+            this.width = image.getWidth();
+            this.height = image.getHeight();
+            this.deflated = deflate(image);
+        }
+
+        private BufferedImage restore() {
+            BufferedImage image = restored == null ? null : restored.get();
+
+            if (image == null) {
+                image = inflate(deflated == null ? read() : deflated, width, height);
+                restored = new SoftReference<>(image);
+            }
+
+            return image;
+        }
+
+        private long getMemoryUsage() {
+            return deflated == null ? 0 : deflated.length;
+        }
+
+        private boolean spill() {
+            if (deflated != null) {
+                try {
+                    long offset = allocate(deflated.length);
+                    spill.seek(offset);
+                    spill.write(deflated);
+
+                    spillOffset = offset;
+                    spillLength = deflated.length;
+                    deflated = null;
+                } catch (IOException e) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private void unspill() {
+            if (deflated == null) {
+                deflated = read();
+                free(spillOffset, spillLength);
+            }
+        }
+
+        private byte[] read() {
+            if (spill == null) {
+                throw new IllegalStateException("Unable to restore archived layer; the archive has been closed.");
+            }
+
+            try {
+                byte[] bytes = new byte[spillLength];
+                spill.seek(spillOffset);
+                spill.readFully(bytes);
+                return bytes;
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to restore archived layer.", e);
+            }
+        }
+    }
+
+    /**
+     * An image layer whose pixels are held by an {@link ArchivedRaster} and restored when needed. The restored image is
+     * shared by every layer archived from the same image, so it is copied when accessed.
+     */
+    private static class ArchivedImageLayer extends ImageLayer {
+        private final ArchivedRaster raster;
+
+        private ArchivedImageLayer(Point location, ArchivedRaster raster, Composite composite) {
+            super(location, null, composite);
+            this.raster = raster;
+        }
+
+        @Override
+        public BufferedImage getImage() {
+            return ImageUtils.copy(raster.restore());
+        }
+
+        @Override
+        BufferedImage getSharedImage() {
+            return raster.restore();
+        }
+
+        @Override
+        public Dimension getStoredSize() {
+            return new Dimension(raster.width, raster.height);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.defano.jmonet.canvas.layer;
+
+import com.defano.jmonet.tools.util.ImageUtils;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compacts the layers of an {@link ImageLayerSet} into fixed-size tiles for long-term storage (i.e., in an undo
+ * buffer).
+ * <p>
+ * Layers produced by the paint tools are frequently much larger than the change they represent (a flood fill or image
+ * transform produces a canvas-sized layer; a scratch layer retains the tile of the scratch buffer it was cut from). Splitting
+ * each layer into tiles allows this store to discard tiles that have no effect on the image beneath them, and to share
+ * a single raster amongst all tiles with identical content (like the interior of a filled region).
+ * <p>
+ * Compacting a layer set does not change the image it produces when painted; tiles are drawn at the same location,
+ * with the same composite, as the pixels they were cut from. Tiles are retained only for as long as some layer set
+ * references them.
+ * <p>
+ * Tiles are read-only: {@link ImageLayer#getImage()} returns a copy of a tile layer's image, so modifying it cannot
+ * affect the (possibly many) layer sets sharing the tile. Compacted layer sets should be treated as immutable.
+ */
+public class LayerTileStore {
+
+    /**
+     * The default width and height of a tile, in pixels.
+     */
+    public static final int DEFAULT_TILE_SIZE = 64;
+
+    private final int tileSize;
+
+    // Previously stored tiles keyed by content hash; weakly referenced so tiles are reclaimed once no layer uses them
+    private final Map<Integer, List<TileReference>> tiles = new HashMap<>();
+    private final ReferenceQueue<BufferedImage> reclaimedTiles = new ReferenceQueue<>();
+
+    /**
+     * Creates a tile store using the default tile size.
+     */
+    public LayerTileStore() {
+        this(DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Creates a tile store that splits layers into tiles of a given size.
+     *
+     * @param tileSize The width and height of each tile, in pixels.
+     */
+    public LayerTileStore(int tileSize) {
+        this.tileSize = Math.max(1, tileSize);
+    }
+
+    /**
+     * Gets the width and height of the tiles produced by this store.
+     *
+     * @return The tile size, in pixels.
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Replaces the layers of the given layer set with equivalent, tiled layers. Layers whose image or composite cannot
+     * be tiled without affecting the rendered result are left as-is. The pixels of the tiled layers cannot be modified
+     * (see {@link ImageLayer#getImage()}).
+     *
+     * @param imageLayerSet The layer set to compact.
+     */
+    public void compact(ImageLayerSet imageLayerSet) {
+        purgeReclaimedTiles();
+
+        List<ImageLayer> compacted = new ArrayList<>();
+        for (ImageLayer thisLayer : imageLayerSet.getImageLayers()) {
+            if (thisLayer == null || !isTileable(thisLayer)) {
+                compacted.add(thisLayer);
+            } else {
+                compacted.addAll(tile(thisLayer));
+            }
+        }
+
+        imageLayerSet.replaceLayers(compacted);
+    }
+
+    /**
+     * Splits a single layer into tiles, discarding those whose pixels are all fully transparent.
+     *
+     * @param layer The layer to split
+     * @return The tiled layers that, when drawn in order, produce the same result as the given layer.
+     */
+    private List<ImageLayer> tile(ImageLayer layer) {
+        List<ImageLayer> tiledLayers = new ArrayList<>();
+        BufferedImage image = layer.getSharedImage();
+        int[] pixels = new int[tileSize * tileSize];
+
+        for (int tileY = 0; tileY < image.getHeight(); tileY += tileSize) {
+            for (int tileX = 0; tileX < image.getWidth(); tileX += tileSize) {
+                int width = Math.min(tileSize, image.getWidth() - tileX);
+                int height = Math.min(tileSize, image.getHeight() - tileY);
+                int length = width * height;
+
+                image.getRaster().getDataElements(tileX, tileY, width, height, pixels);
+
+                if (!isTransparent(pixels, length)) {
+                    tiledLayers.add(new TileLayer(
+                            new Point(layer.getLocation().x + tileX, layer.getLocation().y + tileY),
+                            getTile(pixels, width, height),
+                            layer.getComposite()));
+                }
+            }
+        }
+
+        return tiledLayers;
+    }
+
+    /**
+     * Gets an image containing the given pixels, reusing a previously stored tile of identical content when one exists.
+     *
+     * @param pixels The ARGB pixels of the tile, in row-major order (only the first width * height elements are used)
+     * @param width  The width of the tile
+     * @param height The height of the tile
+     * @return An image of the tile; may be shared with other layers and must not be modified.
+     */
+    private BufferedImage getTile(int[] pixels, int width, int height) {
+        int length = width * height;
+        int hash = 31 * (31 * width + height) + hashPixels(pixels, length);
+
+        List<TileReference> candidates = tiles.computeIfAbsent(hash, k -> new ArrayList<>());
+        for (TileReference thisCandidate : candidates) {
+            BufferedImage candidate = thisCandidate.get();
+            if (candidate != null && candidate.getWidth() == width && candidate.getHeight() == height &&
+                    isEqual(getPixels(candidate), pixels, length)) {
+                return candidate;
+            }
+        }
+
+        BufferedImage tile = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        System.arraycopy(pixels, 0, getPixels(tile), 0, length);
+        candidates.add(new TileReference(tile, hash, reclaimedTiles));
+
+        return tile;
+    }
+
+    /**
+     * Removes map entries for tiles that are no longer referenced by any layer.
+     */
+    private void purgeReclaimedTiles() {
+        TileReference reclaimed;
+        while ((reclaimed = (TileReference) reclaimedTiles.poll()) != null) {
+            List<TileReference> candidates = tiles.get(reclaimed.hash);
+            if (candidates != null) {
+                candidates.remove(reclaimed);
+                if (candidates.isEmpty()) {
+                    tiles.remove(reclaimed.hash);
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines if a layer can be tiled without changing the image it produces. Tiles are produced only from ARGB
+     * images (whose pixels can be copied without color conversion) drawn with composite modes for which a fully
+     * transparent source pixel leaves the destination unchanged.
+     *
+     * @param layer The layer to test
+     * @return True if the layer can be tiled; false otherwise.
+     */
+    private boolean isTileable(ImageLayer layer) {
+        if (layer.getSharedImage().getType() != BufferedImage.TYPE_INT_ARGB || !(layer.getComposite() instanceof AlphaComposite)) {
+            return false;
+        }
+
+        int rule = ((AlphaComposite) layer.getComposite()).getRule();
+        return rule == AlphaComposite.SRC_OVER || rule == AlphaComposite.DST_OUT;
+    }
+
+    private static boolean isTransparent(int[] pixels, int length) {
+        for (int index = 0; index < length; index++) {
+            if ((pixels[index] & 0xff000000) != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isEqual(int[] a, int[] b, int length) {
+        for (int index = 0; index < length; index++) {
+            if (a[index] != b[index]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int hashPixels(int[] pixels, int length) {
+        int hash = 1;
+        for (int index = 0; index < length; index++) {
+            hash = 31 * hash + pixels[index];
+        }
+
+        return hash;
+    }
+
+    private static int[] getPixels(BufferedImage tile) {
+        return ((DataBufferInt) tile.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * A layer drawing a stored tile, which may be shared with other layers; its image is copied when accessed so that
+     * the tile cannot be modified.
+     */
+    private static class TileLayer extends ImageLayer {
+
+        private TileLayer(Point location, BufferedImage tile, Composite composite) {
+            super(location, tile, composite);
+        }
+
+        @Override
+        public BufferedImage getImage() {
+            return ImageUtils.copy(super.getImage());
+        }
+
+        @Override
+        BufferedImage getSharedImage() {
+            return super.getImage();
+        }
+    }
+
+    /**
+     * A weak reference to a stored tile that remembers the hash under which it was stored.
+     */
+    private static class TileReference extends WeakReference<BufferedImage> {
+        private final int hash;
+
+        private TileReference(BufferedImage tile, int hash, ReferenceQueue<BufferedImage> queue) {
+            super(tile, queue);
+            this.hash = hash;
+        }
+    }
+}
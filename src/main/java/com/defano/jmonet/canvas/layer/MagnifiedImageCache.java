@@ -0,0 +1,351 @@
+package com.defano.jmonet.canvas.layer;
+
+import com.defano.jmonet.context.GraphicsContext;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of magnified (zoomed-in) renderings of an image, used to paint the image at an integral scale greater than
+ * 1.0 without re-scaling it on every paint.
+ * <p>
+ * The magnified image is divided into fixed-size tiles (measured in magnified pixels) which are rendered lazily, as they
+ * are painted, and retained in least-recently-used order up to a maximum number of tiles; memory consumed by the cache
+ * is therefore bound by what is painted, not by the size of the magnified image. The image may be a
+ * {@link BufferedImage} or a {@link TiledBuffer}, whose tiles are magnified without being assembled into a contiguous
+ * image. The cache holds renderings of a single image at a single scale. Requesting a layer for any other image or scale discards every cached tile, as does
+ * invalidating the cache. When pixels of the image are modified in place, the modified region must be invalidated via
+ * {@link #invalidate(Rectangle)}.
+ */
+public class MagnifiedImageCache {
+
+    /**
+     * The default width and height of a cached tile, in magnified pixels.
+     */
+    public static final int DEFAULT_TILE_SIZE = 256;
+
+    /**
+     * The default maximum number of tiles retained by the cache.
+     */
+    public static final int DEFAULT_MAX_TILES = 128;
+
+    private final int tileSize;
+    private final int maxTiles;
+
+    // Magnified tiles keyed by tile column and row, in least- to most-recently used order
+    private final LinkedHashMap<Point, BufferedImage> tiles;
+
+    // The cached image; either a BufferedImage or a TiledBuffer
+    private Object source;
+    private Rectangle sourceBounds;
+    private int scale;
+
+    /**
+     * Creates an empty cache using the default tile size and maximum tile count.
+     */
+    public MagnifiedImageCache() {
+        this(DEFAULT_TILE_SIZE, DEFAULT_MAX_TILES);
+    }
+
+    /**
+     * Creates an empty cache with the given tile size and maximum tile count.
+     *
+     * @param tileSize The width and height of each tile, in magnified pixels
+     * @param maxTiles The maximum number of tiles to retain; least recently painted tiles are discarded first.
+     */
+    public MagnifiedImageCache(int tileSize, int maxTiles) {
+        this.tileSize = Math.max(1, tileSize);
+        this.maxTiles = Math.max(1, maxTiles);
+        this.tiles = new LinkedHashMap<Point, BufferedImage>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Point, BufferedImage> eldest) {
+                return size() > MagnifiedImageCache.this.maxTiles;
+            }
+        };
+    }
+
+    /**
+     * Gets an image layer that draws the given image at its origin, painting from this cache when drawn at the given
+     * scale. The layer behaves exactly like {@link ImageLayer#ImageLayer(BufferedImage)}; when painted at any other
+     * scale (or at a scale that is not a whole number) it is drawn without use of the cache.
+     * <p>
+     * If the image or scale differs from that of the layer previously returned by this method, all cached tiles are
+     * discarded.
+     *
+     * @param image The image to draw
+     * @param scale The scale at which the layer is expected to be painted
+     * @return An image layer that paints the image from this cache
+     */
+    public synchronized ImageLayer getImageLayer(BufferedImage image, double scale) {
+        return new MagnifiedImageLayer(image, null, cache(image, new Rectangle(0, 0, image.getWidth(), image.getHeight()), scale));
+    }
+
+    /**
+     * Gets an image layer that draws the given tiled buffer at its origin, painting from this cache when drawn at the
+     * given scale. When painted at any other scale (or at a scale that is not a whole number) the layer paints the
+     * buffer tile-by-tile, as does {@link TiledBuffer#getImageLayer()}.
+     * <p>
+     * If the buffer or scale differs from that of the layer previously returned by this method, all cached tiles are
+     * discarded.
+     *
+     * @param buffer The buffer to draw
+     * @param scale  The scale at which the layer is expected to be painted
+     * @return An image layer that paints the buffer from this cache
+     */
+    public synchronized ImageLayer getImageLayer(TiledBuffer buffer, double scale) {
+        return new MagnifiedImageLayer(buffer.asBufferedImage(), buffer, cache(buffer, buffer.getBounds(), scale));
+    }
+
+    /**
+     * Discards cached tiles that render any portion of a region of the image, following a modification of the image's
+     * pixels within that region.
+     *
+     * @param region The modified region of the image, in unscaled (image) coordinates; null invalidates the entire image.
+     */
+    public synchronized void invalidate(Rectangle region) {
+        if (region == null || scale == 0) {
+            tiles.clear();
+        } else if (!region.isEmpty()) {
+            Rectangle magnified = new Rectangle(region.x * scale, region.y * scale, region.width * scale, region.height * scale);
+            tiles.keySet().removeIf(key -> getTileBounds(key.x, key.y).intersects(magnified));
+        }
+    }
+
+    /**
+     * Discards every cached tile, and the reference to the cached image.
+     */
+    public synchronized void clear() {
+        tiles.clear();
+        source = null;
+        sourceBounds = null;
+        scale = 0;
+    }
+
+    /**
+     * Gets the number of tiles presently cached.
+     *
+     * @return The number of cached tiles
+     */
+    public synchronized int getTileCount() {
+        return tiles.size();
+    }
+
+    /**
+     * Draws the portion of the magnified image bounded by a region of magnified coordinates onto a graphics context,
+     * rendering (and caching) any tiles not already cached.
+     *
+     * @param layer     The layer being painted; the image and scale of this layer must be those of the cache.
+     * @param g         The graphics context on which to draw
+     * @param region    The region of the magnified image to draw
+     * @param dx        The x coordinate on the graphics context where the region's left edge is drawn
+     * @param dy        The y coordinate on the graphics context where the region's top edge is drawn
+     * @return False if the layer's image or scale no longer matches the cache (and nothing was drawn); true otherwise.
+     */
+    private synchronized boolean paint(MagnifiedImageLayer layer, GraphicsContext g, Rectangle region, int dx, int dy) {
+        if (layer.getSource() != source || layer.magnification != scale) {
+            return false;
+        }
+
+        for (int row = region.y / tileSize; row <= (region.y + region.height - 1) / tileSize; row++) {
+            for (int column = region.x / tileSize; column <= (region.x + region.width - 1) / tileSize; column++) {
+                Rectangle tileBounds = getTileBounds(column, row);
+                Rectangle drawn = tileBounds.intersection(region);
+
+                if (!drawn.isEmpty()) {
+                    BufferedImage tile = getTile(column, row, tileBounds);
+                    int tx = drawn.x - tileBounds.x;
+                    int ty = drawn.y - tileBounds.y;
+                    int x = dx + drawn.x - region.x;
+                    int y = dy + drawn.y - region.y;
+
+                    g.drawImage(tile, x, y, x + drawn.width, y + drawn.height, tx, ty, tx + drawn.width, ty + drawn.height, null);
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the cached tile at the given column and row, rendering it if it is not cached.
+     *
+     * @param column     The tile column
+     * @param row        The tile row
+     * @param tileBounds The bounds of the tile, in magnified coordinates
+     * @return The magnified tile
+     */
+    private BufferedImage getTile(int column, int row, Rectangle tileBounds) {
+        Point key = new Point(column, row);
+        BufferedImage tile = tiles.get(key);
+
+        if (tile == null) {
+            tile = new BufferedImage(tileBounds.width, tileBounds.height, BufferedImage.TYPE_INT_ARGB);
+
+            // Source pixels covering the tile; those at the edges may only partially fall within it
+            int sx1 = tileBounds.x / scale;
+            int sy1 = tileBounds.y / scale;
+            int sx2 = (tileBounds.x + tileBounds.width + scale - 1) / scale;
+            int sy2 = (tileBounds.y + tileBounds.height + scale - 1) / scale;
+
+            Graphics2D g = tile.createGraphics();
+            g.setComposite(AlphaComposite.Src);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+
+            if (source instanceof TiledBuffer) {
+                magnifyTiles(g, (TiledBuffer) source, new Rectangle(sx1, sy1, sx2 - sx1, sy2 - sy1), tileBounds);
+            } else {
+                g.drawImage((BufferedImage) source,
+                        sx1 * scale - tileBounds.x, sy1 * scale - tileBounds.y,
+                        sx2 * scale - tileBounds.x, sy2 * scale - tileBounds.y,
+                        sx1, sy1, sx2, sy2, null);
+            }
+
+            g.dispose();
+
+            tiles.put(key, tile);
+        }
+
+        return tile;
+    }
+
+    /**
+     * Draws the magnified pixels of a region of a tiled buffer onto a cached tile, one buffer tile at a time; unallocated
+     * (transparent) buffer tiles are skipped.
+     *
+     * @param g          The graphics context of the cached tile, which has been erased
+     * @param buffer     The buffer to magnify
+     * @param region     The region of the buffer covering the cached tile
+     * @param tileBounds The bounds of the cached tile, in magnified coordinates
+     */
+    private void magnifyTiles(Graphics2D g, TiledBuffer buffer, Rectangle region, Rectangle tileBounds) {
+        int bufferTileSize = buffer.getTileSize();
+
+        for (int row = region.y / bufferTileSize; row <= (region.y + region.height - 1) / bufferTileSize; row++) {
+            for (int column = region.x / bufferTileSize; column <= (region.x + region.width - 1) / bufferTileSize; column++) {
+                BufferedImage bufferTile = buffer.getTile(column, row);
+
+                if (bufferTile != null) {
+                    Rectangle bufferTileBounds = buffer.getTileBounds(column, row);
+                    Rectangle drawn = region.intersection(bufferTileBounds);
+
+                    g.drawImage(bufferTile,
+                            drawn.x * scale - tileBounds.x, drawn.y * scale - tileBounds.y,
+                            (drawn.x + drawn.width) * scale - tileBounds.x, (drawn.y + drawn.height) * scale - tileBounds.y,
+                            drawn.x - bufferTileBounds.x, drawn.y - bufferTileBounds.y,
+                            drawn.x + drawn.width - bufferTileBounds.x, drawn.y + drawn.height - bufferTileBounds.y,
+                            null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes an image and scale those of the cache, discarding every cached tile if either differs from those presently
+     * cached.
+     *
+     * @param image  The image to cache; a BufferedImage or TiledBuffer
+     * @param bounds The bounds of the image
+     * @param scale  The scale at which the image is expected to be painted
+     * @return The magnification at which the image is cached; 0 if the scale is not integral
+     */
+    private int cache(Object image, Rectangle bounds, double scale) {
+        int magnification = isIntegral(scale) ? (int) scale : 0;
+
+        if (image != source || magnification != this.scale) {
+            tiles.clear();
+            this.source = image;
+            this.sourceBounds = bounds;
+            this.scale = magnification;
+        }
+
+        return magnification;
+    }
+
+    /**
+     * Gets the bounds of a tile, in magnified coordinates, trimmed to the bounds of the magnified image.
+     *
+     * @param column The tile column
+     * @param row    The tile row
+     * @return The tile's bounds
+     */
+    private Rectangle getTileBounds(int column, int row) {
+        return new Rectangle(column * tileSize, row * tileSize, tileSize, tileSize)
+                .intersection(new Rectangle(0, 0, sourceBounds.width * scale, sourceBounds.height * scale));
+    }
+
+    private static boolean isIntegral(double scale) {
+        return scale > 1 && scale == Math.rint(scale) && scale <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * An image layer drawn at the origin with {@link AlphaComposite#SRC_OVER} that paints from the cache when drawn at
+     * the cached scale.
+     */
+    private class MagnifiedImageLayer extends ImageLayer {
+
+        private final TiledBuffer buffer;
+        private final int magnification;
+
+        private MagnifiedImageLayer(BufferedImage image, TiledBuffer buffer, int magnification) {
+            super(image);
+            this.buffer = buffer;
+            this.magnification = magnification;
+        }
+
+        private Object getSource() {
+            return buffer == null ? getSharedImage() : buffer;
+        }
+
+        private void paintUncached(GraphicsContext g, double scale, Rectangle clip) {
+            if (buffer == null) {
+                super.paint(g, scale, clip);
+            } else {
+                buffer.paint(g, scale, clip, buffer.getBounds(), getComposite());
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * Produces the same pixels as {@link ImageLayer#paint(GraphicsContext, double, Rectangle)} draws with
+         * nearest-neighbor interpolation, but copies them from cached, pre-magnified tiles.
+         */
+        @Override
+        public void paint(GraphicsContext g, double scale, Rectangle clip) {
+            if (clip == null || magnification == 0 || scale != magnification) {
+                paintUncached(g, scale, clip);
+                return;
+            }
+
+            BufferedImage image = getSharedImage();
+            g.setComposite(getComposite());
+
+            // Mirror the source and destination geometry of ImageLayer#paint for a layer located at the origin
+            Rectangle unscaledClip = new Rectangle(
+                    (int) (clip.x / scale),
+                    (int) (clip.y / scale),
+                    (int) (clip.width / scale),
+                    (int) (clip.height / scale)
+            );
+
+            int x1 = Math.max(0, unscaledClip.x);
+            int y1 = Math.max(0, unscaledClip.y);
+            int x2 = Math.min(image.getWidth(), x1 + Math.min(image.getWidth(), unscaledClip.width));
+            int y2 = Math.min(image.getHeight(), y1 + Math.min(image.getHeight(), unscaledClip.height));
+
+            if (x2 <= x1 || y2 <= y1) {
+                return;
+            }
+
+            int dx1 = magnification * Math.max(0, -unscaledClip.x);
+            int dy1 = magnification * Math.max(0, -unscaledClip.y);
+            Rectangle region = new Rectangle(x1 * magnification, y1 * magnification, (x2 - x1) * magnification, (y2 - y1) * magnification);
+
+            if (!MagnifiedImageCache.this.paint(this, g, region, dx1, dy1)) {
+                paintUncached(g, scale, clip);
+            }
+        }
+    }
+}
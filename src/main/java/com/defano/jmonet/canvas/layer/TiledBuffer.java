@@ -0,0 +1,686 @@
+package com.defano.jmonet.canvas.layer;
+
+import com.defano.jmonet.context.AwtGraphicsContext;
+import com.defano.jmonet.context.GraphicsContext;
+import com.defano.jmonet.tools.util.ImageUtils;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DirectColorModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A fixed-size image comprised of fixed-size, lazily allocated tiles; the bounded counterpart of {@link TiledImage}.
+ * <p>
+ * A tile is allocated only when something is drawn on it, so regions of the buffer without paint consume no memory, and
+ * drawing on, erasing or painting the buffer touches only the tiles within the affected region. Tiles at the right and
+ * bottom edges of the buffer are trimmed to its bounds.
+ * <p>
+ * Copying the buffer (see {@link #copy()}) shares its tiles with the copy; a shared tile is duplicated only when one of
+ * the buffers sharing it is next modified. Code requiring a {@link BufferedImage} may access the buffer through
+ * {@link #asBufferedImage()}, an adapter that reads and writes the tiles in place.
+ */
+public class TiledBuffer implements LayeredImage {
+
+    /**
+     * The default width and height of a tile, in pixels.
+     */
+    public static final int DEFAULT_TILE_SIZE = 256;
+
+    private static final ColorModel ARGB = ColorModel.getRGBdefault();
+
+    private final int width;
+    private final int height;
+    private final int tileSize;
+    private final int columns;
+    private final int rows;
+
+    // Tiles in row-major order (null where unallocated), and whether each is shared with a copy of this buffer
+    private final BufferedImage[] tiles;
+    private final boolean[] shared;
+
+    // Erased, full-size tiles available for reuse
+    private final Deque<BufferedImage> spareTiles = new ArrayDeque<>();
+    private final int maxSpareTiles;
+
+    // Incremented each time an allocated tile is released or replaced with a copy of itself
+    private int generation;
+
+    // Adapter presenting this buffer as a BufferedImage, created on first use
+    private BufferedImage view;
+
+    /**
+     * Creates a transparent buffer of the given size using the default tile size.
+     *
+     * @param width  The width of the buffer, in pixels
+     * @param height The height of the buffer, in pixels
+     */
+    public TiledBuffer(int width, int height) {
+        this(width, height, DEFAULT_TILE_SIZE, 0);
+    }
+
+    /**
+     * Creates a transparent buffer of the given size whose tiles are of a given size, and which retains up to a given
+     * number of released tiles for reuse.
+     *
+     * @param width         The width of the buffer, in pixels
+     * @param height        The height of the buffer, in pixels
+     * @param tileSize      The width and height of each tile, in pixels
+     * @param maxSpareTiles The maximum number of erased tiles to retain for reuse when tiles are released
+     */
+    public TiledBuffer(int width, int height, int tileSize, int maxSpareTiles) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Buffer dimensions must not be negative.");
+        }
+
+        this.width = width;
+        this.height = height;
+        this.tileSize = Math.max(1, tileSize);
+        this.columns = (width + this.tileSize - 1) / this.tileSize;
+        this.rows = (height + this.tileSize - 1) / this.tileSize;
+        this.tiles = new BufferedImage[Math.multiplyExact(columns, rows)];
+        this.shared = new boolean[tiles.length];
+        this.maxSpareTiles = Math.max(0, maxSpareTiles);
+    }
+
+    /**
+     * Gets the width of this buffer.
+     *
+     * @return The width, in pixels
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of this buffer.
+     *
+     * @return The height, in pixels
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Dimension getSize() {
+        return new Dimension(width, height);
+    }
+
+    /**
+     * Gets the bounds of this buffer, which is always located at the origin.
+     *
+     * @return The bounds of this buffer
+     */
+    public Rectangle getBounds() {
+        return new Rectangle(0, 0, width, height);
+    }
+
+    /**
+     * Gets the width and height of the tiles comprising this buffer.
+     *
+     * @return The tile size, in pixels.
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Gets the number of tiles presently allocated.
+     *
+     * @return The number of allocated tiles
+     */
+    public int getTileCount() {
+        int count = 0;
+        for (BufferedImage thisTile : tiles) {
+            if (thisTile != null) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Gets the tile at a given column and row of this buffer. The tile may be shared with copies of this buffer and
+     * must not be modified.
+     *
+     * @param column The column of the tile; the tile's left edge is at x = column * tile size.
+     * @param row    The row of the tile; the tile's top edge is at y = row * tile size.
+     * @return The tile, or null if the tile is not allocated (and is therefore fully transparent).
+     */
+    public BufferedImage getTile(int column, int row) {
+        return tiles[row * columns + column];
+    }
+
+    /**
+     * Gets the bounds of the tile at a given column and row, trimmed to the bounds of this buffer.
+     *
+     * @param column The column of the tile
+     * @param row    The row of the tile
+     * @return The bounds of the tile
+     */
+    public Rectangle getTileBounds(int column, int row) {
+        int x = column * tileSize;
+        int y = row * tileSize;
+        return new Rectangle(x, y, Math.min(tileSize, width - x), Math.min(tileSize, height - y));
+    }
+
+    /**
+     * Creates a copy of this buffer. No pixels are copied; the copy shares the tiles of this buffer until either
+     * buffer modifies them.
+     *
+     * @return A copy of this buffer
+     */
+    public TiledBuffer copy() {
+        TiledBuffer copy = new TiledBuffer(width, height, tileSize, 0);
+
+        for (int index = 0; index < tiles.length; index++) {
+            if (tiles[index] != null) {
+                copy.tiles[index] = tiles[index];
+                copy.shared[index] = true;
+                shared[index] = true;
+            }
+        }
+
+        return copy;
+    }
+
+    /**
+     * Draws each layer of a layered image onto this buffer, modifying only those pixels within a clipping region.
+     * Only tiles overlapped by a layer are modified, and tiles are allocated only where a layer's composite can add
+     * paint to a transparent pixel.
+     *
+     * @param layeredImage The image to draw
+     * @param clip         The region of this buffer that may be modified, or null to allow drawing anywhere.
+     */
+    public void draw(LayeredImage layeredImage, Rectangle clip) {
+        Rectangle region = clip == null ? getBounds() : clip.intersection(getBounds());
+
+        for (ImageLayer thisLayer : layeredImage.getImageLayers()) {
+            if (thisLayer != null) {
+                draw(thisLayer, region);
+            }
+        }
+    }
+
+    /**
+     * Draws an image layer onto this buffer using the layer's composite mode, modifying only those pixels within a
+     * clipping region. Only tiles overlapped by the layer are modified, and tiles are allocated only where the layer's
+     * composite can add paint to a transparent pixel.
+     *
+     * @param layer The layer to draw
+     * @param clip  The region of this buffer that may be modified, or null to allow drawing anywhere.
+     */
+    public void draw(ImageLayer layer, Rectangle clip) {
+        Rectangle region = layer.getBounds().intersection(clip == null ? getBounds() : clip.intersection(getBounds()));
+        boolean allocates = TiledImage.isPaintAdded(layer.getComposite());
+
+        if (region.isEmpty()) {
+            return;
+        }
+
+        for (int row = region.y / tileSize; row <= (region.y + region.height - 1) / tileSize; row++) {
+            for (int column = region.x / tileSize; column <= (region.x + region.width - 1) / tileSize; column++) {
+                int index = row * columns + column;
+                boolean allocated = tiles[index] == null;
+
+                if (allocated && !allocates) {
+                    continue;
+                }
+
+                Rectangle tileBounds = getTileBounds(column, row);
+                Graphics2D g = getWritableTile(column, row).createGraphics();
+                g.translate(-tileBounds.x, -tileBounds.y);
+                g.clip(region);
+
+                GraphicsContext context = new AwtGraphicsContext(g);
+                layer.paint(context, 1.0, null);
+                context.dispose();
+
+                if (allocated && TiledImage.isEmpty(tiles[index])) {
+                    release(index);
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes every pixel within a region of this buffer fully transparent. Tiles lying entirely within the region are
+     * released.
+     *
+     * @param region The region to erase, or null to erase the entire buffer
+     */
+    public void clear(Rectangle region) {
+        Rectangle cleared = region == null ? getBounds() : region.intersection(getBounds());
+        if (cleared.isEmpty()) {
+            return;
+        }
+
+        for (int row = cleared.y / tileSize; row <= (cleared.y + cleared.height - 1) / tileSize; row++) {
+            for (int column = cleared.x / tileSize; column <= (cleared.x + cleared.width - 1) / tileSize; column++) {
+                int index = row * columns + column;
+                Rectangle tileBounds = getTileBounds(column, row);
+
+                if (tiles[index] == null) {
+                    continue;
+                }
+
+                if (cleared.contains(tileBounds)) {
+                    release(index);
+                } else {
+                    Rectangle erased = cleared.intersection(tileBounds);
+                    Graphics2D g = getWritableTile(column, row).createGraphics();
+                    g.setComposite(AlphaComposite.Clear);
+                    g.fillRect(erased.x - tileBounds.x, erased.y - tileBounds.y, erased.width, erased.height);
+                    g.dispose();
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a graphics context for drawing on this buffer. The context draws on each tile within its drawing bounds
+     * (see {@link TiledGraphicsContext#setDrawingBounds(Rectangle)}), allocating tiles as needed.
+     *
+     * @return A graphics context drawing on this buffer
+     */
+    public TiledGraphicsContext createGraphics() {
+        return new TiledGraphicsContext(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each allocated tile is returned as a separate layer, drawn with {@link AlphaComposite#SRC_OVER}. The tiles are
+     * shared with this buffer and must not be modified.
+     */
+    @Override
+    public ImageLayer[] getImageLayers() {
+        return getImageLayers(getBounds(), AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
+    }
+
+    /**
+     * Gets the portion of this buffer bounded by a region as a set of layers, one for each allocated tile the region
+     * overlaps. The image of each layer shares the pixels of its tile and must not be modified.
+     *
+     * @param region    The region of this buffer to include
+     * @param composite The composite mode with which the layers are drawn
+     * @return The layers of the region; unallocated (transparent) tiles produce no layer.
+     */
+    public ImageLayer[] getImageLayers(Rectangle region, Composite composite) {
+        Rectangle bounded = region.intersection(getBounds());
+        List<ImageLayer> layers = new ArrayList<>();
+
+        if (!bounded.isEmpty()) {
+            for (int row = bounded.y / tileSize; row <= (bounded.y + bounded.height - 1) / tileSize; row++) {
+                for (int column = bounded.x / tileSize; column <= (bounded.x + bounded.width - 1) / tileSize; column++) {
+                    BufferedImage tile = getTile(column, row);
+
+                    if (tile != null) {
+                        Rectangle tileBounds = getTileBounds(column, row);
+                        Rectangle piece = bounded.intersection(tileBounds);
+                        layers.add(new ImageLayer(piece.getLocation(),
+                                tile.getSubimage(piece.x - tileBounds.x, piece.y - tileBounds.y, piece.width, piece.height),
+                                composite));
+                    }
+                }
+            }
+        }
+
+        return layers.toArray(new ImageLayer[0]);
+    }
+
+    /**
+     * Gets an image layer that draws this buffer at the origin with {@link AlphaComposite#SRC_OVER}. The layer's image
+     * is the adapter returned by {@link #asBufferedImage()}, but the layer paints tile-by-tile, drawing only the tiles
+     * within the clipping rectangle.
+     *
+     * @return A layer drawing this buffer
+     */
+    public ImageLayer getImageLayer() {
+        return new ImageLayer(asBufferedImage()) {
+            @Override
+            public void paint(GraphicsContext g, double scale, Rectangle clip) {
+                TiledBuffer.this.paint(g, scale, clip, TiledBuffer.this.getBounds(), getComposite());
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only tiles within the clipping rectangle are drawn.
+     */
+    @Override
+    public void paint(GraphicsContext g, Double scale, Rectangle clip) {
+        paint(g, scale, clip, getBounds(), AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
+    }
+
+    /**
+     * Draws a region of this buffer onto a graphics context at scale, painting only the pixels bound by a clipping
+     * rectangle; produces the same result as painting an {@link ImageLayer} of the region's pixels located at the
+     * region's origin (see {@link ImageLayer#paint(GraphicsContext, double, Rectangle)}), but draws only the tiles the
+     * clipping rectangle overlaps.
+     *
+     * @param g         The graphics context on which to draw
+     * @param scale     The scale at which to draw; 1.0 means no scaling
+     * @param clip      The clipping rectangle, in scaled coordinates, or null to draw the entire region
+     * @param region    The region of this buffer to draw
+     * @param composite The composite mode with which to draw
+     */
+    public void paint(GraphicsContext g, double scale, Rectangle clip, Rectangle region, Composite composite) {
+        g.setComposite(composite);
+
+        Rectangle unscaledClip = clip == null ?
+                new Rectangle(0, 0, region.x + region.width, region.y + region.height) :
+                new Rectangle((int) (clip.x / scale), (int) (clip.y / scale), (int) (clip.width / scale), (int) (clip.height / scale));
+
+        Rectangle painted = region.intersection(unscaledClip).intersection(getBounds());
+        if (painted.isEmpty()) {
+            return;
+        }
+
+        for (int row = painted.y / tileSize; row <= (painted.y + painted.height - 1) / tileSize; row++) {
+            for (int column = painted.x / tileSize; column <= (painted.x + painted.width - 1) / tileSize; column++) {
+                BufferedImage tile = getTile(column, row);
+
+                if (tile != null) {
+                    Rectangle tileBounds = getTileBounds(column, row);
+                    Rectangle source = painted.intersection(tileBounds);
+
+                    // Tile edges map to the same destination coordinates from either side, leaving no seams
+                    int dx1 = (int) ((source.x - unscaledClip.x) * scale);
+                    int dy1 = (int) ((source.y - unscaledClip.y) * scale);
+                    int dx2 = (int) ((source.x + source.width - unscaledClip.x) * scale);
+                    int dy2 = (int) ((source.y + source.height - unscaledClip.y) * scale);
+
+                    g.drawImage(tile, dx1, dy1, dx2, dy2,
+                            source.x - tileBounds.x, source.y - tileBounds.y,
+                            source.x + source.width - tileBounds.x, source.y + source.height - tileBounds.y,
+                            null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets this buffer as a {@link BufferedImage} of type {@link BufferedImage#TYPE_CUSTOM} with a non-premultiplied
+     * ARGB color model. The image is an adapter: reading its pixels reads the tiles of this buffer (pixels of
+     * unallocated tiles read as transparent), and writing them modifies the tiles, allocating or un-sharing them as
+     * needed. Its pixels are not backed by a {@link java.awt.image.DataBufferInt}, and drawing it with Java2D is
+     * considerably slower than painting this buffer; callers needing a conventional image should copy it (see
+     * {@link #toBufferedImage()}).
+     *
+     * @return An image backed by this buffer
+     * @throws IllegalArgumentException If this buffer contains more pixels than an image can address
+     */
+    public BufferedImage asBufferedImage() {
+        if (view == null) {
+            if ((long) width * height >= Integer.MAX_VALUE || width == 0 || height == 0) {
+                throw new IllegalArgumentException("A " + width + "x" + height + " buffer cannot be addressed as an image.");
+            }
+
+            TiledSampleModel sampleModel = new TiledSampleModel(width, height, ((DirectColorModel) ARGB).getMasks());
+            view = new BufferedImage(ARGB, new TiledRaster(sampleModel, new TiledDataBuffer()), false, null);
+        }
+
+        return view;
+    }
+
+    /**
+     * Copies the pixels of this buffer into a new, contiguous {@link BufferedImage#TYPE_INT_ARGB} image, copying only
+     * allocated tiles.
+     *
+     * @return A copy of this buffer
+     */
+    public BufferedImage toBufferedImage() {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                BufferedImage tile = getTile(column, row);
+
+                if (tile != null) {
+                    image.getRaster().setDataElements(column * tileSize, row * tileSize, tile.getRaster());
+                }
+            }
+        }
+
+        return image;
+    }
+
+    /**
+     * Gets the number of times an allocated tile of this buffer has been released, or replaced with a copy of itself
+     * (as when a shared tile is modified). Graphics contexts created on a tile remain valid only for as long as this
+     * value is unchanged.
+     *
+     * @return The generation of this buffer's tiles
+     */
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Gets the number of tile columns in this buffer.
+     *
+     * @return The number of columns
+     */
+    int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the tile at a given column and row, ready to be modified: the tile is allocated if it is not, and copied if
+     * it is shared with a copy of this buffer.
+     *
+     * @param column The column of the tile
+     * @param row    The row of the tile
+     * @return The tile, which belongs to this buffer alone
+     */
+    BufferedImage getWritableTile(int column, int row) {
+        int index = row * columns + column;
+
+        if (tiles[index] == null) {
+            tiles[index] = allocate(getTileBounds(column, row));
+        } else if (shared[index]) {
+            tiles[index] = ImageUtils.copy(tiles[index]);
+            shared[index] = false;
+            generation++;
+        }
+
+        return tiles[index];
+    }
+
+    /**
+     * Creates a transparent tile, reusing a spare tile if one of the required size is available.
+     *
+     * @param tileBounds The bounds of the tile
+     * @return A transparent tile
+     */
+    private BufferedImage allocate(Rectangle tileBounds) {
+        if (tileBounds.width == tileSize && tileBounds.height == tileSize && !spareTiles.isEmpty()) {
+            return spareTiles.pop();
+        }
+
+        return new BufferedImage(tileBounds.width, tileBounds.height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /**
+     * Releases an allocated tile, making it fully transparent. A full-size tile that is not shared is erased and kept
+     * for reuse, provided the pool of spare tiles is not full.
+     *
+     * @param index The index of the tile
+     */
+    private void release(int index) {
+        BufferedImage tile = tiles[index];
+
+        if (!shared[index] && spareTiles.size() < maxSpareTiles &&
+                tile.getWidth() == tileSize && tile.getHeight() == tileSize) {
+            Graphics2D g = tile.createGraphics();
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, tileSize, tileSize);
+            g.dispose();
+            spareTiles.push(tile);
+        }
+
+        tiles[index] = null;
+        shared[index] = false;
+        generation++;
+    }
+
+    /**
+     * Pixel storage of the {@link #asBufferedImage()} adapter; element i is the pixel at (i % width, i / width).
+     */
+    private class TiledDataBuffer extends DataBuffer {
+
+        private final int[] segment = new int[tileSize];
+
+        private TiledDataBuffer() {
+            super(DataBuffer.TYPE_INT, width * height);
+        }
+
+        @Override
+        public int getElem(int bank, int i) {
+            int x = i % width;
+            int y = i / width;
+            BufferedImage tile = tiles[(y / tileSize) * columns + x / tileSize];
+
+            return tile == null ? 0 : tile.getRaster().getDataBuffer().getElem((y % tileSize) * tile.getWidth() + x % tileSize);
+        }
+
+        @Override
+        public void setElem(int bank, int i, int val) {
+            int x = i % width;
+            int y = i / width;
+
+            if (val != 0 || tiles[(y / tileSize) * columns + x / tileSize] != null) {
+                BufferedImage tile = getWritableTile(x / tileSize, y / tileSize);
+                tile.getRaster().getDataBuffer().setElem((y % tileSize) * tile.getWidth() + x % tileSize, val);
+            }
+        }
+
+        /**
+         * Copies a rectangle of pixels into an array, one tile-row segment at a time.
+         */
+        private void getPixels(int x, int y, int w, int h, int[] pixels) {
+            for (int row = y; row < y + h; row++) {
+                for (int column = x; column < x + w; ) {
+                    int end = Math.min(x + w, (column / tileSize + 1) * tileSize);
+                    int offset = (row - y) * w + column - x;
+                    BufferedImage tile = tiles[(row / tileSize) * columns + column / tileSize];
+
+                    if (tile == null) {
+                        Arrays.fill(pixels, offset, offset + end - column, 0);
+                    } else {
+                        tile.getRaster().getDataElements(column % tileSize, row % tileSize, end - column, 1, segment);
+                        System.arraycopy(segment, 0, pixels, offset, end - column);
+                    }
+
+                    column = end;
+                }
+            }
+        }
+
+        /**
+         * Copies a rectangle of pixels from an array, one tile-row segment at a time; transparent segments of
+         * unallocated tiles are skipped.
+         */
+        private void setPixels(int x, int y, int w, int h, int[] pixels) {
+            for (int row = y; row < y + h; row++) {
+                for (int column = x; column < x + w; ) {
+                    int end = Math.min(x + w, (column / tileSize + 1) * tileSize);
+                    int offset = (row - y) * w + column - x;
+
+                    if (tiles[(row / tileSize) * columns + column / tileSize] != null || !isTransparent(pixels, offset, end - column)) {
+                        System.arraycopy(pixels, offset, segment, 0, end - column);
+                        getWritableTile(column / tileSize, row / tileSize).getRaster()
+                                .setDataElements(column % tileSize, row % tileSize, end - column, 1, segment);
+                    }
+
+                    column = end;
+                }
+            }
+        }
+
+        private boolean isTransparent(int[] pixels, int offset, int length) {
+            for (int index = offset; index < offset + length; index++) {
+                if (pixels[index] != 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Sample model of the {@link #asBufferedImage()} adapter, which transfers rectangles of pixels to and from its
+     * {@link TiledDataBuffer} a tile-row segment at a time rather than pixel-by-pixel.
+     */
+    private static class TiledSampleModel extends SinglePixelPackedSampleModel {
+
+        private TiledSampleModel(int width, int height, int[] masks) {
+            super(DataBuffer.TYPE_INT, width, height, masks);
+        }
+
+        @Override
+        public Object getDataElements(int x, int y, int w, int h, Object obj, DataBuffer data) {
+            if (!(data instanceof TiledDataBuffer) || w <= 0 || h <= 0) {
+                return super.getDataElements(x, y, w, h, obj, data);
+            }
+
+            checkBounds(x, y, w, h);
+            int[] pixels = obj == null ? new int[w * h] : (int[]) obj;
+            ((TiledDataBuffer) data).getPixels(x, y, w, h, pixels);
+            return pixels;
+        }
+
+        @Override
+        public void setDataElements(int x, int y, int w, int h, Object obj, DataBuffer data) {
+            if (!(data instanceof TiledDataBuffer) || w <= 0 || h <= 0) {
+                super.setDataElements(x, y, w, h, obj, data);
+                return;
+            }
+
+            checkBounds(x, y, w, h);
+            ((TiledDataBuffer) data).setPixels(x, y, w, h, (int[]) obj);
+        }
+
+        private void checkBounds(int x, int y, int w, int h) {
+            if (x < 0 || y < 0 || x + w > getWidth() || y + h > getHeight() || x + w < x || y + h < y) {
+                throw new ArrayIndexOutOfBoundsException("Coordinate out of bounds!");
+            }
+        }
+    }
+
+    /**
+     * Raster of the {@link #asBufferedImage()} adapter. Rasters created compatible with it are conventional, contiguous
+     * ARGB rasters.
+     */
+    private static class TiledRaster extends WritableRaster {
+        private TiledRaster(TiledSampleModel sampleModel, DataBuffer dataBuffer) {
+            super(sampleModel, dataBuffer, new Point());
+        }
+
+        @Override
+        public WritableRaster createCompatibleWritableRaster() {
+            return createCompatibleWritableRaster(getWidth(), getHeight());
+        }
+
+        @Override
+        public WritableRaster createCompatibleWritableRaster(int w, int h) {
+            return ARGB.createCompatibleWritableRaster(w, h);
+        }
+    }
+}
@@ -0,0 +1,858 @@
+package com.defano.jmonet.canvas.layer;
+
+import com.defano.jmonet.context.AwtGraphicsContext;
+import com.defano.jmonet.context.GraphicsContext;
+import com.defano.jmonet.model.Interpolation;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.text.AttributedCharacterIterator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A {@link GraphicsContext} that draws on a {@link TiledBuffer}.
+ * <p>
+ * The context maintains its state (transform, clip, paint, stroke, composite, font and rendering hints) in buffer
+ * coordinates, and replays each drawing operation onto the tiles of the buffer that lie within its drawing bounds and
+ * clip, each through a graphics context of its own; tiles are allocated as they are first drawn upon. Drawing is
+ * therefore fastest when the drawing bounds are limited to the region the caller intends to draw within (see
+ * {@link #setDrawingBounds(Rectangle)}); anything drawn outside of the drawing bounds may be lost.
+ */
+public class TiledGraphicsContext implements GraphicsContext {
+
+    private final TiledBuffer buffer;
+
+    // Holds the state of this context, in buffer coordinates; drawn upon only for operations that cannot be replayed
+    private final Graphics2D g;
+
+    // Graphics contexts of the tiles drawn upon, keyed by tile index, and the buffer generation in which they were created
+    private final Map<Integer, Graphics2D> tileGraphics = new HashMap<>();
+    private int tileGeneration;
+
+    // Color alternated with the current color when drawing in XOR mode, or null when in paint mode
+    private Color xorColor;
+
+    // Region of the buffer whose tiles receive drawing operations
+    private Rectangle drawingBounds;
+
+    TiledGraphicsContext(TiledBuffer buffer) {
+        this.buffer = buffer;
+        this.g = buffer.asBufferedImage().createGraphics();
+        this.drawingBounds = buffer.getBounds();
+        this.tileGeneration = buffer.getGeneration();
+    }
+
+    /**
+     * Limits subsequent drawing operations to the tiles overlapping a given region of the buffer. Unlike the clip,
+     * the drawing bounds do not prevent pixels from being drawn outside of the region (on a tile that overlaps it);
+     * they limit how many tiles each operation is replayed upon.
+     *
+     * @param bounds The region within which subsequent operations draw, in buffer coordinates, or null to allow
+     *               drawing anywhere on the buffer
+     */
+    public void setDrawingBounds(Rectangle bounds) {
+        this.drawingBounds = bounds == null ? buffer.getBounds() : bounds.intersection(buffer.getBounds());
+    }
+
+    /**
+     * Gets the region of the buffer whose tiles receive drawing operations.
+     *
+     * @return The drawing bounds, in buffer coordinates
+     */
+    public Rectangle getDrawingBounds() {
+        return new Rectangle(drawingBounds);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setAntialiasingMode(Interpolation mode) {
+        new AwtGraphicsContext(g).setAntialiasingMode(mode);
+        forEachTileGraphics(tile -> tile.setRenderingHints(g.getRenderingHints()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void dispose() {
+        forEachTileGraphics(Graphics::dispose);
+        tileGraphics.clear();
+        g.dispose();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void draw(Shape s) {
+        drawOnTiles(tile -> tile.draw(s));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean drawImage(Image img, AffineTransform xform, ImageObserver obs) {
+        return drawImageOnTiles(tile -> tile.drawImage(img, xform, obs));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawImage(BufferedImage img, BufferedImageOp op, int x, int y) {
+        drawOnTiles(tile -> tile.drawImage(img, op, x, y));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawRenderedImage(RenderedImage img, AffineTransform xform) {
+        drawOnTiles(tile -> tile.drawRenderedImage(img, xform));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawRenderableImage(RenderableImage img, AffineTransform xform) {
+        drawOnTiles(tile -> tile.drawRenderableImage(img, xform));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawString(String str, int x, int y) {
+        drawOnTiles(tile -> tile.drawString(str, x, y));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawString(String str, float x, float y) {
+        drawOnTiles(tile -> tile.drawString(str, x, y));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, int x, int y) {
+        drawOnTiles(tile -> {
+            iterator.first();
+            tile.drawString(iterator, x, y);
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, float x, float y) {
+        drawOnTiles(tile -> {
+            iterator.first();
+            tile.drawString(iterator, x, y);
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawGlyphVector(GlyphVector glyphVector, float x, float y) {
+        drawOnTiles(tile -> tile.drawGlyphVector(glyphVector, x, y));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fill(Shape s) {
+        drawOnTiles(tile -> tile.fill(s));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hit(Rectangle rect, Shape s, boolean onStroke) {
+        return g.hit(rect, s, onStroke);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GraphicsConfiguration getDeviceConfiguration() {
+        return g.getDeviceConfiguration();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setRenderingHint(RenderingHints.Key hintKey, Object hintValue) {
+        g.setRenderingHint(hintKey, hintValue);
+        forEachTileGraphics(tile -> tile.setRenderingHint(hintKey, hintValue));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getRenderingHint(RenderingHints.Key hintKey) {
+        return g.getRenderingHint(hintKey);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addRenderingHints(Map<?, ?> hints) {
+        g.addRenderingHints(hints);
+        forEachTileGraphics(tile -> tile.addRenderingHints(hints));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RenderingHints getRenderingHints() {
+        return g.getRenderingHints();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setRenderingHints(Map<?, ?> hints) {
+        g.setRenderingHints(hints);
+        forEachTileGraphics(tile -> tile.setRenderingHints(hints));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void translate(int x, int y) {
+        g.translate(x, y);
+        forEachTileGraphics(tile -> tile.translate(x, y));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void translate(double tx, double ty) {
+        g.translate(tx, ty);
+        forEachTileGraphics(tile -> tile.translate(tx, ty));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void rotate(double theta) {
+        g.rotate(theta);
+        forEachTileGraphics(tile -> tile.rotate(theta));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void rotate(double theta, double x, double y) {
+        g.rotate(theta, x, y);
+        forEachTileGraphics(tile -> tile.rotate(theta, x, y));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void scale(double sx, double sy) {
+        g.scale(sx, sy);
+        forEachTileGraphics(tile -> tile.scale(sx, sy));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shear(double shx, double shy) {
+        g.shear(shx, shy);
+        forEachTileGraphics(tile -> tile.shear(shx, shy));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void transform(AffineTransform tx) {
+        g.transform(tx);
+        forEachTileGraphics(tile -> tile.transform(tx));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AffineTransform getTransform() {
+        return g.getTransform();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setTransform(AffineTransform tx) {
+        g.setTransform(tx);
+        tileGraphics.forEach((index, tile) -> tile.setTransform(getTileTransform(index)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Paint getPaint() {
+        return g.getPaint();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setPaint(Paint paint) {
+        g.setPaint(paint);
+        forEachTileGraphics(tile -> tile.setPaint(paint));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Composite getComposite() {
+        return g.getComposite();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setComposite(Composite comp) {
+        g.setComposite(comp);
+        forEachTileGraphics(tile -> tile.setComposite(comp));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Color getBackground() {
+        return g.getBackground();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setBackground(Color color) {
+        g.setBackground(color);
+        forEachTileGraphics(tile -> tile.setBackground(color));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stroke getStroke() {
+        return g.getStroke();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setStroke(Stroke s) {
+        g.setStroke(s);
+        forEachTileGraphics(tile -> tile.setStroke(s));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clip(Shape s) {
+        g.clip(s);
+        forEachTileGraphics(tile -> tile.clip(s));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FontRenderContext getFontRenderContext() {
+        return g.getFontRenderContext();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Color getColor() {
+        return g.getColor();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setColor(Color c) {
+        g.setColor(c);
+        forEachTileGraphics(tile -> tile.setColor(c));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setPaintMode() {
+        xorColor = null;
+        g.setPaintMode();
+        forEachTileGraphics(Graphics::setPaintMode);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setXORMode(Color c1) {
+        xorColor = c1;
+        g.setXORMode(c1);
+        forEachTileGraphics(tile -> tile.setXORMode(c1));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Font getFont() {
+        return g.getFont();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setFont(Font font) {
+        g.setFont(font);
+        forEachTileGraphics(tile -> tile.setFont(font));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FontMetrics getFontMetrics() {
+        return g.getFontMetrics();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FontMetrics getFontMetrics(Font f) {
+        return g.getFontMetrics(f);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Rectangle getClipBounds() {
+        return g.getClipBounds();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clipRect(int x, int y, int width, int height) {
+        g.clipRect(x, y, width, height);
+        forEachTileGraphics(tile -> tile.clipRect(x, y, width, height));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setClip(int x, int y, int width, int height) {
+        g.setClip(x, y, width, height);
+        forEachTileGraphics(tile -> tile.setClip(x, y, width, height));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Shape getClip() {
+        return g.getClip();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setClip(Shape clip) {
+        g.setClip(clip);
+        forEachTileGraphics(tile -> tile.setClip(clip));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Pixels may be copied between tiles, so the area is copied through the buffer's image adapter (see
+     * {@link TiledBuffer#asBufferedImage()}) rather than tile-by-tile.
+     */
+    @Override
+    public void copyArea(int x, int y, int width, int height, int dx, int dy) {
+        g.copyArea(x, y, width, height, dx, dy);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        drawOnTiles(tile -> tile.drawLine(x1, y1, x2, y2));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fillRect(int x, int y, int width, int height) {
+        drawOnTiles(tile -> tile.fillRect(x, y, width, height));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawRect(int x, int y, int width, int height) {
+        drawOnTiles(tile -> tile.drawRect(x, y, width, height));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clearRect(int x, int y, int width, int height) {
+        drawOnTiles(tile -> tile.clearRect(x, y, width, height));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        drawOnTiles(tile -> tile.drawRoundRect(x, y, width, height, arcWidth, arcHeight));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fillRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        drawOnTiles(tile -> tile.fillRoundRect(x, y, width, height, arcWidth, arcHeight));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void draw3DRect(int x, int y, int width, int height, boolean raised) {
+        drawOnTiles(tile -> tile.draw3DRect(x, y, width, height, raised));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fill3DRect(int x, int y, int width, int height, boolean raised) {
+        drawOnTiles(tile -> tile.fill3DRect(x, y, width, height, raised));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        drawOnTiles(tile -> tile.drawOval(x, y, width, height));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        drawOnTiles(tile -> tile.fillOval(x, y, width, height));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        drawOnTiles(tile -> tile.drawArc(x, y, width, height, startAngle, arcAngle));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fillArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        drawOnTiles(tile -> tile.fillArc(x, y, width, height, startAngle, arcAngle));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawPolyline(int[] xPoints, int[] yPoints, int nPoints) {
+        drawOnTiles(tile -> tile.drawPolyline(xPoints, yPoints, nPoints));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        drawOnTiles(tile -> tile.drawPolygon(xPoints, yPoints, nPoints));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawPolygon(Polygon p) {
+        drawOnTiles(tile -> tile.drawPolygon(p));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fillPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        drawOnTiles(tile -> tile.fillPolygon(xPoints, yPoints, nPoints));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fillPolygon(Polygon p) {
+        drawOnTiles(tile -> tile.fillPolygon(p));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawChars(char[] data, int offset, int length, int x, int y) {
+        drawOnTiles(tile -> tile.drawChars(data, offset, length, x, y));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawBytes(byte[] data, int offset, int length, int x, int y) {
+        drawOnTiles(tile -> tile.drawBytes(data, offset, length, x, y));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean drawImage(Image img, int x, int y, ImageObserver observer) {
+        return drawImageOnTiles(tile -> tile.drawImage(img, x, y, observer));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean drawImage(Image img, int x, int y, int width, int height, ImageObserver observer) {
+        return drawImageOnTiles(tile -> tile.drawImage(img, x, y, width, height, observer));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean drawImage(Image img, int x, int y, Color bgcolor, ImageObserver observer) {
+        return drawImageOnTiles(tile -> tile.drawImage(img, x, y, bgcolor, observer));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean drawImage(Image img, int x, int y, int width, int height, Color bgcolor, ImageObserver observer) {
+        return drawImageOnTiles(tile -> tile.drawImage(img, x, y, width, height, bgcolor, observer));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2, ImageObserver observer) {
+        return drawImageOnTiles(tile -> tile.drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, observer));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2, Color bgcolor, ImageObserver observer) {
+        return drawImageOnTiles(tile -> tile.drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, bgcolor, observer));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hitClip(int x, int y, int width, int height) {
+        return g.hitClip(x, y, width, height);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Rectangle getClipBounds(Rectangle r) {
+        return g.getClipBounds(r);
+    }
+
+    /**
+     * Performs a drawing operation on each tile within the drawing bounds and the clip.
+     *
+     * @param operation The operation to perform on each tile's graphics context
+     */
+    private void drawOnTiles(Consumer<Graphics2D> operation) {
+        drawImageOnTiles(tile -> {
+            operation.accept(tile);
+            return true;
+        });
+    }
+
+    /**
+     * Performs an image drawing operation on each tile within the drawing bounds and the clip.
+     *
+     * @param operation The operation to perform on each tile's graphics context
+     * @return True if the operation returned true for every tile
+     */
+    private boolean drawImageOnTiles(Predicate<Graphics2D> operation) {
+        Rectangle region = getDrawnRegion();
+        boolean complete = true;
+
+        if (region.isEmpty()) {
+            return true;
+        }
+
+        // Tiles have been released or replaced since their graphics were created
+        if (tileGeneration != buffer.getGeneration()) {
+            forEachTileGraphics(Graphics::dispose);
+            tileGraphics.clear();
+            tileGeneration = buffer.getGeneration();
+        }
+
+        int tileSize = buffer.getTileSize();
+        for (int row = region.y / tileSize; row <= (region.y + region.height - 1) / tileSize; row++) {
+            for (int column = region.x / tileSize; column <= (region.x + region.width - 1) / tileSize; column++) {
+                complete &= operation.test(getTileGraphics(column, row));
+            }
+        }
+
+        return complete;
+    }
+
+    /**
+     * Gets the region of the buffer upon which drawing operations are performed: the drawing bounds, limited to the
+     * device-space bounds of the clip.
+     *
+     * @return The drawn region, in buffer coordinates
+     */
+    private Rectangle getDrawnRegion() {
+        Shape clip = g.getClip();
+
+        return clip == null ?
+                drawingBounds :
+                drawingBounds.intersection(g.getTransform().createTransformedShape(clip).getBounds());
+    }
+
+    /**
+     * Gets the graphics context of a tile, creating it (and allocating or un-sharing the tile) if need be. A new
+     * context is given the state of this context.
+     *
+     * @param column The column of the tile
+     * @param row    The row of the tile
+     * @return The tile's graphics context
+     */
+    private Graphics2D getTileGraphics(int column, int row) {
+        int index = row * buffer.getColumns() + column;
+        Graphics2D tile = tileGraphics.get(index);
+
+        if (tile == null) {
+            tile = buffer.getWritableTile(column, row).createGraphics();
+            tile.setRenderingHints(g.getRenderingHints());
+            tile.setBackground(g.getBackground());
+            tile.setFont(g.getFont());
+            tile.setStroke(g.getStroke());
+            tile.setComposite(g.getComposite());
+            tile.setPaint(g.getPaint());
+            if (xorColor != null) {
+                tile.setXORMode(xorColor);
+            }
+            tile.setTransform(getTileTransform(index));
+            tile.setClip(g.getClip());
+
+            tileGraphics.put(index, tile);
+        }
+
+        return tile;
+    }
+
+    /**
+     * Gets the transform of a tile's graphics context; this context's transform, offset by the tile's location.
+     *
+     * @param index The index of the tile
+     * @return The tile's transform
+     */
+    private AffineTransform getTileTransform(int index) {
+        Rectangle tileBounds = buffer.getTileBounds(index % buffer.getColumns(), index / buffer.getColumns());
+        AffineTransform transform = AffineTransform.getTranslateInstance(-tileBounds.x, -tileBounds.y);
+        transform.concatenate(g.getTransform());
+        return transform;
+    }
+
+    private void forEachTileGraphics(Consumer<Graphics2D> operation) {
+        tileGraphics.values().forEach(operation);
+    }
+}
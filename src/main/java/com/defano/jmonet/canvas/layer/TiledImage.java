@@ -0,0 +1,207 @@
+package com.defano.jmonet.canvas.layer;
+
+import com.defano.jmonet.context.AwtGraphicsContext;
+import com.defano.jmonet.context.GraphicsContext;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A sparse image comprised of fixed-size, lazily allocated tiles.
+ * <p>
+ * A tile is allocated only when paint is drawn on it, and is released when every one of its pixels becomes fully
+ * transparent; regions of the image without paint consume no memory, and the image has no fixed bounds (it covers
+ * whatever region has been drawn upon). Drawing a layer touches only the tiles the layer overlaps.
+ * <p>
+ * As a {@link LayeredImage}, a tiled image presents each allocated tile as a separate {@link ImageLayer}, and so can be
+ * painted or rendered anywhere a layer set can be.
+ */
+public class TiledImage implements LayeredImage {
+
+    /**
+     * The default width and height of a tile, in pixels.
+     */
+    public static final int DEFAULT_TILE_SIZE = 256;
+
+    private final int tileSize;
+
+    // Allocated tiles, keyed by tile column and row
+    private final Map<Point, BufferedImage> tiles = new LinkedHashMap<>();
+
+    /**
+     * Creates an empty tiled image using the default tile size.
+     */
+    public TiledImage() {
+        this(DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Creates an empty tiled image whose tiles are of a given size.
+     *
+     * @param tileSize The width and height of each tile, in pixels.
+     */
+    public TiledImage(int tileSize) {
+        this.tileSize = Math.max(1, tileSize);
+    }
+
+    /**
+     * Gets the width and height of the tiles comprising this image.
+     *
+     * @return The tile size, in pixels.
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Gets the number of tiles presently allocated.
+     *
+     * @return The number of non-empty tiles in this image.
+     */
+    public int getTileCount() {
+        return tiles.size();
+    }
+
+    /**
+     * Gets the tile at a given column and row of this image.
+     *
+     * @param column The column of the tile; the tile's left edge is at x = column * tile size.
+     * @param row    The row of the tile; the tile's top edge is at y = row * tile size.
+     * @return The tile, or null if no paint has been drawn on it.
+     */
+    public BufferedImage getTile(int column, int row) {
+        return tiles.get(new Point(column, row));
+    }
+
+    /**
+     * Draws each layer of a layered image onto this image.
+     *
+     * @param layeredImage The image to draw
+     */
+    public void draw(LayeredImage layeredImage) {
+        for (ImageLayer thisLayer : layeredImage.getImageLayers()) {
+            if (thisLayer != null) {
+                draw(thisLayer);
+            }
+        }
+    }
+
+    /**
+     * Draws an image layer onto this image using the layer's composite mode. Only those tiles overlapped by the layer
+     * are modified; tiles are allocated only where the layer's composite can add paint to a transparent pixel.
+     *
+     * @param layer The layer to draw
+     */
+    public void draw(ImageLayer layer) {
+        Rectangle bounds = layer.getBounds();
+        boolean allocates = isPaintAdded(layer.getComposite());
+
+        if (bounds.isEmpty()) {
+            return;
+        }
+
+        for (int row = Math.floorDiv(bounds.y, tileSize); row <= Math.floorDiv(bounds.y + bounds.height - 1, tileSize); row++) {
+            for (int column = Math.floorDiv(bounds.x, tileSize); column <= Math.floorDiv(bounds.x + bounds.width - 1, tileSize); column++) {
+                Point key = new Point(column, row);
+                BufferedImage tile = tiles.get(key);
+
+                if (tile == null && !allocates) {
+                    continue;
+                } else if (tile == null) {
+                    tile = new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_ARGB);
+                }
+
+                Graphics2D g = tile.createGraphics();
+                g.translate(-column * tileSize, -row * tileSize);
+                GraphicsContext context = new AwtGraphicsContext(g);
+                layer.paint(context, 1.0, null);
+                context.dispose();
+
+                if (isEmpty(tile)) {
+                    tiles.remove(key);
+                } else {
+                    tiles.put(key, tile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the bounds of the region of this image covered by allocated tiles.
+     *
+     * @return The bounds of this image; an empty rectangle if no tiles are allocated.
+     */
+    public Rectangle getBounds() {
+        Rectangle bounds = null;
+
+        for (Point thisKey : tiles.keySet()) {
+            Rectangle tileBounds = new Rectangle(thisKey.x * tileSize, thisKey.y * tileSize, tileSize, tileSize);
+            bounds = bounds == null ? tileBounds : bounds.union(tileBounds);
+        }
+
+        return bounds == null ? new Rectangle() : bounds;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each allocated tile is returned as a separate layer, drawn with {@link AlphaComposite#SRC_OVER}. Tiles do not
+     * overlap, so the layers may be drawn in any order.
+     */
+    @Override
+    public ImageLayer[] getImageLayers() {
+        List<ImageLayer> layers = new ArrayList<>(tiles.size());
+
+        for (Map.Entry<Point, BufferedImage> thisTile : tiles.entrySet()) {
+            layers.add(new ImageLayer(
+                    new Point(thisTile.getKey().x * tileSize, thisTile.getKey().y * tileSize),
+                    thisTile.getValue(),
+                    AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f)));
+        }
+
+        return layers.toArray(new ImageLayer[0]);
+    }
+
+    /**
+     * Determines if drawing with a given composite mode can add paint to a fully transparent pixel (and therefore
+     * requires an unallocated tile to be allocated).
+     *
+     * @param composite The composite mode
+     * @return True if drawing with the composite may produce non-transparent pixels from transparent ones.
+     */
+    static boolean isPaintAdded(Composite composite) {
+        if (!(composite instanceof AlphaComposite)) {
+            return true;
+        }
+
+        int rule = ((AlphaComposite) composite).getRule();
+        return rule != AlphaComposite.CLEAR && rule != AlphaComposite.DST && rule != AlphaComposite.DST_IN &&
+                rule != AlphaComposite.DST_OUT;
+    }
+
+    /**
+     * Determines if every pixel of an ARGB tile is zero (transparent black), in which case the tile is
+     * indistinguishable from an unallocated one.
+     *
+     * @param tile The tile to test
+     * @return True if the tile is empty
+     */
+    static boolean isEmpty(BufferedImage tile) {
+        int[] row = new int[tile.getWidth()];
+
+        for (int y = 0; y < tile.getHeight(); y++) {
+            tile.getRaster().getDataElements(0, y, tile.getWidth(), 1, row);
+            for (int thisPixel : row) {
+                if (thisPixel != 0) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+}
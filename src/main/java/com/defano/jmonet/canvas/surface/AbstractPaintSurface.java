@@ -1,5 +1,6 @@
 package com.defano.jmonet.canvas.surface;
 
+import com.defano.jmonet.canvas.layer.ImageLayer;
 import com.defano.jmonet.canvas.layer.ScaledLayeredImage;
 import com.defano.jmonet.canvas.observable.SurfaceInteractionObserver;
 import com.defano.jmonet.context.AwtGraphicsContext;
@@ -25,7 +26,9 @@ public abstract class AbstractPaintSurface extends JComponent implements PaintSu
     private static final Color CLEAR_COLOR = new Color(0, 0, 0, 0);
 
     private final BehaviorSubject<Double> scaleSubject = BehaviorSubject.createDefault(1.0);
+    private volatile double scale = 1.0;
     private final List<SurfaceInteractionObserver> interactionListeners = new ArrayList<>();
+    private final List<SurfaceOverlay> overlays = new ArrayList<>();
 
     private Dimension surfaceDimension = new Dimension();
     private double scanlineThreadhold = 6.0;
@@ -33,6 +36,10 @@ public abstract class AbstractPaintSurface extends JComponent implements PaintSu
     private AlphaComposite scanlineComposite = AlphaComposite.getInstance(AlphaComposite.SRC_OVER);
     private SurfaceScrollController surfaceScrollController = new DefaultSurfaceScrollController(this);
 
+    // Off-screen buffer in which layers are composited before being drawn on screen; grows to fit the largest clip
+    private BufferedImage backBuffer;
+    private boolean directPaintEnabled = true;
+
     /**
      * Creates a paint surface with the specified dimensions. Note that this dimension refers to the size of the
      * "paintable" space, which is not the same as the size of the Swing component (the surface dimension may be larger,
@@ -95,7 +102,7 @@ public abstract class AbstractPaintSurface extends JComponent implements PaintSu
      */
     @Override
     public double getScale() {
-        return scaleSubject.getValue();
+        return scale;
     }
 
     /**
@@ -119,6 +126,7 @@ public abstract class AbstractPaintSurface extends JComponent implements PaintSu
         }
 
         // Change scale
+        this.scale = scale;
         scaleSubject.onNext(scale);
         Dimension scaledDimension = scaleDimension(surfaceDimension);
         setPreferredSize(scaledDimension);
@@ -142,13 +150,12 @@ public abstract class AbstractPaintSurface extends JComponent implements PaintSu
     @Override
     public void repaint(Rectangle r) {
 
-        // Sub-region repainting not available zoomed in
-        if (r == null || getScale() > 1) {
+        if (r == null) {
             super.repaint();
         }
 
         // When calculating sub-region, need to take scale into account
-        else {
+        else if (getScale() <= 1) {
             double scale = getScale();
             super.repaint(
                     (int) (r.x * scale),
@@ -156,6 +163,54 @@ public abstract class AbstractPaintSurface extends JComponent implements PaintSu
                     (int) (r.width * scale),
                     (int) (r.height * scale));
         }
+
+        // Zoomed in, pixels are drawn relative to the clip origin; offset the sub-region by the scroll error so that its
+        // pixels align with those of a full repaint
+        else {
+            Point error = getSurfaceScrollController() == null ? new Point() : getScrollError();
+            int scale = (int) getScale();
+            super.repaint(
+                    r.x * scale + error.x,
+                    r.y * scale + error.y,
+                    r.width * scale,
+                    r.height * scale);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addOverlay(SurfaceOverlay overlay) {
+        if (!overlays.contains(overlay)) {
+            overlays.add(overlay);
+            repaintOverlay(overlay);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeOverlay(SurfaceOverlay overlay) {
+        if (overlays.remove(overlay)) {
+            repaintOverlay(overlay);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void repaintOverlay(SurfaceOverlay overlay) {
+        Rectangle bounds = overlay.getBounds();
+
+        if (bounds != null) {
+            // When zoomed out, sub-regions are truncated to whole view pixels; pad by at least one view pixel
+            int padding = (int) Math.ceil(1 / Math.min(1.0, getScale()));
+            repaint(new Rectangle(bounds.x - padding, bounds.y - padding,
+                    bounds.width + padding * 2, bounds.height + padding * 2));
+        }
     }
 
     /**
@@ -214,11 +269,35 @@ public abstract class AbstractPaintSurface extends JComponent implements PaintSu
         this.scanlineComposite = scanlineComposite;
     }
 
+    /**
+     * Determines whether layers may be painted directly onto the Swing graphics context, bypassing the off-screen
+     * buffer, when they require no intermediate compositing.
+     *
+     * @return True if direct painting is enabled; false otherwise.
+     */
+    public boolean isDirectPaintEnabled() {
+        return directPaintEnabled;
+    }
+
+    /**
+     * Enables or disables painting layers directly onto the Swing graphics context. When enabled (the default), and
+     * when every layer (and scanline) is drawn with {@link AlphaComposite#SRC_OVER}, layers are painted directly onto
+     * the screen. Otherwise, layers are first composited in an off-screen buffer so that those that erase paint (like
+     * the remove-scratch) do not erase the background beneath the surface.
+     *
+     * @param directPaintEnabled True to paint directly when possible; false to always paint via the off-screen buffer.
+     */
+    public void setDirectPaintEnabled(boolean directPaintEnabled) {
+        this.directPaintEnabled = directPaintEnabled;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void dispose() {
+        backBuffer = null;
+        overlays.clear();
         surfaceScrollController = null;
         scaleSubject.onComplete();
         KeyboardFocusManager.getCurrentKeyboardFocusManager().removeKeyEventDispatcher(this);
@@ -241,22 +320,124 @@ public abstract class AbstractPaintSurface extends JComponent implements PaintSu
                 g.fillRect(clip.x, clip.y, clip.width, clip.height);
             }
 
-            // Draw visible portion of this surface's image into a buffer (does not modify this graphics context)
-            BufferedImage buffer = new BufferedImage(clip.width, clip.height, BufferedImage.TYPE_INT_ARGB);
-            GraphicsContext g2d = new AwtGraphicsContext(buffer.createGraphics());
-            g2d.setBackground(CLEAR_COLOR);
-            g2d.clearRect(clip.x, clip.y, clip.width, clip.height);
-            paint(g2d, getScale(), clip);
-            paintScanlines(g2d, getScaledSurfaceDimension());
-            g2d.dispose();
-
-            // Draw the paint image
-            g.drawImage(buffer, clip.x, clip.y, clip.width, clip.height, null);
+            ImageLayer[] layers = getImageLayers();
+
+            // Layers drawn atop one another need no intermediate compositing; draw them straight onto the screen
+            if (directPaintEnabled && isDirectlyPaintable(layers)) {
+                Graphics2D screen = (Graphics2D) g.create();
+                screen.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+                screen.translate(clip.x, clip.y);
+
+                GraphicsContext direct = new AwtGraphicsContext(screen);
+                paintLayers(direct, layers, clip);
+                paintScanlines(direct, getScaledSurfaceDimension());
+                paintOverlays(screen, clip);
+                direct.dispose();
+            }
+
+            // Otherwise, draw visible portion of this surface's image into a buffer (does not modify this graphics context)
+            else {
+                BufferedImage buffer = getBackBuffer(clip.width, clip.height);
+                Graphics2D bufferGraphics = buffer.createGraphics();
+                GraphicsContext g2d = new AwtGraphicsContext(bufferGraphics);
+                g2d.setBackground(CLEAR_COLOR);
+                g2d.clearRect(0, 0, clip.width, clip.height);
+                paintLayers(g2d, layers, clip);
+                paintScanlines(g2d, getScaledSurfaceDimension());
+                paintOverlays(bufferGraphics, clip);
+                g2d.dispose();
+
+                // Draw the paint image
+                g.drawImage(buffer, clip.x, clip.y, clip.x + clip.width, clip.y + clip.height, 0, 0, clip.width, clip.height, null);
+            }
         }
 
         // DO NOT dispose the graphics context in this method.
     }
 
+    /**
+     * Paints the given layers of this surface at the current scale, as {@link #paint(GraphicsContext, Double, Rectangle)}
+     * would, without re-fetching the layers.
+     *
+     * @param g      The graphics context on which to paint
+     * @param layers The layers of this surface's image
+     * @param clip   The clipping rectangle, in scaled coordinates
+     */
+    private void paintLayers(GraphicsContext g, ImageLayer[] layers, Rectangle clip) {
+        double scale = getScale();
+
+        for (ImageLayer thisLayer : layers) {
+            if (thisLayer != null) {
+                thisLayer.paint(g, scale, clip);
+            }
+        }
+    }
+
+    /**
+     * Paints this surface's overlays atop its layers. Overlay coordinates are mapped onto the graphics context exactly
+     * as {@link ImageLayer#paint(GraphicsContext, double, Rectangle)} maps image pixels, so that overlays align with
+     * the pixels beneath them at any scale.
+     *
+     * @param g    The graphics context on which to paint, whose origin is the clipping rectangle's origin
+     * @param clip The clipping rectangle, in scaled coordinates
+     */
+    private void paintOverlays(Graphics2D g, Rectangle clip) {
+        if (!overlays.isEmpty()) {
+            double scale = getScale();
+
+            for (SurfaceOverlay thisOverlay : overlays.toArray(new SurfaceOverlay[]{})) {
+                GraphicsContext overlayGraphics = new AwtGraphicsContext((Graphics2D) g.create());
+                overlayGraphics.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER));
+                overlayGraphics.translate(-(int) (clip.x / scale) * scale, -(int) (clip.y / scale) * scale);
+                overlayGraphics.scale(scale, scale);
+                thisOverlay.paint(overlayGraphics);
+                overlayGraphics.dispose();
+            }
+        }
+    }
+
+    /**
+     * Determines if the given layers (and any visible scanlines) can be painted directly onto the screen; true when
+     * each is drawn with {@link AlphaComposite#SRC_OVER}, such that compositing them in an off-screen buffer first would
+     * produce the same result.
+     *
+     * @param layers The layers of this surface's image
+     * @return True if the layers can be painted directly onto the screen.
+     */
+    private boolean isDirectlyPaintable(ImageLayer[] layers) {
+        if (isScanlinesVisible() && getScanlineComposite().getRule() != AlphaComposite.SRC_OVER) {
+            return false;
+        }
+
+        for (ImageLayer thisLayer : layers) {
+            if (thisLayer != null && !(thisLayer.getComposite() instanceof AlphaComposite &&
+                    ((AlphaComposite) thisLayer.getComposite()).getRule() == AlphaComposite.SRC_OVER)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the off-screen buffer, growing it if it is smaller than the requested size. The buffer is retained between
+     * paints; only the requested region of it should be used, and it must be cleared before use.
+     *
+     * @param width  The minimum width of the buffer
+     * @param height The minimum height of the buffer
+     * @return The off-screen buffer
+     */
+    private BufferedImage getBackBuffer(int width, int height) {
+        if (backBuffer == null || backBuffer.getWidth() < width || backBuffer.getHeight() < height) {
+            backBuffer = new BufferedImage(
+                    Math.max(width, backBuffer == null ? 0 : backBuffer.getWidth()),
+                    Math.max(height, backBuffer == null ? 0 : backBuffer.getHeight()),
+                    BufferedImage.TYPE_INT_ARGB);
+        }
+
+        return backBuffer;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,46 @@
+package com.defano.jmonet.canvas.surface;
+
+/**
+ * A surface on which {@link SurfaceOverlay} graphics may be painted atop the surface's image layers.
+ */
+public interface OverlaySurface {
+
+    /**
+     * Adds an overlay to the surface; overlays are painted in the order they were added. Has no effect if the overlay
+     * has already been added.
+     * <p>
+     * The default implementation does nothing; surfaces that paint overlays must override it.
+     *
+     * @param overlay The overlay to add
+     */
+    default void addOverlay(SurfaceOverlay overlay) {
+        // Nothing to do
+    }
+
+    /**
+     * Removes an overlay from the surface; has no effect if the overlay is not present.
+     * <p>
+     * The default implementation does nothing.
+     *
+     * @param overlay The overlay to remove
+     */
+    default void removeOverlay(SurfaceOverlay overlay) {
+        // Nothing to do
+    }
+
+    /**
+     * Repaints the region of the surface bound by the overlay, as reported by {@link SurfaceOverlay#getBounds()}. An
+     * overlay whose appearance has changed should invoke this method (once before changing its bounds, and again
+     * afterwards) rather than repainting the entire surface.
+     * <p>
+     * The default implementation repaints the entire surface if it is a {@link SwingSurface}, and otherwise does
+     * nothing.
+     *
+     * @param overlay The overlay to repaint
+     */
+    default void repaintOverlay(SurfaceOverlay overlay) {
+        if (this instanceof SwingSurface) {
+            ((SwingSurface) this).getComponent().repaint();
+        }
+    }
+}
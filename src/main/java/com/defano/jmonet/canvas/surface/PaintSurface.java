@@ -10,7 +10,7 @@ import java.awt.*;
  */
 @SuppressWarnings("unused")
 public interface PaintSurface
-        extends ScanlineSurface, GridSurface, SwingSurface, ObservableSurface, ScrollableSurface, Disposable
+        extends ScanlineSurface, GridSurface, SwingSurface, ObservableSurface, ScrollableSurface, OverlaySurface, Disposable
 {
     /**
      * Specifies the un-scaled size of this painting surface. This determines the size of the image (document) that can
@@ -0,0 +1,30 @@
+package com.defano.jmonet.canvas.surface;
+
+import com.defano.jmonet.context.GraphicsContext;
+
+import java.awt.*;
+
+/**
+ * A lightweight graphic (like a selection's marching ants) painted atop a surface's image layers.
+ * <p>
+ * Unlike the scratch buffers, an overlay is not part of the surface's image: it is never committed, rendered or
+ * captured, and changing it requires no image to be redrawn; only the region of the surface it occupies is repainted.
+ */
+public interface SurfaceOverlay {
+
+    /**
+     * Paints this overlay. The graphics context is transformed such that coordinates are specified in terms of the
+     * surface's image (model), not the scaled surface component.
+     *
+     * @param g The graphics context on which to paint
+     */
+    void paint(GraphicsContext g);
+
+    /**
+     * Gets the region of the surface's image (model) which this overlay paints, or null if it paints nothing. Painting
+     * outside of these bounds may leave artifacts on the surface when the overlay changes.
+     *
+     * @return The bounds of this overlay, or null
+     */
+    Rectangle getBounds();
+}
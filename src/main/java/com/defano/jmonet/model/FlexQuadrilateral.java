@@ -160,4 +160,20 @@ public class FlexQuadrilateral implements Quadrilateral {
                 new Point(bottomRight.x - dx, bottomRight.y - dy)
         );
     }
+
+    /**
+     * Produces a copy of this quadrilateral whose corners are scaled by a given factor relative to the origin. Does
+     * not affect this shape in any way.
+     *
+     * @param factor The factor by which to scale each corner's coordinates
+     * @return A new, scaled quadrilateral.
+     */
+    public FlexQuadrilateral scale(double factor) {
+        return new FlexQuadrilateral(
+                new Point((int) Math.round(topLeft.x * factor), (int) Math.round(topLeft.y * factor)),
+                new Point((int) Math.round(topRight.x * factor), (int) Math.round(topRight.y * factor)),
+                new Point((int) Math.round(bottomLeft.x * factor), (int) Math.round(bottomLeft.y * factor)),
+                new Point((int) Math.round(bottomRight.x * factor), (int) Math.round(bottomRight.y * factor))
+        );
+    }
 }
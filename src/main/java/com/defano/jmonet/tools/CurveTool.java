@@ -51,6 +51,55 @@ public class CurveTool extends PolylineTool implements PolylineToolDelegate {
         // Not fillable; nothing to do
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public int getFixedPointCount(int points) {
+        // Each complete group of three points is drawn as a curve independent of the points which follow it
+        return (points - 1) / 3 * 3;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void strokeRubberBand(Scratch scratch, Stroke stroke, Paint paint, int[] xPoints, int[] yPoints) {
+        Shape curve = renderCurveTail(xPoints, yPoints);
+
+        GraphicsContext g = scratch.getAddScratchGraphics(this, stroke, curve);
+        g.setPaint(paint);
+        g.setStroke(stroke);
+        g.draw(curve);
+    }
+
+    /**
+     * Renders the portion of a curve path (see {@link #renderCurvePath(int[], int[])}) which follows its last complete
+     * group of three points.
+     *
+     * @param xPoints The x coordinates of the last point of the last complete group, and of the one to three points
+     *                that follow it
+     * @param yPoints The y coordinates of the last point of the last complete group, and of the one to three points
+     *                that follow it
+     * @return The tail of the curve path
+     */
+    private Shape renderCurveTail(int[] xPoints, int[] yPoints) {
+        Path2D path = new Path2D.Double();
+        path.moveTo(xPoints[0], yPoints[0]);
+
+        switch (xPoints.length) {
+            case 2:
+                path.lineTo(xPoints[1], yPoints[1]);
+                break;
+            case 3:
+                path.curveTo(xPoints[0], yPoints[0], xPoints[1], yPoints[1], xPoints[2], yPoints[2]);
+                break;
+            case 4:
+                path.curveTo(xPoints[1], yPoints[1], xPoints[2], yPoints[2], xPoints[3], yPoints[3]);
+                break;
+            default:
+                throw new IllegalStateException("Bug! Curve tail must have two to four points.");
+        }
+
+        return path;
+    }
+
     private Shape renderCurvePath(int[] xPoints, int[] yPoints) {
         Path2D path = new Path2D.Double();
         path.moveTo(xPoints[0], yPoints[0]);
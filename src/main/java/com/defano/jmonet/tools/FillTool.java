@@ -1,15 +1,20 @@
 package com.defano.jmonet.tools;
 
+import com.defano.jmonet.canvas.PaintCanvas;
 import com.defano.jmonet.model.PaintToolType;
 import com.defano.jmonet.tools.attributes.ToolAttributes;
 import com.defano.jmonet.tools.base.BasicTool;
 import com.defano.jmonet.tools.builder.PaintToolBuilder;
 import com.defano.jmonet.tools.cursors.CursorFactory;
 import com.defano.jmonet.transform.image.FloodFillTransform;
+import com.defano.jmonet.transform.image.TransformExecutor;
+import com.defano.jmonet.transform.image.TransformFuture;
 import com.google.inject.Inject;
 
+import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
 import java.util.Optional;
 
 /**
@@ -21,6 +26,10 @@ public class FillTool extends BasicTool {
     @Inject
     private FloodFillTransform floodFill;
 
+    private boolean fillInBackground;
+    private boolean filling;
+    private TransformFuture backgroundFill;
+
     /**
      * Tool must be constructed via {@link PaintToolBuilder} to handle dependency
      * injection.
@@ -34,14 +43,47 @@ public class FillTool extends BasicTool {
         return CursorFactory.makeBucketCursor();
     }
 
+    /**
+     * Determines if fills are performed in the background, off the Swing event dispatch thread.
+     *
+     * @return True if fills are performed in the background
+     */
+    public boolean isFillInBackground() {
+        return fillInBackground;
+    }
+
+    /**
+     * Specifies whether fills are performed in the background. When true, each fill is computed in parallel (see
+     * {@link FloodFillTransform#setParallel(boolean)}) on a snapshot of the canvas image by the
+     * {@link TransformExecutor}, without blocking the Swing event dispatch thread, and is committed to the canvas on the
+     * dispatch thread when complete; clicks made while a fill is in progress are ignored. A fill is discarded if the
+     * canvas is modified while it is computed. When false (the default), the fill is computed and committed before the
+     * mouse press returns.
+     *
+     * @param fillInBackground True to fill in the background; false to fill on the event dispatch thread
+     */
+    public void setFillInBackground(boolean fillInBackground) {
+        this.fillInBackground = fillInBackground;
+    }
+
+    /**
+     * Gets the most recently started background fill. The future completes when the fill has been committed, is
+     * cancelled if the fill was discarded, and completes exceptionally if the fill failed.
+     *
+     * @return The most recent background fill, or null if no fill has been performed in the background
+     */
+    public TransformFuture getBackgroundFill() {
+        return backgroundFill;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void mousePressed(MouseEvent e, Point imageLocation) {
         ToolAttributes attributes = getAttributes();
         Optional<Paint> fillPaint = attributes.getFillPaint();
 
-        // Nothing to do if no fill paint is specified
-        if (fillPaint.isPresent()) {
+        // Nothing to do if no fill paint is specified (or if a background fill is still in progress)
+        if (fillPaint.isPresent() && !filling) {
             getScratch().clear();
 
             floodFill.setFillPaint(fillPaint.get());
@@ -49,11 +91,62 @@ public class FillTool extends BasicTool {
             floodFill.setFill(attributes.getFillFunction());
             floodFill.setBoundaryFunction(attributes.getBoundaryFunction());
 
-            getScratch().setAddScratch(floodFill.apply(getCanvas().getCanvasImage()), new Rectangle(getCanvas().getCanvasSize()));
-
-            getCanvas().commit();
-            getCanvas().repaint();
+            if (fillInBackground) {
+                fillInBackground(getCanvas().getCanvasImage());
+            } else {
+                commitFill(floodFill.apply(getCanvas().getLiveCanvasImage()));
+            }
         }
     }
 
+    /**
+     * Flood-fills a snapshot of the canvas image in the background, committing the fill on the event dispatch thread
+     * when complete. Failures are reported by completing {@link #getBackgroundFill()} exceptionally.
+     *
+     * @param canvasImage A snapshot of the canvas image to fill; it must not be modified while the fill is in progress
+     */
+    private void fillInBackground(BufferedImage canvasImage) {
+        PaintCanvas canvas = getCanvas();
+        long submittedStamp = canvas.getModificationStamp();
+        Dimension submittedSize = canvas.getCanvasSize();
+
+        // Discard the fill if the tool has left the canvas, or the canvas has been modified or resized, in the meantime
+        filling = true;
+        backgroundFill = TransformExecutor.getInstance().submit(this, canvasImage, getParallelFill(),
+                () -> isActive() && getCanvas() == canvas && canvas.getModificationStamp() == submittedStamp &&
+                        canvas.getCanvasSize().equals(submittedSize),
+                this::commitFill);
+
+        backgroundFill.whenComplete((filled, error) -> SwingUtilities.invokeLater(() -> filling = false));
+    }
+
+    /**
+     * Gets a parallel flood fill configured like this tool's fill. The fill is computed off the dispatch thread, so it
+     * must not share state with the tool's fill, which is reconfigured by the next mouse press.
+     *
+     * @return A new flood fill transform that fills in parallel
+     */
+    private FloodFillTransform getParallelFill() {
+        FloodFillTransform parallelFill = new FloodFillTransform();
+        parallelFill.setFillPaint(floodFill.getFillPaint());
+        parallelFill.setOrigin(floodFill.getOrigin());
+        parallelFill.setFill(floodFill.getFill());
+        parallelFill.setBoundaryFunction(floodFill.getBoundaryFunction());
+        parallelFill.setParallel(true);
+
+        return parallelFill;
+    }
+
+    /**
+     * Commits a filled image to the canvas.
+     *
+     * @param filled An image containing only the filled pixels
+     */
+    private void commitFill(BufferedImage filled) {
+        getScratch().setAddScratch(filled, new Rectangle(getCanvas().getCanvasSize()));
+
+        getCanvas().commit();
+        getCanvas().repaint();
+    }
+
 }
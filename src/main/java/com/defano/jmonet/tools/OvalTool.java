@@ -37,7 +37,7 @@ public class OvalTool extends BoundsTool implements BoundsToolDelegate {
     /** {@inheritDoc} */
     @Override
     public void fillBounds(Scratch scratch, Paint fill, Rectangle bounds, boolean isShiftDown) {
-        GraphicsContext g = scratch.getAddScratchGraphics(this, null);
+        GraphicsContext g = scratch.getAddScratchGraphics(this, bounds);
         g.setPaint(fill);
         g.fillOval(bounds.x, bounds.y, bounds.width, bounds.height);
     }
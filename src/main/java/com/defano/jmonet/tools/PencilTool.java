@@ -38,7 +38,7 @@ public class PencilTool extends PathTool implements PathToolDelegate {
     public void startPath(Scratch scratch, Stroke stroke, Paint strokePaint, Point initialPoint) {
         ToolAttributes attributes = getAttributes();
 
-        Color pixel = new Color(getCanvas().getCanvasImage().getRGB(initialPoint.x, initialPoint.y), true);
+        Color pixel = new Color(getCanvas().getLiveCanvasImage().getRGB(initialPoint.x, initialPoint.y), true);
 
         // Pencil erases when user begins stoke over a "marked" pixel, otherwise pencil marks canvas
         isErasing = attributes.getMarkPredicate().isMarked(pixel, attributes.getEraseColor());
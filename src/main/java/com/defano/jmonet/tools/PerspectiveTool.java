@@ -30,7 +30,7 @@ public class PerspectiveTool extends TransformTool implements TransformToolDeleg
         quadrilateral.setBottomLeft(new Point(quadrilateral.getBottomLeft().x, bottomLeft));
         quadrilateral.setTopLeft(new Point(quadrilateral.getTopLeft().x, newPosition.y));
 
-        setSelectedImage(new ProjectionTransform(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y)).apply(getOriginalImage()));
+        renderProjection(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y), ProjectionTransform::new);
     }
 
     /** {@inheritDoc} */
@@ -41,7 +41,7 @@ public class PerspectiveTool extends TransformTool implements TransformToolDeleg
         quadrilateral.setBottomRight(new Point(quadrilateral.getBottomRight().x, bottomRight));
         quadrilateral.setTopRight(new Point(quadrilateral.getTopRight().x, newPosition.y));
 
-        setSelectedImage(new ProjectionTransform(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y)).apply(getOriginalImage()));
+        renderProjection(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y), ProjectionTransform::new);
     }
 
     /** {@inheritDoc} */
@@ -52,7 +52,7 @@ public class PerspectiveTool extends TransformTool implements TransformToolDeleg
         quadrilateral.setTopLeft(new Point(quadrilateral.getTopLeft().x, topLeft));
         quadrilateral.setBottomLeft(new Point(quadrilateral.getBottomLeft().x, newPosition.y));
 
-        setSelectedImage(new ProjectionTransform(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y)).apply(getOriginalImage()));
+        renderProjection(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y), ProjectionTransform::new);
     }
 
     /** {@inheritDoc} */
@@ -63,7 +63,7 @@ public class PerspectiveTool extends TransformTool implements TransformToolDeleg
         quadrilateral.setTopRight(new Point(quadrilateral.getTopRight().x, topRight));
         quadrilateral.setBottomRight(new Point(quadrilateral.getBottomRight().x, newPosition.y));
 
-        setSelectedImage(new ProjectionTransform(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y)).apply(getOriginalImage()));
+        renderProjection(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y), ProjectionTransform::new);
     }
 
 }
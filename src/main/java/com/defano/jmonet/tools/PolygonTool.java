@@ -45,10 +45,17 @@ public class PolygonTool extends PolylineTool implements PolylineToolDelegate {
         g.draw(polygon);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public int getFixedPointCount(int points) {
+        // Each side is drawn independently of the next; only the side ending at the mouse changes
+        return points - 1;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void fillPolygon(Scratch scratch, Paint fillPaint, int[] xPoints, int[] yPoints) {
-        GraphicsContext g = scratch.getAddScratchGraphics(this, null);
+        GraphicsContext g = scratch.getAddScratchGraphics(this, new Polygon(xPoints, yPoints, xPoints.length));
         g.setPaint(fillPaint);
         g.fillPolygon(xPoints, yPoints, xPoints.length);
     }
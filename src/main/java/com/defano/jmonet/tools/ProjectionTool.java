@@ -26,27 +26,27 @@ public class ProjectionTool extends TransformTool implements TransformToolDelega
     @Override
     public void moveTopLeft(FlexQuadrilateral quadrilateral, Point newPosition, boolean isShiftDown) {
         quadrilateral.setTopLeft(newPosition);
-        setSelectedImage(new ProjectionTransform(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y)).apply(getOriginalImage()));
+        renderProjection(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y), ProjectionTransform::new);
     }
 
     /** {@inheritDoc} */
     @Override
     public void moveTopRight(FlexQuadrilateral quadrilateral, Point newPosition, boolean isShiftDown) {
         quadrilateral.setTopRight(newPosition);
-        setSelectedImage(new ProjectionTransform(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y)).apply(getOriginalImage()));
+        renderProjection(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y), ProjectionTransform::new);
     }
 
     /** {@inheritDoc} */
     @Override
     public void moveBottomLeft(FlexQuadrilateral quadrilateral, Point newPosition, boolean isShiftDown) {
         quadrilateral.setBottomLeft(newPosition);
-        setSelectedImage(new ProjectionTransform(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y)).apply(getOriginalImage()));
+        renderProjection(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y), ProjectionTransform::new);
     }
 
     /** {@inheritDoc} */
     @Override
     public void moveBottomRight(FlexQuadrilateral quadrilateral, Point newPosition, boolean isShiftDown) {
         quadrilateral.setBottomRight(newPosition);
-        setSelectedImage(new ProjectionTransform(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y)).apply(getOriginalImage()));
+        renderProjection(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y), ProjectionTransform::new);
     }
 }
@@ -1,9 +1,11 @@
 package com.defano.jmonet.tools;
 
 import com.defano.jmonet.context.GraphicsContext;
+import com.defano.jmonet.model.Interpolation;
 import com.defano.jmonet.model.PaintToolType;
 import com.defano.jmonet.tools.base.SelectionTool;
 import com.defano.jmonet.tools.base.SelectionToolDelegate;
+import com.defano.jmonet.tools.util.DragPreview;
 import com.defano.jmonet.tools.util.MathUtils;
 import com.defano.jmonet.transform.image.ApplyAffineTransform;
 
@@ -29,6 +31,8 @@ public class RotateTool extends SelectionTool implements SelectionToolDelegate {
 
     private boolean rotating = false;           // Drag-rotate in progress
 
+    private final DragPreview dragPreview = new DragPreview(this::setSelectedImage);
+
     /**
      * Tool must be constructed via {@link com.defano.jmonet.tools.builder.PaintToolBuilder} to handle dependency
      * injection.
@@ -99,18 +103,34 @@ public class RotateTool extends SelectionTool implements SelectionToolDelegate {
             selectionBounds = AffineTransform.getRotateInstance(angle, originalSelectionBounds.getBounds().x + originalSelectionBounds.getBounds().width / 2.0, originalSelectionBounds.getBounds().y + originalSelectionBounds.getBounds().height / 2.0).createTransformedShape(originalSelectionBounds);
             dragHandle = AffineTransform.getRotateInstance(angle, originalSelectionBounds.getBounds().x + originalSelectionBounds.getBounds().width / 2.0, originalSelectionBounds.getBounds().y + originalSelectionBounds.getBounds().height / 2.0).createTransformedShape(originalDragHandle);
 
-            // Rotate the selected canvas image
-            setSelectedImage(new ApplyAffineTransform(AffineTransform.getRotateInstance(angle, originalImage.getWidth() / 2.0, originalImage.getHeight() / 2.0)).apply(originalImage));
+            // Rotate the selected canvas image; previews use nearest-neighbor interpolation until the drag completes
+            BufferedImage image = originalImage;
+            AffineTransform rotation = AffineTransform.getRotateInstance(angle, image.getWidth() / 2.0,
+                    image.getHeight() / 2.0);
+            dragPreview.preview(preview -> new ApplyAffineTransform(rotation,
+                    preview ? Interpolation.NEAREST_NEIGHBOR : Interpolation.BICUBIC).apply(image));
         } else {
             super.mouseDragged(e, canvasLoc);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mouseReleased(MouseEvent e, Point canvasLoc) {
+        super.mouseReleased(e, canvasLoc);
+
+        // Replace the preview of the rotated image with the full-quality result
+        dragPreview.finish();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void clearSelectionFrame() {
+        dragPreview.cancel();
         selectionBounds = null;
         originalSelectionBounds = null;
         centerpoint = null;
@@ -229,7 +249,7 @@ public class RotateTool extends SelectionTool implements SelectionToolDelegate {
         super.redrawSelection(includeFrame);
 
         // Draw the drag handle on the selection
-        GraphicsContext g = getCanvas().getScratch().getAddScratchGraphics(this, null);
+        GraphicsContext g = getCanvas().getScratch().getAddScratchGraphics(this, dragHandle);
         g.setColor(Color.black);
         g.fill(dragHandle);
         g.dispose();
@@ -26,28 +26,28 @@ public class RubberSheetTool extends TransformTool implements TransformToolDeleg
     @Override
     public void moveTopLeft(FlexQuadrilateral quadrilateral, Point newPosition, boolean isShiftDown) {
         quadrilateral.setTopLeft(newPosition);
-        setSelectedImage(new RubbersheetTransform(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y)).apply(getOriginalImage()));
+        renderProjection(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y), RubbersheetTransform::new);
     }
 
     /** {@inheritDoc} */
     @Override
     public void moveTopRight(FlexQuadrilateral quadrilateral, Point newPosition, boolean isShiftDown) {
         quadrilateral.setTopRight(newPosition);
-        setSelectedImage(new RubbersheetTransform(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y)).apply(getOriginalImage()));
+        renderProjection(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y), RubbersheetTransform::new);
     }
 
     /** {@inheritDoc} */
     @Override
     public void moveBottomLeft(FlexQuadrilateral quadrilateral, Point newPosition, boolean isShiftDown) {
         quadrilateral.setBottomLeft(newPosition);
-        setSelectedImage(new RubbersheetTransform(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y)).apply(getOriginalImage()));
+        renderProjection(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y), RubbersheetTransform::new);
     }
 
     /** {@inheritDoc} */
     @Override
     public void moveBottomRight(FlexQuadrilateral quadrilateral, Point newPosition, boolean isShiftDown) {
         quadrilateral.setBottomRight(newPosition);
-        setSelectedImage(new RubbersheetTransform(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y)).apply(getOriginalImage()));
+        renderProjection(quadrilateral.translate(getSelectedImageLocation().x, getSelectedImageLocation().y), RubbersheetTransform::new);
     }
 
 }
@@ -44,7 +44,7 @@ public class ScaleTool extends TransformTool implements TransformToolDelegate {
         quadrilateral.getTopRight().y = quadrilateral.getTopLeft().y;
         quadrilateral.getBottomLeft().x = quadrilateral.getTopLeft().x;
 
-        setSelectedImage(new ScaleTransform(quadrilateral.getShape().getBounds().getSize()).apply(getOriginalImage()));
+        scale(quadrilateral);
     }
 
     /** {@inheritDoc} */
@@ -67,7 +67,7 @@ public class ScaleTool extends TransformTool implements TransformToolDelegate {
         quadrilateral.getTopLeft().y = quadrilateral.getTopRight().y;
         quadrilateral.getBottomRight().x = quadrilateral.getTopRight().x;
 
-        setSelectedImage(new ScaleTransform(quadrilateral.getShape().getBounds().getSize()).apply(getOriginalImage()));
+        scale(quadrilateral);
     }
 
     /** {@inheritDoc} */
@@ -90,7 +90,7 @@ public class ScaleTool extends TransformTool implements TransformToolDelegate {
         quadrilateral.getTopLeft().x = quadrilateral.getBottomLeft().x;
         quadrilateral.getBottomRight().y = quadrilateral.getBottomLeft().y;
 
-        setSelectedImage(new ScaleTransform(quadrilateral.getShape().getBounds().getSize()).apply(getOriginalImage()));
+        scale(quadrilateral);
     }
 
     /** {@inheritDoc} */
@@ -113,7 +113,12 @@ public class ScaleTool extends TransformTool implements TransformToolDelegate {
         quadrilateral.getBottomLeft().y = quadrilateral.getBottomRight().y;
         quadrilateral.getTopRight().x = quadrilateral.getBottomRight().x;
 
-        setSelectedImage(new ScaleTransform(quadrilateral.getShape().getBounds().getSize()).apply(getOriginalImage()));
+        scale(quadrilateral);
+    }
+
+    private void scale(FlexQuadrilateral quadrilateral) {
+        Dimension size = quadrilateral.getShape().getBounds().getSize();
+        renderTransform(preview -> new ScaleTransform(size).apply(preview ? getPreviewImage() : getOriginalImage()));
     }
 
     private FlexQuadrilateral originalQuad() {
@@ -38,9 +38,11 @@ public class ShapeTool extends BoundsTool implements BoundsToolDelegate {
     /** {@inheritDoc} */
     @Override
     public void fillBounds(Scratch scratch, Paint fill, Rectangle bounds, boolean isShiftDown) {
-        GraphicsContext g = scratch.getAddScratchGraphics(this, null);
+        Polygon poly = MathUtils.polygon(getInitialPoint(), getAttributes().getShapeSides(), getRadius(), getRotationAngle(isShiftDown));
+
+        GraphicsContext g = scratch.getAddScratchGraphics(this, poly);
         g.setPaint(fill);
-        g.fill(MathUtils.polygon(getInitialPoint(), getAttributes().getShapeSides(), getRadius(), getRotationAngle(isShiftDown)));
+        g.fill(poly);
     }
 
     private double getRadius() {
@@ -4,6 +4,7 @@ import com.defano.jmonet.tools.base.TransformToolDelegate;
 import com.defano.jmonet.transform.image.SlantTransform;
 import com.defano.jmonet.model.PaintToolType;
 import com.defano.jmonet.model.FlexQuadrilateral;
+import com.defano.jmonet.model.Interpolation;
 import com.defano.jmonet.tools.base.TransformTool;
 import com.defano.jmonet.tools.util.MathUtils;
 
@@ -30,7 +31,7 @@ public class SlantTool extends TransformTool implements TransformToolDelegate {
         quadrilateral.getTopLeft().x = newPosition.x;
 
         int xTranslation = (quadrilateral.getTopLeft().x - getSelectionFrame().getBounds().x) / 2;
-        setSelectedImage(new SlantTransform(getTheta(quadrilateral), xTranslation).apply(getOriginalImage()));
+        slant(getTheta(quadrilateral), xTranslation);
     }
 
     /** {@inheritDoc} */
@@ -40,7 +41,7 @@ public class SlantTool extends TransformTool implements TransformToolDelegate {
         quadrilateral.getTopRight().x = newPosition.x;
 
         int xTranslation = (quadrilateral.getTopLeft().x - getSelectionFrame().getBounds().x) / 2;
-        setSelectedImage(new SlantTransform(getTheta(quadrilateral), xTranslation).apply(getOriginalImage()));
+        slant(getTheta(quadrilateral), xTranslation);
     }
 
     /** {@inheritDoc} */
@@ -50,7 +51,7 @@ public class SlantTool extends TransformTool implements TransformToolDelegate {
         quadrilateral.getBottomLeft().x = newPosition.x;
 
         int xTranslation = ((getSelectionFrame().getBounds().x + getSelectionFrame().getBounds().width) - quadrilateral.getBottomRight().x) / 2;
-        setSelectedImage(new SlantTransform(getTheta(quadrilateral), xTranslation).apply(getOriginalImage()));
+        slant(getTheta(quadrilateral), xTranslation);
     }
 
     /** {@inheritDoc} */
@@ -60,7 +61,12 @@ public class SlantTool extends TransformTool implements TransformToolDelegate {
         quadrilateral.getBottomRight().x = newPosition.x;
 
         int xTranslation = ((getSelectionFrame().getBounds().x + getSelectionFrame().getBounds().width) - quadrilateral.getBottomRight().x) / 2;
-        setSelectedImage(new SlantTransform(getTheta(quadrilateral), xTranslation).apply(getOriginalImage()));
+        slant(getTheta(quadrilateral), xTranslation);
+    }
+
+    private void slant(double theta, int xTranslation) {
+        renderTransform(preview -> new SlantTransform(theta, xTranslation,
+                preview ? Interpolation.NEAREST_NEIGHBOR : Interpolation.BICUBIC).apply(getOriginalImage()));
     }
 
     private double getTheta(FlexQuadrilateral quadrilateral) {
@@ -183,12 +183,13 @@ public class TextTool extends BasicTool implements SurfaceInteractionObserver {
         return new Font(
                 getAttributes().getFont().getFamily(),
                 getAttributes().getFont().getStyle(),
-                (int) (getAttributes().getFont().getSize() * getCanvas().getScaleObservable().blockingFirst())
+                (int) (getAttributes().getFont().getSize() * getCanvas().getScale())
         );
     }
 
     private int getFontAscent() {
-        GraphicsContext g = getScratch().getAddScratchGraphics(this, null);
+        // Measuring the font draws nothing; request the context with empty bounds so no region is dirtied
+        GraphicsContext g = getScratch().getAddScratchGraphics(this, new Rectangle());
         FontMetrics metrics = g.getFontMetrics(getAttributes().getFont());
 
         return metrics.getAscent();
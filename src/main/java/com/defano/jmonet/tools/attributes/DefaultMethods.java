@@ -0,0 +1,30 @@
+package com.defano.jmonet.tools.attributes;
+
+/**
+ * Utility for detecting whether attribute functions have overridden their interface's default behavior.
+ */
+class DefaultMethods {
+
+    /**
+     * Library of static methods; cannot be instantiated.
+     */
+    private DefaultMethods() {}
+
+    /**
+     * Determines if an object uses its interface's default implementation of a method (that is, the method has not
+     * been overridden).
+     *
+     * @param object         The object to test
+     * @param iface          The interface declaring the default method
+     * @param name           The name of the method
+     * @param parameterTypes The method's parameter types
+     * @return True if the object's implementation of the method is the interface default.
+     */
+    static boolean isDefault(Object object, Class<?> iface, String name, Class<?>... parameterTypes) {
+        try {
+            return object != null && object.getClass().getMethod(name, parameterTypes).getDeclaringClass() == iface;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
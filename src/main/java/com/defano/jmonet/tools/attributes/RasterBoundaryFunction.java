@@ -0,0 +1,65 @@
+package com.defano.jmonet.tools.attributes;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * A {@link BoundaryFunction} that determines boundaries from packed ARGB pixel arrays rather than from images.
+ * <p>
+ * Flood fills read the canvas and scratch images into (or directly from) pixel arrays once, and consult this function
+ * for each pixel without the cost of {@link BufferedImage#getRGB(int, int)} or {@link java.awt.Color} allocation. A
+ * boundary function implementing this interface is used this way automatically; the unmodified default
+ * {@link BoundaryFunction} is replaced with {@link #DEFAULT}.
+ */
+@FunctionalInterface
+public interface RasterBoundaryFunction extends BoundaryFunction {
+
+    /**
+     * A boundary function equivalent to the default {@link BoundaryFunction}: any pixel that is not fully transparent on
+     * either the canvas or the scratch buffer is a boundary.
+     */
+    RasterBoundaryFunction DEFAULT = (canvas, scratch, offset, stride, x, y) ->
+            (canvas[offset + y * stride + x] >>> 24) != 0 || (scratch[offset + y * stride + x] >>> 24) != 0;
+
+    /**
+     * Determines if a given pixel on the canvas should not be flood-filled. See
+     * {@link BoundaryFunction#isBoundary(BufferedImage, BufferedImage, int, int)} for the contract of this method.
+     *
+     * @param canvas  The existing canvas image as packed, non-premultiplied ARGB pixels
+     * @param scratch The scratch buffer containing just the flood-fill changes, as packed, non-premultiplied ARGB pixels
+     * @param offset  The index of pixel (0, 0) in both arrays
+     * @param stride  The distance, in array elements, between vertically adjacent pixels in both arrays
+     * @param x       The x coordinate of the pixel to boundary check; its index is offset + y * stride + x
+     * @param y       The y coordinate of the pixel to boundary check
+     * @return True if the pixel is a boundary (should not be filled), false otherwise
+     */
+    boolean isBoundary(int[] canvas, int[] scratch, int offset, int stride, int x, int y);
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Reads the given pixel from each image and delegates to
+     * {@link #isBoundary(int[], int[], int, int, int, int)}.
+     */
+    @Override
+    default boolean isBoundary(BufferedImage canvas, BufferedImage scratch, int x, int y) {
+        return isBoundary(new int[]{canvas.getRGB(x, y)}, new int[]{scratch.getRGB(x, y)}, -x, 0, x, y);
+    }
+
+    /**
+     * Gets a raster boundary function equivalent to a given boundary function.
+     *
+     * @param boundaryFunction The boundary function
+     * @return The given function if it implements this interface, {@link #DEFAULT} if it is an unmodified
+     * {@link BoundaryFunction}, or null if the function must be evaluated on images.
+     */
+    static RasterBoundaryFunction of(BoundaryFunction boundaryFunction) {
+        if (boundaryFunction instanceof RasterBoundaryFunction) {
+            return (RasterBoundaryFunction) boundaryFunction;
+        } else if (DefaultMethods.isDefault(boundaryFunction, BoundaryFunction.class, "isBoundary",
+                BufferedImage.class, BufferedImage.class, int.class, int.class)) {
+            return DEFAULT;
+        } else {
+            return null;
+        }
+    }
+}
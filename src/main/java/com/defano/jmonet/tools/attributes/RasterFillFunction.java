@@ -0,0 +1,69 @@
+package com.defano.jmonet.tools.attributes;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * A {@link FillFunction} that fills runs of pixels in packed ARGB pixel arrays rather than single pixels of an image.
+ * <p>
+ * Fills resolve their paint once (see {@link RasterPaint}) and invoke this function for each horizontal run of pixels
+ * to be filled, without the cost of {@link BufferedImage#setRGB(int, int, int)} or of re-fetching a texture's image for
+ * each pixel. A fill function implementing this interface is used this way automatically; the unmodified default
+ * {@link FillFunction} is replaced with {@link #DEFAULT}.
+ */
+@FunctionalInterface
+public interface RasterFillFunction extends FillFunction {
+
+    /**
+     * A fill function equivalent to the default {@link FillFunction}: pixels take the color of the paint, or of the
+     * texture pixel tiled at their coordinate.
+     */
+    RasterFillFunction DEFAULT = (pixels, offset, stride, x, y, length, fillPaint) ->
+            fillPaint.fill(pixels, offset + y * stride + x, x, y, length);
+
+    /**
+     * Fills a horizontal run of pixels with a given paint or texture.
+     *
+     * @param pixels    The pixels of the image being filled, packed as non-premultiplied ARGB values
+     * @param offset    The index of pixel (0, 0) in the array
+     * @param stride    The distance, in array elements, between vertically adjacent pixels
+     * @param x         The x coordinate of the first pixel to fill; its index is offset + y * stride + x
+     * @param y         The y coordinate of the pixels to fill
+     * @param length    The number of horizontally adjacent pixels to fill
+     * @param fillPaint The paint to apply, resolved to pixels where possible
+     */
+    void fill(int[] pixels, int offset, int stride, int x, int y, int length, RasterPaint fillPaint);
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Delegates to {@link #fill(int[], int, int, int, int, int, RasterPaint)} for the single pixel, resolving the paint
+     * anew (copying a texture's pixels) on each call. This method exists only for callers filling one pixel at a time
+     * through the {@link FillFunction} interface; fill transforms resolve the paint once and invoke the raster method
+     * directly, never this one.
+     */
+    @Override
+    default void fill(BufferedImage image, int x, int y, Paint fillPaint) {
+        int[] pixel = new int[]{image.getRGB(x, y)};
+        fill(pixel, -x, 0, x, y, 1, new RasterPaint(fillPaint));
+        image.setRGB(x, y, pixel[0]);
+    }
+
+    /**
+     * Gets a raster fill function equivalent to a given fill function.
+     *
+     * @param fillFunction The fill function
+     * @return The given function if it implements this interface, {@link #DEFAULT} if it is an unmodified
+     * {@link FillFunction}, or null if the function must be applied to images.
+     */
+    static RasterFillFunction of(FillFunction fillFunction) {
+        if (fillFunction instanceof RasterFillFunction) {
+            return (RasterFillFunction) fillFunction;
+        } else if (DefaultMethods.isDefault(fillFunction, FillFunction.class, "fill",
+                BufferedImage.class, int.class, int.class, Paint.class)) {
+            return DEFAULT;
+        } else {
+            return null;
+        }
+    }
+}
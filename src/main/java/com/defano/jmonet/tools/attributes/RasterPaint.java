@@ -0,0 +1,104 @@
+package com.defano.jmonet.tools.attributes;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * A {@link Paint} resolved to packed ARGB pixels, for filling rasters of packed ARGB pixels without consulting the
+ * paint for each pixel.
+ * <p>
+ * A {@link Color} resolves to a single pixel value. A {@link TexturePaint} resolves to a copy of its texture's pixels,
+ * which tile the raster from its origin (the texture's anchor rectangle is ignored, as it is by {@link FillFunction}).
+ * Other kinds of paint are retained as-is, but cannot be resolved to pixels.
+ */
+public class RasterPaint {
+
+    private final Paint paint;
+    private final int rgb;
+    private final int[] texture;
+    private final int textureWidth;
+    private final int textureHeight;
+
+    /**
+     * Resolves a paint to packed ARGB pixels. Texture pixels are copied once, here; subsequent changes to the texture
+     * image are not reflected in this object.
+     *
+     * @param paint The paint to resolve
+     */
+    public RasterPaint(Paint paint) {
+        this.paint = paint;
+
+        if (paint instanceof TexturePaint) {
+            BufferedImage image = ((TexturePaint) paint).getImage();
+            this.rgb = 0;
+            this.textureWidth = image.getWidth();
+            this.textureHeight = image.getHeight();
+            this.texture = image.getRGB(0, 0, textureWidth, textureHeight, null, 0, textureWidth);
+        } else {
+            this.rgb = paint instanceof Color ? ((Color) paint).getRGB() : 0;
+            this.textureWidth = 0;
+            this.textureHeight = 0;
+            this.texture = null;
+        }
+    }
+
+    /**
+     * Gets the paint this object was resolved from.
+     *
+     * @return The paint
+     */
+    public Paint getPaint() {
+        return paint;
+    }
+
+    /**
+     * Determines if this paint can be resolved to pixels; that is, if it is a {@link Color} or {@link TexturePaint}.
+     *
+     * @return True if {@link #getRGB(int, int)} and {@link #fill(int[], int, int, int, int)} may be used.
+     */
+    public boolean isResolved() {
+        return paint instanceof Color || texture != null;
+    }
+
+    /**
+     * Gets the packed ARGB value this paint produces at a given coordinate.
+     *
+     * @param x The x coordinate of the pixel
+     * @param y The y coordinate of the pixel
+     * @return The pixel value
+     * @throws IllegalArgumentException If this paint cannot be resolved to pixels
+     */
+    public int getRGB(int x, int y) {
+        if (texture != null) {
+            return texture[(y % textureHeight) * textureWidth + x % textureWidth];
+        } else if (paint instanceof Color) {
+            return rgb;
+        } else {
+            throw new IllegalArgumentException("Don't know how to fill using this kind of paint: " + paint);
+        }
+    }
+
+    /**
+     * Writes the pixels this paint produces for a horizontal run of coordinates into a pixel array.
+     *
+     * @param pixels The array to write to
+     * @param index  The index in the array at which to write the pixel for (x, y)
+     * @param x      The x coordinate of the first pixel in the run
+     * @param y      The y coordinate of the run
+     * @param length The number of pixels in the run
+     * @throws IllegalArgumentException If this paint cannot be resolved to pixels
+     */
+    public void fill(int[] pixels, int index, int x, int y, int length) {
+        if (texture != null) {
+            int row = (y % textureHeight) * textureWidth;
+            for (int offset = 0; offset < length; offset++) {
+                pixels[index + offset] = texture[row + (x + offset) % textureWidth];
+            }
+        } else if (paint instanceof Color) {
+            Arrays.fill(pixels, index, index + length, rgb);
+        } else {
+            throw new IllegalArgumentException("Don't know how to fill using this kind of paint: " + paint);
+        }
+    }
+}
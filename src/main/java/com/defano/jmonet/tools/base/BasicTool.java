@@ -3,7 +3,6 @@ package com.defano.jmonet.tools.base;
 import com.defano.jmonet.canvas.PaintCanvas;
 import com.defano.jmonet.canvas.Scratch;
 import com.defano.jmonet.canvas.observable.SurfaceInteractionObserver;
-import com.defano.jmonet.model.Interpolation;
 import com.defano.jmonet.model.PaintToolType;
 import com.defano.jmonet.tools.attributes.ToolAttributes;
 import com.defano.jmonet.tools.cursors.CursorManager;
@@ -84,11 +83,7 @@ public class BasicTool<DelegateType> implements Tool, SurfaceInteractionObserver
     @Override
     public Scratch getScratch() {
         Scratch scratch = getCanvas().getScratch();
-
-        Interpolation antialiasing = getAttributes().getAntiAliasing();
-        scratch.getAddScratchGraphics(this, null).setAntialiasingMode(antialiasing);
-        scratch.getRemoveScratchGraphics(this, null).setAntialiasingMode(antialiasing);
-
+        scratch.setAntialiasingMode(getAttributes().getAntiAliasing());
         return scratch;
     }
 
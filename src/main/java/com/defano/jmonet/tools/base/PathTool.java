@@ -40,7 +40,7 @@ public class PathTool extends BasicTool<PathToolDelegate> implements SurfaceInte
         getDelegate().startPath(getScratch(), getAttributes().getStroke(), getAttributes().getStrokePaint(), imageLocation);
         lastPoint = imageLocation;
 
-        getCanvas().repaint(getScratch().getDirtyRegion());
+        getCanvas().repaint(getScratch().takeRecentlyDirtiedRegion());
     }
 
     /** {@inheritDoc} */
@@ -49,8 +49,8 @@ public class PathTool extends BasicTool<PathToolDelegate> implements SurfaceInte
         getDelegate().addPoint(getScratch(), getAttributes().getStroke(), getAttributes().getStrokePaint(), lastPoint, canvasLoc);
         lastPoint = canvasLoc;
 
-        // While mouse is down, only repaint the modified area of the canvas
-        getCanvas().repaint(getScratch().getDirtyRegion());
+        // While mouse is down, only repaint the area of the canvas modified by this segment of the path
+        getCanvas().repaint(getScratch().takeRecentlyDirtiedRegion());
     }
 
     /** {@inheritDoc} */
@@ -1,6 +1,9 @@
 package com.defano.jmonet.tools.base;
 
+import com.defano.jmonet.canvas.Scratch;
+import com.defano.jmonet.canvas.layer.ImageLayer;
 import com.defano.jmonet.canvas.observable.SurfaceInteractionObserver;
+import com.defano.jmonet.context.GraphicsContext;
 import com.defano.jmonet.model.PaintToolType;
 import com.defano.jmonet.tools.util.MathUtils;
 
@@ -16,12 +19,21 @@ import java.util.List;
  * filled.
  *
  * See {@link com.defano.jmonet.tools.CurveTool} and {@link com.defano.jmonet.tools.PolygonTool} as examples.
+ * <p>
+ * While the user moves the mouse, the fixed points of the polyline (see
+ * {@link PolylineToolDelegate#getFixedPointCount(int)}) are drawn once into a cached layer; only the rubber band
+ * following them is redrawn, and only the region of the canvas it dirties is repainted.
  */
 public class PolylineTool extends BasicTool<PolylineToolDelegate> implements SurfaceInteractionObserver {
 
     private final List<Point> points = new ArrayList<>();
     private Point currentPoint = null;
 
+    private Scratch fixedLayer;             // Cached rendering of the polyline's fixed points (its layers are
+                                            // re-fetched after each render; they do not reflect its clear)
+    private int fixedPointCount;            // Number of points rendered in the fixed layer
+    private Rectangle rubberBandBounds;     // Region of the scratch dirtied by the last rubber band drawn
+
     public PolylineTool(PaintToolType toolType) {
         super(toolType);
     }
@@ -51,12 +63,33 @@ public class PolylineTool extends BasicTool<PolylineToolDelegate> implements Sur
             points.add(currentPoint);
         }
 
-        int[] xs = points.stream().mapToInt(i -> i.x).toArray();
-        int[] ys = points.stream().mapToInt(i -> i.y).toArray();
+        int fixedPoints = getDelegate().getFixedPointCount(points.size());
 
-        getScratch().clear();
-        getDelegate().strokePolyline(getScratch(), getAttributes().getStroke(), getAttributes().getStrokePaint(), xs, ys);
-        getCanvas().repaint();
+        // Nothing worth caching; redraw the entire polyline
+        if (fixedPoints < 2) {
+            int[] xs = points.stream().mapToInt(i -> i.x).toArray();
+            int[] ys = points.stream().mapToInt(i -> i.y).toArray();
+
+            releaseFixedLayer();
+            getScratch().clear();
+            getDelegate().strokePolyline(getScratch(), getAttributes().getStroke(), getAttributes().getStrokePaint(), xs, ys);
+            getCanvas().repaint();
+        }
+
+        // Fixed points have changed (or the scratch has been cleared); redraw them, then the rubber band
+        else if (fixedPoints != fixedPointCount || fixedLayer == null || getScratch().getDirtyRegion() == null) {
+            renderFixedLayer(fixedPoints);
+            strokeRubberBand(fixedPoints);
+            getCanvas().repaint();
+        }
+
+        // Otherwise, erase the previous rubber band and draw the new one
+        else {
+            restoreFixedLayer(rubberBandBounds);
+            Rectangle erased = getScratch().takeRecentlyDirtiedRegion();
+            Rectangle drawn = strokeRubberBand(fixedPoints);
+            getCanvas().repaint(erased == null ? drawn : drawn == null ? erased : erased.union(drawn));
+        }
 
         points.remove(points.size() - 1);
     }
@@ -81,7 +114,86 @@ public class PolylineTool extends BasicTool<PolylineToolDelegate> implements Sur
         }
     }
 
+    /**
+     * Draws the given number of leading points of the polyline into the fixed layer, and replaces the contents of the
+     * scratch buffer with it.
+     *
+     * @param fixedPoints The number of fixed points to render
+     */
+    private void renderFixedLayer(int fixedPoints) {
+        Scratch scratch = getScratch();
+
+        if (fixedLayer == null || !fixedLayer.getSize().equals(scratch.getSize())) {
+            fixedLayer = new Scratch(scratch.getSize().width, scratch.getSize().height);
+        } else {
+            fixedLayer.clear();
+        }
+
+        int[] xs = points.stream().limit(fixedPoints).mapToInt(i -> i.x).toArray();
+        int[] ys = points.stream().limit(fixedPoints).mapToInt(i -> i.y).toArray();
+        getDelegate().strokePolyline(fixedLayer, getAttributes().getStroke(), getAttributes().getStrokePaint(), xs, ys);
+        fixedPointCount = fixedPoints;
+
+        scratch.clear();
+        ImageLayer fixed = fixedLayer.getAddScratchLayer();
+        if (fixed != null) {
+            GraphicsContext g = scratch.getAddScratchGraphics(this, fixed.getBounds());
+            fixed.paint(g, 1.0, null);
+        }
+
+        scratch.takeRecentlyDirtiedRegion();
+    }
+
+    /**
+     * Restores a region of the scratch buffer to the contents of the fixed layer, erasing the rubber band drawn there.
+     *
+     * @param region The region to restore, or null if there's nothing to restore
+     */
+    private void restoreFixedLayer(Rectangle region) {
+        if (region == null) {
+            return;
+        }
+
+        GraphicsContext g = getScratch().getAddScratchGraphics(this, region);
+        g.setComposite(AlphaComposite.Clear);
+        g.fill(region);
+        g.setComposite(AlphaComposite.SrcOver);
+
+        ImageLayer fixed = fixedLayer.getAddScratchLayer();
+        if (fixed != null && fixed.getBounds().intersects(region)) {
+            g.setClip(region);
+            fixed.paint(g, 1.0, null);
+            g.setClip(null);
+        }
+    }
+
+    /**
+     * Draws the rubber band following the fixed points of the polyline, which includes the current point.
+     *
+     * @param fixedPoints The number of fixed points
+     * @return The region of the scratch buffer dirtied by the rubber band, or null if none
+     */
+    private Rectangle strokeRubberBand(int fixedPoints) {
+        List<Point> rubberBand = points.subList(fixedPoints - 1, points.size());
+        int[] xs = rubberBand.stream().mapToInt(i -> i.x).toArray();
+        int[] ys = rubberBand.stream().mapToInt(i -> i.y).toArray();
+
+        getDelegate().strokeRubberBand(getScratch(), getAttributes().getStroke(), getAttributes().getStrokePaint(), xs, ys);
+        rubberBandBounds = getScratch().takeRecentlyDirtiedRegion();
+        return rubberBandBounds;
+    }
+
+    /**
+     * Discards the cached rendering of the polyline's fixed points.
+     */
+    private void releaseFixedLayer() {
+        fixedLayer = null;
+        fixedPointCount = 0;
+        rubberBandBounds = null;
+    }
+
     private void commitPolygon() {
+        releaseFixedLayer();
         getScratch().clear();
 
         int[] xs = points.stream().mapToInt(i -> i.x).toArray();
@@ -98,6 +210,7 @@ public class PolylineTool extends BasicTool<PolylineToolDelegate> implements Sur
     }
 
     private void commitPolyline() {
+        releaseFixedLayer();
         getScratch().clear();
 
         int[] xs = points.stream().mapToInt(i -> i.x).toArray();
@@ -110,6 +223,13 @@ public class PolylineTool extends BasicTool<PolylineToolDelegate> implements Sur
         getCanvas().commit();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void deactivate() {
+        releaseFixedLayer();
+        super.deactivate();
+    }
+
     /** {@inheritDoc} */
     @Override
     public void keyPressed(KeyEvent e) {
@@ -41,4 +41,36 @@ public interface PolylineToolDelegate {
      */
     void fillPolygon(Scratch scratch, Paint fillPaint, int[] xPoints, int[] yPoints);
 
+    /**
+     * Gets the number of leading points of an incomplete polyline whose rendering is unaffected by the points that
+     * follow them. As the user moves the mouse, the tool draws these points once and thereafter redraws only the
+     * "rubber band" that follows them (see {@link #strokeRubberBand(Scratch, Stroke, Paint, int[], int[])}).
+     * <p>
+     * By default, returns zero, causing the entire polyline to be redrawn each time the mouse moves.
+     *
+     * @param points The number of points in the polyline, including the last point, which follows the mouse.
+     * @return The number of fixed points; values less than two disable incremental drawing.
+     */
+    default int getFixedPointCount(int points) {
+        return 0;
+    }
+
+    /**
+     * Draws the rubber band of an incomplete polyline; that is, the portion which follows the polyline's fixed points
+     * (see {@link #getFixedPointCount(int)}). Together with the fixed points drawn by
+     * {@link #strokePolyline(Scratch, Stroke, Paint, int[], int[])}, this should draw the same polyline as stroking
+     * every point, except perhaps for the join at the last fixed point.
+     * <p>
+     * By default, strokes the given points as a polyline.
+     *
+     * @param scratch The scratch buffer on which to draw.
+     * @param stroke The current stroke context.
+     * @param strokePaint The current paint context.
+     * @param xPoints The x coordinates of the last fixed point and of every point following it
+     * @param yPoints The y coordinates of the last fixed point and of every point following it
+     */
+    default void strokeRubberBand(Scratch scratch, Stroke stroke, Paint strokePaint, int[] xPoints, int[] yPoints) {
+        strokePolyline(scratch, stroke, strokePaint, xPoints, yPoints);
+    }
+
 }
@@ -13,6 +13,7 @@ import com.defano.jmonet.tools.util.MathUtils;
 import com.defano.jmonet.tools.util.ImageUtils;
 import com.defano.jmonet.tools.util.MarchingAnts;
 import com.defano.jmonet.tools.util.MarchingAntsObserver;
+import com.defano.jmonet.tools.util.MarchingAntsOverlay;
 import io.reactivex.Observable;
 import io.reactivex.subjects.BehaviorSubject;
 
@@ -29,6 +30,7 @@ import java.util.Optional;
 public class SelectionTool extends BasicTool<SelectionToolDelegate> implements CanvasCommitObserver, MarchingAntsObserver, MutableSelection, SurfaceInteractionObserver {
 
     private final BehaviorSubject<Optional<BufferedImage>> selectedImage = BehaviorSubject.createDefault(Optional.empty());
+    private final MarchingAntsOverlay antsOverlay = new MarchingAntsOverlay();
 
     private Point initialPoint;
     private Point lastPoint;
@@ -176,7 +178,7 @@ public class SelectionTool extends BasicTool<SelectionToolDelegate> implements C
         super.activate(canvas);
 
         getCanvas().addCanvasCommitObserver(this);
-        MarchingAnts.getInstance().addObserver(this);
+        MarchingAnts.getInstance().addObserver(this, getCanvas().getComponent());
     }
 
     /**
@@ -189,6 +191,7 @@ public class SelectionTool extends BasicTool<SelectionToolDelegate> implements C
 
         if (isActive()) {
             getCanvas().removeCanvasCommitObserver(this);
+            eraseSelectionFrame();
         }
 
         MarchingAnts.getInstance().removeObserver(this);
@@ -260,13 +263,14 @@ public class SelectionTool extends BasicTool<SelectionToolDelegate> implements C
      * <p>
      * Removes the selected image such that a subsequent call to {@link #getSelectedImage()} will return null;
      * marks the selection as clean (indicating no changes made by the user); resets the selection frame to an
-     * unselected state; clears any pixels (like marching ants) drawn on the add-scratch buffer and finally invalidates
-     * the canvas for repainting.
+     * unselected state; removes the marching ants, clears any pixels drawn on the add-scratch buffer and finally
+     * invalidates the canvas for repainting.
      */
     private void abortSelection() {
         selectedImage.onNext(Optional.empty());
         dirty = false;
         resetSelection();
+        eraseSelectionFrame();
 
         getScratch().clearAddScratch();
         getCanvas().repaint();
@@ -327,7 +331,7 @@ public class SelectionTool extends BasicTool<SelectionToolDelegate> implements C
      */
     protected void getSelectionFromCanvas() {
         Shape selectionBounds = getSelectionFrame();
-        BufferedImage maskedSelection = getSelectionCroppedCopy(getCanvas().getCanvasImage());
+        BufferedImage maskedSelection = getSelectionCroppedCopy(getCanvas().getLiveCanvasImage());
         BufferedImage trimmedSelection = maskedSelection.getSubimage(selectionBounds.getBounds().x, selectionBounds.getBounds().y, selectionBounds.getBounds().width, selectionBounds.getBounds().height);
 
         selectedImage.onNext(Optional.of(trimmedSelection));
@@ -379,6 +383,8 @@ public class SelectionTool extends BasicTool<SelectionToolDelegate> implements C
 
         if (includeFrame) {
             drawSelectionFrame();
+        } else {
+            eraseSelectionFrame();
         }
 
         getCanvas().repaint();
@@ -399,16 +405,23 @@ public class SelectionTool extends BasicTool<SelectionToolDelegate> implements C
 
     /**
      * Renders the selection frame (marching ants) on the canvas.
+     * <p>
+     * The ants are painted in an overlay atop the canvas, not on the scratch buffer, so that they can march without
+     * the selection being redrawn.
      */
     protected void drawSelectionFrame() {
-        Shape selectionFrame = getSelectionFrame();
+        getCanvas().repaintOverlay(antsOverlay);
+        antsOverlay.setFrame(getSelectionFrame());
+        getCanvas().addOverlay(antsOverlay);
+        getCanvas().repaintOverlay(antsOverlay);
+    }
 
-        GraphicsContext g = getScratch().getAddScratchGraphics(this, MarchingAnts.getInstance().getMarchingAnts(), selectionFrame);
-        g.setColor(MarchingAnts.getInstance().getPathColor());
-        g.draw(selectionFrame);
-        g.setStroke(MarchingAnts.getInstance().getMarchingAnts());
-        g.setColor(MarchingAnts.getInstance().getAntColor());
-        g.draw(selectionFrame);
+    /**
+     * Removes the selection frame (marching ants) from the canvas.
+     */
+    private void eraseSelectionFrame() {
+        getCanvas().removeOverlay(antsOverlay);
+        antsOverlay.setFrame(null);
     }
 
     /**
@@ -515,8 +528,11 @@ public class SelectionTool extends BasicTool<SelectionToolDelegate> implements C
      */
     @Override
     public void onAntsMoved(Stroke ants) {
+        antsOverlay.setAnts(ants);
+
+        // Repaint only the ants; neither the selected image nor the scratch buffer has changed
         if (hasSelection()) {
-            redrawSelection(true);
+            getCanvas().repaintOverlay(antsOverlay);
         }
     }
 
@@ -1,17 +1,27 @@
 package com.defano.jmonet.tools.base;
 
+import com.defano.jmonet.canvas.Scratch;
 import com.defano.jmonet.canvas.observable.SurfaceInteractionObserver;
 import com.defano.jmonet.model.FlexQuadrilateral;
 import com.defano.jmonet.context.GraphicsContext;
 import com.defano.jmonet.model.PaintToolType;
+import com.defano.jmonet.model.Quadrilateral;
+import com.defano.jmonet.tools.util.DragPreview;
+import com.defano.jmonet.transform.image.ImageTransform;
+import com.defano.jmonet.transform.image.ScaleTransform;
 
 import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
+import java.util.function.Function;
 
 /**
  * A {@link SelectionTool} whose rectanglular selection frame can be modified by dragging handles that are rendered by
  * the tool at each corner of the frame's bounds.
+ * <p>
+ * Delegates transforming the selected image should do so via {@link #renderTransform(DragPreview.Transform)}; while
+ * a handle is being dragged only a quick preview of the latest transform is rendered, and the transform is rendered
+ * at full quality when the handle is released.
  */
 public class TransformTool extends SelectionTool implements SurfaceInteractionObserver, SelectionToolDelegate {
 
@@ -21,6 +31,7 @@ public class TransformTool extends SelectionTool implements SurfaceInteractionOb
     private Rectangle selectionBounds;
     private FlexQuadrilateral transformBounds;
     private TransformToolDelegate transformToolDelegate;
+    private final DragPreview dragPreview = new DragPreview(this::setSelectedImage);
 
     private Rectangle topLeftHandle;
     private Rectangle topRightHandle;
@@ -41,14 +52,14 @@ public class TransformTool extends SelectionTool implements SurfaceInteractionOb
     @Override
     public void createSelection(Rectangle bounds) {
         super.createSelection(bounds);
-        originalImage = getSelectedImage();
+        setOriginalImage(getSelectedImage());
     }
 
     /** {@inheritDoc} */
     @Override
     public void createSelection(BufferedImage image, Point location) {
         super.createSelection(image, location);
-        originalImage = image;
+        setOriginalImage(image);
     }
 
     /** {@inheritDoc} */
@@ -110,9 +121,12 @@ public class TransformTool extends SelectionTool implements SurfaceInteractionOb
             super.mouseReleased(e, canvasLoc);
 
             // Grab a copy of the selected image before we begin transforming it
-            originalImage = getSelectedImage();
+            setOriginalImage(getSelectedImage());
         } else {
             super.mouseReleased(e, canvasLoc);
+
+            // Replace the preview of the dragged transform with the full-quality result
+            dragPreview.finish();
         }
     }
 
@@ -143,6 +157,7 @@ public class TransformTool extends SelectionTool implements SurfaceInteractionOb
     public void clearSelectionFrame() {
         selectionBounds = null;
         transformBounds = null;
+        dragPreview.cancel();
 
         topLeftHandle = topRightHandle = bottomLeftHandle = bottomRightHandle = null;
     }
@@ -177,6 +192,54 @@ public class TransformTool extends SelectionTool implements SurfaceInteractionOb
         return originalImage;
     }
 
+    /**
+     * Gets a reduced-resolution copy of the original selection image from which transform previews can quickly be
+     * rendered. See {@link DragPreview#getProxy()}.
+     *
+     * @return The preview proxy of the original image
+     */
+    protected BufferedImage getPreviewImage() {
+        return dragPreview.getProxy();
+    }
+
+    /**
+     * Renders a transform of the original image as the selected image. While a handle is being dragged, only the
+     * latest transform requested is rendered, as a reduced-quality preview; the full-quality transform is rendered
+     * when the handle is released.
+     *
+     * @param transform The transform to render
+     */
+    protected void renderTransform(DragPreview.Transform transform) {
+        dragPreview.preview(transform);
+    }
+
+    /**
+     * Renders a projection of the original image onto a quadrilateral as the selected image. Previews are rendered by
+     * projecting the preview proxy image onto a correspondingly reduced quadrilateral and scaling the result to the
+     * size of the projection.
+     *
+     * @param projection The quadrilateral onto which the image is projected, relative to the selected image's location
+     * @param mapping    A function producing the transform which projects an image onto a given quadrilateral
+     */
+    protected void renderProjection(FlexQuadrilateral projection, Function<Quadrilateral, ImageTransform> mapping) {
+        renderTransform(preview -> {
+            FlexQuadrilateral reducedProjection = projection.scale(dragPreview.getProxyScale());
+
+            if (!preview || reducedProjection.getWidth() < 1 || reducedProjection.getHeight() < 1 ||
+                    getPreviewImage() == getOriginalImage()) {
+                return mapping.apply(projection).apply(getOriginalImage());
+            }
+
+            BufferedImage reduced = mapping.apply(reducedProjection).apply(getPreviewImage());
+            return new ScaleTransform(new Dimension(projection.getWidth(), projection.getHeight())).apply(reduced);
+        });
+    }
+
+    private void setOriginalImage(BufferedImage originalImage) {
+        this.originalImage = originalImage;
+        dragPreview.setSource(originalImage);
+    }
+
     /** {@inheritDoc} */
     @Override
     protected void drawSelectionFrame() {
@@ -185,14 +248,18 @@ public class TransformTool extends SelectionTool implements SurfaceInteractionOb
         if (hasSelection() && transformBounds != null) {
 
             // Render drag handles on selection bounds
-            GraphicsContext g = getCanvas().getScratch().getAddScratchGraphics(this, null);
-            g.setPaint(Color.BLACK);
-
             topLeftHandle = new Rectangle(transformBounds.getTopLeft().x, transformBounds.getTopLeft().y, HANDLE_SIZE, HANDLE_SIZE);
             topRightHandle = new Rectangle(transformBounds.getTopRight().x - HANDLE_SIZE, transformBounds.getTopRight().y, HANDLE_SIZE, HANDLE_SIZE);
             bottomRightHandle = new Rectangle(transformBounds.getBottomRight().x - HANDLE_SIZE, transformBounds.getBottomRight().y - HANDLE_SIZE, HANDLE_SIZE, HANDLE_SIZE);
             bottomLeftHandle = new Rectangle(transformBounds.getBottomLeft().x, transformBounds.getBottomLeft().y - HANDLE_SIZE, HANDLE_SIZE, HANDLE_SIZE);
 
+            Scratch scratch = getCanvas().getScratch();
+            GraphicsContext g = scratch.getAddScratchGraphics(this, topLeftHandle);
+            scratch.getAddScratchGraphics(this, topRightHandle);
+            scratch.getAddScratchGraphics(this, bottomRightHandle);
+            scratch.getAddScratchGraphics(this, bottomLeftHandle);
+            g.setPaint(Color.BLACK);
+
             g.fill(topLeftHandle);
             g.fill(topRightHandle);
             g.fill(bottomRightHandle);
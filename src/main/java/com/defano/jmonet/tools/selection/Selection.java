@@ -73,8 +73,8 @@ public interface Selection {
     /**
      * Clears the scratch buffer and redraws the current state of the selection onto it.
      *
-     * @param includeFrame When true, draws the selection frame (marching ants) on the buffer; when false, the frame
-     *                     is omitted.
+     * @param includeFrame When true, shows the selection frame (marching ants) atop the canvas; when false, the frame
+     *                     is hidden.
      */
     void redrawSelection(boolean includeFrame);
 
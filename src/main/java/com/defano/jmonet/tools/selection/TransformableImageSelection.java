@@ -1,13 +1,17 @@
 package com.defano.jmonet.tools.selection;
 
 import com.defano.jmonet.tools.attributes.FillFunction;
+import com.defano.jmonet.tools.util.ImageUtils;
 import com.defano.jmonet.transform.image.PixelTransform;
 import com.defano.jmonet.transform.image.StaticImageTransform;
+import com.defano.jmonet.transform.image.TransformExecutor;
+import com.defano.jmonet.transform.image.TransformFuture;
 import com.defano.jmonet.transform.image.Transformable;
 import com.defano.jmonet.transform.image.ApplyPixelTransform;
 import com.defano.jmonet.transform.image.FillTransform;
 
 import java.awt.*;
+import java.awt.image.BufferedImage;
 
 /**
  * A selection in which the pixels of the selected image can be transformed (i.e., change of brightness, opacity, etc.).
@@ -39,6 +43,39 @@ public interface TransformableImageSelection extends MutableSelection, Transform
         transform(new ApplyPixelTransform(transform, getIdentitySelectionFrame()));
     }
 
+    /**
+     * Performs a transformation on the selected image asynchronously; the selected image is replaced on the dispatch
+     * thread once the transform completes, provided the selected image was not changed in the meantime.
+     *
+     * @param transform The transform to perform.
+     * @return The pending result of the transform; completed exceptionally with a cancellation if there is no selection
+     */
+    default TransformFuture transformAsync(StaticImageTransform transform) {
+        if (!hasSelection()) {
+            TransformFuture nothing = new TransformFuture();
+            nothing.cancel(false);
+            return nothing;
+        }
+
+        BufferedImage selectedImage = getSelectedImage();
+        return TransformExecutor.getInstance().submit(this, ImageUtils.copy(selectedImage), transform,
+                () -> hasSelection() && getSelectedImage() == selectedImage,
+                transformed -> {
+                    setSelectedImage(transformed);
+                    setDirty();
+                });
+    }
+
+    /**
+     * Performs a per-pixel transformation on all pixels bound by the selection asynchronously.
+     *
+     * @param transform The transform operation to apply
+     * @return The pending result of the transform
+     */
+    default TransformFuture transformAsync(PixelTransform transform) {
+        return transformAsync(new ApplyPixelTransform(transform, getIdentitySelectionFrame()));
+    }
+
     /**
      * Fills all transparent pixels in the selection with the given fill paint.
      *
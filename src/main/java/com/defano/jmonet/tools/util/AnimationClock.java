@@ -0,0 +1,215 @@
+package com.defano.jmonet.tools.util;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A clock which drives the library's animations (like marching ants) from a single timer thread.
+ * <p>
+ * Each observer declares the period at which it would like to be animated, and the component (typically a canvas) on
+ * which its animation is drawn. Frames are delivered on the dispatch thread, and at most one frame is ever pending on
+ * the dispatch thread: when it falls behind, ticks are coalesced into a single frame rather than queued. Observers whose
+ * component is not showing receive no frames; when no observer's component is showing, the clock stops ticking until
+ * one becomes visible again.
+ */
+public class AnimationClock {
+
+    private static final AnimationClock instance = new AnimationClock();
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jmonet-animation-clock");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<AnimationObserver, Animation> animations = new LinkedHashMap<>();
+    private final AtomicBoolean framePending = new AtomicBoolean();
+    private final HierarchyListener visibilityListener = this::onHierarchyChanged;
+
+    private ScheduledFuture<?> nextTick;
+    private long nextTickTimeMs;
+
+    private AnimationClock() {}
+
+    public static AnimationClock getInstance() {
+        return instance;
+    }
+
+    /**
+     * Adds an observer to be animated at the given period, or changes the period and component of an observer that
+     * has already been added.
+     *
+     * @param observer  The observer to animate
+     * @param periodMs  The desired number of milliseconds between the observer's frames
+     * @param component The component on which the observer draws; the observer is animated only while this component
+     *                  is showing. When null, the observer is always animated.
+     */
+    public void addObserver(AnimationObserver observer, long periodMs, Component component) {
+        if (periodMs <= 0) {
+            throw new IllegalArgumentException("Animation period must be positive.");
+        }
+
+        removeObserver(observer);
+
+        // Listen for visibility changes outside of this clock's lock; AWT delivers them while holding its tree lock
+        if (component != null) {
+            component.addHierarchyListener(visibilityListener);
+        }
+
+        synchronized (this) {
+            animations.put(observer, new Animation(periodMs, component, now() + periodMs));
+            schedule();
+        }
+    }
+
+    /**
+     * Removes an observer; has no effect if the observer was not added. The clock stops ticking when its last
+     * observer is removed.
+     *
+     * @param observer The observer to remove
+     */
+    public void removeObserver(AnimationObserver observer) {
+        Animation animation;
+
+        synchronized (this) {
+            animation = animations.remove(observer);
+
+            if (animations.isEmpty()) {
+                cancelTick();
+            }
+        }
+
+        if (animation != null && animation.component != null) {
+            animation.component.removeHierarchyListener(visibilityListener);
+        }
+    }
+
+    /**
+     * Determines whether the clock is ticking; that is, whether any observer is presently animated.
+     *
+     * @return True if a frame is scheduled or pending; false if the clock is paused
+     */
+    public synchronized boolean isRunning() {
+        return nextTick != null || framePending.get();
+    }
+
+    /**
+     * Schedules the next tick for the time at which the earliest animated observer is due for a frame; pauses the
+     * clock when no observer is animated.
+     */
+    private synchronized void schedule() {
+
+        // The pending frame reschedules the clock once it has been rendered
+        if (framePending.get()) {
+            return;
+        }
+
+        long dueTimeMs = Long.MAX_VALUE;
+        for (Animation thisAnimation : animations.values()) {
+            if (thisAnimation.isVisible()) {
+                dueTimeMs = Math.min(dueTimeMs, thisAnimation.nextFrameTimeMs);
+            }
+        }
+
+        if (dueTimeMs == Long.MAX_VALUE) {
+            cancelTick();
+        } else if (nextTick == null || dueTimeMs < nextTickTimeMs) {
+            cancelTick();
+            nextTickTimeMs = dueTimeMs;
+            nextTick = timer.schedule(this::tick, Math.max(0, dueTimeMs - now()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void cancelTick() {
+        if (nextTick != null) {
+            nextTick.cancel(false);
+            nextTick = null;
+        }
+    }
+
+    /**
+     * Invoked on the timer thread; posts a frame to the dispatch thread unless one is already pending.
+     */
+    private synchronized void tick() {
+        nextTick = null;
+
+        if (framePending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::frame);
+        }
+    }
+
+    /**
+     * Invoked on the dispatch thread; delivers a frame to each visible observer that is due for one, then schedules
+     * the next tick.
+     */
+    private void frame() {
+        long frameTimeMs = now();
+        List<AnimationObserver> due = new ArrayList<>();
+
+        synchronized (this) {
+            framePending.set(false);
+
+            for (Map.Entry<AnimationObserver, Animation> thisEntry : animations.entrySet()) {
+                Animation animation = thisEntry.getValue();
+
+                if (animation.isVisible() && animation.nextFrameTimeMs <= frameTimeMs) {
+                    due.add(thisEntry.getKey());
+
+                    // Frames missed while the dispatch thread was busy are dropped, not replayed
+                    animation.nextFrameTimeMs = frameTimeMs + animation.periodMs;
+                }
+            }
+        }
+
+        for (AnimationObserver thisObserver : due) {
+            // An observer may have been removed by one notified before it
+            if (isObserving(thisObserver)) {
+                thisObserver.onAnimationFrame(frameTimeMs);
+            }
+        }
+
+        schedule();
+    }
+
+    private synchronized boolean isObserving(AnimationObserver observer) {
+        return animations.containsKey(observer);
+    }
+
+    private void onHierarchyChanged(HierarchyEvent e) {
+        // Resume the clock when an animated component is shown; it pauses itself once nothing animated is showing
+        if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && e.getComponent().isShowing()) {
+            schedule();
+        }
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    private static class Animation {
+        private final long periodMs;
+        private final Component component;
+        private long nextFrameTimeMs;
+
+        private Animation(long periodMs, Component component, long nextFrameTimeMs) {
+            this.periodMs = periodMs;
+            this.component = component;
+            this.nextFrameTimeMs = nextFrameTimeMs;
+        }
+
+        private boolean isVisible() {
+            return component == null || component.isShowing();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.defano.jmonet.tools.util;
+
+/**
+ * An observer of frames of an {@link AnimationClock}.
+ */
+public interface AnimationObserver {
+
+    /**
+     * Called on the dispatch thread to indicate that the observer should render the next frame of its animation.
+     * <p>
+     * Frames are not guaranteed to arrive at the requested rate; when the dispatch thread is busy, frames are dropped
+     * rather than queued. Observers should therefore derive their animation's state from the frame time, not from the
+     * number of frames received.
+     *
+     * @param frameTimeMs A monotonically increasing time, in milliseconds, at which the frame was rendered
+     */
+    void onAnimationFrame(long frameTimeMs);
+}
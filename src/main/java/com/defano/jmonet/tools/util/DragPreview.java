@@ -0,0 +1,155 @@
+package com.defano.jmonet.tools.util;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
+
+/**
+ * Renders a live preview of a transformed image while the user drags a transform handle.
+ * <p>
+ * Transforming a large image on every mouse-drag event can take longer than the interval between events, causing the
+ * drag to stutter as events queue behind one another. This class defers rendering until the event queue has drained,
+ * so that when several drag events arrive together only the latest is rendered. Previews are rendered at reduced
+ * quality (typically from a downsampled proxy of the source image, or with nearest-neighbor interpolation); once the
+ * drag completes, the latest transform is rendered once more at full quality.
+ * <p>
+ * All methods of this class must be invoked on the dispatch thread.
+ */
+public class DragPreview {
+
+    // Maximum number of pixels in a proxy image; larger sources are downsampled to about this many pixels
+    private static final int MAX_PROXY_PIXELS = 512 * 512;
+
+    private final Consumer<BufferedImage> renderer;
+
+    private BufferedImage source;
+    private BufferedImage proxy;
+    private Transform pending;          // Latest transform not yet previewed
+    private Transform latest;           // Latest transform not yet rendered at full quality
+    private boolean scheduled;
+
+    /**
+     * Creates a drag preview.
+     *
+     * @param renderer Receives each rendered image, for example, a selection tool's setSelectedImage method
+     */
+    public DragPreview(Consumer<BufferedImage> renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * Sets the image being transformed, discarding any proxy of the previous image.
+     *
+     * @param source The full-resolution image being transformed; may be null
+     */
+    public void setSource(BufferedImage source) {
+        if (source != this.source) {
+            this.source = source;
+            this.proxy = null;
+        }
+    }
+
+    /**
+     * Gets a reduced-resolution proxy of the source image suitable for rendering previews. The proxy is created the
+     * first time it's requested and reused until the source image changes.
+     *
+     * @return The proxy image; the source image itself when the source is small enough to preview directly
+     */
+    public BufferedImage getProxy() {
+        if (proxy == null && source != null) {
+            long pixels = (long) source.getWidth() * source.getHeight();
+
+            if (pixels <= MAX_PROXY_PIXELS) {
+                proxy = source;
+            } else {
+                double scale = Math.sqrt((double) MAX_PROXY_PIXELS / pixels);
+                int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+                int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+                proxy = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D g = proxy.createGraphics();
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(source, 0, 0, width, height, null);
+                g.dispose();
+            }
+        }
+
+        return proxy;
+    }
+
+    /**
+     * Gets the width of the proxy image relative to the width of the source image.
+     *
+     * @return The scale of the proxy image; 1.0 when the source image is previewed directly
+     */
+    public double getProxyScale() {
+        BufferedImage theProxy = getProxy();
+        return theProxy == null || theProxy == source ? 1.0 : (double) theProxy.getWidth() / source.getWidth();
+    }
+
+    /**
+     * Requests that the given transform be previewed. The preview is rendered after pending events have been
+     * dispatched, and only if no later transform has been requested in the meantime.
+     *
+     * @param transform The transform to preview
+     */
+    public void preview(Transform transform) {
+        pending = transform;
+        latest = transform;
+
+        if (!scheduled) {
+            scheduled = true;
+            SwingUtilities.invokeLater(this::renderPending);
+        }
+    }
+
+    /**
+     * Completes the drag by rendering the latest requested transform at full quality. Has no effect if no transform
+     * has been requested since the drag was last completed or cancelled.
+     */
+    public void finish() {
+        Transform transform = latest;
+        pending = null;
+        latest = null;
+
+        if (transform != null) {
+            renderer.accept(transform.apply(false));
+        }
+    }
+
+    /**
+     * Discards any requested transform without rendering it.
+     */
+    public void cancel() {
+        pending = null;
+        latest = null;
+    }
+
+    private void renderPending() {
+        scheduled = false;
+
+        Transform transform = pending;
+        pending = null;
+
+        if (transform != null) {
+            renderer.accept(transform.apply(true));
+        }
+    }
+
+    /**
+     * A transform of the source image that can be rendered either as a fast preview or at full quality.
+     */
+    @FunctionalInterface
+    public interface Transform {
+
+        /**
+         * Renders the transformed image.
+         *
+         * @param preview True to render a quick, reduced-quality preview (for example, from
+         *                {@link DragPreview#getProxy()}); false to render the transform at full quality
+         * @return The transformed image
+         */
+        BufferedImage apply(boolean preview);
+    }
+}
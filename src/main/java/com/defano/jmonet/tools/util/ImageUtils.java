@@ -27,6 +27,18 @@ public class ImageUtils {
         return copy;
     }
 
+    /**
+     * Makes a "deep" copy of the given image, returning a copy of the same type with identical pixel data. Unlike
+     * {@link #argbCopy(BufferedImage)}, the source is not composited onto the copy, so translucent pixels are copied
+     * exactly.
+     *
+     * @param src The image to copy.
+     * @return A copy of the source.
+     */
+    public static BufferedImage copy(BufferedImage src) {
+        return new BufferedImage(src.getColorModel(), src.copyData(null), src.isAlphaPremultiplied(), null);
+    }
+
     /**
      * Creates a new ARGB BufferedImage of the same dimensions as the given source.
      * @param src The image whose dimensions should be used to create the new image.
@@ -1,25 +1,20 @@
 package com.defano.jmonet.tools.util;
 
-import javax.swing.*;
 import java.awt.*;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * A class for animating a dashed border stroke ("marching ants") commonly found in selection tools.
  *
- * This singleton class manages the ant animation by instantiating a single-threaded scheduled executor. Multiple
- * "ants" paths can be drawn with this singleton by registering multiple listeners.
+ * This singleton class manages the ant animation using the {@link AnimationClock}. Multiple "ants" paths can be drawn
+ * with this singleton by registering multiple listeners; each is animated only while the component it draws on is
+ * showing.
  */
 public class MarchingAnts {
 
     private static final MarchingAnts instance = new MarchingAnts();
-    private static final ScheduledExecutorService antsAnimator = Executors.newSingleThreadScheduledExecutor();
-    private static final Set<MarchingAntsObserver> observers = new HashSet<>();
+    private static final Map<MarchingAntsObserver, Marcher> observers = new HashMap<>();
 
     private int animationPeriodMs = 50;             // animation period
     private int antLength = 5;                      // ant dash length, in pixels
@@ -28,7 +23,6 @@ public class MarchingAnts {
     private Color pathColor = Color.WHITE;
 
     private int antsPhase;
-    private Future antsAnimation;
 
     private MarchingAnts() {}
 
@@ -58,8 +52,26 @@ public class MarchingAnts {
      * @param observer The observer to add
      */
     public void addObserver(MarchingAntsObserver observer) {
-        observers.add(observer);
-        startMarching();
+        addObserver(observer, null);
+    }
+
+    /**
+     * Adds a marching ants observer which draws its ants on the given component; the observer is called on the
+     * dispatch thread approximately once every 50ms, but only while the component is showing.
+     *
+     * @param observer  The observer to add
+     * @param component The component on which the observer draws ants, or null to animate the ants regardless of
+     *                  visibility
+     */
+    public void addObserver(MarchingAntsObserver observer, Component component) {
+        Marcher marcher = new Marcher(observer, component);
+        Marcher previous = observers.put(observer, marcher);
+
+        if (previous != null) {
+            AnimationClock.getInstance().removeObserver(previous);
+        }
+
+        AnimationClock.getInstance().addObserver(marcher, animationPeriodMs, component);
     }
 
     /**
@@ -67,9 +79,10 @@ public class MarchingAnts {
      * @param observer The observer to remove.
      */
     public void removeObserver(MarchingAntsObserver observer) {
-        observers.remove(observer);
-        if (observers.isEmpty()) {
-            stopMarching();
+        Marcher marcher = observers.remove(observer);
+
+        if (marcher != null) {
+            AnimationClock.getInstance().removeObserver(marcher);
         }
     }
 
@@ -93,6 +106,10 @@ public class MarchingAnts {
     @SuppressWarnings("unused")
     public void setAnimationPeriodMs(int animationPeriodMs) {
         this.animationPeriodMs = animationPeriodMs;
+
+        for (Marcher thisMarcher : observers.values()) {
+            AnimationClock.getInstance().addObserver(thisMarcher, animationPeriodMs, thisMarcher.component);
+        }
     }
 
     /**
@@ -174,27 +191,30 @@ public class MarchingAnts {
         this.pathColor = pathColor;
     }
 
-    private void startMarching() {
-        stopMarching();
-
-        antsAnimation = antsAnimator.scheduleAtFixedRate(() -> SwingUtilities.invokeLater(() -> {
-            antsPhase = antsPhase + 1 % antLength;
-            fireMarchingAntsObservers();
-        }), 0, animationPeriodMs, TimeUnit.MILLISECONDS);
+    /**
+     * Advances the ants to their position at the given time. The dash pattern repeats every two ant lengths (an ant
+     * and the space behind it); the phase wraps accordingly so that the ants march smoothly.
+     */
+    private void march(long frameTimeMs) {
+        antsPhase = (int) (frameTimeMs / animationPeriodMs % (antLength * 2L));
     }
 
-    private void stopMarching() {
-        if (antsAnimation != null) {
-            antsAnimation.cancel(false);
+    /**
+     * Animates a single marching ants observer.
+     */
+    private class Marcher implements AnimationObserver {
+        private final MarchingAntsObserver observer;
+        private final Component component;
+
+        private Marcher(MarchingAntsObserver observer, Component component) {
+            this.observer = observer;
+            this.component = component;
         }
-    }
 
-    private void fireMarchingAntsObservers() {
-        SwingUtilities.invokeLater(() -> {
-            Stroke ants = getMarchingAnts();
-            for (Object thisObserver : observers.toArray()) {
-                ((MarchingAntsObserver) thisObserver).onAntsMoved(ants);
-            }
-        });
+        @Override
+        public void onAnimationFrame(long frameTimeMs) {
+            march(frameTimeMs);
+            observer.onAntsMoved(getMarchingAnts());
+        }
     }
 }
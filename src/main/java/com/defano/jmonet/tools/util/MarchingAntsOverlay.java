@@ -0,0 +1,88 @@
+package com.defano.jmonet.tools.util;
+
+import com.defano.jmonet.canvas.surface.SurfaceOverlay;
+import com.defano.jmonet.context.GraphicsContext;
+
+import java.awt.*;
+import java.awt.geom.Path2D;
+
+/**
+ * A surface overlay that strokes a selection frame with marching ants.
+ * <p>
+ * Because the ants are painted atop the canvas rather than drawn into its scratch buffer, advancing the ants requires
+ * only that the region of the canvas bounding the frame be repainted; the selected image is not redrawn.
+ */
+public class MarchingAntsOverlay implements SurfaceOverlay {
+
+    private Shape frame;
+    private Rectangle bounds;
+    private Stroke ants = MarchingAnts.getInstance().getMarchingAnts();
+
+    /**
+     * Gets the frame stroked by this overlay.
+     *
+     * @return The frame, or null if the overlay paints nothing
+     */
+    public Shape getFrame() {
+        return frame;
+    }
+
+    /**
+     * Sets the frame stroked by this overlay. The frame is copied; subsequent changes to the given shape have no
+     * effect on the overlay.
+     *
+     * @param frame The frame to stroke with marching ants, or null to paint nothing
+     */
+    public void setFrame(Shape frame) {
+        if (frame == null) {
+            this.frame = null;
+            this.bounds = null;
+        } else {
+            this.frame = new Path2D.Double(frame);
+
+            // Ants are centered on the frame; bounds must include half the ant's width (plus rounding) on each side
+            int margin = (int) Math.ceil(Math.max(1, MarchingAnts.getInstance().getAntWidth()) / 2.0) + 1;
+            this.bounds = this.frame.getBounds();
+            this.bounds.grow(margin, margin);
+        }
+    }
+
+    /**
+     * Sets the stroke with which the ants are painted, typically the stroke most recently provided to
+     * {@link MarchingAntsObserver#onAntsMoved(Stroke)}.
+     *
+     * @param ants The marching ants stroke
+     */
+    public void setAnts(Stroke ants) {
+        this.ants = ants;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void paint(GraphicsContext g) {
+        if (frame != null) {
+
+            // Offset strokes by half a pixel so that, at any scale, they cover the same pixels they would cover if
+            // drawn into the canvas image
+            g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            g.translate(0.5, 0.5);
+
+            g.setColor(MarchingAnts.getInstance().getPathColor());
+            g.setStroke(new BasicStroke(1));
+            g.draw(frame);
+            g.setColor(MarchingAnts.getInstance().getAntColor());
+            g.setStroke(ants);
+            g.draw(frame);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Rectangle getBounds() {
+        return bounds;
+    }
+}
@@ -2,36 +2,80 @@ package com.defano.jmonet.transform.dither;
 
 import com.defano.jmonet.transform.dither.quant.QuantizationFunction;
 import com.defano.jmonet.tools.util.ImageUtils;
+import com.defano.jmonet.transform.image.TransformMonitor;
 
 import java.awt.image.BufferedImage;
-import java.awt.image.WritableRaster;
+import java.awt.image.DataBufferInt;
 import java.util.HashSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Abstract base class for implementers of {@link Ditherer} that operate on 24-bit, true color
  * ARGB images.
+ * <p>
+ * Color values are quantized and diffused as doubles in the range 0..1 (see {@link QuantizationFunction}). Ditherers
+ * constructed with a {@link DiffusionKernel} (and which do not override {@link #ditherPixel(int, int, double, double,
+ * double)}) retain only the rows of diffused error that the kernel reaches, rather than a copy of the entire image.
+ * Ditherers are stateless between invocations of {@link #dither(BufferedImage, QuantizationFunction)} and may be used by
+ * multiple threads concurrently.
  */
 public abstract class AbstractDitherer implements Ditherer {
 
     /**
-     * A matrix providing a mapping of pixel coordinate to ARGB color value:
-     * <p>
-     * The first dimension is the pixel's y-coordinate
-     * The second dimension is the pixel's x-coordinate
-     * The third dimension is the pixel's four-value color cube, where:
-     * <p>
-     * The first item is the pixel's red channel color value represented as 0..1
-     * The second item is the pixel's green channel color value represented as 0..1
-     * The third item is the pixel's blue channel color value represented as 0..1
-     * The fourth item is the pixel's alpha channel represented as 0..255
+     * The image being dithered by the current thread, when dithered via {@link #ditherPixel(int, int, double, double,
+     * double)}.
      */
-    private double[][][] matrix;
+    private final ThreadLocal<ErrorMatrix> matrix = new ThreadLocal<>();
+
+    // Minimum number of pixels in an image for its rows to be dithered in parallel
+    private static final int PARALLEL_THRESHOLD = 256 * 256;
+
+    private final DiffusionKernel kernel;
+    private final boolean kernelDithered;
+
+    /**
+     * Creates a ditherer that diffuses error via {@link #ditherPixel(int, int, double, double, double)}, which
+     * subclasses must override.
+     */
+    protected AbstractDitherer() {
+        this(null);
+    }
+
+    /**
+     * Creates a ditherer that diffuses error according to a given kernel.
+     *
+     * @param kernel The kernel describing how quantization error is diffused; null if subclasses diffuse error by
+     *               overriding {@link #ditherPixel(int, int, double, double, double)}.
+     */
+    protected AbstractDitherer(DiffusionKernel kernel) {
+        this.kernel = kernel;
+        this.kernelDithered = kernel != null && !overridesDitherPixel();
+    }
+
+    /**
+     * Gets the kernel describing how this ditherer diffuses quantization error.
+     *
+     * @return The kernel, or null if error is diffused by a subclass' implementation of
+     * {@link #ditherPixel(int, int, double, double, double)}.
+     */
+    public DiffusionKernel getKernel() {
+        return kernel;
+    }
 
     /**
      * Dithers a given quantization error for a specified pixel.
      * <p>
-     * Most implementations of this method should distribute error by invoking
-     * {@link #distributeError(int, int, double, double, double, double)} one or more times.
+     * Invoked during {@link #dither(BufferedImage, QuantizationFunction)} only for ditherers not constructed with a
+     * {@link DiffusionKernel}, or whose subclass overrides this method. Most implementations of this method should
+     * distribute error by invoking {@link #distributeError(int, int, double, double, double, double)} one or more
+     * times. This default implementation distributes error according to the ditherer's kernel, if any.
      *
      * @param x   The x-coordinate of the pixel to dither
      * @param y   The y-coordinate of the pixel to dither
@@ -39,33 +83,64 @@ public abstract class AbstractDitherer implements Ditherer {
      * @param qeg The quantization error in the green color channel
      * @param qeb The quantization error in the blue color channel
      */
-    public abstract void ditherPixel(int x, int y, double qer, double qeg, double qeb);
+    public void ditherPixel(int x, int y, double qer, double qeg, double qeb) {
+        if (kernel != null) {
+            for (int entry = 0; entry < kernel.size(); entry++) {
+                distributeError(x + kernel.getDx(entry), y + kernel.getDy(entry), qer, qeg, qeb, kernel.getFraction(entry));
+            }
+        }
+    }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public synchronized BufferedImage dither(BufferedImage source, QuantizationFunction quantizer) {
-        toColorCubeMatrix(source);
+    public BufferedImage dither(BufferedImage source, QuantizationFunction quantizer) {
+        return dither(source, quantizer, false);
+    }
 
-        for (int y = 0; y < matrix.length; y++) {
-            for (int x = 0; x < matrix[y].length; x++) {
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Ditherers diffusing error according to a {@link DiffusionKernel} dither large images in parallel by quantizing
+     * rows concurrently in a staggered wavefront; each row trails the row above it by as many pixels as needed to assure
+     * every pixel receives its diffused error in the same order as when dithered sequentially. The dithered image is
+     * identical to that produced sequentially. No more rows are dithered concurrently than the common
+     * {@link ForkJoinPool}'s parallelism.
+     */
+    @Override
+    public BufferedImage dither(BufferedImage source, QuantizationFunction quantizer, boolean parallel) {
+        return dither(source, quantizer, parallel, TransformMonitor.NONE);
+    }
 
-                double[] oldPixel = matrix[y][x];
-                double[] newPixel = quantizer.quantize(matrix[y][x]);
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Progress is reported, and cancellation checked, after each row is dithered.
+     */
+    @Override
+    public BufferedImage dither(BufferedImage source, QuantizationFunction quantizer, boolean parallel, TransformMonitor monitor) {
 
-                matrix[y][x] = newPixel;
+        // Source needs to be ARGB type; the copy is overwritten with the dithered image
+        BufferedImage dithered = ImageUtils.argbCopy(source);
+        int[] pixels = ((DataBufferInt) dithered.getRaster().getDataBuffer()).getData();
+        int width = dithered.getWidth();
+        int height = dithered.getHeight();
 
-                // Calculate quantization error
-                double qer = oldPixel[0] - newPixel[0];
-                double qeg = oldPixel[1] - newPixel[1];
-                double qeb = oldPixel[2] - newPixel[2];
+        int workers = ForkJoinPool.getCommonPoolParallelism();
 
-                ditherPixel(x, y, qer, qeg, qeb);
-            }
+        if (kernelDithered && parallel && workers > 1 && (long) width * height >= PARALLEL_THRESHOLD) {
+            RowDither rowDither = new RowDither(kernel, quantizer, pixels, width, height, workers, monitor);
+            ForkJoinTask.invokeAll(Stream.generate(() -> ForkJoinTask.adapt(rowDither))
+                    .limit(workers)
+                    .collect(Collectors.toList()));
+        } else if (kernelDithered) {
+            new RowDither(kernel, quantizer, pixels, width, height, 1, monitor).run();
+        } else {
+            ditherMatrix(pixels, dithered.getWidth(), dithered.getHeight(), quantizer, monitor);
         }
 
-        return fromColorCubeMatrix();
+        return dithered;
     }
 
     /**
@@ -88,90 +163,330 @@ public abstract class AbstractDitherer implements Ditherer {
     }
 
     /**
-     * Converts the given image into a three-dimension matrix of color cubes.
-     * <p>
-     * The first dimension is the pixel's y-coordinate
-     * The second dimension is the pixel's x-coordinate
-     * the third dimension is the pixel's four-value color cube, where:
+     * Distributes a fraction of the quantization error to another pixel in the raster. Distribution
+     * of quantization error adds (fraction * error) to the pixel's existing color channel values.
      * <p>
-     * The first item is the pixel's red channel color value represented as 0..1
-     * The second item is the pixel's green channel color value represented as 0..1
-     * The third item is the pixel's blue channel color value represented as 0..1
-     * The fourth item is the pixel's alpha channel represented as 0..255
+     * Has no effect if the specified pixel is not in the bounds of the current image.
+     *
+     * @param x        The x-coordinate of the pixel receiving the distributed quantization error
+     * @param y        The y-coordinate of the pixel receiving the distributed quantization error
+     * @param qer      The red channel quantization error
+     * @param qeg      The green channel quantization error
+     * @param qeb      The blue channel quantization error
+     * @param fraction The fraction of each channel's error to be distributed to this pixel.
+     * @throws IllegalStateException If invoked other than from {@link #ditherPixel(int, int, double, double, double)}
+     */
+    protected void distributeError(int x, int y, double qer, double qeg, double qeb, double fraction) {
+        ErrorMatrix current = matrix.get();
+
+        if (current == null) {
+            throw new IllegalStateException("Error can only be distributed while dithering.");
+        }
+
+        if (y >= 0 && y < current.height && x >= 0 && x < current.width) {
+            int index = (y * current.width + x) * 3;
+            current.values[index] += qer * fraction;
+            current.values[index + 1] += qeg * fraction;
+            current.values[index + 2] += qeb * fraction;
+        }
+    }
+
+    /**
+     * Quantizes and dithers an image by invoking {@link #ditherPixel(int, int, double, double, double)} for each pixel,
+     * retaining the diffused error of every pixel in the image (as subclasses may diffuse error to any pixel).
      *
-     * @param image The image to convert into a color cube matrix
+     * @param pixels    The image's ARGB pixels; replaced with the dithered pixels
+     * @param width     The width of the image
+     * @param height    The height of the image
+     * @param quantizer The quantization function to use
+     * @param monitor   The monitor to which progress is reported after each row
      */
-    private void toColorCubeMatrix(BufferedImage image) {
+    private void ditherMatrix(int[] pixels, int width, int height, QuantizationFunction quantizer, TransformMonitor monitor) {
+        ErrorMatrix current = new ErrorMatrix(width, height);
+        double[] oldPixel = new double[4];
+        double[] newPixel = new double[4];
+
+        for (int y = 0; y < height; y++) {
+            loadRow(pixels, width, y, current.values, y * width * 3);
+        }
+
+        matrix.set(current);
+        try {
+            for (int y = 0; y < height; y++) {
+                if (monitor.isCancelled()) {
+                    throw new CancellationException();
+                }
 
-        // Source needs to be ARGB type; make a copy to assure constraint is met
-        image = ImageUtils.argbCopy(image);
+                for (int x = 0; x < width; x++) {
+                    int index = (y * width + x) * 3;
 
-        double[][][] m = new double[image.getHeight()][image.getWidth()][4];
-        WritableRaster raster = image.getRaster();
+                    oldPixel[0] = current.values[index];
+                    oldPixel[1] = current.values[index + 1];
+                    oldPixel[2] = current.values[index + 2];
+                    oldPixel[3] = pixels[y * width + x] >>> 24;
 
-        for (int y = 0; y < image.getHeight(); y++) {
-            for (int x = 0; x < image.getWidth(); x++) {
-                double[] pixel = raster.getPixel(x, y, (double[]) null);
+                    quantizer.quantize(oldPixel, newPixel);
 
-                m[y][x][0] = pixel[0] / 255.0;
-                m[y][x][1] = pixel[1] / 255.0;
-                m[y][x][2] = pixel[2] / 255.0;
-                m[y][x][3] = pixel[3];
+                    current.values[index] = newPixel[0];
+                    current.values[index + 1] = newPixel[1];
+                    current.values[index + 2] = newPixel[2];
+                    pixels[y * width + x] = toArgb(0, 0, 0, newPixel[3]);
+
+                    // Calculate quantization error
+                    double qer = oldPixel[0] - newPixel[0];
+                    double qeg = oldPixel[1] - newPixel[1];
+                    double qeb = oldPixel[2] - newPixel[2];
+
+                    ditherPixel(x, y, qer, qeg, qeb);
+                }
+
+                monitor.setProgress((double) (y + 1) / height);
             }
+        } finally {
+            matrix.remove();
         }
 
-        this.matrix = m;
+        // Error may have been diffused to pixels already quantized; color values are final only once every pixel is
+        for (int index = 0; index < pixels.length; index++) {
+            pixels[index] = (pixels[index] & 0xff000000) |
+                    toArgb(current.values[index * 3], current.values[index * 3 + 1], current.values[index * 3 + 2], 0);
+        }
     }
 
     /**
-     * Converts a color cube matrix into a BufferedImage. See {@link #toColorCubeMatrix(BufferedImage)} for the
-     * format details of the color cube matrix.
+     * Converts a row of ARGB pixels into red, green and blue color values represented as 0..1.
      *
-     * @return The BufferedImage resulting from the given color cube matrix
+     * @param pixels The image's ARGB pixels
+     * @param width  The width of the image
+     * @param y      The row to convert
+     * @param values The array receiving three color values for each pixel in the row, starting at index zero
      */
-    private BufferedImage fromColorCubeMatrix() {
-        BufferedImage restored = new BufferedImage(matrix[0].length, matrix.length, BufferedImage.TYPE_INT_ARGB);
-        WritableRaster raster = restored.getRaster();
+    private static void loadRow(int[] pixels, int width, int y, double[] values) {
+        loadRow(pixels, width, y, values, 0);
+    }
+
+    private static void loadRow(int[] pixels, int width, int y, double[] values, int offset) {
+        for (int x = 0; x < width; x++) {
+            int argb = pixels[y * width + x];
+            values[offset + x * 3] = ((argb >> 16) & 0xff) / 255.0;
+            values[offset + x * 3 + 1] = ((argb >> 8) & 0xff) / 255.0;
+            values[offset + x * 3 + 2] = (argb & 0xff) / 255.0;
+        }
+    }
+
+    /**
+     * Converts color values represented as 0..1 (and alpha as 0..255) to an ARGB pixel, saturating each color channel.
+     */
+    @SuppressWarnings("squid:S3358")
+    static int toArgb(double r, double g, double b, double alpha) {
+        r *= 255;
+        g *= 255;
+        b *= 255;
+
+        r = r < 0 ? 0 : r > 255 ? 255 : r;
+        g = g < 0 ? 0 : g > 255 ? 255 : g;
+        b = b < 0 ? 0 : b > 255 ? 255 : b;
+
+        return ((int) alpha << 24) | (((int) r << 16) & 0xff0000) | (((int) g << 8) & 0xff00) | ((int) b & 0xff);
+    }
+
+    /**
+     * Determines if the runtime class of this ditherer overrides {@link #ditherPixel(int, int, double, double, double)}
+     * (in which case error must be diffused by invoking it).
+     */
+    private boolean overridesDitherPixel() {
+        try {
+            return getClass().getMethod("ditherPixel", int.class, int.class, double.class, double.class, double.class)
+                    .getDeclaringClass() != AbstractDitherer.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Bug! Ditherer is missing ditherPixel.", e);
+        }
+    }
+
+    /**
+     * Quantizes and dithers the rows of an image using a diffusion kernel, retaining only as many rows of diffused error
+     * as are being dithered or can receive error. Rows are claimed, in order, by any number of threads running this
+     * object; a thread dithering a row waits for the thread dithering the row above to stay sufficiently far ahead of
+     * it. As a thread only ever waits on rows claimed before its own, dithering progresses however many of those
+     * threads are actually scheduled.
+     */
+    private static class RowDither implements Runnable {
+
+        // Number of pixels quantized between publications of a row's progress
+        private static final int PROGRESS_INTERVAL = 16;
+
+        // Number of times a row's progress is polled before a waiting thread parks, and the longest it parks for
+        private static final int MAX_SPINS = 64;
+        private static final long MAX_PARK_NANOS = 100_000;
+
+        private final DiffusionKernel kernel;
+        private final QuantizationFunction quantizer;
+        private final TransformMonitor monitor;
+        private final int[] pixels;
+        private final int width;
+        private final int height;
+        private final int depth;
+        private final int lag;
+
+        // Color values of rows being dithered or receiving error, row y being at index y % rows.length
+        private final double[][] rows;
+
+        // Number of pixels quantized in each row, and the next row to be claimed
+        private final AtomicIntegerArray progress;
+        private final AtomicInteger nextRow = new AtomicInteger();
+        private final AtomicInteger completedRows = new AtomicInteger();
+
+        // Set when a thread fails, so that threads awaiting its progress do not wait forever
+        private volatile boolean aborted;
+
+        /**
+         * @param kernel    The diffusion kernel
+         * @param quantizer The quantization function; invoked concurrently when run by more than one thread
+         * @param pixels    The image's ARGB pixels; replaced with the dithered pixels
+         * @param width     The width of the image
+         * @param height    The height of the image
+         * @param threads   The number of threads that will run this object
+         * @param monitor   The monitor to which progress is reported after each row
+         */
+        private RowDither(DiffusionKernel kernel, QuantizationFunction quantizer, int[] pixels, int width, int height, int threads, TransformMonitor monitor) {
+            this.kernel = kernel;
+            this.quantizer = quantizer;
+            this.monitor = monitor;
+            this.pixels = pixels;
+            this.width = width;
+            this.height = height;
+            this.depth = kernel.getDepth();
+            this.lag = kernel.getLag();
+            this.rows = new double[depth + 2 * threads - 1][width * 3];
+            this.progress = new AtomicIntegerArray(height);
+
+            // Rows receiving error from the first row; each subsequent row is loaded by the thread claiming the row
+            // 'depth' rows above it, before any error can be diffused to it
+            for (int y = 0; y < Math.min(depth, height); y++) {
+                loadRow(pixels, width, y, rows[y % rows.length]);
+            }
+        }
+
+        @Override
+        public void run() {
+            double[] oldPixel = new double[4];
+            double[] newPixel = new double[4];
+
+            try {
+                for (int y = nextRow.getAndIncrement(); y < height; y = nextRow.getAndIncrement()) {
+                    if (monitor.isCancelled()) {
+                        throw new CancellationException();
+                    }
+
+                    int loaded = y + depth;
+                    if (loaded < height) {
+                        if (loaded >= rows.length) {
+                            awaitProgress(loaded - rows.length, width);
+                        }
+                        loadRow(pixels, width, loaded, rows[loaded % rows.length]);
+                    }
+
+                    ditherRow(y, oldPixel, newPixel);
+                    monitor.setProgress((double) completedRows.incrementAndGet() / height);
+                }
+            } catch (RuntimeException | Error e) {
+                aborted = true;
+                throw e;
+            }
+        }
+
+        private void ditherRow(int y, double[] oldPixel, double[] newPixel) {
+            double[] row = rows[y % rows.length];
+            int available = y == 0 ? width : 0;
+
+            for (int x = 0; x < width; x++) {
 
-        for (int y = 0; y < matrix.length; y++) {
-            for (int x = 0; x < matrix[y].length; x++) {
-                double[] pixel = matrix[y][x];
+                // Pixels of the rows above that diffuse error to this pixel (or to pixels receiving error from this
+                // one) must have been quantized
+                if (available < Math.min(width, x + lag + 1)) {
+                    available = awaitProgress(y - 1, Math.min(width, x + lag + 1));
+                }
+
+                oldPixel[0] = row[x * 3];
+                oldPixel[1] = row[x * 3 + 1];
+                oldPixel[2] = row[x * 3 + 2];
+                oldPixel[3] = pixels[y * width + x] >>> 24;
+
+                quantizer.quantize(oldPixel, newPixel);
+                pixels[y * width + x] = toArgb(newPixel[0], newPixel[1], newPixel[2], newPixel[3]);
+
+                // Calculate quantization error
+                double qer = oldPixel[0] - newPixel[0];
+                double qeg = oldPixel[1] - newPixel[1];
+                double qeb = oldPixel[2] - newPixel[2];
 
-                pixel[0] *= 255;
-                pixel[1] *= 255;
-                pixel[2] *= 255;
-                pixel[3] = matrix[y][x][3];
+                for (int entry = 0; entry < kernel.size(); entry++) {
+                    int ex = x + kernel.getDx(entry);
+                    int ey = y + kernel.getDy(entry);
 
-                pixel[0] = pixel[0] < 0 ? 0 : pixel[0] > 255 ? 255 : pixel[0];
-                pixel[1] = pixel[1] < 0 ? 0 : pixel[1] > 255 ? 255 : pixel[1];
-                pixel[2] = pixel[2] < 0 ? 0 : pixel[2] > 255 ? 255 : pixel[2];
+                    if (ey < height && ex >= 0 && ex < width) {
+                        double[] errorRow = rows[ey % rows.length];
+                        double fraction = kernel.getFraction(entry);
+                        errorRow[ex * 3] += qer * fraction;
+                        errorRow[ex * 3 + 1] += qeg * fraction;
+                        errorRow[ex * 3 + 2] += qeb * fraction;
+                    }
+                }
 
-                raster.setPixel(x, y, pixel);
+                if ((x + 1) % PROGRESS_INTERVAL == 0 || x + 1 == width) {
+                    progress.set(y, x + 1);
+                }
             }
         }
 
-        return restored;
+        /**
+         * Waits until a given number of pixels in a row have been quantized. The waiting thread briefly polls the row's
+         * progress, then parks for increasingly long (but bounded) intervals between polls.
+         *
+         * @param y      The row
+         * @param pixels The number of pixels that must have been quantized
+         * @return The number of pixels quantized in the row
+         */
+        private int awaitProgress(int y, int pixels) {
+            int quantized = progress.get(y);
+            int spins = 0;
+            long parkNanos = 1_000;
+
+            while (quantized < pixels) {
+                if (aborted) {
+                    if (monitor.isCancelled()) {
+                        throw new CancellationException();
+                    }
+
+                    throw new IllegalStateException("Dithering was aborted by another thread.");
+                }
+
+                if (spins < MAX_SPINS) {
+                    spins++;
+                } else {
+                    LockSupport.parkNanos(this, parkNanos);
+                    parkNanos = Math.min(MAX_PARK_NANOS, parkNanos * 2);
+                }
+
+                quantized = progress.get(y);
+            }
+
+            return quantized;
+        }
     }
 
     /**
-     * Distributes a fraction of the quantization error to another pixel in the raster. Distribution
-     * of quantization error adds (fraction * error) to the pixel's existing color channel values.
-     * <p>
-     * Has no effect if the specified pixel is not in the bounds of the current image.
-     *
-     * @param x        The x-coordinate of the pixel receiving the distributed quantization error
-     * @param y        The y-coordinate of the pixel receiving the distributed quantization error
-     * @param qer      The red channel quantization error
-     * @param qeg      The green channel quantization error
-     * @param qeb      The blue channel quantization error
-     * @param fraction The fraction of each channel's error to be distributed to this pixel.
+     * The red, green and blue color values (represented as 0..1) of every pixel in an image being dithered.
      */
-    protected void distributeError(int x, int y, double qer, double qeg, double qeb, double fraction) {
-        if (y >= 0 && y < matrix.length && x >= 0 && x < matrix[y].length) {
-            matrix[y][x][0] += qer * fraction;
-            matrix[y][x][1] += qeg * fraction;
-            matrix[y][x][2] += qeb * fraction;
+    private static class ErrorMatrix {
+        private final int width;
+        private final int height;
+        private final double[] values;
+
+        private ErrorMatrix(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.values = new double[width * height * 3];
         }
     }
-
 }
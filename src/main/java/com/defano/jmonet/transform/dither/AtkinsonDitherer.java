@@ -3,21 +3,20 @@ package com.defano.jmonet.transform.dither;
 /**
  * An implementation of Bill Atkinson's dithering algorithm.
  */
-@SuppressWarnings("PointlessArithmeticExpression")
 public class AtkinsonDitherer extends AbstractDitherer {
 
     /**
-     * {@inheritDoc}
+     * Creates an Atkinson ditherer.
      */
-    @Override
-    public void ditherPixel(int x, int y, double qer, double qeg, double qeb) {
-        distributeError(x + 1, y + 0, qer, qeg, qeb, 1.0 / 8.0);
-        distributeError(x + 2, y + 0, qer, qeg, qeb, 1.0 / 8.0);
+    public AtkinsonDitherer() {
+        super(DiffusionKernel.builder()
+                .distribute(1, 0, 1.0 / 8.0)
+                .distribute(2, 0, 1.0 / 8.0)
 
-        distributeError(x - 1, y + 1, qer, qeg, qeb, 1.0 / 8.0);
-        distributeError(x + 0, y + 1, qer, qeg, qeb, 1.0 / 8.0);
-        distributeError(x + 1, y + 1, qer, qeg, qeb, 1.0 / 8.0);
-
-        distributeError(x + 0, y + 1, qer, qeg, qeb, 1.0 / 8.0);
+                .distribute(-1, 1, 1.0 / 8.0)
+                .distribute(0, 1, 1.0 / 8.0)
+                .distribute(1, 1, 1.0 / 8.0)
+                .distribute(0, 1, 1.0 / 8.0)
+                .build());
     }
 }
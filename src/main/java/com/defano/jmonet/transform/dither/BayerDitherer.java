@@ -0,0 +1,56 @@
+package com.defano.jmonet.transform.dither;
+
+/**
+ * An ordered ditherer using a Bayer (recursive index) threshold matrix, producing the regular cross-hatched patterns
+ * of classic ordered dithering.
+ */
+public class BayerDitherer extends OrderedDitherer {
+
+    /**
+     * Creates a Bayer ditherer with a 4x4 threshold matrix.
+     */
+    public BayerDitherer() {
+        this(4);
+    }
+
+    /**
+     * Creates a Bayer ditherer with a threshold matrix of the given size. Larger matrices render more distinct shades
+     * at the cost of coarser patterns.
+     *
+     * @param size The width and height of the threshold matrix; one of 2, 4, 8 or 16.
+     */
+    public BayerDitherer(int size) {
+        super(size, getRanks(size), size * size);
+    }
+
+    /**
+     * Produces the Bayer index matrix of a given size, built recursively from the 2x2 matrix.
+     *
+     * @param size The width and height of the matrix; a power of two no greater than 16
+     * @return The matrix entries, in row-major order
+     */
+    private static int[] getRanks(int size) {
+        if (size < 2 || size > 16 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Bayer matrix size must be 2, 4, 8 or 16.");
+        }
+
+        int[] ranks = {0};
+        for (int half = 1; half < size; half *= 2) {
+            int[] doubled = new int[half * half * 4];
+
+            for (int y = 0; y < half; y++) {
+                for (int x = 0; x < half; x++) {
+                    int rank = ranks[y * half + x] * 4;
+                    doubled[y * half * 2 + x] = rank;
+                    doubled[y * half * 2 + x + half] = rank + 2;
+                    doubled[(y + half) * half * 2 + x] = rank + 3;
+                    doubled[(y + half) * half * 2 + x + half] = rank + 1;
+                }
+            }
+
+            ranks = doubled;
+        }
+
+        return ranks;
+    }
+}
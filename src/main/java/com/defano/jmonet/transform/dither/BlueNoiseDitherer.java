@@ -0,0 +1,47 @@
+package com.defano.jmonet.transform.dither;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An ordered ditherer using a blue-noise threshold matrix, producing an even, pattern-free stipple that resembles
+ * error diffusion but, unlike it, can be computed for each pixel independently.
+ * <p>
+ * The 64x64 matrix, produced with Ulichney's void-and-cluster method, is bundled as the resource
+ * {@code /dither/blue-noise.png}; each of its 256 gray levels ranks 16 entries.
+ */
+public class BlueNoiseDitherer extends OrderedDitherer {
+
+    private static final String MATRIX_RESOURCE = "/dither/blue-noise.png";
+    private static final int MATRIX_SIZE = 64;
+
+    /**
+     * Creates a blue-noise ditherer.
+     */
+    public BlueNoiseDitherer() {
+        super(MATRIX_SIZE, Matrix.RANKS, 256);
+    }
+
+    /**
+     * Holder of the bundled threshold matrix, loaded the first time a blue-noise ditherer is created.
+     */
+    private static class Matrix {
+        private static final int[] RANKS = load();
+
+        private static int[] load() {
+            try (InputStream stream = BlueNoiseDitherer.class.getResourceAsStream(MATRIX_RESOURCE)) {
+                BufferedImage image = stream == null ? null : ImageIO.read(stream);
+
+                if (image == null || image.getWidth() != MATRIX_SIZE || image.getHeight() != MATRIX_SIZE) {
+                    throw new IllegalStateException("Bug! Blue-noise matrix is missing or malformed.");
+                }
+
+                return image.getRaster().getSamples(0, 0, MATRIX_SIZE, MATRIX_SIZE, 0, (int[]) null);
+            } catch (IOException e) {
+                throw new IllegalStateException("Bug! Unable to read blue-noise matrix.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.defano.jmonet.transform.dither;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An error-diffusion kernel; the set of not-yet-quantized pixels, relative to a quantized pixel, that receive a
+ * fraction of the pixel's quantization error.
+ * <p>
+ * Error may only be diffused forward, that is, to pixels on the same row to the right of the quantized pixel or to
+ * pixels on subsequent rows. Error is distributed in the order in which the kernel's entries were added.
+ */
+public class DiffusionKernel {
+
+    private final int[] dx;
+    private final int[] dy;
+    private final double[] fractions;
+
+    private DiffusionKernel(List<int[]> offsets, List<Double> fractions) {
+        this.dx = new int[offsets.size()];
+        this.dy = new int[offsets.size()];
+        this.fractions = new double[offsets.size()];
+
+        for (int index = 0; index < offsets.size(); index++) {
+            this.dx[index] = offsets.get(index)[0];
+            this.dy[index] = offsets.get(index)[1];
+            this.fractions[index] = fractions.get(index);
+        }
+    }
+
+    /**
+     * Creates a builder for a kernel.
+     *
+     * @return A builder for a kernel that diffuses no error
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the number of entries in this kernel.
+     *
+     * @return The number of pixels receiving a fraction of each pixel's quantization error
+     */
+    public int size() {
+        return fractions.length;
+    }
+
+    /**
+     * Gets the horizontal offset of a pixel receiving error, relative to the quantized pixel.
+     *
+     * @param entry The index of the kernel entry
+     * @return The horizontal offset of the entry
+     */
+    public int getDx(int entry) {
+        return dx[entry];
+    }
+
+    /**
+     * Gets the vertical offset of a pixel receiving error, relative to the quantized pixel.
+     *
+     * @param entry The index of the kernel entry
+     * @return The vertical offset of the entry; never negative
+     */
+    public int getDy(int entry) {
+        return dy[entry];
+    }
+
+    /**
+     * Gets the fraction of the quantization error distributed to a pixel.
+     *
+     * @param entry The index of the kernel entry
+     * @return The fraction of error distributed by the entry
+     */
+    public double getFraction(int entry) {
+        return fractions[entry];
+    }
+
+    /**
+     * Gets the number of rows beneath the quantized pixel that receive error.
+     *
+     * @return The greatest vertical offset of any entry; zero if error is diffused only along the row (or not at all)
+     */
+    public int getDepth() {
+        int depth = 0;
+        for (int thisDy : dy) {
+            depth = Math.max(depth, thisDy);
+        }
+
+        return depth;
+    }
+
+    /**
+     * Gets the number of pixels by which the dithering of a row must trail the dithering of the row above it when rows
+     * are dithered concurrently. Dithering pixel x of a row requires that every pixel through x + lag of the row above
+     * has been quantized; thus, every pixel diffusing error to the pixel (or to any pixel receiving error from it)
+     * has done so, in the same order as when the image is dithered sequentially.
+     *
+     * @return The number of pixels by which each row trails the row above
+     */
+    public int getLag() {
+        int forward = 0;
+        int backward = 0;
+
+        for (int entry = 0; entry < size(); entry++) {
+            forward = Math.max(forward, dx[entry]);
+            if (dy[entry] > 0) {
+                backward = Math.max(backward, -dx[entry]);
+            }
+        }
+
+        return forward + backward;
+    }
+
+    /**
+     * A builder of {@link DiffusionKernel}s.
+     */
+    public static class Builder {
+
+        private final List<int[]> offsets = new ArrayList<>();
+        private final List<Double> fractions = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds an entry to the kernel.
+         *
+         * @param dx       The horizontal offset of the pixel receiving error, relative to the quantized pixel
+         * @param dy       The vertical offset of the pixel receiving error, relative to the quantized pixel
+         * @param fraction The fraction of the quantization error that the pixel receives
+         * @return This builder
+         */
+        public Builder distribute(int dx, int dy, double fraction) {
+            if (dy < 0 || (dy == 0 && dx <= 0)) {
+                throw new IllegalArgumentException("Error can only be diffused to pixels not yet quantized.");
+            }
+
+            offsets.add(new int[]{dx, dy});
+            fractions.add(fraction);
+            return this;
+        }
+
+        /**
+         * Builds the kernel.
+         *
+         * @return The kernel
+         */
+        public DiffusionKernel build() {
+            return new DiffusionKernel(offsets, fractions);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.defano.jmonet.transform.dither;
 
 import com.defano.jmonet.transform.dither.quant.QuantizationFunction;
+import com.defano.jmonet.transform.image.TransformMonitor;
 
 import java.awt.image.BufferedImage;
 
@@ -19,4 +20,36 @@ public interface Ditherer {
      * @return A copy of the source image with the quantization/dithering function applied.
      */
     BufferedImage dither(BufferedImage source, QuantizationFunction quantizer);
+
+    /**
+     * Applies a {@link QuantizationFunction} to each pixel in the source image and dithers (diffuses) the
+     * quantization error, optionally dividing the work among multiple threads. The result is the same as that of
+     * {@link #dither(BufferedImage, QuantizationFunction)}; implementations not supporting parallel dithering simply
+     * dither the image on the calling thread.
+     *
+     * @param source    The source image to be quantized and dithered; unmodified by this operation.
+     * @param quantizer The quantization function to use; when dithering in parallel, it may be invoked by multiple
+     *                  threads concurrently.
+     * @param parallel  True to allow the image to be dithered on multiple threads.
+     * @return A copy of the source image with the quantization/dithering function applied.
+     */
+    default BufferedImage dither(BufferedImage source, QuantizationFunction quantizer, boolean parallel) {
+        return dither(source, quantizer);
+    }
+
+    /**
+     * Applies a {@link QuantizationFunction} to each pixel in the source image and dithers (diffuses) the
+     * quantization error, as {@link #dither(BufferedImage, QuantizationFunction, boolean)} does, while reporting
+     * progress to the given monitor. Implementations not supporting a monitor simply dither the image, ignoring it.
+     *
+     * @param source    The source image to be quantized and dithered; unmodified by this operation.
+     * @param quantizer The quantization function to use.
+     * @param parallel  True to allow the image to be dithered on multiple threads.
+     * @param monitor   The monitor to which progress is reported, and which indicates when dithering is cancelled.
+     * @return A copy of the source image with the quantization/dithering function applied.
+     * @throws java.util.concurrent.CancellationException If dithering stopped early because it was cancelled
+     */
+    default BufferedImage dither(BufferedImage source, QuantizationFunction quantizer, boolean parallel, TransformMonitor monitor) {
+        return dither(source, quantizer, parallel);
+    }
 }
@@ -3,18 +3,18 @@ package com.defano.jmonet.transform.dither;
 /**
  * An implementation of the Floyd-Steinberg dithering algorithm.
  */
-@SuppressWarnings("PointlessArithmeticExpression")
 public class FloydSteinbergDitherer extends AbstractDitherer {
 
     /**
-     * {@inheritDoc}
+     * Creates a FloydSteinberg ditherer.
      */
-    @Override
-    public void ditherPixel(int x, int y, double qer, double qeg, double qeb) {
-        distributeError(x + 1, y + 0, qer, qeg, qeb, 7.0 / 16.0);
+    public FloydSteinbergDitherer() {
+        super(DiffusionKernel.builder()
+                .distribute(1, 0, 7.0 / 16.0)
 
-        distributeError(x - 1, y + 1, qer, qeg, qeb, 3.0 / 16.0);
-        distributeError(x + 0, y + 1, qer, qeg, qeb, 5.0 / 16.0);
-        distributeError(x + 1, y + 1, qer, qeg, qeb, 1.0 / 16.0);
+                .distribute(-1, 1, 3.0 / 16.0)
+                .distribute(0, 1, 5.0 / 16.0)
+                .distribute(1, 1, 1.0 / 16.0)
+                .build());
     }
 }
@@ -3,27 +3,28 @@ package com.defano.jmonet.transform.dither;
 /**
  * An implementation of the Jarvis-Judice-Ninke dithering algorithm.
  */
-@SuppressWarnings({"PointlessArithmeticExpression", "unused"})
+@SuppressWarnings("unused")
 public class JarvisJudiceNinkeDitherer extends AbstractDitherer {
 
     /**
-     * {@inheritDoc}
+     * Creates a JarvisJudiceNinke ditherer.
      */
-    @Override
-    public void ditherPixel(int x, int y, double qer, double qeg, double qeb) {
-        distributeError(x + 1, y + 0, qer, qeg, qeb, 7.0 / 48.0);
-        distributeError(x + 2, y + 0, qer, qeg, qeb, 5.0 / 48.0);
+    public JarvisJudiceNinkeDitherer() {
+        super(DiffusionKernel.builder()
+                .distribute(1, 0, 7.0 / 48.0)
+                .distribute(2, 0, 5.0 / 48.0)
 
-        distributeError(x - 2, y + 1, qer, qeg, qeb, 3.0 / 48.0);
-        distributeError(x - 1, y + 1, qer, qeg, qeb, 5.0 / 48.0);
-        distributeError(x + 0, y + 1, qer, qeg, qeb, 7.0 / 48.0);
-        distributeError(x + 1, y + 1, qer, qeg, qeb, 5.0 / 48.0);
-        distributeError(x + 2, y + 1, qer, qeg, qeb, 3.0 / 48.0);
+                .distribute(-2, 1, 3.0 / 48.0)
+                .distribute(-1, 1, 5.0 / 48.0)
+                .distribute(0, 1, 7.0 / 48.0)
+                .distribute(1, 1, 5.0 / 48.0)
+                .distribute(2, 1, 3.0 / 48.0)
 
-        distributeError(x - 2, y + 2, qer, qeg, qeb, 1.0 / 48.0);
-        distributeError(x - 1, y + 2, qer, qeg, qeb, 3.0 / 48.0);
-        distributeError(x + 0, y + 2, qer, qeg, qeb, 5.0 / 48.0);
-        distributeError(x + 1, y + 2, qer, qeg, qeb, 3.0 / 48.0);
-        distributeError(x + 2, y + 2, qer, qeg, qeb, 1.0 / 48.0);
+                .distribute(-2, 2, 1.0 / 48.0)
+                .distribute(-1, 2, 3.0 / 48.0)
+                .distribute(0, 2, 5.0 / 48.0)
+                .distribute(1, 2, 3.0 / 48.0)
+                .distribute(2, 2, 1.0 / 48.0)
+                .build());
     }
 }
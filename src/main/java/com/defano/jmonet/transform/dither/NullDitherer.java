@@ -6,10 +6,9 @@ package com.defano.jmonet.transform.dither;
 public class NullDitherer extends AbstractDitherer {
 
     /**
-     * {@inheritDoc}
+     * Creates a ditherer that diffuses no error.
      */
-    @Override
-    public void ditherPixel(int x, int y, double qer, double qeg, double qeb) {
-        // Nothing to do
+    public NullDitherer() {
+        super(DiffusionKernel.builder().build());
     }
 }
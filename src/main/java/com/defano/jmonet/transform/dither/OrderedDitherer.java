@@ -0,0 +1,179 @@
+package com.defano.jmonet.transform.dither;
+
+import com.defano.jmonet.transform.dither.quant.QuantizationFunction;
+import com.defano.jmonet.tools.util.ImageUtils;
+import com.defano.jmonet.transform.image.TransformMonitor;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Abstract base class for ordered ditherers; ditherers that offset each pixel's color by a threshold taken from a matrix
+ * tiled across the image before quantizing it, rather than diffusing quantization error.
+ * <p>
+ * Each pixel is dithered independently of every other, so images may be dithered in parallel, and a region of an image
+ * aligned to the threshold matrix dithers to the same pixels (without seams) whether dithered alone or as part of the
+ * entire image. Thresholds are scaled to the spacing
+ * between the colors produced by the quantization function, which is measured by quantizing a ramp of grays; thus,
+ * ordered ditherers work with any {@link QuantizationFunction}.
+ */
+public abstract class OrderedDitherer implements Ditherer {
+
+    // Minimum number of pixels in an image for its rows to be dithered in parallel
+    private static final int PARALLEL_THRESHOLD = 256 * 256;
+
+    // Number of rows dithered by each parallel task
+    private static final int ROWS_PER_TASK = 32;
+
+    private final int size;
+    private final double[] thresholds;
+
+    /**
+     * Creates an ordered ditherer using a square matrix of threshold ranks.
+     *
+     * @param size   The width and height of the matrix
+     * @param ranks  The rank of each matrix entry, in row-major order; each between 0 (inclusive) and levels
+     *               (exclusive). Lower-ranked entries are the first to brighten as a color brightens.
+     * @param levels The number of distinct ranks
+     */
+    protected OrderedDitherer(int size, int[] ranks, int levels) {
+        if (size <= 0 || ranks.length != size * size) {
+            throw new IllegalArgumentException("Threshold matrix must contain size * size ranks.");
+        }
+
+        this.size = size;
+        this.thresholds = new double[ranks.length];
+
+        for (int index = 0; index < ranks.length; index++) {
+            thresholds[index] = (ranks[index] + 0.5) / levels - 0.5;
+        }
+    }
+
+    /**
+     * Gets the width and height of this ditherer's threshold matrix.
+     *
+     * @return The size of the threshold matrix
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the threshold applied to a pixel.
+     *
+     * @param x The x-coordinate of the pixel
+     * @param y The y-coordinate of the pixel
+     * @return The threshold, between -0.5 and 0.5; the fraction of the spacing between quantized colors that is added
+     * to each color channel of the pixel before it is quantized.
+     */
+    public double getThreshold(int x, int y) {
+        return thresholds[Math.floorMod(y, size) * size + Math.floorMod(x, size)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BufferedImage dither(BufferedImage source, QuantizationFunction quantizer) {
+        return dither(source, quantizer, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BufferedImage dither(BufferedImage source, QuantizationFunction quantizer, boolean parallel) {
+        return dither(source, quantizer, parallel, TransformMonitor.NONE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Progress is reported, and cancellation checked, after each band of rows is dithered.
+     */
+    @Override
+    public BufferedImage dither(BufferedImage source, QuantizationFunction quantizer, boolean parallel, TransformMonitor monitor) {
+
+        // Source needs to be ARGB type; the copy is overwritten with the dithered image
+        BufferedImage dithered = ImageUtils.argbCopy(source);
+        int[] pixels = ((DataBufferInt) dithered.getRaster().getDataBuffer()).getData();
+        int width = dithered.getWidth();
+        int height = dithered.getHeight();
+        double spread = getSpread(quantizer);
+
+        int taskCount = (height + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+        IntStream tasks = IntStream.range(0, taskCount);
+        if (parallel && (long) width * height >= PARALLEL_THRESHOLD) {
+            tasks = tasks.parallel();
+        }
+
+        AtomicInteger completed = new AtomicInteger();
+        tasks.forEach(task -> {
+            if (monitor.isCancelled()) {
+                throw new CancellationException();
+            }
+
+            double[] oldPixel = new double[4];
+            double[] newPixel = new double[4];
+
+            for (int y = task * ROWS_PER_TASK; y < Math.min(height, (task + 1) * ROWS_PER_TASK); y++) {
+                for (int x = 0; x < width; x++) {
+                    int argb = pixels[y * width + x];
+                    double offset = thresholds[(y % size) * size + x % size] * spread;
+
+                    oldPixel[0] = ((argb >> 16) & 0xff) / 255.0 + offset;
+                    oldPixel[1] = ((argb >> 8) & 0xff) / 255.0 + offset;
+                    oldPixel[2] = (argb & 0xff) / 255.0 + offset;
+                    oldPixel[3] = argb >>> 24;
+
+                    quantizer.quantize(oldPixel, newPixel);
+                    pixels[y * width + x] = AbstractDitherer.toArgb(newPixel[0], newPixel[1], newPixel[2], newPixel[3]);
+                }
+            }
+
+            monitor.setProgress((double) completed.incrementAndGet() / taskCount);
+        });
+
+        return dithered;
+    }
+
+    /**
+     * Measures the average spacing between the values a quantization function produces for each color channel, by
+     * quantizing a ramp of grays from black to white.
+     *
+     * @param quantizer The quantization function
+     * @return The greatest average spacing of any color channel, 0..1; 1 if the function produces a single color.
+     */
+    private static double getSpread(QuantizationFunction quantizer) {
+        double spread = 0;
+        double[] gray = new double[4];
+        double[][] ramp = new double[256][4];
+
+        for (int level = 0; level < 256; level++) {
+            gray[0] = gray[1] = gray[2] = level / 255.0;
+            gray[3] = 0xff;
+            quantizer.quantize(gray, ramp[level]);
+        }
+
+        for (int channel = 0; channel < 3; channel++) {
+            int distinct = 1;
+            double min = ramp[0][channel];
+            double max = ramp[0][channel];
+
+            for (int level = 1; level < 256; level++) {
+                distinct += ramp[level][channel] != ramp[level - 1][channel] ? 1 : 0;
+                min = Math.min(min, ramp[level][channel]);
+                max = Math.max(max, ramp[level][channel]);
+            }
+
+            if (distinct > 1) {
+                spread = Math.max(spread, (max - min) / (distinct - 1));
+            }
+        }
+
+        return spread == 0 ? 1 : Math.min(1, spread);
+    }
+}
@@ -3,25 +3,25 @@ package com.defano.jmonet.transform.dither;
 /**
  * An implementation of the Sierra-3 dithering algorithm.
  */
-@SuppressWarnings("PointlessArithmeticExpression")
 public class SierraDitherer extends AbstractDitherer {
 
     /**
-     * {@inheritDoc}
+     * Creates a Sierra ditherer.
      */
-    @Override
-    public void ditherPixel(int x, int y, double qer, double qeg, double qeb) {
-        distributeError(x + 1, y + 0, qer, qeg, qeb, 5.0 / 32.0);
-        distributeError(x + 2, y + 0, qer, qeg, qeb, 3.0 / 32.0);
+    public SierraDitherer() {
+        super(DiffusionKernel.builder()
+                .distribute(1, 0, 5.0 / 32.0)
+                .distribute(2, 0, 3.0 / 32.0)
 
-        distributeError(x - 2, y + 1, qer, qeg, qeb, 2.0 / 32.0);
-        distributeError(x - 1, y + 1, qer, qeg, qeb, 4.0 / 32.0);
-        distributeError(x + 0, y + 1, qer, qeg, qeb, 5.0 / 32.0);
-        distributeError(x + 1, y + 1, qer, qeg, qeb, 4.0 / 32.0);
-        distributeError(x + 2, y + 1, qer, qeg, qeb, 2.0 / 32.0);
+                .distribute(-2, 1, 2.0 / 32.0)
+                .distribute(-1, 1, 4.0 / 32.0)
+                .distribute(0, 1, 5.0 / 32.0)
+                .distribute(1, 1, 4.0 / 32.0)
+                .distribute(2, 1, 2.0 / 32.0)
 
-        distributeError(x - 1, y + 2, qer, qeg, qeb, 2.0 / 32.0);
-        distributeError(x + 0, y + 2, qer, qeg, qeb, 3.0 / 32.0);
-        distributeError(x + 1, y + 2, qer, qeg, qeb, 2.0 / 32.0);
+                .distribute(-1, 2, 2.0 / 32.0)
+                .distribute(0, 2, 3.0 / 32.0)
+                .distribute(1, 2, 2.0 / 32.0)
+                .build());
     }
 }
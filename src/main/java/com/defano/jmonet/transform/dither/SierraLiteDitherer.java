@@ -3,17 +3,17 @@ package com.defano.jmonet.transform.dither;
 /**
  * An implementation of the Sierra-Lite dithering algorithm.
  */
-@SuppressWarnings("PointlessArithmeticExpression")
 public class SierraLiteDitherer extends AbstractDitherer {
 
     /**
-     * {@inheritDoc}
+     * Creates a SierraLite ditherer.
      */
-    @Override
-    public void ditherPixel(int x, int y, double qer, double qeg, double qeb) {
-        distributeError(x + 1, y + 0, qer, qeg, qeb, 2.0 / 4.0);
+    public SierraLiteDitherer() {
+        super(DiffusionKernel.builder()
+                .distribute(1, 0, 2.0 / 4.0)
 
-        distributeError(x - 1, y + 1, qer, qeg, qeb, 1.0 / 4.0);
-        distributeError(x + 0, y + 1, qer, qeg, qeb, 1.0 / 4.0);
+                .distribute(-1, 1, 1.0 / 4.0)
+                .distribute(0, 1, 1.0 / 4.0)
+                .build());
     }
 }
@@ -3,21 +3,21 @@ package com.defano.jmonet.transform.dither;
 /**
  * An implementation of the Sierra-Two (row) dithering algorithm.
  */
-@SuppressWarnings("PointlessArithmeticExpression")
 public class SierraTwoDitherer extends AbstractDitherer {
 
     /**
-     * {@inheritDoc}
+     * Creates a SierraTwo ditherer.
      */
-    @Override
-    public void ditherPixel(int x, int y, double qer, double qeg, double qeb) {
-        distributeError(x+1, y+0, qer, qeg, qeb, 4.0/16.0);
-        distributeError(x+2, y+0, qer, qeg, qeb, 3.0/16.0);
+    public SierraTwoDitherer() {
+        super(DiffusionKernel.builder()
+                .distribute(1, 0, 4.0 / 16.0)
+                .distribute(2, 0, 3.0 / 16.0)
 
-        distributeError(x-2, y+1, qer, qeg, qeb, 1.0/16.0);
-        distributeError(x-1, y+1, qer, qeg, qeb, 2.0/16.0);
-        distributeError(x+0, y+1, qer, qeg, qeb, 3.0/16.0);
-        distributeError(x+1, y+1, qer, qeg, qeb, 1.0/16.0);
-        distributeError(x+2, y+1, qer, qeg, qeb, 1.0/16.0);
+                .distribute(-2, 1, 1.0 / 16.0)
+                .distribute(-1, 1, 2.0 / 16.0)
+                .distribute(0, 1, 3.0 / 16.0)
+                .distribute(1, 1, 1.0 / 16.0)
+                .distribute(2, 1, 1.0 / 16.0)
+                .build());
     }
 }
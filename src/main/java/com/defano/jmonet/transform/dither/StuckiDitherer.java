@@ -3,27 +3,28 @@ package com.defano.jmonet.transform.dither;
 /**
  * An implementation of the Stucki dithering algorithm.
  */
-@SuppressWarnings({"PointlessArithmeticExpression", "unused"})
+@SuppressWarnings("unused")
 public class StuckiDitherer extends AbstractDitherer {
 
     /**
-     * {@inheritDoc}
+     * Creates a Stucki ditherer.
      */
-    @Override
-    public void ditherPixel(int x, int y, double qer, double qeg, double qeb) {
-        distributeError(x + 1, y + 0, qer, qeg, qeb, 8.0 / 42.0);
-        distributeError(x + 2, y + 0, qer, qeg, qeb, 4.0 / 42.0);
+    public StuckiDitherer() {
+        super(DiffusionKernel.builder()
+                .distribute(1, 0, 8.0 / 42.0)
+                .distribute(2, 0, 4.0 / 42.0)
 
-        distributeError(x - 2, y + 1, qer, qeg, qeb, 2.0 / 42.0);
-        distributeError(x - 1, y + 1, qer, qeg, qeb, 4.0 / 42.0);
-        distributeError(x + 0, y + 1, qer, qeg, qeb, 8.0 / 42.0);
-        distributeError(x + 1, y + 1, qer, qeg, qeb, 4.0 / 42.0);
-        distributeError(x + 2, y + 1, qer, qeg, qeb, 2.0 / 42.0);
+                .distribute(-2, 1, 2.0 / 42.0)
+                .distribute(-1, 1, 4.0 / 42.0)
+                .distribute(0, 1, 8.0 / 42.0)
+                .distribute(1, 1, 4.0 / 42.0)
+                .distribute(2, 1, 2.0 / 42.0)
 
-        distributeError(x - 2, y + 2, qer, qeg, qeb, 1.0 / 42.0);
-        distributeError(x - 1, y + 2, qer, qeg, qeb, 2.0 / 42.0);
-        distributeError(x + 0, y + 2, qer, qeg, qeb, 4.0 / 42.0);
-        distributeError(x + 1, y + 2, qer, qeg, qeb, 2.0 / 42.0);
-        distributeError(x + 2, y + 2, qer, qeg, qeb, 1.0 / 42.0);
+                .distribute(-2, 2, 1.0 / 42.0)
+                .distribute(-1, 2, 2.0 / 42.0)
+                .distribute(0, 2, 4.0 / 42.0)
+                .distribute(1, 2, 2.0 / 42.0)
+                .distribute(2, 2, 1.0 / 42.0)
+                .build());
     }
 }
\ No newline at end of file
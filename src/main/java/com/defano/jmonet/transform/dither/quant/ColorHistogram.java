@@ -0,0 +1,101 @@
+package com.defano.jmonet.transform.dither.quant;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * A histogram of the colors appearing in an image, binned by the five most significant bits of each color channel.
+ * Each bin records the number of pixels it contains and the sum of their (full-precision) color channels, so the
+ * average color of any set of bins is exact. Fully transparent pixels are not counted.
+ */
+class ColorHistogram {
+
+    static final int BITS = 5;
+    static final int SIZE = 1 << (BITS * 3);
+
+    final long[] counts = new long[SIZE];
+    final long[] reds = new long[SIZE];
+    final long[] greens = new long[SIZE];
+    final long[] blues = new long[SIZE];
+
+    /**
+     * Counts the colors of an image.
+     *
+     * @param image The image whose colors are counted
+     */
+    ColorHistogram(BufferedImage image) {
+        int[] row = new int[image.getWidth()];
+
+        for (int y = 0; y < image.getHeight(); y++) {
+            image.getRGB(0, y, row.length, 1, row, 0, row.length);
+
+            for (int thisPixel : row) {
+                if ((thisPixel >>> 24) != 0) {
+                    int r = (thisPixel >> 16) & 0xff;
+                    int g = (thisPixel >> 8) & 0xff;
+                    int b = thisPixel & 0xff;
+                    int bin = getBin(r, g, b);
+
+                    counts[bin]++;
+                    reds[bin] += r;
+                    greens[bin] += g;
+                    blues[bin] += b;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the bin containing a color.
+     *
+     * @param r The red channel, 0..255
+     * @param g The green channel, 0..255
+     * @param b The blue channel, 0..255
+     * @return The index of the bin
+     */
+    static int getBin(int r, int g, int b) {
+        int shift = 8 - BITS;
+        return ((r >> shift) << (BITS * 2)) | ((g >> shift) << BITS) | (b >> shift);
+    }
+
+    /**
+     * Gets a channel of a bin's index; the channel's value shifted right by {@code 8 - BITS}.
+     *
+     * @param bin     The index of the bin
+     * @param channel The channel; 0 for red, 1 for green, 2 for blue
+     * @return The channel's binned value, 0 to {@code (1 << BITS) - 1}
+     */
+    static int getBinChannel(int bin, int channel) {
+        return (bin >> (BITS * (2 - channel))) & ((1 << BITS) - 1);
+    }
+
+    /**
+     * Gets the average color of the pixels within a set of bins.
+     *
+     * @param bins  Indices of bins
+     * @param from  The index (in bins) of the first bin in the set, inclusive
+     * @param to    The index (in bins) of the last bin in the set, exclusive
+     * @return The average color as an opaque ARGB value, or 0 if the bins contain no pixels
+     */
+    int getAverage(int[] bins, int from, int to) {
+        long count = 0, r = 0, g = 0, b = 0;
+
+        for (int index = from; index < to; index++) {
+            count += counts[bins[index]];
+            r += reds[bins[index]];
+            g += greens[bins[index]];
+            b += blues[bins[index]];
+        }
+
+        return count == 0 ? 0 : toOpaqueRgb(r, g, b, count);
+    }
+
+    /**
+     * Converts summed color channels to an average, opaque ARGB color.
+     */
+    static int toOpaqueRgb(long r, long g, long b, long count) {
+        return 0xff000000 |
+                (int) ((r + count / 2) / count) << 16 |
+                (int) ((g + count / 2) / count) << 8 |
+                (int) ((b + count / 2) / count);
+    }
+}
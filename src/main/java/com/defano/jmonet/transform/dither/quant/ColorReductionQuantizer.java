@@ -33,12 +33,18 @@ public class ColorReductionQuantizer implements QuantizationFunction {
     @Override
     public double[] quantize(double[] input) {
         double[] reduced = new double[4];
-
-        reduced[0] = Math.round(input[0] * (double) channelColorCount) / (double) channelColorCount;
-        reduced[1] = Math.round(input[1] * (double) channelColorCount) / (double) channelColorCount;
-        reduced[2] = Math.round(input[2] * (double) channelColorCount) / (double) channelColorCount;
-        reduced[3] = input[3];
-
+        quantize(input, reduced);
         return reduced;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void quantize(double[] input, double[] output) {
+        output[0] = Math.round(input[0] * (double) channelColorCount) / (double) channelColorCount;
+        output[1] = Math.round(input[1] * (double) channelColorCount) / (double) channelColorCount;
+        output[2] = Math.round(input[2] * (double) channelColorCount) / (double) channelColorCount;
+        output[3] = input[3];
+    }
 }
@@ -31,15 +31,21 @@ public class GrayscaleQuantizer implements QuantizationFunction {
     @Override
     public double[] quantize(double[] input) {
         double[] reduced = new double[4];
+        quantize(input, reduced);
+        return reduced;
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void quantize(double[] input, double[] output) {
         double luminosity = (input[0] + input[1] + input[2]) / 3.0;
         luminosity = Math.round(luminosity * (double) graysCount) / (double) graysCount;
 
-        reduced[0] = luminosity;
-        reduced[1] = luminosity;
-        reduced[2] = luminosity;
-        reduced[3] = input[3];      // No change to alpha channel
-
-        return reduced;
+        output[0] = luminosity;
+        output[1] = luminosity;
+        output[2] = luminosity;
+        output[3] = input[3];      // No change to alpha channel
     }
 }
@@ -0,0 +1,152 @@
+package com.defano.jmonet.transform.dither.quant;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Quantizes (reduces) a 24-bit, RGB-encoded color value to the nearest color in a palette adapted to a given image by
+ * Heckbert's median-cut algorithm.
+ * <p>
+ * The colors of the image are repeatedly divided at their median along the longest side of their bounding box,
+ * favoring boxes covering many pixels over a wide range of color, until the requested number of boxes has been formed;
+ * each box contributes the average color of its pixels to the palette.
+ */
+public class MedianCutQuantizer extends PaletteQuantizer {
+
+    /**
+     * Creates a quantizer that reduces colors to a palette adapted to an image.
+     *
+     * @param image  The image whose colors the palette should represent; fully transparent pixels are ignored.
+     * @param colors The maximum number of colors in the palette; the palette will have fewer colors only if the image
+     *               does.
+     */
+    public MedianCutQuantizer(BufferedImage image, int colors) {
+        super(getPalette(image, colors));
+    }
+
+    private static int[] getPalette(BufferedImage image, int colors) {
+        if (colors < 1) {
+            throw new IllegalArgumentException("Palette must contain at least one color.");
+        }
+
+        ColorHistogram histogram = new ColorHistogram(image);
+        int[] bins = getOccupiedBins(histogram);
+        if (bins.length == 0) {
+            return new int[]{0xff000000};
+        }
+
+        // Each box is a range of indices into bins: {from, to}
+        List<int[]> boxes = new ArrayList<>();
+        boxes.add(new int[]{0, bins.length});
+
+        while (boxes.size() < colors) {
+            int[] widest = null;
+            int widestChannel = 0;
+            double widestScore = 0;
+
+            for (int[] thisBox : boxes) {
+                for (int channel = 0; channel < 3; channel++) {
+                    double score = (double) getRange(bins, thisBox, channel) * getCount(histogram, bins, thisBox);
+                    if (score > widestScore) {
+                        widest = thisBox;
+                        widestChannel = channel;
+                        widestScore = score;
+                    }
+                }
+            }
+
+            // No box spans more than a single bin
+            if (widest == null) {
+                break;
+            }
+
+            int split = split(histogram, bins, widest, widestChannel);
+            boxes.add(new int[]{split, widest[1]});
+            widest[1] = split;
+        }
+
+        int[] palette = new int[boxes.size()];
+        for (int index = 0; index < palette.length; index++) {
+            palette[index] = histogram.getAverage(bins, boxes.get(index)[0], boxes.get(index)[1]);
+        }
+
+        return palette;
+    }
+
+    /**
+     * Sorts the bins of a box along a channel and finds the index at which it divides its pixels in half.
+     *
+     * @return The index of the first bin of the second half; strictly between the bounds of the box
+     */
+    private static int split(ColorHistogram histogram, int[] bins, int[] box, int channel) {
+        sortByChannel(bins, box[0], box[1], channel);
+
+        long half = getCount(histogram, bins, box) / 2;
+        long accumulated = 0;
+        int split = box[0];
+
+        while (split < box[1] - 1 && accumulated + histogram.counts[bins[split]] <= half) {
+            accumulated += histogram.counts[bins[split++]];
+        }
+
+        return Math.max(box[0] + 1, split);
+    }
+
+    /**
+     * Sorts a range of bins by the value of one channel (a counting sort, as channels have few binned values).
+     */
+    private static void sortByChannel(int[] bins, int from, int to, int channel) {
+        int[] starts = new int[(1 << ColorHistogram.BITS) + 1];
+        for (int index = from; index < to; index++) {
+            starts[ColorHistogram.getBinChannel(bins[index], channel) + 1]++;
+        }
+        for (int value = 1; value < starts.length; value++) {
+            starts[value] += starts[value - 1];
+        }
+
+        int[] sorted = new int[to - from];
+        for (int index = from; index < to; index++) {
+            sorted[starts[ColorHistogram.getBinChannel(bins[index], channel)]++] = bins[index];
+        }
+
+        System.arraycopy(sorted, 0, bins, from, sorted.length);
+    }
+
+    private static int getRange(int[] bins, int[] box, int channel) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+
+        for (int index = box[0]; index < box[1]; index++) {
+            int value = ColorHistogram.getBinChannel(bins[index], channel);
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        return max - min;
+    }
+
+    private static long getCount(ColorHistogram histogram, int[] bins, int[] box) {
+        long count = 0;
+        for (int index = box[0]; index < box[1]; index++) {
+            count += histogram.counts[bins[index]];
+        }
+
+        return count;
+    }
+
+    private static int[] getOccupiedBins(ColorHistogram histogram) {
+        int count = 0;
+        int[] bins = new int[ColorHistogram.SIZE];
+
+        for (int bin = 0; bin < ColorHistogram.SIZE; bin++) {
+            if (histogram.counts[bin] > 0) {
+                bins[count++] = bin;
+            }
+        }
+
+        int[] occupied = new int[count];
+        System.arraycopy(bins, 0, occupied, 0, count);
+        return occupied;
+    }
+}
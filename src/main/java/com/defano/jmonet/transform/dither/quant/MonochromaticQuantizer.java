@@ -12,13 +12,20 @@ public class MonochromaticQuantizer implements QuantizationFunction {
     @Override
     public double[] quantize(double[] input) {
         double[] reduced = new double[4];
-        double luminosity = (input[0] + input[1] + input[2]) / 3.0;
+        quantize(input, reduced);
+        return reduced;
+    }
 
-        reduced[0] = luminosity > .5 ? 1.0 : 0.0;
-        reduced[1] = luminosity > .5 ? 1.0 : 0.0;
-        reduced[2] = luminosity > .5 ? 1.0 : 0.0;
-        reduced[3] = input[3];          // No change to alpha channel
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void quantize(double[] input, double[] output) {
+        double luminosity = (input[0] + input[1] + input[2]) / 3.0;
 
-        return reduced;
+        output[0] = luminosity > .5 ? 1.0 : 0.0;
+        output[1] = luminosity > .5 ? 1.0 : 0.0;
+        output[2] = luminosity > .5 ? 1.0 : 0.0;
+        output[3] = input[3];          // No change to alpha channel
     }
 }
@@ -0,0 +1,132 @@
+package com.defano.jmonet.transform.dither.quant;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Quantizes (reduces) a 24-bit, RGB-encoded color value to the nearest color in a palette adapted to a given image by
+ * octree color quantization.
+ * <p>
+ * The colors of the image are sorted into an octree, each level of which divides the color cube in half along each
+ * channel. Nodes are then merged into their parents, deepest and least populous first, until no more than the
+ * requested number of leaves remain; each leaf contributes the average color of its pixels to the palette.
+ */
+public class OctreeQuantizer extends PaletteQuantizer {
+
+    /**
+     * Creates a quantizer that reduces colors to a palette adapted to an image.
+     *
+     * @param image  The image whose colors the palette should represent; fully transparent pixels are ignored.
+     * @param colors The maximum number of colors in the palette; the palette may have fewer colors (particularly if
+     *               the image does).
+     */
+    public OctreeQuantizer(BufferedImage image, int colors) {
+        super(getPalette(image, colors));
+    }
+
+    private static int[] getPalette(BufferedImage image, int colors) {
+        if (colors < 1) {
+            throw new IllegalArgumentException("Palette must contain at least one color.");
+        }
+
+        ColorHistogram histogram = new ColorHistogram(image);
+        Node root = new Node();
+        List<List<Node>> reducible = new ArrayList<>();
+        for (int level = 0; level < ColorHistogram.BITS; level++) {
+            reducible.add(new ArrayList<>());
+        }
+
+        int leaves = 0;
+        for (int bin = 0; bin < ColorHistogram.SIZE; bin++) {
+            if (histogram.counts[bin] > 0) {
+                insert(root, reducible, histogram, bin);
+                leaves++;
+            }
+        }
+
+        if (leaves == 0) {
+            return new int[]{0xff000000};
+        }
+
+        for (List<Node> thisLevel : reducible) {
+            thisLevel.sort(Comparator.comparingLong(node -> node.count));
+        }
+
+        // Merge the least populous nodes of the deepest level into leaves until few enough leaves remain
+        for (int level = ColorHistogram.BITS - 1; level >= 0 && leaves > colors; level--) {
+            for (int index = 0; index < reducible.get(level).size() && leaves > colors; index++) {
+                Node merged = reducible.get(level).get(index);
+                leaves -= merged.getChildCount() - 1;
+                merged.children = null;
+            }
+        }
+
+        List<Integer> palette = new ArrayList<>();
+        root.collect(palette);
+        return palette.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Adds the pixels of a histogram bin to the tree, creating nodes along its path (and a leaf for the bin).
+     */
+    private static void insert(Node root, List<List<Node>> reducible, ColorHistogram histogram, int bin) {
+        Node node = root;
+        node.add(histogram, bin);
+
+        for (int level = 0; level < ColorHistogram.BITS; level++) {
+            int shift = ColorHistogram.BITS - 1 - level;
+            int child = ((ColorHistogram.getBinChannel(bin, 0) >> shift) & 1) << 2 |
+                    ((ColorHistogram.getBinChannel(bin, 1) >> shift) & 1) << 1 |
+                    ((ColorHistogram.getBinChannel(bin, 2) >> shift) & 1);
+
+            if (node.children == null) {
+                node.children = new Node[8];
+                reducible.get(level).add(node);
+            }
+            if (node.children[child] == null) {
+                node.children[child] = new Node();
+            }
+
+            node = node.children[child];
+            node.add(histogram, bin);
+        }
+    }
+
+    /**
+     * A node of the octree, accumulating the pixels of every bin beneath it.
+     */
+    private static class Node {
+        private long count, red, green, blue;
+        private Node[] children;
+
+        private void add(ColorHistogram histogram, int bin) {
+            count += histogram.counts[bin];
+            red += histogram.reds[bin];
+            green += histogram.greens[bin];
+            blue += histogram.blues[bin];
+        }
+
+        private int getChildCount() {
+            int childCount = 0;
+            for (Node thisChild : children) {
+                childCount += thisChild == null ? 0 : 1;
+            }
+
+            return childCount;
+        }
+
+        private void collect(List<Integer> palette) {
+            if (children == null) {
+                palette.add(ColorHistogram.toOpaqueRgb(red, green, blue, count));
+            } else {
+                for (Node thisChild : children) {
+                    if (thisChild != null) {
+                        thisChild.collect(palette);
+                    }
+                }
+            }
+        }
+    }
+}
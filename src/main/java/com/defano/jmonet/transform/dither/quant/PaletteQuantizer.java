@@ -0,0 +1,187 @@
+package com.defano.jmonet.transform.dither.quant;
+
+import java.awt.*;
+
+/**
+ * Quantizes (reduces) a 24-bit, RGB-encoded color value to the nearest color (by Euclidean distance in RGB space) in a
+ * given palette.
+ * <p>
+ * The nearest color is found through a lookup grid dividing the color cube into 32x32x32 cells; each cell lists only
+ * those palette colors that could be nearest to some color within the cell (typically one to a few), so the cost of
+ * quantizing a color does not grow with the size of the palette. Colors outside of the color cube (as may be produced
+ * by error diffusion) are clamped to it before the nearest palette color is found.
+ */
+public class PaletteQuantizer implements QuantizationFunction {
+
+    private static final int GRID_BITS = 5;
+    private static final int GRID_SIZE = 1 << GRID_BITS;
+    private static final double CELL_MARGIN = 1e-9;
+
+    private final int[] palette;
+    private final double[] reds;
+    private final double[] greens;
+    private final double[] blues;
+
+    // Indices of the palette colors that may be nearest to a color within each grid cell
+    private final int[][] candidates = new int[GRID_SIZE * GRID_SIZE * GRID_SIZE][];
+
+    /**
+     * Creates a quantizer that reduces colors to those of a given palette.
+     *
+     * @param palette The colors of the palette; alpha is ignored.
+     */
+    public PaletteQuantizer(Color... palette) {
+        this(toRgb(palette));
+    }
+
+    /**
+     * Creates a quantizer that reduces colors to those of a given palette.
+     *
+     * @param palette The colors of the palette, as RGB values; the alpha channel is ignored.
+     */
+    public PaletteQuantizer(int[] palette) {
+        if (palette == null || palette.length == 0) {
+            throw new IllegalArgumentException("Palette must contain at least one color.");
+        }
+
+        this.palette = new int[palette.length];
+        this.reds = new double[palette.length];
+        this.greens = new double[palette.length];
+        this.blues = new double[palette.length];
+
+        for (int index = 0; index < palette.length; index++) {
+            this.palette[index] = 0xff000000 | palette[index];
+            this.reds[index] = ((palette[index] >> 16) & 0xff) / 255.0;
+            this.greens[index] = ((palette[index] >> 8) & 0xff) / 255.0;
+            this.blues[index] = (palette[index] & 0xff) / 255.0;
+        }
+
+        for (int cell = 0; cell < candidates.length; cell++) {
+            candidates[cell] = getCandidates(cell);
+        }
+    }
+
+    /**
+     * Gets the colors of this quantizer's palette.
+     *
+     * @return The palette, as opaque ARGB values
+     */
+    public int[] getPalette() {
+        return palette.clone();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double[] quantize(double[] input) {
+        double[] reduced = new double[4];
+        quantize(input, reduced);
+        return reduced;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void quantize(double[] input, double[] output) {
+        double r = clamp(input[0]);
+        double g = clamp(input[1]);
+        double b = clamp(input[2]);
+
+        int[] cellCandidates = candidates[getCell(r) << (GRID_BITS * 2) | getCell(g) << GRID_BITS | getCell(b)];
+        int nearest = cellCandidates[0];
+        double nearestDistance = Double.MAX_VALUE;
+
+        for (int thisCandidate : cellCandidates) {
+            double dr = r - reds[thisCandidate];
+            double dg = g - greens[thisCandidate];
+            double db = b - blues[thisCandidate];
+            double distance = dr * dr + dg * dg + db * db;
+
+            if (distance < nearestDistance) {
+                nearest = thisCandidate;
+                nearestDistance = distance;
+            }
+        }
+
+        output[0] = reds[nearest];
+        output[1] = greens[nearest];
+        output[2] = blues[nearest];
+        output[3] = input[3];       // No change to alpha channel
+    }
+
+    /**
+     * Determines which palette colors could be nearest to some color in a grid cell: those whose nearest distance to
+     * the cell does not exceed the least farthest distance of any palette color to the cell.
+     *
+     * @param cell The index of the grid cell
+     * @return The indices of the candidate colors, in palette order
+     */
+    private int[] getCandidates(int cell) {
+        double[] low = new double[3];
+        double[] high = new double[3];
+        for (int channel = 0; channel < 3; channel++) {
+            int coordinate = (cell >> (GRID_BITS * (2 - channel))) & (GRID_SIZE - 1);
+
+            // Widened slightly so that colors rounded into the cell at its edges are covered
+            low[channel] = (double) coordinate / GRID_SIZE - CELL_MARGIN;
+            high[channel] = (double) (coordinate + 1) / GRID_SIZE + CELL_MARGIN;
+        }
+
+        double[] nearDistances = new double[palette.length];
+        double farthest = Double.MAX_VALUE;
+
+        for (int index = 0; index < palette.length; index++) {
+            double[] color = {reds[index], greens[index], blues[index]};
+            double near = 0;
+            double far = 0;
+
+            for (int channel = 0; channel < 3; channel++) {
+                double below = low[channel] - color[channel];
+                double above = color[channel] - high[channel];
+                double gap = Math.max(0, Math.max(below, above));
+                double span = Math.max(color[channel] - low[channel], high[channel] - color[channel]);
+
+                near += gap * gap;
+                far += span * span;
+            }
+
+            nearDistances[index] = near;
+            farthest = Math.min(farthest, far);
+        }
+
+        int count = 0;
+        int[] indices = new int[palette.length];
+        for (int index = 0; index < palette.length; index++) {
+            if (nearDistances[index] <= farthest) {
+                indices[count++] = index;
+            }
+        }
+
+        int[] cellCandidates = new int[count];
+        System.arraycopy(indices, 0, cellCandidates, 0, count);
+        return cellCandidates;
+    }
+
+    private static int getCell(double value) {
+        return Math.min(GRID_SIZE - 1, (int) (value * GRID_SIZE));
+    }
+
+    private static double clamp(double value) {
+        return value < 0 ? 0 : value > 1 ? 1 : value;
+    }
+
+    private static int[] toRgb(Color[] palette) {
+        if (palette == null) {
+            throw new IllegalArgumentException("Palette must contain at least one color.");
+        }
+
+        int[] rgb = new int[palette.length];
+        for (int index = 0; index < palette.length; index++) {
+            rgb[index] = palette[index].getRGB();
+        }
+
+        return rgb;
+    }
+}
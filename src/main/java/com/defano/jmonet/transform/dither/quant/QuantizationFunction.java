@@ -16,4 +16,17 @@ public interface QuantizationFunction {
      * element[2] is the blue channel and element[3] is the alpha channel
      */
     double[] quantize(double[] input);
+
+    /**
+     * Performs a quantization of a color, as {@link #quantize(double[])}, writing the quantized color into a given
+     * array rather than allocating a new one. Implementations should override this method to avoid allocating an array
+     * for each quantized color.
+     *
+     * @param input  A color value where input[0] is the red channel, input[1] is the green channel input[2] is the
+     *               blue channel and input[3] in the alpha channel.
+     * @param output The array receiving the quantized color, in the same format as the input; may be the input array.
+     */
+    default void quantize(double[] input, double[] output) {
+        System.arraycopy(quantize(input), 0, output, 0, 4);
+    }
 }
@@ -4,12 +4,27 @@ import com.defano.jmonet.tools.util.ImageUtils;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 /**
  * Applies a {@link PixelTransform} to every pixel of a given image that's contained within a masking shape.
+ * <p>
+ * The mask is rasterized once, and the transform is applied to each horizontal run of masked pixels via
+ * {@link PixelTransform#applyRow(int[], int[], int, int)}. Rows of large images are transformed in parallel when the
+ * transform is thread-safe (see {@link PixelTransform#isThreadSafe()}). Progress is reported, and cancellation checked,
+ * after each band of rows.
  */
 public class ApplyPixelTransform implements StaticImageTransform {
 
+    // Minimum number of pixels in an image for its rows to be transformed in parallel
+    private static final int PARALLEL_THRESHOLD = 256 * 256;
+
+    // Number of rows transformed by each parallel task
+    private static final int ROWS_PER_TASK = 32;
+
     private final PixelTransform transform;
     private final Shape mask;
 
@@ -40,16 +55,63 @@ public class ApplyPixelTransform implements StaticImageTransform {
      */
     @Override
     public BufferedImage apply(BufferedImage source) {
+        return apply(source, TransformMonitor.NONE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BufferedImage apply(BufferedImage source, TransformMonitor monitor) {
         BufferedImage transformed = ImageUtils.argbCopy(source);
+        int width = transformed.getWidth();
+        int height = transformed.getHeight();
+        int[] pixels = ((DataBufferInt) transformed.getRaster().getDataBuffer()).getData();
+        MaskCoverage coverage = mask == null ? null : new MaskCoverage(mask, width, height);
 
-        for (int x = 0; x < transformed.getWidth(); x++) {
-            for (int y = 0; y < transformed.getHeight(); y++) {
-                if (mask == null || mask.contains(x, y)) {
-                    transformed.setRGB(x, y, transform.apply(transformed.getRGB(x, y)));
-                }
-            }
+        int tasks = (height + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+        IntStream rows = IntStream.range(0, tasks);
+        if ((long) width * height >= PARALLEL_THRESHOLD && transform.isThreadSafe()) {
+            rows = rows.parallel();
         }
 
+        AtomicInteger completed = new AtomicInteger();
+        rows.forEach(task -> {
+            if (monitor.isCancelled()) {
+                throw new CancellationException();
+            }
+
+            for (int y = task * ROWS_PER_TASK; y < Math.min(height, (task + 1) * ROWS_PER_TASK); y++) {
+                applyRow(pixels, width, y, coverage);
+            }
+
+            monitor.setProgress((double) completed.incrementAndGet() / tasks);
+        });
+
         return transformed;
     }
+
+    /**
+     * Applies the pixel transform to each masked pixel in a row of the image.
+     *
+     * @param pixels   The image's pixels
+     * @param width    The width of the image
+     * @param y        The row to transform
+     * @param coverage The pixels covered by the mask, or null to transform every pixel
+     */
+    private void applyRow(int[] pixels, int width, int y, MaskCoverage coverage) {
+        int rowStart = y * width;
+
+        if (coverage == null) {
+            transform.applyRow(pixels, pixels, rowStart, width);
+        } else {
+            int x = coverage.nextCovered(0, y);
+
+            while (x >= 0) {
+                int end = coverage.nextUncovered(x, y);
+                transform.applyRow(pixels, pixels, rowStart + x, end - x);
+                x = coverage.nextCovered(end, y);
+            }
+        }
+    }
 }
@@ -0,0 +1,84 @@
+package com.defano.jmonet.transform.image;
+
+import java.util.List;
+
+/**
+ * A {@link SeparablePixelTransform} that looks up each channel's transformed value in a table precomputed from one or
+ * more other separable transforms.
+ */
+class ChannelLookupTransform implements SeparablePixelTransform {
+
+    private final int[] alpha = new int[256];
+    private final int[] red = new int[256];
+    private final int[] green = new int[256];
+    private final int[] blue = new int[256];
+
+    /**
+     * Precomputes the tables equivalent to applying a sequence of separable transforms in order.
+     *
+     * @param transforms The transforms to apply, first to last
+     */
+    ChannelLookupTransform(List<SeparablePixelTransform> transforms) {
+        for (int value = 0; value < 256; value++) {
+            alpha[value] = value;
+            red[value] = value;
+            green[value] = value;
+            blue[value] = value;
+
+            for (SeparablePixelTransform thisTransform : transforms) {
+                alpha[value] = thisTransform.applyChannel(ALPHA, alpha[value]);
+                red[value] = thisTransform.applyChannel(RED, red[value]);
+                green[value] = thisTransform.applyChannel(GREEN, green[value]);
+                blue[value] = thisTransform.applyChannel(BLUE, blue[value]);
+            }
+
+            alpha[value] <<= 24;
+            red[value] <<= 16;
+            green[value] <<= 8;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int applyChannel(int channel, int value) {
+        switch (channel) {
+            case ALPHA:
+                return alpha[value] >>> 24;
+            case RED:
+                return red[value] >>> 16;
+            case GREEN:
+                return green[value] >>> 8;
+            default:
+                return blue[value];
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int apply(int rgb) {
+        return alpha[rgb >>> 24] | red[(rgb >> 16) & 0xff] | green[(rgb >> 8) & 0xff] | blue[rgb & 0xff];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void applyRow(int[] src, int[] dst, int off, int len) {
+        for (int index = off; index < off + len; index++) {
+            int rgb = src[index];
+            dst[index] = alpha[rgb >>> 24] | red[(rgb >> 16) & 0xff] | green[(rgb >> 8) & 0xff] | blue[rgb & 0xff];
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+}
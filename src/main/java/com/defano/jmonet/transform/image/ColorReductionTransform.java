@@ -1,5 +1,6 @@
 package com.defano.jmonet.transform.image;
 
+import com.defano.jmonet.transform.dither.BayerDitherer;
 import com.defano.jmonet.transform.dither.Ditherer;
 import com.defano.jmonet.transform.dither.FloydSteinbergDitherer;
 import com.defano.jmonet.transform.dither.quant.ColorReductionQuantizer;
@@ -26,7 +27,8 @@ public class ColorReductionTransform implements StaticImageTransform {
      *                   produces a black and white (monochrome) image. Note that color depth should be cubic; if
      *                   the cubed root of colorDepth is not an integer, the the floor of the cubed root
      *                   will be assumed.
-     * @param ditherer   The dithering algorithm to use, for example, {@link FloydSteinbergDitherer}.
+     * @param ditherer   The dithering algorithm to use, for example, {@link FloydSteinbergDitherer}. Ordered ditherers
+     *                   (like {@link BayerDitherer}) are considerably faster, suiting them to live previews.
      */
     public ColorReductionTransform(Ditherer ditherer, int colorDepth) {
         this.ditherer = ditherer;
@@ -38,10 +40,18 @@ public class ColorReductionTransform implements StaticImageTransform {
      */
     @Override
     public BufferedImage apply(BufferedImage source) {
+        return apply(source, TransformMonitor.NONE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BufferedImage apply(BufferedImage source, TransformMonitor monitor) {
         int channelDepth = (int) Math.floor(Math.cbrt(colorDepth));
 
         return colorDepth == 0 ?
-                ditherer.dither(source, new MonochromaticQuantizer()) :
-                ditherer.dither(source, new ColorReductionQuantizer(channelDepth));
+                ditherer.dither(source, new MonochromaticQuantizer(), true, monitor) :
+                ditherer.dither(source, new ColorReductionQuantizer(channelDepth), true, monitor);
     }
 }
@@ -6,12 +6,20 @@ import java.awt.image.BufferedImage;
 import java.awt.image.BufferedImageOp;
 import java.awt.image.ConvolveOp;
 import java.awt.image.Kernel;
+import java.util.concurrent.CancellationException;
 
 /**
  * Convolves an image by applying an image {@link Kernel} to each pixel.
+ * <p>
+ * The image is convolved one band of rows at a time (each band reading the rows above and below it that the kernel
+ * reaches), producing the same image as convolving it whole. Progress is reported, and cancellation checked, after each
+ * band.
  */
 public class ConvolutionTransform implements StaticImageTransform {
 
+    // Number of rows convolved at a time
+    private static final int ROWS_PER_BAND = 64;
+
     private final Kernel kernel;
 
     public ConvolutionTransform(Kernel kernel) {
@@ -20,10 +28,40 @@ public class ConvolutionTransform implements StaticImageTransform {
 
     @Override
     public BufferedImage apply(BufferedImage source) {
-        BufferedImage destination = ImageUtils.newArgbOfSize(source);
+        return apply(source, TransformMonitor.NONE);
+    }
 
+    @Override
+    public BufferedImage apply(BufferedImage source, TransformMonitor monitor) {
+        BufferedImage destination = ImageUtils.newArgbOfSize(source);
         BufferedImageOp convolution = new ConvolveOp(kernel, ConvolveOp.EDGE_ZERO_FILL, null);
-        convolution.filter(source, destination);
+
+        int width = source.getWidth();
+        int height = source.getHeight();
+
+        // Rows beyond the band the kernel may read; ConvolveOp places the origin of even-sized kernels differently than
+        // Kernel reports, so allow for it on either side
+        int margin = kernel.getHeight() - 1;
+
+        for (int bandY = 0; bandY < height; bandY += ROWS_PER_BAND) {
+            if (monitor.isCancelled()) {
+                throw new CancellationException();
+            }
+
+            int bandHeight = Math.min(ROWS_PER_BAND, height - bandY);
+
+            // Rows of the source the kernel reads when convolving the band; rows at the edge of the source (and only
+            // those) remain at the edge of this region, so they are zero-filled exactly as when convolving it whole
+            int sourceY = Math.max(0, bandY - margin);
+            int sourceHeight = Math.min(height, bandY + bandHeight + margin) - sourceY;
+
+            BufferedImage band = convolution.filter(source.getSubimage(0, sourceY, width, sourceHeight),
+                    new BufferedImage(width, sourceHeight, BufferedImage.TYPE_INT_ARGB));
+            destination.getRaster().setDataElements(0, bandY,
+                    band.getRaster().createChild(0, bandY - sourceY, width, bandHeight, 0, 0, null));
+
+            monitor.setProgress((double) (bandY + bandHeight) / height);
+        }
 
         return destination;
     }
@@ -2,10 +2,13 @@ package com.defano.jmonet.transform.image;
 
 import com.defano.jmonet.tools.attributes.FillFunction;
 import com.defano.jmonet.tools.attributes.MarkPredicate;
+import com.defano.jmonet.tools.attributes.RasterFillFunction;
+import com.defano.jmonet.tools.attributes.RasterPaint;
 import com.defano.jmonet.tools.util.ImageUtils;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 
 /**
  * Fills every transparent pixel of an image that lies within a given mask with a specified paint or texture.
@@ -15,6 +18,14 @@ import java.awt.image.BufferedImage;
  */
 public class FillTransform implements StaticImageTransform {
 
+    // Marks every pixel that is not fully transparent
+    private static final MarkPredicate NON_TRANSPARENT_PIXELS = new MarkPredicate() {
+        @Override
+        public boolean isMarked(Color pixel, Color eraseColor) {
+            return pixel.getAlpha() > 0;
+        }
+    };
+
     private final Shape mask;
     private final Paint paint;
     private final FillFunction fillFunction;
@@ -45,12 +56,7 @@ public class FillTransform implements StaticImageTransform {
      *                     an instance of {@link FillFunction}.
      */
     public FillTransform(Shape mask, Paint paint, FillFunction fillFunction) {
-        this(mask, paint, fillFunction, new MarkPredicate() {
-            @Override
-            public boolean isMarked(Color pixel, Color eraseColor) {
-                return pixel.getAlpha() > 0;
-            }
-        });
+        this(mask, paint, fillFunction, NON_TRANSPARENT_PIXELS);
     }
 
     /**
@@ -66,22 +72,56 @@ public class FillTransform implements StaticImageTransform {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Pixels are filled a horizontal run at a time when the fill function implements {@link RasterFillFunction} (or is
+     * the unmodified default {@link FillFunction}).
      */
     @Override
     public BufferedImage apply(BufferedImage source) {
         BufferedImage transformed = ImageUtils.argbCopy(source);
+        int width = transformed.getWidth();
+        int[] pixels = ((DataBufferInt) transformed.getRaster().getDataBuffer()).getData();
+
+        RasterFillFunction rasterFillFunction = RasterFillFunction.of(fillFunction);
+        RasterPaint rasterPaint = rasterFillFunction == null ? null : new RasterPaint(paint);
+        MaskCoverage coverage = mask == null ? null : new MaskCoverage(mask, width, transformed.getHeight());
 
-        for (int x = 0; x < transformed.getWidth(); x++) {
-            for (int y = 0; y < transformed.getHeight(); y++) {
-                if (mask == null || mask.contains(x, y)) {
-                    Color c = new Color(transformed.getRGB(x, y), true);
-                    if (!markPredicate.isMarked(c, null)) {
-                        fillFunction.fill(transformed, x, y, paint);
+        for (int y = 0; y < transformed.getHeight(); y++) {
+            int runStart = -1;
+
+            for (int x = 0; x <= width; x++) {
+                boolean fillable = x < width && (coverage == null || coverage.isCovered(x, y)) && !isMarked(pixels[y * width + x]);
+
+                if (fillable && runStart < 0) {
+                    runStart = x;
+                } else if (!fillable && runStart >= 0) {
+                    if (rasterFillFunction != null) {
+                        rasterFillFunction.fill(pixels, 0, width, runStart, y, x - runStart, rasterPaint);
+                    } else {
+                        for (int filledX = runStart; filledX < x; filledX++) {
+                            fillFunction.fill(transformed, filledX, y, paint);
+                        }
                     }
+
+                    runStart = -1;
                 }
             }
         }
 
         return transformed;
     }
+
+    /**
+     * Determines if a pixel is marked (and therefore should not be filled).
+     *
+     * @param argb The pixel's packed ARGB value
+     * @return True if the pixel is marked
+     */
+    private boolean isMarked(int argb) {
+        if (markPredicate == NON_TRANSPARENT_PIXELS) {
+            return (argb >>> 24) > 0;
+        } else {
+            return markPredicate.isMarked(new Color(argb, true), null);
+        }
+    }
 }
@@ -2,17 +2,36 @@ package com.defano.jmonet.transform.image;
 
 import com.defano.jmonet.tools.attributes.BoundaryFunction;
 import com.defano.jmonet.tools.attributes.FillFunction;
+import com.defano.jmonet.tools.attributes.RasterBoundaryFunction;
+import com.defano.jmonet.tools.attributes.RasterFillFunction;
+import com.defano.jmonet.tools.attributes.RasterPaint;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Performs a "flood fill" (sometimes called "seed fill" or "spill paint") of the image with a provided paint or
- * texture. Terrible performance on very large fill surfaces.
+ * texture.
  *
- * Given an origin point in the image, this algorithm iteratively paints every adjacent pixel with the given color or
- * texture until it reaches a boundary pixel.
+ * Given an origin point in the image, this algorithm paints every pixel connected to it (horizontally or vertically)
+ * with the given color or texture until it reaches a boundary pixel. The origin pixel itself is always painted.
+ * <p>
+ * The region is filled a horizontal span at a time; each pixel is examined and painted only once. Boundary and fill
+ * functions implementing {@link RasterBoundaryFunction} and {@link RasterFillFunction} (or which are the unmodified
+ * defaults) read and write packed ARGB pixel arrays; other functions are invoked on images for each pixel.
+ * <p>
+ * When parallel filling is enabled (see {@link #setParallel(boolean)}), the image is divided into horizontal bands
+ * which are filled concurrently. Each band fills the spans connected to its seeds, and spans reaching a neighboring band
+ * seed that band in the next round; rounds repeat until no seeds remain. The filled region is the same connected region
+ * the sequential fill produces, so the output is identical.
  */
 @SuppressWarnings("unused")
 public class FloodFillTransform implements ImageTransform {
@@ -21,44 +40,25 @@ public class FloodFillTransform implements ImageTransform {
     private FillFunction fill;
     private Point origin;
     private Paint fillPaint;
+    private boolean parallel;
+
+    // Minimum number of rows in each band of a parallel fill
+    private static final int MIN_BAND_HEIGHT = 64;
+
+    // Number of bands per worker thread in a parallel fill; more bands balance load when the region covers few of them
+    private static final int BANDS_PER_THREAD = 4;
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Returns a fully transparent image if the origin lies outside the source image.
      */
     @Override
     public BufferedImage apply(BufferedImage source) {
-
-        ArrayList<Point> fillPixels = new ArrayList<>();
-
-        Rectangle bounds = new Rectangle(0, 0, source.getWidth(), source.getHeight());
         BufferedImage transformed = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB);
 
-        // Start by filling origin pixel (i.e., clicked pixel)
-        fillPixels.add(origin);
-
-        while (!fillPixels.isEmpty()) {
-
-            Point popped = fillPixels.remove(fillPixels.size() - 1);
-            int thisPixelX = popped.x;
-            int thisPixelY = popped.y;
-
-            fill.fill(transformed, thisPixelX, thisPixelY, fillPaint);
-
-            if (bounds.contains(thisPixelX + 1, thisPixelY) && !boundaryFunction.isBoundary(source, transformed, thisPixelX + 1, thisPixelY)) {
-                fillPixels.add(new Point(thisPixelX + 1, thisPixelY));
-            }
-
-            if (bounds.contains(thisPixelX - 1, thisPixelY) && !boundaryFunction.isBoundary(source, transformed, thisPixelX - 1, thisPixelY)) {
-                fillPixels.add(new Point(thisPixelX - 1, thisPixelY));
-            }
-
-            if (bounds.contains(thisPixelX, thisPixelY + 1) && !boundaryFunction.isBoundary(source, transformed, thisPixelX, thisPixelY + 1)) {
-                fillPixels.add(new Point(thisPixelX, thisPixelY + 1));
-            }
-
-            if (bounds.contains(thisPixelX, thisPixelY - 1) && !boundaryFunction.isBoundary(source, transformed, thisPixelX, thisPixelY - 1)) {
-                fillPixels.add(new Point(thisPixelX, thisPixelY - 1));
-            }
+        if (new Rectangle(0, 0, source.getWidth(), source.getHeight()).contains(origin)) {
+            new SpanFill(source, transformed).fill();
         }
 
         return transformed;
@@ -88,6 +88,29 @@ public class FloodFillTransform implements ImageTransform {
         this.origin = origin;
     }
 
+    /**
+     * Determines if the fill is performed on multiple threads.
+     *
+     * @return True if parallel filling is enabled
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Enables or disables filling on multiple threads (of the common {@link ForkJoinPool}).
+     * <p>
+     * A fill is performed in parallel only when both the boundary and fill functions operate on pixel arrays (see
+     * {@link RasterBoundaryFunction} and {@link RasterFillFunction}), in which case they will be invoked concurrently
+     * for pixels in different rows, and must be safe to invoke this way. The default functions are. Small images are
+     * always filled sequentially.
+     *
+     * @param parallel True to fill large regions on multiple threads; false to fill on the calling thread.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
     public Paint getFillPaint() {
         return fillPaint;
     }
@@ -95,4 +118,297 @@ public class FloodFillTransform implements ImageTransform {
     public void setFillPaint(Paint fillPaint) {
         this.fillPaint = fillPaint;
     }
+
+    /**
+     * Reads every pixel of an image as a packed, non-premultiplied ARGB integer (as {@link BufferedImage#getRGB(int, int)}
+     * would return), in row-major order. Pixels of images not packed in the default ARGB color model (including
+     * ARGB-premultiplied images) are converted.
+     *
+     * @param image The image to read
+     * @return The image's pixels
+     */
+    private static int[] getArgbPixels(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_ARGB || ColorModel.getRGBdefault().equals(image.getColorModel())) {
+            return (int[]) image.getRaster().getDataElements(0, 0, image.getWidth(), image.getHeight(), null);
+        } else {
+            return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+        }
+    }
+
+    /**
+     * A single application of the flood fill, filling the region connected to the origin one horizontal span of pixels
+     * at a time, within one or more bands of rows.
+     */
+    private class SpanFill {
+
+        private final BufferedImage source;
+        private final BufferedImage transformed;
+        private final int width;
+        private final int pixelCount;
+        private final int originIndex;
+
+        // Boundary and fill functions operating on pixel arrays, or null when the function must be invoked on images
+        private final RasterBoundaryFunction rasterBoundaryFunction;
+        private final RasterFillFunction rasterFillFunction;
+        private final RasterPaint rasterPaint;
+
+        // Pixels of the source (or null when the boundary function is invoked on images), and of the transformed image
+        private final int[] sourcePixels;
+        private final int[] transformedPixels;
+
+        // Horizontal bands of the image, each filled by a single thread at a time
+        private final int bandHeight;
+        private final Band[] bands;
+
+        private SpanFill(BufferedImage source, BufferedImage transformed) {
+            this.source = source;
+            this.transformed = transformed;
+            this.width = source.getWidth();
+            this.pixelCount = width * source.getHeight();
+            this.originIndex = origin.y * width + origin.x;
+
+            this.rasterBoundaryFunction = RasterBoundaryFunction.of(boundaryFunction);
+            this.rasterFillFunction = RasterFillFunction.of(fill);
+            this.rasterPaint = rasterFillFunction == null ? null : new RasterPaint(fillPaint);
+
+            this.sourcePixels = rasterBoundaryFunction == null ? null : getArgbPixels(source);
+            this.transformedPixels = ((DataBufferInt) transformed.getRaster().getDataBuffer()).getData();
+
+            int height = source.getHeight();
+            if (parallel && rasterBoundaryFunction != null && rasterFillFunction != null && height >= MIN_BAND_HEIGHT * 2) {
+                int bandCount = ForkJoinPool.getCommonPoolParallelism() * BANDS_PER_THREAD;
+                this.bandHeight = Math.max(MIN_BAND_HEIGHT, (height + bandCount - 1) / bandCount);
+            } else {
+                this.bandHeight = height;
+            }
+
+            this.bands = new Band[(height + bandHeight - 1) / bandHeight];
+            for (int index = 0; index < bands.length; index++) {
+                bands[index] = new Band(index * bandHeight, Math.min(height, (index + 1) * bandHeight));
+            }
+        }
+
+        /**
+         * Fills the region connected to the origin, filling bands with pending seeds concurrently and then passing
+         * seeds that cross band borders to the neighboring bands, until no seeds remain.
+         */
+        private void fill() {
+            List<Band> pending = new ArrayList<>();
+            Band originBand = bands[origin.y / bandHeight];
+            originBand.pushSeed(originIndex);
+            pending.add(originBand);
+
+            while (!pending.isEmpty()) {
+                if (pending.size() == 1) {
+                    pending.get(0).fill();
+                } else {
+                    List<ForkJoinTask<?>> tasks = new ArrayList<>(pending.size());
+                    for (Band thisBand : pending) {
+                        tasks.add(ForkJoinTask.adapt(thisBand::fill));
+                    }
+                    ForkJoinTask.invokeAll(tasks);
+                }
+
+                pending.clear();
+                for (int index = 0; index < bands.length; index++) {
+                    if (index > 0) {
+                        bands[index - 1].receive(bands[index].above);
+                    }
+                    if (index < bands.length - 1) {
+                        bands[index + 1].receive(bands[index].below);
+                    }
+                }
+
+                for (Band thisBand : bands) {
+                    if (thisBand.hasSeeds()) {
+                        pending.add(thisBand);
+                    }
+                }
+            }
+        }
+
+        /**
+         * A horizontal band of rows in the image. A band reads and writes pixels only within its own rows; spans
+         * adjacent to a row outside the band are recorded for the neighboring band to seed from.
+         */
+        private class Band {
+
+            private final int start;
+            private final int end;
+
+            // Pixels of this band that have been filled, indexed by y * width + x - start
+            private final BitSet filled;
+
+            // Indices of pixels from which spans remain to be filled
+            private final IntStack seeds = new IntStack();
+
+            // Spans (as pairs of leftmost and rightmost indices) of this band's first row from which to seed spans
+            private final IntStack received = new IntStack();
+
+            // Spans of the rows directly above and below this band adjacent to spans this band has filled
+            private final IntStack above = new IntStack();
+            private final IntStack below = new IntStack();
+
+            private Band(int firstRow, int endRow) {
+                this.start = firstRow * width;
+                this.end = endRow * width;
+                this.filled = new BitSet(end - start);
+            }
+
+            private void pushSeed(int index) {
+                seeds.push(index);
+            }
+
+            private boolean hasSeeds() {
+                return !seeds.isEmpty() || !received.isEmpty();
+            }
+
+            /**
+             * Takes the spans another band has found adjacent to this one, to seed from in this band's next round.
+             *
+             * @param spans Pairs of leftmost and rightmost pixel indices of spans within this band; emptied.
+             */
+            private void receive(IntStack spans) {
+                while (!spans.isEmpty()) {
+                    int right = spans.pop();
+                    int left = spans.pop();
+                    received.push(left);
+                    received.push(right);
+                }
+            }
+
+            /**
+             * Fills the spans connected to this band's seeds, within this band.
+             */
+            private void fill() {
+                while (!received.isEmpty()) {
+                    int right = received.pop();
+                    int left = received.pop();
+                    pushSpans(left, right);
+                }
+
+                while (!seeds.isEmpty()) {
+                    int seed = seeds.pop();
+
+                    if (isFilled(seed) || !isFillable(seed)) {
+                        continue;
+                    }
+
+                    int rowStart = seed - seed % width;
+                    int left = seed;
+                    int right = seed;
+
+                    while (left > rowStart && !isFilled(left - 1) && isFillable(left - 1)) {
+                        left--;
+                    }
+
+                    while (right < rowStart + width - 1 && !isFilled(right + 1) && isFillable(right + 1)) {
+                        right++;
+                    }
+
+                    fillSpan(rowStart, left, right);
+
+                    if (rowStart > start) {
+                        pushSpans(left - width, right - width);
+                    } else if (rowStart > 0) {
+                        above.push(left - width);
+                        above.push(right - width);
+                    }
+
+                    if (rowStart + width < end) {
+                        pushSpans(left + width, right + width);
+                    } else if (rowStart + width < pixelCount) {
+                        below.push(left + width);
+                        below.push(right + width);
+                    }
+                }
+            }
+
+            private boolean isFilled(int index) {
+                return filled.get(index - start);
+            }
+
+            /**
+             * Determines if a pixel that has not yet been filled should be; the origin is always filled.
+             *
+             * @param index The index of the pixel (y * width + x)
+             * @return True if the pixel is not a boundary
+             */
+            private boolean isFillable(int index) {
+                if (index == originIndex) {
+                    return true;
+                } else if (rasterBoundaryFunction != null) {
+                    return !rasterBoundaryFunction.isBoundary(sourcePixels, transformedPixels, 0, width, index % width, index / width);
+                } else {
+                    return !boundaryFunction.isBoundary(source, transformed, index % width, index / width);
+                }
+            }
+
+            /**
+             * Fills a horizontal span of pixels within a single row.
+             *
+             * @param rowStart The index of the first pixel in the row
+             * @param left     The index of the leftmost pixel of the span
+             * @param right    The index of the rightmost pixel of the span
+             */
+            private void fillSpan(int rowStart, int left, int right) {
+                int y = rowStart / width;
+                filled.set(left - start, right - start + 1);
+
+                if (rasterFillFunction != null) {
+                    rasterFillFunction.fill(transformedPixels, 0, width, left - rowStart, y, right - left + 1, rasterPaint);
+                } else {
+                    for (int index = left; index <= right; index++) {
+                        fill.fill(transformed, index - rowStart, y, fillPaint);
+                    }
+                }
+            }
+
+            /**
+             * Seeds each run of fillable pixels within a span of a row adjacent to a filled span.
+             *
+             * @param left  The index of the leftmost pixel of the adjacent span
+             * @param right The index of the rightmost pixel of the adjacent span
+             */
+            private void pushSpans(int left, int right) {
+                boolean inRun = false;
+
+                for (int index = left; index <= right; index++) {
+                    if (!isFilled(index) && isFillable(index)) {
+                        if (!inRun) {
+                            pushSeed(index);
+                        }
+                        inRun = true;
+                    } else {
+                        inRun = false;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A growable stack of primitive integers.
+     */
+    private static class IntStack {
+
+        private int[] elements = new int[64];
+        private int size;
+
+        private void push(int element) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, elements.length * 2);
+            }
+
+            elements[size++] = element;
+        }
+
+        private int pop() {
+            return elements[--size];
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+    }
 }
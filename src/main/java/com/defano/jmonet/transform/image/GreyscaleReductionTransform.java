@@ -32,9 +32,16 @@ public class GreyscaleReductionTransform implements StaticImageTransform {
      */
     @Override
     public BufferedImage apply(BufferedImage source) {
-        return grayDepth == 0 ?
-                ditherer.dither(source, new MonochromaticQuantizer()) :
-                ditherer.dither(source, new GrayscaleQuantizer(grayDepth));
+        return apply(source, TransformMonitor.NONE);
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BufferedImage apply(BufferedImage source, TransformMonitor monitor) {
+        return grayDepth == 0 ?
+                ditherer.dither(source, new MonochromaticQuantizer(), true, monitor) :
+                ditherer.dither(source, new GrayscaleQuantizer(grayDepth), true, monitor);
     }
 }
@@ -18,4 +18,18 @@ public interface ImageTransform {
      * @return A new, transformed image.
      */
     BufferedImage apply(BufferedImage source);
+
+    /**
+     * Applies a transform operation to the given image while reporting progress to the given monitor. Transforms
+     * which do not report progress or check for cancellation may rely on this default implementation, which simply
+     * invokes {@link #apply(BufferedImage)}.
+     *
+     * @param source  The source image to which the transform should be applied.
+     * @param monitor The monitor to which progress is reported, and which indicates when the transform is cancelled.
+     * @return A new, transformed image.
+     * @throws java.util.concurrent.CancellationException If the transform stopped early because it was cancelled
+     */
+    default BufferedImage apply(BufferedImage source, TransformMonitor monitor) {
+        return apply(source);
+    }
 }
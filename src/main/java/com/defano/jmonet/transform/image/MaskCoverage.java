@@ -0,0 +1,116 @@
+package com.defano.jmonet.transform.image;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+
+/**
+ * The pixels of an image covered by a masking shape, computed for every pixel at once.
+ * <p>
+ * Pixel (x, y) is covered when {@code mask.contains(x, y)}. Rather than testing each pixel against the shape, the shape
+ * is rasterized once; only those pixels lying near the shape's outline, where rasterization and {@link Shape#contains}
+ * may disagree, are tested individually.
+ */
+class MaskCoverage {
+
+    private static final byte OUTSIDE = 0;
+    private static final byte INSIDE = (byte) 0xff;
+
+    // Width of the band around the outline within which pixels are tested individually
+    private static final float OUTLINE_WIDTH = 3f;
+
+    private final Rectangle bounds;
+    private final byte[] coverage;
+
+    /**
+     * Computes the coverage of an image's pixels by a mask.
+     *
+     * @param mask   The masking shape
+     * @param width  The width of the image
+     * @param height The height of the image
+     */
+    MaskCoverage(Shape mask, int width, int height) {
+        this.bounds = mask.getBounds().intersection(new Rectangle(0, 0, width, height));
+
+        if (bounds.isEmpty()) {
+            this.coverage = new byte[0];
+            return;
+        }
+
+        BufferedImage raster = new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = raster.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+
+        // A pixel is filled when its center is inside the shape; offset the shape so that its top-left corner is tested
+        g.translate(0.5 - bounds.x, 0.5 - bounds.y);
+        g.setColor(Color.WHITE);
+        g.fill(mask);
+
+        // Mark pixels near the outline as undetermined
+        g.setColor(Color.GRAY);
+        g.setStroke(new BasicStroke(OUTLINE_WIDTH, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        g.draw(mask);
+        g.dispose();
+
+        this.coverage = ((DataBufferByte) raster.getRaster().getDataBuffer()).getData();
+
+        for (int index = 0; index < coverage.length; index++) {
+            if (coverage[index] != OUTSIDE && coverage[index] != INSIDE) {
+                int x = bounds.x + index % bounds.width;
+                int y = bounds.y + index / bounds.width;
+                coverage[index] = mask.contains(x, y) ? INSIDE : OUTSIDE;
+            }
+        }
+    }
+
+    /**
+     * Determines if a pixel is covered by the mask.
+     *
+     * @param x The x coordinate of the pixel
+     * @param y The y coordinate of the pixel
+     * @return True if the mask contains the pixel
+     */
+    boolean isCovered(int x, int y) {
+        return bounds.contains(x, y) && coverage[(y - bounds.y) * bounds.width + x - bounds.x] != OUTSIDE;
+    }
+
+    /**
+     * Finds the next covered pixel in a row.
+     *
+     * @param x The x coordinate at which to begin searching
+     * @param y The row to search
+     * @return The x coordinate of the first covered pixel at or after x, or -1 if there is none.
+     */
+    int nextCovered(int x, int y) {
+        if (y < bounds.y || y >= bounds.y + bounds.height) {
+            return -1;
+        }
+
+        int rowStart = (y - bounds.y) * bounds.width - bounds.x;
+        for (int thisX = Math.max(x, bounds.x); thisX < bounds.x + bounds.width; thisX++) {
+            if (coverage[rowStart + thisX] != OUTSIDE) {
+                return thisX;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Finds the next uncovered pixel in a row.
+     *
+     * @param x The x coordinate at which to begin searching
+     * @param y The row to search
+     * @return The x coordinate of the first pixel at or after x which the mask does not cover (which may be the width
+     * of the image, or beyond, if every remaining pixel of the row is covered).
+     */
+    int nextUncovered(int x, int y) {
+        int thisX = x;
+        while (isCovered(thisX, y)) {
+            thisX++;
+        }
+
+        return thisX;
+    }
+}
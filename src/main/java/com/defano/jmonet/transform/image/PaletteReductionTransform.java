@@ -0,0 +1,77 @@
+package com.defano.jmonet.transform.image;
+
+import com.defano.jmonet.transform.dither.Ditherer;
+import com.defano.jmonet.transform.dither.FloydSteinbergDitherer;
+import com.defano.jmonet.transform.dither.quant.MedianCutQuantizer;
+import com.defano.jmonet.transform.dither.quant.PaletteQuantizer;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Converts the colors of an image to those of a palette; either a given palette, or one of a given number of colors
+ * adapted to the image being transformed (see {@link MedianCutQuantizer}).
+ * <p>
+ * Like {@link ColorReductionTransform}, this transform merely adjusts the look of the image and does not affect the
+ * image storage in any way.
+ */
+public class PaletteReductionTransform implements StaticImageTransform {
+
+    private final Ditherer ditherer;
+    private final PaletteQuantizer quantizer;
+    private final int colors;
+
+    /**
+     * Constructs a transform reducing an image to a palette of the given number of colors, chosen to best represent the
+     * image being transformed.
+     *
+     * @param ditherer The dithering algorithm to use, for example, {@link FloydSteinbergDitherer}.
+     * @param colors   The maximum number of unique colors that should appear in the resultant image, for example 16 or
+     *                 256.
+     */
+    public PaletteReductionTransform(Ditherer ditherer, int colors) {
+        if (colors < 1) {
+            throw new IllegalArgumentException("Palette must contain at least one color.");
+        }
+
+        this.ditherer = ditherer;
+        this.quantizer = null;
+        this.colors = colors;
+    }
+
+    /**
+     * Constructs a transform reducing an image to the colors of a given palette.
+     *
+     * @param ditherer  The dithering algorithm to use, for example, {@link FloydSteinbergDitherer}.
+     * @param quantizer The palette to reduce colors to, for example, a {@link PaletteQuantizer} of a fixed palette.
+     */
+    public PaletteReductionTransform(Ditherer ditherer, PaletteQuantizer quantizer) {
+        this.ditherer = ditherer;
+        this.quantizer = quantizer;
+        this.colors = quantizer.getPalette().length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BufferedImage apply(BufferedImage source) {
+        return apply(source, TransformMonitor.NONE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Progress reflects dithering only; cancellation is additionally checked once the palette has been chosen.
+     */
+    @Override
+    public BufferedImage apply(BufferedImage source, TransformMonitor monitor) {
+        PaletteQuantizer palette = quantizer == null ? new MedianCutQuantizer(source, colors) : quantizer;
+
+        if (monitor.isCancelled()) {
+            throw new CancellationException();
+        }
+
+        return ditherer.dither(source, palette, true, monitor);
+    }
+}
@@ -12,4 +12,33 @@ public interface PixelTransform {
      * @return The transformed pixel's color value
      */
     int apply(int rgb);
+
+    /**
+     * Performs a transformation on a run of pixels' packed ARGB color values. Each transformed pixel must equal the
+     * result of {@link #apply(int)} on the corresponding source pixel; transforms may override this method with a
+     * loop that is cheaper than invoking {@link #apply(int)} for each pixel.
+     *
+     * @param src The array containing the source pixels
+     * @param dst The array to receive the transformed pixels; may be the same array as src
+     * @param off The index of the first pixel in both arrays
+     * @param len The number of pixels to transform
+     */
+    default void applyRow(int[] src, int[] dst, int off, int len) {
+        for (int index = off; index < off + len; index++) {
+            dst[index] = apply(src[index]);
+        }
+    }
+
+    /**
+     * Indicates whether this transform may be applied to different pixels of an image concurrently, from multiple
+     * threads; that is, whether {@link #apply(int)} and {@link #applyRow(int[], int[], int, int)} neither depend on nor
+     * modify mutable state. Rows of large images are transformed in parallel only by thread-safe transforms.
+     * <p>
+     * The default implementation returns false.
+     *
+     * @return True if this transform is thread-safe
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
 }
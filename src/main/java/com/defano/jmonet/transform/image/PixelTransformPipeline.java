@@ -0,0 +1,161 @@
+package com.defano.jmonet.transform.image;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link PixelTransform} that applies a sequence of pixel transforms, in order, to each pixel in a single pass.
+ * <p>
+ * Applying a pipeline to a canvas or selection (for example, via {@link StaticImageTransformable#transform(PixelTransform)})
+ * copies and traverses the image once, and produces a single change, regardless of the number of transforms in the
+ * pipeline. Rows of pixels are passed through each transform in turn while they remain in cache. When built with lookup
+ * tables, each run of consecutive {@link SeparablePixelTransform}s is precomputed into a single table per channel.
+ * <p>
+ * Use {@link #builder()} to create a pipeline, for example:
+ * <pre>
+ * canvas.transform(PixelTransformPipeline.builder()
+ *         .then(new BrightnessPixelTransform(20))
+ *         .then(new TransparencyPixelTransform(-40))
+ *         .then(new RemoveAlphaPixelTransform(true))
+ *         .withLookupTables()
+ *         .build());
+ * </pre>
+ */
+public class PixelTransformPipeline implements PixelTransform {
+
+    private final List<PixelTransform> stages;
+
+    private PixelTransformPipeline(List<PixelTransform> stages) {
+        this.stages = Collections.unmodifiableList(stages);
+    }
+
+    /**
+     * Creates a builder for a pipeline.
+     *
+     * @return A builder for a pipeline with no transforms
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the stages of this pipeline; the transforms it was built from, except that runs of separable transforms are
+     * replaced by lookup tables when the pipeline was built with them.
+     *
+     * @return The transforms applied by this pipeline, first to last
+     */
+    public List<PixelTransform> getStages() {
+        return stages;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int apply(int rgb) {
+        int transformed = rgb;
+        for (PixelTransform thisStage : stages) {
+            transformed = thisStage.apply(transformed);
+        }
+
+        return transformed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void applyRow(int[] src, int[] dst, int off, int len) {
+        if (stages.isEmpty()) {
+            System.arraycopy(src, off, dst, off, len);
+        }
+
+        for (int index = 0; index < stages.size(); index++) {
+            stages.get(index).applyRow(index == 0 ? src : dst, dst, off, len);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A pipeline is thread-safe if each of its stages is.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        for (PixelTransform thisStage : stages) {
+            if (!thisStage.isThreadSafe()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * A builder of {@link PixelTransformPipeline}s.
+     */
+    public static class Builder {
+
+        private final List<PixelTransform> transforms = new ArrayList<>();
+        private boolean lookupTables;
+
+        private Builder() {
+        }
+
+        /**
+         * Appends a transform to the pipeline; it will be applied to the output of the previously appended transform.
+         *
+         * @param transform The transform to append
+         * @return This builder
+         */
+        public Builder then(PixelTransform transform) {
+            if (transform == null) {
+                throw new IllegalArgumentException("Transform cannot be null.");
+            }
+
+            transforms.add(transform);
+            return this;
+        }
+
+        /**
+         * Specifies that consecutive {@link SeparablePixelTransform}s in the pipeline should be precomputed into
+         * per-channel lookup tables.
+         *
+         * @return This builder
+         */
+        public Builder withLookupTables() {
+            this.lookupTables = true;
+            return this;
+        }
+
+        /**
+         * Builds the pipeline.
+         *
+         * @return The pipeline
+         */
+        public PixelTransformPipeline build() {
+            List<PixelTransform> stages = new ArrayList<>();
+            List<SeparablePixelTransform> separable = new ArrayList<>();
+
+            for (PixelTransform thisTransform : transforms) {
+                if (lookupTables && thisTransform instanceof SeparablePixelTransform) {
+                    separable.add((SeparablePixelTransform) thisTransform);
+                } else {
+                    addLookupStage(stages, separable);
+                    stages.add(thisTransform);
+                }
+            }
+
+            addLookupStage(stages, separable);
+            return new PixelTransformPipeline(stages);
+        }
+
+        private void addLookupStage(List<PixelTransform> stages, List<SeparablePixelTransform> separable) {
+            if (!separable.isEmpty()) {
+                stages.add(new ChannelLookupTransform(separable));
+                separable.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.defano.jmonet.transform.image;
+
+import Jama.Matrix;
+import com.defano.jmonet.model.Interpolation;
+import com.defano.jmonet.model.Quadrilateral;
+import com.defano.jmonet.tools.util.ImageUtils;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * A transform mapping the source image onto an arbitrary quadrilateral by inverse mapping; each pixel of the
+ * destination image is colored by sampling the source image at the point which maps onto it.
+ * <p>
+ * The source image is implicitly scaled to the dimensions of the quadrilateral; the scale is folded into the mapping,
+ * which samples the source image directly. The coefficients of the mapping are solved from the quadrilateral's corners
+ * and the source's dimensions, and cached, so that re-applying a transform of the same geometry (as happens
+ * repeatedly while a user drags a selection's handles) does not solve the system again. Only rows and columns within
+ * the bounds of the quadrilateral are mapped; large images are mapped in parallel bands of rows.
+ */
+public abstract class QuadrilateralMappingTransform implements ImageTransform {
+
+    // Minimum number of pixels in an image for its rows to be mapped in parallel
+    private static final int PARALLEL_THRESHOLD = 256 * 256;
+
+    // Number of rows mapped by each parallel task
+    private static final int ROWS_PER_TASK = 32;
+
+    // Number of most recently solved geometries whose coefficients are cached
+    private static final int CACHED_SOLUTIONS = 16;
+
+    private static final Map<Geometry, double[]> solutions = Collections.synchronizedMap(
+            new LinkedHashMap<Geometry, double[]>(CACHED_SOLUTIONS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Geometry, double[]> eldest) {
+                    return size() > CACHED_SOLUTIONS;
+                }
+            });
+
+    private final Quadrilateral projection;
+    private final Interpolation interpolation;
+
+    /**
+     * Creates a transform mapping the source image onto the given quadrilateral.
+     *
+     * @param projection    The geometry on which to map the image
+     * @param interpolation The method used to sample the source image; {@link Interpolation#DEFAULT} samples the
+     *                      nearest neighbor
+     */
+    protected QuadrilateralMappingTransform(Quadrilateral projection, Interpolation interpolation) {
+        if (interpolation == Interpolation.NONE) {
+            throw new IllegalArgumentException("Interpolation 'none' not supported.");
+        }
+
+        this.projection = projection;
+        this.interpolation = interpolation == Interpolation.DEFAULT ? Interpolation.NEAREST_NEIGHBOR : interpolation;
+    }
+
+    /**
+     * Gets the coefficient matrix of the system of equations mapping destination points onto source points. The system
+     * is solved for the coefficients such that the matrix multiplied by the coefficients yields the x coordinates of
+     * the source corners followed by their y coordinates.
+     *
+     * @param dx The x coordinates of the destination corners; top-left, top-right, bottom-right and bottom-left
+     * @param dy The y coordinates of the destination corners, in the same order
+     * @param sx The x coordinates of the source corners, in the same order
+     * @param sy The y coordinates of the source corners, in the same order
+     * @return The 8x8 coefficient matrix
+     */
+    protected abstract double[][] getSystem(double[] dx, double[] dy, double[] sx, double[] sy);
+
+    /**
+     * Maps a run of destination pixels in a row onto the source image.
+     *
+     * @param coefficients The solution to the system returned by {@link #getSystem(double[], double[], double[], double[])}
+     * @param j            The destination row
+     * @param fromI        The first destination column to map
+     * @param toI          The destination column after the last one to map
+     * @param xs           Receives the source x coordinate of each mapped column, indexed from zero
+     * @param ys           Receives the source y coordinate of each mapped column, indexed from zero
+     */
+    protected abstract void mapRow(double[] coefficients, int j, int fromI, int toI, double[] xs, double[] ys);
+
+    /**
+     * Gets the method used to sample the source image.
+     *
+     * @return The interpolation method
+     */
+    public Interpolation getInterpolation() {
+        return interpolation;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BufferedImage apply(BufferedImage input) {
+        BufferedImage source = ImageUtils.argbCopy(input);
+        int sourceWidth = source.getWidth();
+        int sourceHeight = source.getHeight();
+
+        // Destination image dimensions (defined by projection)
+        int width = projection.getWidth();
+        int height = projection.getHeight();
+
+        // Destination image geometry (defined by projection)
+        double[] dx = {
+                Math.abs(projection.getTopLeft().getX()), Math.abs(projection.getTopRight().getX()),
+                Math.abs(projection.getBottomRight().getX()), Math.abs(projection.getBottomLeft().getX())
+        };
+        double[] dy = {
+                Math.abs(projection.getTopLeft().getY()), Math.abs(projection.getTopRight().getY()),
+                Math.abs(projection.getBottomRight().getY()), Math.abs(projection.getBottomLeft().getY())
+        };
+
+        double[] coefficients = getCoefficients(dx, dy, sourceWidth, sourceHeight);
+        BufferedImage output = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] sourcePixels = ((DataBufferInt) source.getRaster().getDataBuffer()).getData();
+        int[] outputPixels = ((DataBufferInt) output.getRaster().getDataBuffer()).getData();
+
+        // Pixels in the first row and column of the output are never mapped
+        int left = Math.max(1, (int) Math.floor(min(dx)));
+        int right = Math.min(width, (int) Math.ceil(max(dx)) + 1);
+        int top = Math.max(1, (int) Math.floor(min(dy)));
+        int bottom = Math.min(height, (int) Math.ceil(max(dy)) + 1);
+
+        if (left >= right || top >= bottom) {
+            return output;
+        }
+
+        int tasks = (bottom - top + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+        IntStream rows = IntStream.range(0, tasks);
+        if ((long) width * height >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+
+        rows.forEach(task -> {
+            double[] xs = new double[right - left];
+            double[] ys = new double[right - left];
+
+            for (int j = top + task * ROWS_PER_TASK; j < Math.min(bottom, top + (task + 1) * ROWS_PER_TASK); j++) {
+                mapRow(coefficients, j, left, right, xs, ys);
+                sampleRow(sourcePixels, sourceWidth, sourceHeight, outputPixels, j * width + left, xs, ys);
+            }
+        });
+
+        return output;
+    }
+
+    /**
+     * Gets the solved coefficients of the mapping from the given destination corners onto the corners of a source image
+     * of the given size, solving the system only if the geometry has not recently been solved.
+     */
+    private double[] getCoefficients(double[] dx, double[] dy, int width, int height) {
+        Geometry geometry = new Geometry(getClass(), dx, dy, width, height);
+        double[] coefficients = solutions.get(geometry);
+
+        if (coefficients == null) {
+            // Source image geometry (the bounds of the source image, which is thereby scaled onto the projection)
+            double[] sx = {0, width - 1.0, width - 1.0, 0};
+            double[] sy = {0, 0, height - 1.0, height - 1.0};
+
+            double[][] arrayB = {{sx[0]}, {sx[1]}, {sx[2]}, {sx[3]}, {sy[0]}, {sy[1]}, {sy[2]}, {sy[3]}};
+            Matrix solution = new Matrix(getSystem(dx, dy, sx, sy)).solve(new Matrix(arrayB));
+
+            coefficients = new double[8];
+            for (int index = 0; index < coefficients.length; index++) {
+                coefficients[index] = solution.get(index, 0);
+            }
+
+            solutions.put(geometry, coefficients);
+        }
+
+        return coefficients;
+    }
+
+    /**
+     * Samples the source image at the mapped coordinates of a run of destination pixels. Pixels mapping outside the
+     * source image, or onto its first row or column, are left transparent.
+     */
+    private void sampleRow(int[] source, int width, int height, int[] output, int offset, double[] xs, double[] ys) {
+        double[] sums = new double[4];
+
+        for (int index = 0; index < xs.length; index++) {
+            int x = (int) xs[index];
+            int y = (int) ys[index];
+
+            if (x > 0 && x < width && y > 0 && y < height) {
+                switch (interpolation) {
+                    case BILINEAR:
+                        output[offset + index] = sampleBilinear(source, width, height, xs[index], ys[index], sums);
+                        break;
+                    case BICUBIC:
+                        output[offset + index] = sampleBicubic(source, width, height, xs[index], ys[index], sums);
+                        break;
+                    default:
+                        output[offset + index] = source[y * width + x];
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Samples the source image at the given point by interpolating the four nearest pixels.
+     */
+    private static int sampleBilinear(int[] source, int width, int height, double x, double y, double[] sums) {
+        double u = x - 0.5;
+        double v = y - 0.5;
+        int x0 = (int) Math.floor(u);
+        int y0 = (int) Math.floor(v);
+        double fx = u - x0;
+        double fy = v - y0;
+
+        Arrays.fill(sums, 0);
+        accumulate(sums, source, width, height, x0, y0, (1 - fx) * (1 - fy));
+        accumulate(sums, source, width, height, x0 + 1, y0, fx * (1 - fy));
+        accumulate(sums, source, width, height, x0, y0 + 1, (1 - fx) * fy);
+        accumulate(sums, source, width, height, x0 + 1, y0 + 1, fx * fy);
+
+        return toArgb(sums);
+    }
+
+    /**
+     * Samples the source image at the given point by interpolating the sixteen nearest pixels with a Catmull-Rom
+     * spline.
+     */
+    private static int sampleBicubic(int[] source, int width, int height, double x, double y, double[] sums) {
+        double u = x - 0.5;
+        double v = y - 0.5;
+        int x0 = (int) Math.floor(u);
+        int y0 = (int) Math.floor(v);
+        double[] wx = cubicWeights(u - x0);
+        double[] wy = cubicWeights(v - y0);
+
+        Arrays.fill(sums, 0);
+        for (int row = 0; row < 4; row++) {
+            for (int column = 0; column < 4; column++) {
+                accumulate(sums, source, width, height, x0 + column - 1, y0 + row - 1, wx[column] * wy[row]);
+            }
+        }
+
+        return toArgb(sums);
+    }
+
+    private static double[] cubicWeights(double t) {
+        double t2 = t * t;
+        double t3 = t2 * t;
+
+        return new double[]{
+                (-t3 + 2 * t2 - t) / 2,
+                (3 * t3 - 5 * t2 + 2) / 2,
+                (-3 * t3 + 4 * t2 + t) / 2,
+                (t3 - t2) / 2
+        };
+    }
+
+    /**
+     * Adds the weighted, alpha-premultiplied channels of a source pixel (clamped to the image bounds) to the sums of
+     * alpha, red, green and blue.
+     */
+    private static void accumulate(double[] sums, int[] source, int width, int height, int x, int y, double weight) {
+        int pixel = source[Math.min(height - 1, Math.max(0, y)) * width + Math.min(width - 1, Math.max(0, x))];
+        double alpha = (pixel >>> 24) * weight;
+
+        sums[0] += alpha;
+        sums[1] += ((pixel >> 16) & 0xff) * alpha;
+        sums[2] += ((pixel >> 8) & 0xff) * alpha;
+        sums[3] += (pixel & 0xff) * alpha;
+    }
+
+    /**
+     * Converts sums of alpha and alpha-premultiplied red, green and blue into a non-premultiplied ARGB pixel.
+     */
+    private static int toArgb(double[] sums) {
+        int alpha = clamp(sums[0]);
+        if (alpha == 0) {
+            return 0;
+        }
+
+        return alpha << 24 | clamp(sums[1] / sums[0]) << 16 | clamp(sums[2] / sums[0]) << 8 | clamp(sums[3] / sums[0]);
+    }
+
+    private static int clamp(double channel) {
+        return (int) Math.min(255, Math.max(0, Math.round(channel)));
+    }
+
+    private static double min(double[] values) {
+        return Math.min(Math.min(values[0], values[1]), Math.min(values[2], values[3]));
+    }
+
+    private static double max(double[] values) {
+        return Math.max(Math.max(values[0], values[1]), Math.max(values[2], values[3]));
+    }
+
+    /**
+     * The geometry of a mapping; the kind of mapping, the destination corners and the source dimensions.
+     */
+    private static class Geometry {
+        private final Class<?> mapping;
+        private final double[] corners;
+        private final int width;
+        private final int height;
+
+        private Geometry(Class<?> mapping, double[] dx, double[] dy, int width, int height) {
+            this.mapping = mapping;
+            this.corners = new double[]{dx[0], dx[1], dx[2], dx[3], dy[0], dy[1], dy[2], dy[3]};
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Geometry geometry = (Geometry) o;
+            return width == geometry.width && height == geometry.height && mapping == geometry.mapping &&
+                    Arrays.equals(corners, geometry.corners);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * (31 * mapping.hashCode() + Arrays.hashCode(corners)) + width) + height;
+        }
+    }
+}
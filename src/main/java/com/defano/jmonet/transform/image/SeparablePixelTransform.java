@@ -0,0 +1,52 @@
+package com.defano.jmonet.transform.image;
+
+/**
+ * A {@link PixelTransform} that transforms each channel (alpha, red, green and blue) of a pixel independently of the
+ * pixel's other channels. Such transforms can be precomputed into per-channel lookup tables, and any sequence of them
+ * can be collapsed into a single table per channel (see {@link PixelTransformPipeline}).
+ */
+public interface SeparablePixelTransform extends PixelTransform {
+
+    /**
+     * The alpha channel; also the bit offset of the channel in a packed ARGB pixel.
+     */
+    int ALPHA = 24;
+
+    /**
+     * The red channel; also the bit offset of the channel in a packed ARGB pixel.
+     */
+    int RED = 16;
+
+    /**
+     * The green channel; also the bit offset of the channel in a packed ARGB pixel.
+     */
+    int GREEN = 8;
+
+    /**
+     * The blue channel; also the bit offset of the channel in a packed ARGB pixel.
+     */
+    int BLUE = 0;
+
+    /**
+     * Transforms the value of a single channel of a pixel.
+     *
+     * @param channel The channel being transformed; one of {@link #ALPHA}, {@link #RED}, {@link #GREEN} or
+     *                {@link #BLUE}.
+     * @param value   The channel's value, 0 to 255
+     * @return The transformed channel value, 0 to 255
+     */
+    int applyChannel(int channel, int value);
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Transforms each channel of the pixel with {@link #applyChannel(int, int)}.
+     */
+    @Override
+    default int apply(int rgb) {
+        return applyChannel(ALPHA, rgb >>> 24) << 24 |
+                applyChannel(RED, (rgb >> 16) & 0xff) << 16 |
+                applyChannel(GREEN, (rgb >> 8) & 0xff) << 8 |
+                applyChannel(BLUE, rgb & 0xff);
+    }
+}
@@ -1,7 +1,8 @@
 package com.defano.jmonet.transform.image;
 
+import com.defano.jmonet.model.Interpolation;
+
 import java.awt.geom.AffineTransform;
-import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
 
 /**
@@ -12,9 +13,10 @@ public class SlantTransform implements ImageTransform {
 
     private final double theta;
     private final int xTranslation;
+    private final Interpolation interpolation;
 
     /**
-     * Creates a slant image transform.
+     * Creates a slant image transform using bi-cubic interpolation.
      *
      * @param theta        The angle, in radians, to shear the image
      * @param xTranslation The number of pixels to translate the image, typically this is calculated by determining the
@@ -22,8 +24,20 @@ public class SlantTransform implements ImageTransform {
      *                     bottom-left corner), then dividing this value in half.
      */
     public SlantTransform(double theta, int xTranslation) {
+        this(theta, xTranslation, Interpolation.BICUBIC);
+    }
+
+    /**
+     * Creates a slant image transform using a specified interpolation method.
+     *
+     * @param theta         The angle, in radians, to shear the image
+     * @param xTranslation  The number of pixels to translate the image; see {@link #SlantTransform(double, int)}
+     * @param interpolation The interpolation method to use
+     */
+    public SlantTransform(double theta, int xTranslation, Interpolation interpolation) {
         this.theta = theta;
         this.xTranslation = xTranslation;
+        this.interpolation = interpolation;
     }
 
     /**
@@ -35,7 +49,6 @@ public class SlantTransform implements ImageTransform {
         transform.shear(Math.tan(theta), 0);
 
         transform.translate(xTranslation, 0);
-        AffineTransformOp op = new AffineTransformOp(transform, AffineTransformOp.TYPE_BICUBIC);
-        return op.filter(source, null);
+        return new ApplyAffineTransform(transform, interpolation).apply(source);
     }
 }
@@ -1,5 +1,8 @@
 package com.defano.jmonet.transform.image;
 
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CancellationException;
+
 /**
  * An image-containing object that can be transformed by a {@link StaticImageTransform}; that is, all the pixels of the
  * image may be transformed, but the dimensions or bounds of the image can not.
@@ -19,4 +22,51 @@ public interface StaticImageTransformable {
      * @param transform The pixel transform to apply
      */
     void transform(PixelTransform transform);
+
+    /**
+     * Performs a transformation on the image asynchronously, without blocking the dispatch thread. The transform is
+     * applied to a copy of the image on a worker thread, and the result is applied to the image on the dispatch
+     * thread. See {@link TransformExecutor}.
+     * <p>
+     * Submitting a transform cancels any asynchronous transform of this image that has not yet completed. The result
+     * is discarded if the image is modified while the transform is executing.
+     *
+     * <p>
+     * This interface provides no access to the image it transforms, so this default implementation cannot copy it for
+     * a worker thread; it applies the transform synchronously via {@link #transform(StaticImageTransform)} and returns
+     * a completed future. Implementations able to copy their image should override this method to submit the
+     * transform to the {@link TransformExecutor}.
+     *
+     * @param transform The transform to perform.
+     * @return The pending result of the transform, which may be used to observe its progress or to cancel it
+     */
+    default TransformFuture transformAsync(StaticImageTransform transform) {
+        TransformFuture future = new TransformFuture();
+
+        try {
+            transform((StaticImageTransform) source -> {
+                BufferedImage transformed = transform.apply(source, future);
+                future.complete(transformed);
+                return transformed;
+            });
+            future.setProgress(1.0);
+        } catch (CancellationException e) {
+            future.cancel(false);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    /**
+     * Applies a {@link PixelTransform} on all the pixels of the image asynchronously, without blocking the dispatch
+     * thread. See {@link #transformAsync(StaticImageTransform)}.
+     *
+     * @param transform The pixel transform to apply
+     * @return The pending result of the transform, which may be used to observe its progress or to cancel it
+     */
+    default TransformFuture transformAsync(PixelTransform transform) {
+        return transformAsync(new ApplyPixelTransform(transform));
+    }
 }
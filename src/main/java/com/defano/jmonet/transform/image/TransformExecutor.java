@@ -0,0 +1,121 @@
+package com.defano.jmonet.transform.image;
+
+import javax.swing.*;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Executes image transforms asynchronously so that slow transforms (like dithering or convolution) do not block the
+ * dispatch thread.
+ * <p>
+ * This singleton class executes transforms on a small, bounded pool of worker threads, and commits each result to its
+ * target on the dispatch thread. Each target has at most one transform outstanding; submitting a transform cancels the
+ * target's previous transform, if it has not yet been committed.
+ */
+public class TransformExecutor {
+
+    private static final TransformExecutor instance = new TransformExecutor();
+
+    // Number of transforms which may execute concurrently (each transform may itself execute in parallel)
+    private static final int WORKER_THREADS = 2;
+
+    private final ExecutorService workers;
+    private final Map<Object, TransformFuture> pending = new WeakHashMap<>();
+
+    private TransformExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "jmonet-transform-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+
+        workers = executor;
+    }
+
+    public static TransformExecutor getInstance() {
+        return instance;
+    }
+
+    /**
+     * Transforms an image asynchronously, then commits the result to the transform's target on the dispatch thread.
+     * <p>
+     * The transform's result is not committed if the transform is cancelled (explicitly, or by submitting another
+     * transform of the same target) or if the target has changed while the transform was executing. The source image
+     * must not be modified while the transform executes; callers should typically submit a copy.
+     *
+     * @param target    The object being transformed, for example, a canvas or selection
+     * @param source    The image to transform
+     * @param transform The transform to apply
+     * @param unchanged Invoked on the dispatch thread before committing the result; returns false if the target has
+     *                  changed since the transform was submitted, in which case the result is discarded
+     * @param commit    Invoked on the dispatch thread to commit the transformed image to the target
+     * @return The pending result of the transform
+     */
+    public TransformFuture submit(Object target, BufferedImage source, ImageTransform transform,
+                                  BooleanSupplier unchanged, Consumer<BufferedImage> commit) {
+        TransformFuture future = new TransformFuture();
+        TransformFuture superseded;
+
+        synchronized (pending) {
+            superseded = pending.put(target, future);
+        }
+
+        if (superseded != null) {
+            superseded.cancel(false);
+        }
+
+        workers.execute(() -> {
+            if (future.isCancelled()) {
+                release(target, future);
+                return;
+            }
+
+            try {
+                BufferedImage result = transform.apply(source, future);
+                future.setProgress(1.0);
+                SwingUtilities.invokeLater(() -> {
+                    // Released on the dispatch thread, so that a transform submitted before the result is committed
+                    // supersedes it
+                    release(target, future);
+
+                    if (!unchanged.getAsBoolean()) {
+                        future.cancel(false);
+                    } else if (future.complete(result)) {
+                        commit.accept(result);
+                    }
+                });
+            } catch (CancellationException e) {
+                future.cancel(false);
+                release(target, future);
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+                release(target, future);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Removes a transform from the target's outstanding transform, unless it has already been superseded.
+     */
+    private void release(Object target, TransformFuture future) {
+        synchronized (pending) {
+            if (pending.get(target) == future) {
+                pending.remove(target);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.defano.jmonet.transform.image;
+
+import io.reactivex.Observable;
+import io.reactivex.subjects.BehaviorSubject;
+
+import javax.swing.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The pending result of a transform executing asynchronously via {@link TransformExecutor}.
+ * <p>
+ * The future completes with the transformed image once it has been committed to its target. It is cancelled if
+ * {@link #cancel(boolean)} is invoked before the result is committed, if a newer transform of the same target is
+ * submitted, or if the target was modified while the transform was executing (in which case the result is stale).
+ * A cancelled transform's result is never committed.
+ */
+public class TransformFuture extends CompletableFuture<BufferedImage> implements TransformMonitor {
+
+    private final AtomicInteger percentComplete = new AtomicInteger();
+    private final BehaviorSubject<Double> progressSubject = BehaviorSubject.createDefault(0.0);
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Progress is published to observers of {@link #getProgressObservable()} on the dispatch thread, at most once for
+     * each percent of progress.
+     */
+    @Override
+    public void setProgress(double progress) {
+        int percent = (int) (Math.min(1.0, Math.max(0.0, progress)) * 100);
+        int previous = percentComplete.get();
+
+        while (percent > previous) {
+            if (percentComplete.compareAndSet(previous, percent)) {
+                SwingUtilities.invokeLater(() -> progressSubject.onNext(percent / 100.0));
+                return;
+            }
+            previous = percentComplete.get();
+        }
+    }
+
+    /**
+     * Gets the most recently reported progress of the transform.
+     *
+     * @return The fraction of the transform completed, 0.0 to 1.0
+     */
+    public double getProgress() {
+        return percentComplete.get() / 100.0;
+    }
+
+    /**
+     * Gets an observable of the transform's progress; values are emitted on the dispatch thread.
+     *
+     * @return An observable fraction of the transform completed, 0.0 to 1.0
+     */
+    public Observable<Double> getProgressObservable() {
+        return progressSubject;
+    }
+}
@@ -0,0 +1,39 @@
+package com.defano.jmonet.transform.image;
+
+/**
+ * Monitors the execution of an {@link ImageTransform}; transforms report their progress to the monitor, and stop
+ * early when the monitor indicates the transform has been cancelled.
+ */
+public interface TransformMonitor {
+
+    /**
+     * A monitor that ignores progress and is never cancelled; used when a transform is applied synchronously.
+     */
+    TransformMonitor NONE = new TransformMonitor() {
+        @Override
+        public void setProgress(double progress) {
+            // Nothing to do
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    /**
+     * Reports the progress of the transform. May be invoked from any thread, including from several threads
+     * concurrently when the transform executes in parallel.
+     *
+     * @param progress The fraction of the transform completed, 0.0 to 1.0
+     */
+    void setProgress(double progress);
+
+    /**
+     * Determines whether the transform has been cancelled. Long-running transforms should check this periodically and,
+     * when cancelled, abandon their work by throwing a {@link java.util.concurrent.CancellationException}.
+     *
+     * @return True if the transform's result is no longer wanted
+     */
+    boolean isCancelled();
+}
@@ -60,6 +60,19 @@ public interface Transformable extends StaticImageTransformable {
         transform(new ColorReductionTransform(ditherer, colorDepth));
     }
 
+    /**
+     * Converts the image to a palette of no more than the specified number of colors, chosen to best represent the
+     * colors of the image (unlike {@link #reduceColor(int, Ditherer)}, whose palette is evenly distributed in the color
+     * space). See {@link PaletteReductionTransform}.
+     *
+     * @param colors   The maximum number of unique colors that should appear in the resultant image, for example 16 or
+     *                 256.
+     * @param ditherer The dithering algorithm to use, for example, {@link FloydSteinbergDitherer}.
+     */
+    default void reducePalette(int colors, Ditherer ditherer) {
+        transform(new PaletteReductionTransform(ditherer, colors));
+    }
+
     /**
      * Converts the image to gray-scale, containing no more than the specified number of gray shades.
      * See {@link #reduceColor(int, Ditherer)} for details about palette selection and dithering.
@@ -110,6 +123,22 @@ public interface Transformable extends StaticImageTransformable {
         transform(new RemoveAlphaPixelTransform(makeTransparent));
     }
 
+    /**
+     * Applies a sequence of pixel transforms to the image, in order, as a single transform. The image is traversed (and
+     * modified) once, regardless of the number of transforms, and runs of {@link SeparablePixelTransform}s are
+     * precomputed into lookup tables. See {@link PixelTransformPipeline}.
+     *
+     * @param transforms The pixel transforms to apply, first to last
+     */
+    default void transformPixels(PixelTransform... transforms) {
+        PixelTransformPipeline.Builder pipeline = PixelTransformPipeline.builder().withLookupTables();
+        for (PixelTransform thisTransform : transforms) {
+            pipeline.then(thisTransform);
+        }
+
+        transform(pipeline.build());
+    }
+
     /**
      * Fills all transparent pixels in the image with the given fill paint.
      *
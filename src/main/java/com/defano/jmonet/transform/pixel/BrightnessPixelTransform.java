@@ -1,12 +1,12 @@
 package com.defano.jmonet.transform.pixel;
 
-import com.defano.jmonet.transform.image.PixelTransform;
+import com.defano.jmonet.transform.image.SeparablePixelTransform;
 
 /**
  * Modifies the brightness (luminosity) of each affected pixel by adding/subtracting a delta value to each color channel
  * of an affected pixel.
  */
-public class BrightnessPixelTransform implements PixelTransform {
+public class BrightnessPixelTransform implements SeparablePixelTransform {
 
     private final int delta;
 
@@ -39,4 +39,35 @@ public class BrightnessPixelTransform implements PixelTransform {
         // Adjust preserving alpha channel
         return alpha | (r << 16) | (g << 8) | b;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int applyChannel(int channel, int value) {
+        return channel == ALPHA ? value : Math.min(0xff, Math.max(0, value + delta));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void applyRow(int[] src, int[] dst, int off, int len) {
+        for (int index = off; index < off + len; index++) {
+            int rgb = src[index];
+            int r = Math.min(0xff, Math.max(0, ((rgb >> 16) & 0xff) + delta));
+            int g = Math.min(0xff, Math.max(0, ((rgb >> 8) & 0xff) + delta));
+            int b = Math.min(0xff, Math.max(0, (rgb & 0xff) + delta));
+
+            dst[index] = (rgb & 0xff000000) | (r << 16) | (g << 8) | b;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
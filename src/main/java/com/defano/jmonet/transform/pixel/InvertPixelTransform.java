@@ -1,11 +1,11 @@
 package com.defano.jmonet.transform.pixel;
 
-import com.defano.jmonet.transform.image.PixelTransform;
+import com.defano.jmonet.transform.image.SeparablePixelTransform;
 
 /**
  * Inverts the color value of each affected pixel.
  */
-public class InvertPixelTransform implements PixelTransform {
+public class InvertPixelTransform implements SeparablePixelTransform {
 
     /**
      * {@inheritDoc}
@@ -18,4 +18,30 @@ public class InvertPixelTransform implements PixelTransform {
         // Invert preserving alpha channel
         return alpha | (~rgb & 0x00ffffff);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int applyChannel(int channel, int value) {
+        return channel == ALPHA ? value : 0xff - value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void applyRow(int[] src, int[] dst, int off, int len) {
+        for (int index = off; index < off + len; index++) {
+            dst[index] = src[index] ^ 0x00ffffff;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
@@ -1,6 +1,6 @@
 package com.defano.jmonet.transform.pixel;
 
-import com.defano.jmonet.transform.image.PixelTransform;
+import com.defano.jmonet.transform.image.SeparablePixelTransform;
 
 import java.awt.*;
 
@@ -8,7 +8,7 @@ import java.awt.*;
  * Saturates the alpha channel of any pixel that is not fully transparent or fully opaque (has no effect on fully opaque
  * or fully transparent pixels).
  */
-public class RemoveAlphaPixelTransform implements PixelTransform {
+public class RemoveAlphaPixelTransform implements SeparablePixelTransform {
 
     private final boolean makeTransparent;
 
@@ -37,4 +37,24 @@ public class RemoveAlphaPixelTransform implements PixelTransform {
         // Adjust alpha preserving color channel
         return new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha).getRGB();
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int applyChannel(int channel, int value) {
+        if (channel != ALPHA || value == 0 || value == 0xff) {
+            return value;
+        }
+
+        return makeTransparent ? 0x00 : 0xff;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
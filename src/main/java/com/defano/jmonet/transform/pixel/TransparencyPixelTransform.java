@@ -1,13 +1,13 @@
 package com.defano.jmonet.transform.pixel;
 
-import com.defano.jmonet.transform.image.PixelTransform;
+import com.defano.jmonet.transform.image.SeparablePixelTransform;
 
 import java.awt.*;
 
 /**
  * Adjusts the level of transparency (alpha) in each affected pixel.
  */
-public class TransparencyPixelTransform implements PixelTransform {
+public class TransparencyPixelTransform implements SeparablePixelTransform {
 
     private final int delta;
 
@@ -35,4 +35,20 @@ public class TransparencyPixelTransform implements PixelTransform {
         // Adjust alpha preserving color channel
         return new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha).getRGB();
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int applyChannel(int channel, int value) {
+        return channel == ALPHA ? Math.min(0xff, Math.max(0, value + delta)) : value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
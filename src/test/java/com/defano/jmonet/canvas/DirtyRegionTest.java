@@ -0,0 +1,95 @@
+package com.defano.jmonet.canvas;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirtyRegionTest {
+
+    @Test
+    void testThatNewRegionIsEmpty() {
+        DirtyRegion uut = new DirtyRegion(100, 100);
+
+        assertTrue(uut.isEmpty());
+        assertTrue(uut.getBounds().isEmpty());
+        assertTrue(uut.getRectangles().isEmpty());
+    }
+
+    @Test
+    void testThatRectanglesAreTrimmedToBounds() {
+        DirtyRegion uut = new DirtyRegion(300, 300, new Rectangle(10, 20, 30, 40));
+
+        assertEquals(new Rectangle(10, 20, 30, 40), uut.getBounds());
+        assertEquals(1, uut.getRectangles().size());
+        assertEquals(new Rectangle(10, 20, 30, 40), uut.getRectangles().get(0));
+    }
+
+    @Test
+    void testThatRegionsOutsideBufferAreIgnored() {
+        DirtyRegion uut = new DirtyRegion(100, 100);
+        uut.add(new Rectangle(200, 200, 10, 10));
+        uut.add(new Rectangle(-10, -10, 20, 20));
+
+        assertEquals(new Rectangle(0, 0, 10, 10), uut.getBounds());
+    }
+
+    @Test
+    void testThatDiagonalStrokeDoesNotDirtyEntireBuffer() {
+        int size = DirtyRegion.TILE_SIZE * 8;
+        DirtyRegion uut = new DirtyRegion(size, size);
+
+        for (int index = 0; index < size; index += 8) {
+            uut.add(new Rectangle(index, index, 10, 10));
+        }
+
+        assertEquals(new Rectangle(0, 0, size, size), uut.getBounds());
+        assertTrue(area(uut.getRectangles()) < size * size / 2);
+    }
+
+    @Test
+    void testThatRectanglesCoverDirtiedRegionsWithoutOverlapping() {
+        DirtyRegion uut = new DirtyRegion(500, 400);
+        Rectangle[] dirtied = {
+                new Rectangle(3, 7, 100, 20),
+                new Rectangle(90, 10, 200, 200),
+                new Rectangle(400, 300, 99, 99),
+                new Rectangle(0, 390, 500, 10)
+        };
+
+        for (Rectangle thisDirtied : dirtied) {
+            uut.add(thisDirtied);
+        }
+
+        List<Rectangle> rectangles = uut.getRectangles();
+        for (Rectangle thisDirtied : dirtied) {
+            for (int y = thisDirtied.y; y < thisDirtied.y + thisDirtied.height; y++) {
+                for (int x = thisDirtied.x; x < thisDirtied.x + thisDirtied.width; x++) {
+                    assertEquals(1, countContaining(rectangles, x, y), "Pixel covered incorrectly at " + x + "," + y);
+                }
+            }
+        }
+    }
+
+    private int countContaining(List<Rectangle> rectangles, int x, int y) {
+        int count = 0;
+        for (Rectangle thisRectangle : rectangles) {
+            if (thisRectangle.contains(x, y)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private int area(List<Rectangle> rectangles) {
+        int area = 0;
+        for (Rectangle thisRectangle : rectangles) {
+            area += thisRectangle.width * thisRectangle.height;
+        }
+
+        return area;
+    }
+}
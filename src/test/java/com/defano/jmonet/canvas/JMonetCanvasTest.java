@@ -0,0 +1,448 @@
+package com.defano.jmonet.canvas;
+
+import com.defano.jmonet.canvas.layer.ImageLayer;
+import com.defano.jmonet.canvas.layer.ImageLayerSet;
+import com.defano.jmonet.canvas.surface.SurfaceOverlay;
+import com.defano.jmonet.context.AwtGraphicsContext;
+import com.defano.jmonet.context.GraphicsContext;
+import com.defano.jmonet.tools.util.ImageUtils;
+import com.defano.jmonet.transform.image.StaticImageTransform;
+import com.defano.jmonet.transform.image.TransformFuture;
+import com.defano.jmonet.transform.pixel.InvertPixelTransform;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JMonetCanvasTest {
+
+    private static final int WIDTH = 64;
+    private static final int HEIGHT = 48;
+
+    private final Random random = new Random(1234);
+
+    @Test
+    void testThatCanvasLargerThanImageCanAddressIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new JMonetCanvas(new Dimension(50000, 50000)));
+
+        JMonetCanvas uut = new JMonetCanvas(new Dimension(10, 10));
+        assertThrows(IllegalArgumentException.class, () -> uut.setCanvasSize(new Dimension(50000, 50000)));
+        assertEquals(new Dimension(10, 10), uut.getCanvasSize());
+    }
+
+    @Test
+    void testThatPosterSizedCanvasConsumesMemoryOnlyWherePainted() {
+        JMonetCanvas uut = new JMonetCanvas(new Dimension(40000, 40000));
+        BufferedImage change = opaqueImage(20, 20);
+
+        GraphicsContext g = uut.getScratch().getAddScratchGraphics(null, new Rectangle(39000, 39000, 20, 20));
+        g.drawImage(change, 39000, 39000, null);
+        uut.commit();
+
+        assertEquals(change.getRGB(5, 7), uut.getLiveCanvasImage().getRGB(39005, 39007));
+        assertEquals(change.getRGB(5, 7), uut.getCanvasImage().getRGB(39005, 39007));
+        assertEquals(0, uut.getCanvasImage().getRGB(5, 7));
+
+        uut.undo();
+        assertEquals(0, uut.getCanvasImage().getRGB(39005, 39007));
+        uut.dispose();
+    }
+
+    @Test
+    void testThatChangesSpanningTilesProduceFlattenedImage() {
+        BufferedImage initial = randomImage(600, 300);
+        JMonetCanvas uut = new JMonetCanvas(initial, 3);
+        List<ImageLayerSet> committed = new ArrayList<>();
+
+        for (int index = 0; index < 5; index++) {
+            ImageLayerSet change = new ImageLayerSet();
+            change.addLayer(new ImageLayer(new Point(random.nextInt(400), random.nextInt(200)), randomImage(200, 100),
+                    index % 2 == 0 ? AlphaComposite.SrcOver : AlphaComposite.DstOut));
+            committed.add(copyOf(change));
+            uut.commit(change);
+            assertImagesEqual(flatten(initial, committed, 3), uut.getCanvasImage());
+        }
+
+        uut.undo();
+        committed.remove(committed.size() - 1);
+        assertImagesEqual(flatten(initial, committed, 3), uut.getCanvasImage());
+    }
+
+    @Test
+    void testThatCommitUndoAndRedoProduceFlattenedImage() {
+        BufferedImage initial = randomImage(WIDTH, HEIGHT);
+        JMonetCanvas uut = new JMonetCanvas(initial, 12);
+        List<ImageLayerSet> committed = new ArrayList<>();
+        List<ImageLayerSet> undone = new ArrayList<>();
+
+        for (int index = 0; index < 5; index++) {
+            ImageLayerSet change = randomLayerSet();
+            committed.add(copyOf(change));
+            uut.commit(change);
+            assertImagesEqual(flatten(initial, committed, 12), uut.getCanvasImage());
+        }
+
+        for (int index = 0; index < 3; index++) {
+            uut.undo();
+            undone.add(committed.remove(committed.size() - 1));
+            assertImagesEqual(flatten(initial, committed, 12), uut.getCanvasImage());
+        }
+
+        uut.redo();
+        committed.add(undone.remove(undone.size() - 1));
+        assertImagesEqual(flatten(initial, committed, 12), uut.getCanvasImage());
+    }
+
+    @Test
+    void testThatCanvasImageIsNotModifiedByLaterChanges() {
+        BufferedImage initial = randomImage(WIDTH, HEIGHT);
+        JMonetCanvas uut = new JMonetCanvas(initial, 12);
+
+        BufferedImage before = uut.getCanvasImage();
+        BufferedImage expected = ImageUtils.copy(before);
+        assertSame(before, uut.getCanvasImage());
+
+        uut.commit(randomLayerSet());
+        assertImagesEqual(expected, before);
+        assertNotSame(before, uut.getCanvasImage());
+        assertImagesEqual(uut.getLiveCanvasImage(), uut.getCanvasImage());
+
+        BufferedImage committed = uut.getCanvasImage();
+        uut.undo();
+        assertImagesEqual(expected, uut.getCanvasImage());
+        assertNotSame(committed, uut.getCanvasImage());
+    }
+
+    @Test
+    void testThatEvictedChangesProduceFlattenedImage() {
+        BufferedImage initial = randomImage(WIDTH, HEIGHT);
+        JMonetCanvas uut = new JMonetCanvas(initial, 2);
+        List<ImageLayerSet> committed = new ArrayList<>();
+
+        for (int index = 0; index < 6; index++) {
+            ImageLayerSet change = randomLayerSet();
+            committed.add(copyOf(change));
+            uut.commit(change);
+            assertImagesEqual(flatten(initial, committed, 2), uut.getCanvasImage());
+        }
+
+        uut.undo();
+        committed.remove(committed.size() - 1);
+        assertImagesEqual(flatten(initial, committed, 2), uut.getCanvasImage());
+    }
+
+    @Test
+    void testThatArchivedChangesProduceFlattenedImage() {
+        BufferedImage initial = randomImage(WIDTH, HEIGHT);
+        JMonetCanvas uut = new JMonetCanvas(initial, 4, 0);
+        List<ImageLayerSet> committed = new ArrayList<>();
+
+        for (int index = 0; index < 6; index++) {
+            ImageLayerSet change = randomLayerSet();
+            committed.add(copyOf(change));
+            uut.commit(change);
+            assertImagesEqual(flatten(initial, committed, 4), uut.getCanvasImage());
+        }
+
+        for (int index = 0; index < 3; index++) {
+            uut.undo();
+            committed.remove(committed.size() - 1);
+            assertImagesEqual(flatten(initial, committed, 4), uut.getCanvasImage());
+        }
+
+        uut.dispose();
+    }
+
+    @Test
+    void testThatUndoAndRedoObservablesTrackUndoBuffer() {
+        JMonetCanvas uut = new JMonetCanvas(randomImage(WIDTH, HEIGHT), 12);
+        assertFalse(uut.isUndoableObservable().blockingFirst());
+
+        uut.commit(randomLayerSet());
+        assertTrue(uut.isUndoableObservable().blockingFirst());
+        assertFalse(uut.isRedoableObservable().blockingFirst());
+
+        uut.undo();
+        assertFalse(uut.isUndoableObservable().blockingFirst());
+        assertTrue(uut.isRedoableObservable().blockingFirst());
+        assertEquals(1, uut.getRedoBufferDepth());
+    }
+
+    @Test
+    void testThatModifyingCommittedChangeWithCollidingHashInvalidatesCanvasImage() {
+        BufferedImage initial = randomImage(WIDTH, HEIGHT);
+        JMonetCanvas uut = new JMonetCanvas(initial, 12);
+
+        // Objects.hash([first]) == 0 and Objects.hash([first, second]) == 0; a hash-keyed cache can't see the change
+        ImageLayer first = layerWithHashCode(new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB), -31);
+        ImageLayer second = layerWithHashCode(randomImage(WIDTH, HEIGHT), 0);
+
+        ImageLayerSet change = new ImageLayerSet(first);
+        uut.commit(change);
+        uut.getCanvasImage();
+        change.addLayer(second);
+
+        ImageLayerSet expected = new ImageLayerSet(first);
+        expected.addLayer(second);
+        assertImagesEqual(flatten(initial, Collections.singletonList(expected), 12), uut.getCanvasImage());
+    }
+
+    @Test
+    void testThatDirectAndBufferedPaintingProduceCanvasImage() {
+        BufferedImage initial = opaqueImage(WIDTH, HEIGHT);
+        JMonetCanvas uut = new JMonetCanvas(initial, 12);
+        Rectangle clip = new Rectangle(5, 7, 30, 20);
+
+        uut.setDirectPaintEnabled(true);
+        BufferedImage direct = paintComponent(uut, clip, Color.GREEN);
+        uut.setDirectPaintEnabled(false);
+        BufferedImage buffered = paintComponent(uut, clip, Color.GREEN);
+
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int expected = clip.contains(x, y) ? initial.getRGB(x, y) : Color.GREEN.getRGB();
+                assertEquals(expected, direct.getRGB(x, y), "Direct pixel mismatch at " + x + "," + y);
+                assertEquals(expected, buffered.getRGB(x, y), "Buffered pixel mismatch at " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void testThatErasedScratchDoesNotEraseBeneathCanvas() {
+        JMonetCanvas uut = new JMonetCanvas(opaqueImage(WIDTH, HEIGHT), 12);
+        Rectangle erased = new Rectangle(10, 10, 8, 8);
+
+        GraphicsContext g = uut.getScratch().getRemoveScratchGraphics(null, erased);
+        g.setColor(Color.BLACK);
+        g.fill(erased);
+
+        BufferedImage painted = paintComponent(uut, new Rectangle(0, 0, WIDTH, HEIGHT), Color.GREEN);
+        assertEquals(Color.GREEN.getRGB(), painted.getRGB(12, 12));
+    }
+
+    @Test
+    void testThatZoomedPaintingReflectsCommittedChanges() {
+        BufferedImage initial = opaqueImage(WIDTH, HEIGHT);
+        JMonetCanvas uut = new JMonetCanvas(initial, 12);
+        Rectangle screen = new Rectangle(0, 0, WIDTH, HEIGHT);
+        uut.setScale(2);
+
+        paintComponent(uut, screen, Color.GREEN);
+
+        ImageLayerSet change = randomLayerSet();
+        uut.commit(change);
+
+        BufferedImage expected = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = expected.createGraphics();
+        g.setColor(Color.GREEN);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g.drawImage(uut.getCanvasImage(), 0, 0, WIDTH * 2, HEIGHT * 2, null);
+        g.dispose();
+
+        assertImagesEqual(expected, paintComponent(uut, screen, Color.GREEN));
+    }
+
+    @Test
+    void testThatOverlayIsPaintedAtScaleButNotRendered() {
+        BufferedImage initial = opaqueImage(WIDTH, HEIGHT);
+        JMonetCanvas uut = new JMonetCanvas(initial, 12);
+        Rectangle screen = new Rectangle(0, 0, WIDTH, HEIGHT);
+        Rectangle overlaid = new Rectangle(10, 8, 4, 3);
+
+        uut.addOverlay(new SurfaceOverlay() {
+            @Override
+            public void paint(GraphicsContext g) {
+                g.setColor(Color.RED);
+                g.fill(overlaid);
+            }
+
+            @Override
+            public Rectangle getBounds() {
+                return overlaid;
+            }
+        });
+
+        for (int scale = 1; scale <= 2; scale++) {
+            uut.setScale(scale);
+
+            for (boolean direct : new boolean[]{true, false}) {
+                uut.setDirectPaintEnabled(direct);
+                BufferedImage painted = paintComponent(uut, screen, Color.GREEN);
+
+                for (int y = 0; y < HEIGHT; y++) {
+                    for (int x = 0; x < WIDTH; x++) {
+                        int expected = overlaid.contains(x / scale, y / scale) ?
+                                Color.RED.getRGB() :
+                                initial.getRGB(x / scale, y / scale);
+                        assertEquals(expected, painted.getRGB(x, y), "Pixel mismatch at " + x + "," + y);
+                    }
+                }
+            }
+        }
+
+        assertImagesEqual(initial, uut.render());
+    }
+
+    @Test
+    void testThatAsyncTransformCommitsLikeSyncTransform() throws Exception {
+        BufferedImage initial = randomImage(WIDTH, HEIGHT);
+        JMonetCanvas expected = new JMonetCanvas(initial, 12);
+        JMonetCanvas uut = new JMonetCanvas(initial, 12);
+
+        expected.transform(new InvertPixelTransform());
+        TransformFuture future = uut.transformAsync(new InvertPixelTransform());
+        future.get(5, TimeUnit.SECONDS);
+        SwingUtilities.invokeAndWait(() -> {});
+
+        assertImagesEqual(expected.getCanvasImage(), uut.getCanvasImage());
+        assertTrue(uut.hasUndoableChanges());
+    }
+
+    @Test
+    void testThatAsyncTransformOfModifiedCanvasIsDiscarded() throws Exception {
+        BufferedImage initial = randomImage(WIDTH, HEIGHT);
+        JMonetCanvas uut = new JMonetCanvas(initial, 12);
+        CountDownLatch release = new CountDownLatch(1);
+
+        TransformFuture future = uut.transformAsync((StaticImageTransform) source -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return source;
+        });
+
+        ImageLayerSet change = randomLayerSet();
+        List<ImageLayerSet> committed = Collections.singletonList(copyOf(change));
+        SwingUtilities.invokeAndWait(() -> uut.commit(change));
+        release.countDown();
+
+        assertThrows(CancellationException.class, () -> future.get(5, TimeUnit.SECONDS));
+        SwingUtilities.invokeAndWait(() -> {});
+        assertImagesEqual(flatten(initial, committed, 12), uut.getCanvasImage());
+    }
+
+    /**
+     * Flattens the expected canvas image the way the canvas itself has always done: changes that have fallen out of the
+     * undo buffer are drawn onto a permanent image, which is then drawn beneath the remaining undoable changes.
+     */
+    private BufferedImage flatten(BufferedImage base, List<ImageLayerSet> changes, int undoDepth) {
+        int evicted = Math.max(0, changes.size() - undoDepth);
+
+        BufferedImage permanent = new BufferedImage(base.getWidth(), base.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        paint(new ImageLayerSet(base), permanent);
+        for (ImageLayerSet thisChange : changes.subList(0, evicted)) {
+            paint(thisChange, permanent);
+        }
+
+        BufferedImage flattened = new BufferedImage(base.getWidth(), base.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        paint(new ImageLayerSet(permanent), flattened);
+        for (ImageLayerSet thisChange : changes.subList(evicted, changes.size())) {
+            paint(thisChange, flattened);
+        }
+
+        return flattened;
+    }
+
+    private BufferedImage paintComponent(JMonetCanvas canvas, Rectangle clip, Color beneath) {
+        BufferedImage screen = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = screen.createGraphics();
+        g.setColor(beneath);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        g.setClip(clip);
+        canvas.paintComponent(g);
+        g.dispose();
+
+        return screen;
+    }
+
+    private BufferedImage opaqueImage(int width, int height) {
+        BufferedImage image = randomImage(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, image.getRGB(x, y) | 0xff000000);
+            }
+        }
+
+        return image;
+    }
+
+    private void paint(ImageLayerSet layerSet, BufferedImage destination) {
+        GraphicsContext g = new AwtGraphicsContext(destination.createGraphics());
+        layerSet.paint(g, 1.0, null);
+        g.dispose();
+    }
+
+    /**
+     * Copies a layer set; the canvas compacts the layer sets committed to it, so expectations must be computed from
+     * an independent copy.
+     */
+    private ImageLayerSet copyOf(ImageLayerSet layerSet) {
+        ImageLayerSet copy = new ImageLayerSet();
+        for (ImageLayer thisLayer : layerSet.getImageLayers()) {
+            copy.addLayer(thisLayer);
+        }
+
+        return copy;
+    }
+
+    private ImageLayer layerWithHashCode(BufferedImage image, int hashCode) {
+        return new ImageLayer(new Point(), image, AlphaComposite.SrcOver) {
+            @Override
+            public int hashCode() {
+                return hashCode;
+            }
+        };
+    }
+
+    private ImageLayerSet randomLayerSet() {
+        ImageLayerSet layerSet = new ImageLayerSet();
+
+        layerSet.addLayer(new ImageLayer(
+                new Point(random.nextInt(WIDTH / 2), random.nextInt(HEIGHT / 2)),
+                randomImage(1 + random.nextInt(WIDTH / 2), 1 + random.nextInt(HEIGHT / 2)),
+                AlphaComposite.getInstance(AlphaComposite.DST_OUT, 1.0f)));
+
+        layerSet.addLayer(new ImageLayer(
+                new Point(random.nextInt(WIDTH / 2), random.nextInt(HEIGHT / 2)),
+                randomImage(1 + random.nextInt(WIDTH / 2), 1 + random.nextInt(HEIGHT / 2)),
+                AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f)));
+
+        return layerSet;
+    }
+
+    private BufferedImage randomImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+
+        return image;
+    }
+
+    private void assertImagesEqual(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel mismatch at " + x + "," + y);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.defano.jmonet.canvas;
+
+import com.defano.jmonet.canvas.layer.ImageLayer;
+import com.defano.jmonet.canvas.layer.ImageLayerSet;
+import com.defano.jmonet.context.AwtGraphicsContext;
+import com.defano.jmonet.context.GraphicsContext;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScratchTest {
+
+    private final Scratch uut = new Scratch(40, 30);
+
+    @Test
+    void testThatClearErasesDirtyRegion() {
+        fill(uut.getAddScratchGraphics(null, new Rectangle(5, 5, 10, 10)), new Rectangle(5, 5, 10, 10));
+        fill(uut.getRemoveScratchGraphics(null, new Rectangle(20, 10, 10, 10)), new Rectangle(20, 10, 10, 10));
+
+        uut.clear();
+
+        assertNull(uut.getAddScratchLayer());
+        assertNull(uut.getRemoveScratchLayer());
+        assertTransparent(getAddScratchImage());
+        assertTransparent(getRemoveScratchImage());
+    }
+
+    @Test
+    void testThatClearErasesUnboundedDrawing() {
+        fill(uut.getAddScratchGraphics(null, null), uut.getBounds());
+
+        uut.clearAddScratch();
+
+        assertTransparent(getAddScratchImage());
+    }
+
+    @Test
+    void testThatClearDoesNotEraseProvidedImage() {
+        BufferedImage provided = new BufferedImage(40, 30, BufferedImage.TYPE_INT_ARGB);
+        fill(new AwtGraphicsContext(provided.createGraphics()), uut.getBounds());
+
+        uut.setAddScratch(provided, uut.getBounds());
+        uut.clearAddScratch();
+
+        assertEquals(Color.RED.getRGB(), provided.getRGB(20, 15));
+        assertTransparent(getAddScratchImage());
+    }
+
+    @Test
+    void testThatResizedScratchIsErasedOnClear() {
+        fill(uut.getAddScratchGraphics(null, new Rectangle(0, 0, 10, 10)), new Rectangle(0, 0, 10, 10));
+
+        uut.setSize(50, 50);
+        assertEquals(Color.RED.getRGB(), getAddScratchImage().getRGB(5, 5));
+
+        uut.clear();
+        assertTransparent(getAddScratchImage());
+    }
+
+    @Test
+    void testThatLayerSetCoversOnlyDirtiedTiles() {
+        Scratch uut = new Scratch(DirtyRegion.TILE_SIZE * 4, DirtyRegion.TILE_SIZE * 4);
+        fill(uut.getAddScratchGraphics(null, new Rectangle(0, 0, 10, 10)), new Rectangle(0, 0, 10, 10));
+        fill(uut.getAddScratchGraphics(null, new Rectangle(250, 250, 6, 6)), new Rectangle(250, 250, 6, 6));
+
+        ImageLayerSet layerSet = uut.getLayerSet();
+
+        assertEquals(2, layerSet.size());
+        assertEquals(new Rectangle(0, 0, 64, 64), layerSet.getImageLayers()[0].getBounds());
+        assertEquals(new Rectangle(192, 192, 64, 64), layerSet.getImageLayers()[1].getBounds());
+        assertEquals(new Rectangle(0, 0, 256, 256), uut.getDirtyRegion());
+    }
+
+    @Test
+    void testThatLayersAreUnchangedByClear() {
+        fill(uut.getAddScratchGraphics(null, new Rectangle(5, 5, 10, 10)), new Rectangle(5, 5, 10, 10));
+        fill(uut.getRemoveScratchGraphics(null, new Rectangle(20, 10, 10, 10)), new Rectangle(20, 10, 10, 10));
+
+        ImageLayer addLayer = uut.getAddScratchLayer();
+        ImageLayer removeLayer = uut.getRemoveScratchLayer();
+        ImageLayerSet layerSet = uut.getLayerSet();
+
+        uut.clear();
+        GraphicsContext g = uut.getAddScratchGraphics(null, uut.getBounds());
+        g.setColor(Color.BLUE);
+        g.fill(uut.getBounds());
+
+        assertEquals(Color.RED.getRGB(), addLayer.getImage().getRGB(0, 0));
+        assertEquals(Color.RED.getRGB(), removeLayer.getImage().getRGB(9, 9));
+        assertEquals(Color.RED.getRGB(), layerSet.getImageLayers()[1].getImage().getRGB(0, 0));
+    }
+
+    @Test
+    void testThatRecentlyDirtiedRegionIsTakenOnce() {
+        uut.getAddScratchGraphics(null, new Rectangle(0, 0, 10, 10));
+        uut.getRemoveScratchGraphics(null, new Rectangle(5, 5, 10, 10));
+
+        assertEquals(new Rectangle(0, 0, 15, 15), uut.takeRecentlyDirtiedRegion());
+        assertNull(uut.takeRecentlyDirtiedRegion());
+
+        uut.getAddScratchGraphics(null, new Rectangle(20, 20, 5, 5));
+        assertEquals(new Rectangle(20, 20, 5, 5), uut.takeRecentlyDirtiedRegion());
+    }
+
+    private BufferedImage getAddScratchImage() {
+        uut.getAddScratchGraphics(null, uut.getBounds());
+        return uut.getAddScratchLayer().getImage();
+    }
+
+    private BufferedImage getRemoveScratchImage() {
+        uut.getRemoveScratchGraphics(null, uut.getBounds());
+        return uut.getRemoveScratchLayer().getImage();
+    }
+
+    private void fill(GraphicsContext g, Rectangle rectangle) {
+        g.setColor(Color.RED);
+        g.fill(rectangle);
+    }
+
+    private void assertTransparent(BufferedImage image) {
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                assertEquals(0, image.getRGB(x, y), "Pixel not transparent at " + x + "," + y);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.defano.jmonet.canvas.layer;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageLayerSetTest {
+
+    @Test
+    void testThatSetsWithCollidingHashCodesAreNotEqual() {
+        ImageLayerSet a = new ImageLayerSet(layerWithHashCode(1));
+        ImageLayerSet b = new ImageLayerSet(layerWithHashCode(1));
+
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, b);
+    }
+
+    @Test
+    void testThatAddingLayerAdvancesModificationStamp() {
+        ImageLayerSet uut = new ImageLayerSet();
+        long stamp = uut.getModificationStamp();
+
+        uut.addLayer(layerWithHashCode(0));
+
+        assertTrue(uut.getModificationStamp() > stamp);
+    }
+
+    @Test
+    void testThatReplacingLayersRetainsModificationStamp() {
+        ImageLayerSet uut = new ImageLayerSet(layerWithHashCode(0));
+        long stamp = uut.getModificationStamp();
+
+        uut.replaceLayers(Collections.singletonList(layerWithHashCode(0)));
+
+        assertEquals(stamp, uut.getModificationStamp());
+    }
+
+    private ImageLayer layerWithHashCode(int hashCode) {
+        return new ImageLayer(new Point(), new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB), AlphaComposite.SrcOver) {
+            @Override
+            public int hashCode() {
+                return hashCode;
+            }
+        };
+    }
+}
@@ -0,0 +1,172 @@
+package com.defano.jmonet.canvas.layer;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LayerSetArchiveTest {
+
+    private final Random random = new Random(1234);
+
+    @Test
+    void testThatUnlimitedBudgetArchivesNothing() {
+        ImageLayer layer = new ImageLayer(randomImage(20, 20));
+        List<ImageLayerSet> history = historyOf(new ImageLayerSet(layer), new ImageLayerSet(randomImage(20, 20)));
+
+        LayerSetArchive uut = new LayerSetArchive(Long.MAX_VALUE);
+        uut.enforceBudget(history, 1);
+
+        assertSame(layer, history.get(0).getImageLayers()[0]);
+        assertEquals(2 * 20 * 20 * 4, uut.getMemoryUsage(history));
+    }
+
+    @Test
+    void testThatOldestLayerSetsAreCompressedWithinBudget() {
+        BufferedImage blank = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        List<ImageLayerSet> history = historyOf(new ImageLayerSet(blank), new ImageLayerSet(randomImage(100, 100)));
+
+        LayerSetArchive uut = new LayerSetArchive(100 * 100 * 4 + 1000);
+        uut.enforceBudget(history, 1);
+
+        assertTrue(uut.getMemoryUsage(history) <= uut.getMemoryBudget());
+        assertNotSame(blank, history.get(0).getImageLayers()[0].getImage());
+        assertEquals(new Dimension(100, 100), history.get(0).getSize());
+    }
+
+    @Test
+    void testThatNewestLayerSetsAreNeverArchived() {
+        ImageLayer layer = new ImageLayer(randomImage(20, 20));
+        List<ImageLayerSet> history = historyOf(new ImageLayerSet(randomImage(20, 20)), new ImageLayerSet(layer));
+
+        LayerSetArchive uut = new LayerSetArchive(0);
+        uut.enforceBudget(history, 1);
+
+        assertSame(layer, history.get(1).getImageLayers()[0]);
+        uut.close();
+    }
+
+    @Test
+    void testThatSpilledLayerSetsRestoreIdenticalPixels() {
+        BufferedImage image = randomImage(37, 23);
+        List<ImageLayerSet> history = historyOf(
+                new ImageLayerSet(new ImageLayer(new Point(3, 4), image, AlphaComposite.SrcOver)),
+                new ImageLayerSet(randomImage(10, 10)));
+
+        LayerSetArchive uut = new LayerSetArchive(0);
+        uut.enforceBudget(history, 1);
+
+        assertEquals(10 * 10 * 4, uut.getMemoryUsage(history));
+        assertImagesEqual(image, history.get(0).getImageLayers()[0].getImage());
+        assertEquals(new Rectangle(3, 4, 37, 23), history.get(0).getBounds());
+
+        uut.release(history.get(0));
+        assertTrue(uut.getMemoryUsage(history) > 10 * 10 * 4);
+        assertImagesEqual(image, history.get(0).getImageLayers()[0].getImage());
+        uut.close();
+    }
+
+    @Test
+    void testThatReleasingSpilledLayerSetsShrinksSpillFile() throws IOException {
+        List<ImageLayerSet> history = historyOf(
+                new ImageLayerSet(randomImage(30, 30)),
+                new ImageLayerSet(randomImage(40, 40)),
+                new ImageLayerSet(randomImage(10, 10)));
+
+        LayerSetArchive uut = new LayerSetArchive(0);
+        uut.enforceBudget(history, 1);
+        long spilledLength = uut.getSpillFileLength();
+        assertTrue(spilledLength > 0);
+
+        // Space freed before the end of the file is retained until the space after it is freed as well
+        uut.release(history.get(0));
+        assertEquals(spilledLength, uut.getSpillFileLength());
+
+        uut.release(history.get(1));
+        assertEquals(0, uut.getSpillFileLength());
+        uut.close();
+    }
+
+    @Test
+    void testThatSpilledLayerSetsCannotBeRestoredAfterClose() {
+        List<ImageLayerSet> history = historyOf(new ImageLayerSet(randomImage(20, 20)), new ImageLayerSet(randomImage(10, 10)));
+
+        LayerSetArchive uut = new LayerSetArchive(0);
+        uut.enforceBudget(history, 1);
+        uut.close();
+
+        assertThrows(IllegalStateException.class, () -> history.get(0).getImageLayers()[0].getImage());
+    }
+
+    @Test
+    void testThatSharedImagesAreArchivedOnce() {
+        BufferedImage image = randomImage(20, 20);
+        ImageLayerSet shared = new ImageLayerSet();
+        shared.addLayer(new ImageLayer(new Point(0, 0), image, AlphaComposite.SrcOver));
+        shared.addLayer(new ImageLayer(new Point(20, 0), image, AlphaComposite.DstOut));
+        List<ImageLayerSet> history = historyOf(shared, new ImageLayerSet(randomImage(1, 1)));
+
+        LayerSetArchive uut = new LayerSetArchive(100);
+        uut.enforceBudget(history, 1);
+
+        assertSame(history.get(0).getImageLayers()[0].getSharedImage(), history.get(0).getImageLayers()[1].getSharedImage());
+        assertEquals(AlphaComposite.DstOut, history.get(0).getImageLayers()[1].getComposite());
+        uut.close();
+    }
+
+    @Test
+    void testThatImagesSharedAcrossLayerSetsAreArchivedOnce() {
+        BufferedImage image = randomImage(20, 20);
+        List<ImageLayerSet> history = historyOf(
+                new ImageLayerSet(new ImageLayer(image)),
+                new ImageLayerSet(new ImageLayer(new Point(5, 5), image, AlphaComposite.SrcOver)),
+                new ImageLayerSet(randomImage(1, 1)));
+        assertEquals(20 * 20 * 4 + 4, new LayerSetArchive(0).getMemoryUsage(history));
+
+        LayerSetArchive uut = new LayerSetArchive(0);
+        uut.enforceBudget(history, 1);
+
+        assertSame(history.get(0).getImageLayers()[0].getSharedImage(), history.get(1).getImageLayers()[0].getSharedImage());
+        assertEquals(4, uut.getMemoryUsage(history));
+        assertImagesEqual(image, history.get(1).getImageLayers()[0].getImage());
+        uut.close();
+    }
+
+    private List<ImageLayerSet> historyOf(ImageLayerSet... layerSets) {
+        List<ImageLayerSet> history = new ArrayList<>();
+        for (ImageLayerSet thisLayerSet : layerSets) {
+            history.add(thisLayerSet);
+        }
+
+        return history;
+    }
+
+    private BufferedImage randomImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+
+        return image;
+    }
+
+    private void assertImagesEqual(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel mismatch at " + x + "," + y);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.defano.jmonet.canvas.layer;
+
+import com.defano.jmonet.context.AwtGraphicsContext;
+import com.defano.jmonet.context.GraphicsContext;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LayerTileStoreTest {
+
+    @Test
+    void testThatTransparentTilesAreDiscarded() {
+        BufferedImage image = new BufferedImage(40, 40, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(25, 35, Color.RED.getRGB());
+
+        ImageLayerSet uut = new ImageLayerSet(new ImageLayer(new Point(5, 5), image, AlphaComposite.SrcOver));
+        new LayerTileStore(10).compact(uut);
+
+        assertEquals(1, uut.size());
+        assertEquals(new Rectangle(25, 35, 10, 10), uut.getBounds());
+    }
+
+    @Test
+    void testThatIdenticalTilesShareStorage() {
+        BufferedImage image = new BufferedImage(20, 10, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.BLUE);
+        g.fillRect(0, 0, 20, 10);
+        g.dispose();
+
+        ImageLayerSet uut = new ImageLayerSet(image);
+        new LayerTileStore(10).compact(uut);
+
+        assertEquals(2, uut.size());
+        assertSame(uut.getImageLayers()[0].getSharedImage(), uut.getImageLayers()[1].getSharedImage());
+    }
+
+    @Test
+    void testThatSharedTilesCannotBeModified() {
+        BufferedImage image = new BufferedImage(20, 10, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.BLUE);
+        g.fillRect(0, 0, 20, 10);
+        g.dispose();
+
+        ImageLayerSet uut = new ImageLayerSet(image);
+        new LayerTileStore(10).compact(uut);
+        uut.getImageLayers()[0].getImage().setRGB(0, 0, Color.RED.getRGB());
+
+        assertEquals(Color.BLUE.getRGB(), uut.getImageLayers()[0].getImage().getRGB(0, 0));
+        assertEquals(Color.BLUE.getRGB(), uut.getImageLayers()[1].getImage().getRGB(0, 0));
+    }
+
+    @Test
+    void testThatUntileableLayersAreRetained() {
+        BufferedImage image = new BufferedImage(20, 20, BufferedImage.TYPE_INT_RGB);
+        ImageLayer layer = new ImageLayer(image);
+
+        ImageLayerSet uut = new ImageLayerSet(layer);
+        new LayerTileStore(10).compact(uut);
+
+        assertEquals(1, uut.size());
+        assertSame(layer, uut.getImageLayers()[0]);
+    }
+
+    @Test
+    void testThatCompactedLayersRenderIdenticalImage() {
+        BufferedImage image = new BufferedImage(37, 23, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, x < 12 ? 0 : (x * 7919 + y * 104729) | 0x20000000);
+            }
+        }
+
+        ImageLayerSet original = new ImageLayerSet(new ImageLayer(new Point(3, 4), image, AlphaComposite.SrcOver));
+        ImageLayerSet uut = new ImageLayerSet(new ImageLayer(new Point(3, 4), image, AlphaComposite.SrcOver));
+        new LayerTileStore(8).compact(uut);
+
+        BufferedImage expected = render(original);
+        BufferedImage actual = render(uut);
+
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+
+    private BufferedImage render(ImageLayerSet layerSet) {
+        BufferedImage rendering = new BufferedImage(50, 50, BufferedImage.TYPE_INT_ARGB);
+        rendering.setRGB(20, 20, Color.GREEN.getRGB());
+
+        GraphicsContext g = new AwtGraphicsContext(rendering.createGraphics());
+        layerSet.paint(g, 1.0, null);
+        g.dispose();
+
+        return rendering;
+    }
+}
@@ -0,0 +1,137 @@
+package com.defano.jmonet.canvas.layer;
+
+import com.defano.jmonet.context.AwtGraphicsContext;
+import com.defano.jmonet.context.GraphicsContext;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MagnifiedImageCacheTest {
+
+    private final Random random = new Random(1234);
+
+    @Test
+    void testThatCachedPaintingMatchesScaledPainting() {
+        BufferedImage image = randomImage(37, 29);
+        MagnifiedImageCache uut = new MagnifiedImageCache(50, 100);
+        Rectangle[] clips = {
+                new Rectangle(0, 0, 37 * 3, 29 * 3),
+                new Rectangle(7, 5, 40, 33),
+                new Rectangle(49, 50, 61, 20),
+                new Rectangle(100, 80, 60, 60)
+        };
+
+        for (Rectangle thisClip : clips) {
+            assertImagesEqual(
+                    paint(new ImageLayer(image), 3, thisClip),
+                    paint(uut.getImageLayer(image, 3), 3, thisClip));
+        }
+
+        assertTrue(uut.getTileCount() > 0);
+    }
+
+    @Test
+    void testThatCachedTiledBufferPaintingMatchesScaledPainting() {
+        BufferedImage image = randomImage(37, 29);
+        TiledBuffer buffer = new TiledBuffer(37, 29, 8, 0);
+        buffer.draw(new ImageLayer(new Point(), image, AlphaComposite.Src), null);
+
+        MagnifiedImageCache uut = new MagnifiedImageCache(50, 100);
+        Rectangle[] clips = {
+                new Rectangle(0, 0, 37 * 3, 29 * 3),
+                new Rectangle(7, 5, 40, 33),
+                new Rectangle(49, 50, 61, 20)
+        };
+
+        for (Rectangle thisClip : clips) {
+            assertImagesEqual(
+                    paint(new ImageLayer(image), 3, thisClip),
+                    paint(uut.getImageLayer(buffer, 3), 3, thisClip));
+        }
+    }
+
+    @Test
+    void testThatInvalidatingRegionDiscardsOnlyAffectedTiles() {
+        BufferedImage image = randomImage(40, 40);
+        MagnifiedImageCache uut = new MagnifiedImageCache(40, 100);
+        Rectangle clip = new Rectangle(0, 0, 160, 160);
+
+        paint(uut.getImageLayer(image, 4), 4, clip);
+        assertEquals(16, uut.getTileCount());
+
+        image.setRGB(2, 2, Color.RED.getRGB());
+        uut.invalidate(new Rectangle(2, 2, 1, 1));
+        assertEquals(15, uut.getTileCount());
+
+        assertImagesEqual(paint(new ImageLayer(image), 4, clip), paint(uut.getImageLayer(image, 4), 4, clip));
+    }
+
+    @Test
+    void testThatChangingImageOrScaleClearsCache() {
+        BufferedImage image = randomImage(20, 20);
+        MagnifiedImageCache uut = new MagnifiedImageCache(16, 100);
+        Rectangle clip = new Rectangle(0, 0, 40, 40);
+
+        paint(uut.getImageLayer(image, 2), 2, clip);
+        assertTrue(uut.getTileCount() > 0);
+
+        uut.getImageLayer(image, 4);
+        assertEquals(0, uut.getTileCount());
+
+        paint(uut.getImageLayer(image, 4), 4, clip);
+        assertTrue(uut.getTileCount() > 0);
+
+        uut.getImageLayer(randomImage(20, 20), 4);
+        assertEquals(0, uut.getTileCount());
+    }
+
+    @Test
+    void testThatCacheIsBoundedByMaxTiles() {
+        BufferedImage image = randomImage(40, 40);
+        MagnifiedImageCache uut = new MagnifiedImageCache(10, 5);
+        Rectangle clip = new Rectangle(0, 0, 80, 80);
+
+        assertImagesEqual(paint(new ImageLayer(image), 2, clip), paint(uut.getImageLayer(image, 2), 2, clip));
+        assertEquals(5, uut.getTileCount());
+    }
+
+    private BufferedImage paint(ImageLayer layer, double scale, Rectangle clip) {
+        BufferedImage destination = new BufferedImage(clip.width, clip.height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = destination.createGraphics();
+        g2d.setColor(Color.GREEN);
+        g2d.fillRect(0, 0, clip.width, clip.height);
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+
+        GraphicsContext g = new AwtGraphicsContext(g2d);
+        layer.paint(g, scale, clip);
+        g.dispose();
+
+        return destination;
+    }
+
+    private BufferedImage randomImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+
+        return image;
+    }
+
+    private void assertImagesEqual(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel mismatch at " + x + "," + y);
+            }
+        }
+    }
+}
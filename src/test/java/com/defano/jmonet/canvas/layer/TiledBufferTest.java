@@ -0,0 +1,170 @@
+package com.defano.jmonet.canvas.layer;
+
+import com.defano.jmonet.context.AwtGraphicsContext;
+import com.defano.jmonet.context.GraphicsContext;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TiledBufferTest {
+
+    @Test
+    void testThatTransparentRegionsAllocateNoTiles() {
+        TiledBuffer uut = new TiledBuffer(100, 70, 16, 0);
+        BufferedImage image = new BufferedImage(100, 70, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(75, 15, Color.RED.getRGB());
+
+        uut.draw(new ImageLayer(image), null);
+
+        assertEquals(1, uut.getTileCount());
+        assertEquals(Color.RED.getRGB(), uut.getTile(4, 0).getRGB(11, 15));
+        assertEquals(new Rectangle(96, 64, 4, 6), uut.getTileBounds(6, 4));
+    }
+
+    @Test
+    void testThatTiledBufferRendersLikeContiguousImage() {
+        ImageLayerSet layers = new ImageLayerSet();
+        layers.addLayer(new ImageLayer(new Point(3, 7), patternedImage(70, 45), AlphaComposite.SrcOver));
+        layers.addLayer(new ImageLayer(new Point(20, 11), patternedImage(33, 61), AlphaComposite.DstOut));
+        layers.addLayer(new ImageLayer(new Point(41, 2), patternedImage(25, 25), AlphaComposite.SrcOver));
+
+        BufferedImage expected = new BufferedImage(90, 80, BufferedImage.TYPE_INT_ARGB);
+        paint(layers, expected, 1.0, null);
+
+        TiledBuffer uut = new TiledBuffer(90, 80, 16, 0);
+        uut.draw(layers, null);
+
+        assertSamePixels(expected, uut.asBufferedImage());
+
+        BufferedImage zoomedExpected = new BufferedImage(90 * 3, 80 * 3, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage zoomedActual = new BufferedImage(90 * 3, 80 * 3, BufferedImage.TYPE_INT_ARGB);
+        Rectangle clip = new Rectangle(17, 29, 200, 150);
+        paint(new ImageLayerSet(new ImageLayer(expected)), zoomedExpected, 3.0, clip);
+        paint(new ImageLayerSet(uut.getImageLayer()), zoomedActual, 3.0, clip);
+
+        assertSamePixels(zoomedExpected, zoomedActual);
+    }
+
+    @Test
+    void testThatCopySharesTilesUntilModified() {
+        TiledBuffer uut = new TiledBuffer(64, 64, 16, 0);
+        uut.draw(new ImageLayer(filledImage(32, 16, Color.BLUE)), null);
+
+        TiledBuffer copy = uut.copy();
+        assertSame(uut.getTile(0, 0), copy.getTile(0, 0));
+
+        uut.draw(new ImageLayer(new Point(), filledImage(8, 8, Color.RED), AlphaComposite.Src), null);
+
+        assertNotSame(uut.getTile(0, 0), copy.getTile(0, 0));
+        assertSame(uut.getTile(1, 0), copy.getTile(1, 0));
+        assertEquals(Color.RED.getRGB(), uut.asBufferedImage().getRGB(0, 0));
+        assertEquals(Color.BLUE.getRGB(), copy.asBufferedImage().getRGB(0, 0));
+    }
+
+    @Test
+    void testThatClearReleasesCoveredTiles() {
+        TiledBuffer uut = new TiledBuffer(64, 64, 16, 4);
+        uut.draw(new ImageLayer(filledImage(64, 64, Color.BLUE)), null);
+        assertEquals(16, uut.getTileCount());
+
+        uut.clear(new Rectangle(0, 0, 40, 64));
+
+        assertEquals(8, uut.getTileCount());
+        assertNull(uut.getTile(1, 3));
+        assertEquals(0, uut.asBufferedImage().getRGB(39, 10));
+        assertEquals(Color.BLUE.getRGB(), uut.asBufferedImage().getRGB(40, 10));
+    }
+
+    @Test
+    void testThatImageAdapterReadsAndWritesTiles() {
+        TiledBuffer uut = new TiledBuffer(50, 50, 16, 0);
+        BufferedImage view = uut.asBufferedImage();
+
+        view.setRGB(20, 40, Color.GREEN.getRGB());
+        view.setRGB(0, 0, 0);
+
+        assertEquals(1, uut.getTileCount());
+        assertEquals(Color.GREEN.getRGB(), uut.getTile(1, 2).getRGB(4, 8));
+
+        BufferedImage copy = uut.toBufferedImage();
+        assertEquals(BufferedImage.TYPE_INT_ARGB, copy.getType());
+        assertSamePixels(copy, view);
+    }
+
+    @Test
+    void testThatGraphicsContextDrawsAcrossTiles() {
+        BufferedImage expected = new BufferedImage(100, 60, BufferedImage.TYPE_INT_ARGB);
+        TiledBuffer uut = new TiledBuffer(100, 60, 16, 0);
+
+        draw(new AwtGraphicsContext(expected.createGraphics()));
+        GraphicsContext g = uut.createGraphics();
+        draw(g);
+        g.dispose();
+
+        assertSamePixels(expected, uut.asBufferedImage());
+    }
+
+    @Test
+    void testThatDrawingBoundsLimitAllocatedTiles() {
+        TiledBuffer uut = new TiledBuffer(100, 100, 16, 0);
+        TiledGraphicsContext g = uut.createGraphics();
+        g.setDrawingBounds(new Rectangle(0, 0, 10, 10));
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, 100, 100);
+        g.dispose();
+
+        assertEquals(1, uut.getTileCount());
+    }
+
+    private void draw(GraphicsContext g) {
+        g.setColor(Color.RED);
+        g.fillRect(5, 5, 40, 30);
+        g.translate(10, 3);
+        g.setStroke(new BasicStroke(5));
+        g.setColor(Color.BLUE);
+        g.draw(new Ellipse2D.Double(20, 10, 60, 40));
+        g.setClip(new Rectangle(30, 0, 25, 60));
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 20, 100, 5);
+    }
+
+    private void paint(LayeredImage image, BufferedImage destination, double scale, Rectangle clip) {
+        GraphicsContext g = new AwtGraphicsContext(destination.createGraphics());
+        if (clip != null) {
+            g.translate(clip.x, clip.y);
+        }
+        image.paint(g, scale, clip);
+        g.dispose();
+    }
+
+    private void assertSamePixels(BufferedImage expected, BufferedImage actual) {
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel mismatch at " + x + "," + y);
+            }
+        }
+    }
+
+    private BufferedImage filledImage(int width, int height, Color color) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        return image;
+    }
+
+    private BufferedImage patternedImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, (x * 7 + y * 13) % 5 == 0 ? 0 : new Color(x * 3 % 256, y * 5 % 256, 128).getRGB());
+            }
+        }
+        return image;
+    }
+}
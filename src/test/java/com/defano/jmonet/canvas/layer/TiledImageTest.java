@@ -0,0 +1,98 @@
+package com.defano.jmonet.canvas.layer;
+
+import com.defano.jmonet.context.AwtGraphicsContext;
+import com.defano.jmonet.context.GraphicsContext;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TiledImageTest {
+
+    @Test
+    void testThatTransparentRegionsAllocateNoTiles() {
+        BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(75, 15, Color.RED.getRGB());
+
+        TiledImage uut = new TiledImage(50);
+        uut.draw(new ImageLayer(image));
+
+        assertEquals(1, uut.getTileCount());
+        assertNotNull(uut.getTile(1, 0));
+        assertEquals(Color.RED.getRGB(), uut.getTile(1, 0).getRGB(25, 15));
+        assertEquals(new Rectangle(50, 0, 50, 50), uut.getBounds());
+    }
+
+    @Test
+    void testThatErasingEmptyTilesAllocatesNothing() {
+        BufferedImage image = filledImage(100, 100, Color.BLUE);
+
+        TiledImage uut = new TiledImage(50);
+        uut.draw(new ImageLayer(new Point(), image, AlphaComposite.DstOut));
+
+        assertEquals(0, uut.getTileCount());
+    }
+
+    @Test
+    void testThatErasedTilesAreReleased() {
+        TiledImage uut = new TiledImage(50);
+        uut.draw(new ImageLayer(filledImage(100, 50, Color.BLUE)));
+        assertEquals(2, uut.getTileCount());
+
+        uut.draw(new ImageLayer(new Point(), filledImage(50, 50, Color.BLACK), AlphaComposite.DstOut));
+
+        assertEquals(1, uut.getTileCount());
+        assertNull(uut.getTile(0, 0));
+    }
+
+    @Test
+    void testThatTiledImageRendersLikeContiguousImage() {
+        ImageLayerSet layers = new ImageLayerSet();
+        layers.addLayer(new ImageLayer(new Point(3, 7), patternedImage(70, 45), AlphaComposite.SrcOver));
+        layers.addLayer(new ImageLayer(new Point(20, 11), patternedImage(33, 61), AlphaComposite.DstOut));
+        layers.addLayer(new ImageLayer(new Point(41, 2), patternedImage(25, 25), AlphaComposite.SrcOver));
+
+        BufferedImage expected = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        paint(layers, expected);
+
+        TiledImage uut = new TiledImage(16);
+        uut.draw(layers);
+        BufferedImage actual = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        paint(uut, actual);
+
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel mismatch at " + x + "," + y);
+            }
+        }
+    }
+
+    private void paint(LayeredImage image, BufferedImage destination) {
+        GraphicsContext g = new AwtGraphicsContext(destination.createGraphics());
+        image.paint(g, 1.0, null);
+        g.dispose();
+    }
+
+    private BufferedImage filledImage(int width, int height, Color color) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+
+        return image;
+    }
+
+    private BufferedImage patternedImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, (x * 7919 + y * 104729) | 0x30000000);
+            }
+        }
+
+        return image;
+    }
+}
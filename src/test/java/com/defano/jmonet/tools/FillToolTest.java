@@ -12,7 +12,13 @@ import org.mockito.Mockito;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Matchers.eq;
 
@@ -56,4 +62,37 @@ public class FillToolTest extends MockitoToolTest<FillTool> {
         Mockito.verify(mockCanvas).commit();
         Mockito.verify(mockCanvas).repaint();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testThatBackgroundFillIsDiscardedWhenCanvasIsModified() {
+        Mockito.when(mockToolAttributes.getBoundaryFunction()).thenReturn(mockBoundaryFunction);
+        Mockito.when(mockToolAttributes.getFillPaint()).thenReturn(Optional.of(Color.RED));
+        Mockito.when(mockToolAttributes.getFillFunction()).thenReturn(mockFillFunction);
+        Mockito.when(mockCanvas.getCanvasImage()).thenReturn(new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB));
+        Mockito.when(mockCanvas.getCanvasSize()).thenReturn(new Dimension(10, 10));
+        Mockito.when(mockCanvas.getModificationStamp()).thenReturn(1L, 2L);
+
+        uut.setFillInBackground(true);
+        uut.mousePressed(null, new Point());
+
+        assertThrows(CancellationException.class, () -> uut.getBackgroundFill().get(5, TimeUnit.SECONDS));
+        Mockito.verify(mockCanvas, Mockito.never()).commit();
+    }
+
+    @Test
+    public void testThatBackgroundFillFailureIsReported() {
+        Mockito.when(mockToolAttributes.getBoundaryFunction()).thenReturn(mockBoundaryFunction);
+        Mockito.when(mockToolAttributes.getFillPaint()).thenReturn(Optional.of(Color.RED));
+        Mockito.when(mockToolAttributes.getFillFunction()).thenReturn(mockFillFunction);
+        Mockito.when(mockBoundaryFunction.isBoundary(any(), any(), anyInt(), anyInt())).thenThrow(new IllegalArgumentException());
+        Mockito.when(mockCanvas.getCanvasImage()).thenReturn(new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB));
+        Mockito.when(mockCanvas.getCanvasSize()).thenReturn(new Dimension(10, 10));
+
+        uut.setFillInBackground(true);
+        uut.mousePressed(null, new Point());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> uut.getBackgroundFill().get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+        Mockito.verify(mockCanvas, Mockito.never()).commit();
+    }
+}
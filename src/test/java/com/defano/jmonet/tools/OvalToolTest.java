@@ -0,0 +1,63 @@
+package com.defano.jmonet.tools;
+
+import com.defano.jmonet.canvas.Scratch;
+import com.defano.jmonet.tools.base.MockitoToolTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Matchers.eq;
+
+public class OvalToolTest extends MockitoToolTest<OvalTool> {
+
+    @BeforeEach
+    public void setUp() {
+        initialize(new OvalTool());
+    }
+
+    @Test
+    public void testThatOvalIsStroked() {
+        Rectangle bounds = new Rectangle(1, 2, 3, 4);
+        Paint paint = Color.black;
+        Stroke stroke = new BasicStroke(1);
+
+        uut.strokeBounds(mockScratch, stroke, paint, bounds, false);
+
+        Mockito.verify(mockScratch).getAddScratchGraphics(eq(uut), eq(stroke), argThat(matchesShape(new Ellipse2D.Float(1, 2, 3, 4))));
+        Mockito.verify(mockAddScratchGraphics).setStroke(stroke);
+        Mockito.verify(mockAddScratchGraphics).setPaint(paint);
+    }
+
+    @Test
+    public void testThatOvalIsFilledWithinBounds() {
+        Rectangle bounds = new Rectangle(1, 2, 3, 4);
+        Paint fill = Color.black;
+
+        uut.fillBounds(mockScratch, fill, bounds, false);
+
+        Mockito.verify(mockScratch).getAddScratchGraphics(eq(uut), argThat(matchesShape(bounds)));
+        Mockito.verify(mockAddScratchGraphics).setPaint(fill);
+        Mockito.verify(mockAddScratchGraphics).fillOval(1, 2, 3, 4);
+    }
+
+    @Test
+    public void testThatClearErasesFilledOval() {
+        Scratch scratch = new Scratch(40, 30);
+        Mockito.when(mockCanvas.getScratch()).thenReturn(scratch);
+        Rectangle bounds = new Rectangle(2, 3, 6, 5);
+
+        uut.fillBounds(uut.getScratch(), Color.black, bounds, false);
+        assertEquals(Color.black.getRGB(), scratch.getAddScratchLayer().getImage().getRGB(3, 2));
+
+        scratch.clear();
+
+        assertNull(scratch.getAddScratchLayer());
+        scratch.getAddScratchGraphics(null, bounds);
+        assertEquals(0, scratch.getAddScratchLayer().getImage().getRGB(3, 2));
+    }
+}
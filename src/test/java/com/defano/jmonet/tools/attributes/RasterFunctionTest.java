@@ -0,0 +1,96 @@
+package com.defano.jmonet.tools.attributes;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RasterFunctionTest {
+
+    private final Random random = new Random(1234);
+
+    @Test
+    void testThatDefaultFunctionsAreReplacedWithRasterDefaults() {
+        assertSame(RasterBoundaryFunction.DEFAULT, RasterBoundaryFunction.of(new BoundaryFunction() {}));
+        assertSame(RasterFillFunction.DEFAULT, RasterFillFunction.of(new FillFunction() {}));
+
+        assertNull(RasterBoundaryFunction.of(new BoundaryFunction() {
+            @Override
+            public boolean isBoundary(BufferedImage canvas, BufferedImage scratch, int x, int y) {
+                return false;
+            }
+        }));
+
+        assertNull(RasterFillFunction.of(new FillFunction() {
+            @Override
+            public void fill(BufferedImage image, int x, int y, Paint fillPaint) {
+            }
+        }));
+
+        RasterFillFunction custom = (pixels, offset, stride, x, y, length, fillPaint) -> {};
+        assertSame(custom, RasterFillFunction.of(custom));
+    }
+
+    @Test
+    void testThatDefaultRasterBoundaryMatchesDefaultBoundary() {
+        BufferedImage canvas = randomImage(8, 8);
+        BufferedImage scratch = randomImage(8, 8);
+        BoundaryFunction expected = new BoundaryFunction() {};
+
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                assertEquals(expected.isBoundary(canvas, scratch, x, y), RasterBoundaryFunction.DEFAULT.isBoundary(canvas, scratch, x, y));
+            }
+        }
+    }
+
+    @Test
+    void testThatDefaultRasterFillMatchesDefaultFill() {
+        BufferedImage texture = randomImage(3, 5);
+        Paint[] paints = {Color.ORANGE, new TexturePaint(texture, new Rectangle(0, 0, 3, 5))};
+
+        for (Paint thisPaint : paints) {
+            BufferedImage expected = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+            BufferedImage actual = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+            int[] rows = new int[2 + 12 * 10];
+
+            for (int y = 0; y < 10; y++) {
+                for (int x = 0; x < 10; x++) {
+                    new FillFunction() {}.fill(expected, x, y, thisPaint);
+                    RasterFillFunction.DEFAULT.fill(actual, x, y, thisPaint);
+                }
+
+                RasterFillFunction.DEFAULT.fill(rows, 2, 12, 0, y, 10, new RasterPaint(thisPaint));
+            }
+
+            for (int y = 0; y < 10; y++) {
+                for (int x = 0; x < 10; x++) {
+                    assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+                    assertEquals(expected.getRGB(x, y), rows[2 + y * 12 + x]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testThatUnresolvablePaintCannotFill() {
+        RasterPaint uut = new RasterPaint(new GradientPaint(0, 0, Color.RED, 10, 10, Color.BLUE));
+
+        assertFalse(uut.isResolved());
+        assertThrows(IllegalArgumentException.class, () -> uut.fill(new int[1], 0, 0, 0, 1));
+    }
+
+    private BufferedImage randomImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextBoolean() ? 0 : random.nextInt());
+            }
+        }
+
+        return image;
+    }
+}
@@ -92,8 +92,9 @@ class BasicToolTest extends BaseToolTest<BasicTool> {
         uut.activate(mockCanvas);
         assertEquals(mockScratch, uut.getScratch());
 
-        Mockito.verify(mockAddScratch).setAntialiasingMode(expectedInterpolation);
-        Mockito.verify(mockRemoveScratch).setAntialiasingMode(expectedInterpolation);
+        Mockito.verify(mockScratch).setAntialiasingMode(expectedInterpolation);
+        Mockito.verify(mockScratch, Mockito.never()).getAddScratchGraphics(any(), any());
+        Mockito.verify(mockScratch, Mockito.never()).getRemoveScratchGraphics(any(), any());
     }
 
 }
\ No newline at end of file
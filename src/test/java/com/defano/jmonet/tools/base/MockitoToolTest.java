@@ -37,6 +37,7 @@ public abstract class MockitoToolTest<T extends BasicTool> extends MockitoTest {
         this.uut.activate(mockCanvas);
 
         Mockito.when(mockCanvas.getCanvasImage()).thenReturn(mockCanvasImage);
+        Mockito.when(mockCanvas.getLiveCanvasImage()).thenReturn(mockCanvasImage);
         Mockito.when(mockCanvas.getScratch()).thenReturn(mockScratch);
 
         // Provide mock add scratch
@@ -44,7 +44,7 @@ class PathToolTest extends BaseToolTest<PathTool> {
 
         Mockito.when(mockToolAttributes.getStroke()).thenReturn( mockStroke);
         Mockito.when(mockToolAttributes.getStrokePaint()).thenReturn(mockPaint);
-        Mockito.when(mockScratch.getDirtyRegion()).thenReturn(mockRegion);
+        Mockito.when(mockScratch.takeRecentlyDirtiedRegion()).thenReturn(mockRegion);
 
         uut.mousePressed(mockEvent, mockPoint);
 
@@ -60,7 +60,7 @@ class PathToolTest extends BaseToolTest<PathTool> {
 
         Mockito.when(mockToolAttributes.getStroke()).thenReturn( mockStroke);
         Mockito.when(mockToolAttributes.getStrokePaint()).thenReturn(mockPaint);
-        Mockito.when(mockScratch.getDirtyRegion()).thenReturn(mockRegion);
+        Mockito.when(mockScratch.takeRecentlyDirtiedRegion()).thenReturn(mockRegion);
 
         uut.activate(mockCanvas);
         uut.setDelegate(mockDelegate);
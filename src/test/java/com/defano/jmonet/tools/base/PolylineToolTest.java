@@ -98,5 +98,48 @@ class PolylineToolTest extends BaseToolTest<PolylineTool> {
         Mockito.verify(mockCanvas).repaint();
     }
 
+    @Test
+    void testThatOnlyRubberBandIsRedrawnWhenMouseMoves() {
+        Point firstPoint = new Point(10, 10);
+        Point secondPoint = new Point(20, 20);
+
+        Mockito.when(mockToolAttributes.getStroke()).thenReturn(mockStroke);
+        Mockito.when(mockToolAttributes.getStrokePaint()).thenReturn(mockPaint);
+        Mockito.when(mockScratch.getSize()).thenReturn(new Dimension(100, 100));
+        Mockito.when(mockDelegate.getFixedPointCount(Mockito.anyInt()))
+                .thenAnswer(invocation -> (int) invocation.getArguments()[0] - 1);
+
+        uut.activate(mockCanvas);
+        uut.setDelegate(mockDelegate);
+        uut.mousePressed(mockEvent, firstPoint);
+        uut.mouseMoved(mockEvent, secondPoint);
+        uut.mousePressed(mockEvent, secondPoint);
+        uut.mouseMoved(mockEvent, new Point(30, 10));
+        uut.mouseMoved(mockEvent, new Point(40, 30));
+
+        Mockito.verify(mockDelegate).strokePolyline(
+                mockScratch,
+                mockStroke,
+                mockPaint,
+                new int[] {firstPoint.x, secondPoint.x},
+                new int[] {firstPoint.y, secondPoint.y});
+        Mockito.verify(mockDelegate).strokeRubberBand(
+                mockScratch,
+                mockStroke,
+                mockPaint,
+                new int[] {secondPoint.x, 30},
+                new int[] {secondPoint.y, 10});
+        Mockito.verify(mockDelegate).strokeRubberBand(
+                mockScratch,
+                mockStroke,
+                mockPaint,
+                new int[] {secondPoint.x, 40},
+                new int[] {secondPoint.y, 30});
+
+        // Scratch is cleared when the line is first drawn, and when the fixed points change; not on every move
+        Mockito.verify(mockScratch, Mockito.times(2)).clear();
+        Mockito.verify(mockCanvas, Mockito.times(2)).repaint();
+        Mockito.verify(mockCanvas).repaint(Mockito.any(Rectangle.class));
+    }
 
-}
\ No newline at end of file
+}
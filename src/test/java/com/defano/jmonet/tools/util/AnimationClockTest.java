@@ -0,0 +1,121 @@
+package com.defano.jmonet.tools.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnimationClockTest {
+
+    private final AnimationClock uut = AnimationClock.getInstance();
+    private final List<Long> frames = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void testThatFramesAreDeliveredOnDispatchThread() throws Exception {
+        List<Boolean> onDispatchThread = Collections.synchronizedList(new ArrayList<>());
+        AnimationObserver observer = frameTimeMs -> {
+            onDispatchThread.add(SwingUtilities.isEventDispatchThread());
+            frames.add(frameTimeMs);
+        };
+
+        uut.addObserver(observer, 20, null);
+        Thread.sleep(300);
+        uut.removeObserver(observer);
+        SwingUtilities.invokeAndWait(() -> {});
+
+        assertTrue(frames.size() >= 3, "Expected at least 3 frames, got " + frames.size());
+        assertFalse(onDispatchThread.contains(false));
+        for (int index = 1; index < frames.size(); index++) {
+            assertTrue(frames.get(index) - frames.get(index - 1) >= 20);
+        }
+    }
+
+    @Test
+    void testThatTicksAreCoalescedWhileDispatchThreadIsBusy() throws Exception {
+        AnimationObserver observer = frames::add;
+        long[] unblockedAt = new long[1];
+
+        uut.addObserver(observer, 50, null);
+        SwingUtilities.invokeAndWait(() -> {
+            sleep(400);
+            unblockedAt[0] = System.nanoTime() / 1_000_000;
+        });
+        Thread.sleep(100);
+        uut.removeObserver(observer);
+        SwingUtilities.invokeAndWait(() -> {});
+
+        // Had ticks queued while the dispatch thread was blocked, several frames would be delivered at once
+        long backlog = frames.stream().filter(time -> time >= unblockedAt[0] && time < unblockedAt[0] + 25).count();
+        assertTrue(backlog <= 1, "Expected at most one frame after unblocking, got " + backlog);
+    }
+
+    @Test
+    void testThatClockPausesWhenComponentIsNotShowing() throws Exception {
+        AnimationObserver observer = frames::add;
+        Component hidden = new JPanel();
+
+        uut.addObserver(observer, 10, hidden);
+        Thread.sleep(100);
+        SwingUtilities.invokeAndWait(() -> {});
+
+        assertFalse(uut.isRunning());
+        assertTrue(frames.isEmpty());
+        uut.removeObserver(observer);
+    }
+
+    @Test
+    void testThatClockStopsWhenLastObserverIsRemoved() throws Exception {
+        AnimationObserver observer = frames::add;
+
+        uut.addObserver(observer, 10, null);
+        assertTrue(uut.isRunning());
+
+        uut.removeObserver(observer);
+        SwingUtilities.invokeAndWait(() -> {});
+        assertFalse(uut.isRunning());
+
+        int count = frames.size();
+        Thread.sleep(50);
+        assertEquals(count, frames.size());
+    }
+
+    @Test
+    void testThatInvalidPeriodIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> uut.addObserver(frames::add, 0, null));
+    }
+
+    @Test
+    void testThatMarchingAntsPhaseWraps() throws Exception {
+        MarchingAnts ants = MarchingAnts.getInstance();
+        List<Float> phases = Collections.synchronizedList(new ArrayList<>());
+        MarchingAntsObserver observer = stroke -> phases.add(((BasicStroke) stroke).getDashPhase());
+
+        ants.setAnimationPeriodMs(5);
+        try {
+            ants.addObserver(observer);
+            Thread.sleep(300);
+            ants.removeObserver(observer);
+            SwingUtilities.invokeAndWait(() -> {});
+        } finally {
+            ants.setAnimationPeriodMs(50);
+        }
+
+        assertFalse(phases.isEmpty());
+        for (float thisPhase : phases) {
+            assertTrue(thisPhase >= 0 && thisPhase < ants.getAntLength() * 2, "Phase out of range: " + thisPhase);
+        }
+    }
+
+    private void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.defano.jmonet.tools.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DragPreviewTest {
+
+    private final List<BufferedImage> rendered = new ArrayList<>();
+    private final DragPreview uut = new DragPreview(rendered::add);
+
+    @Test
+    void testThatOnlyLatestPreviewIsRendered() throws Exception {
+        BufferedImage first = image(1);
+        BufferedImage second = image(2);
+        BufferedImage third = image(3);
+
+        SwingUtilities.invokeAndWait(() -> {
+            uut.preview(preview -> first);
+            uut.preview(preview -> second);
+            uut.preview(preview -> third);
+        });
+        SwingUtilities.invokeAndWait(() -> {});
+
+        assertEquals(1, rendered.size());
+        assertSame(third, rendered.get(0));
+    }
+
+    @Test
+    void testThatFinishRendersLatestAtFullQuality() throws Exception {
+        BufferedImage preview = image(1);
+        BufferedImage fullQuality = image(2);
+
+        SwingUtilities.invokeAndWait(() -> {
+            uut.preview(isPreview -> isPreview ? preview : fullQuality);
+            uut.finish();
+        });
+        SwingUtilities.invokeAndWait(() -> {});
+
+        assertEquals(1, rendered.size());
+        assertSame(fullQuality, rendered.get(0));
+
+        SwingUtilities.invokeAndWait(uut::finish);
+        assertEquals(1, rendered.size());
+    }
+
+    @Test
+    void testThatCancelDiscardsPreview() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            uut.preview(preview -> image(1));
+            uut.cancel();
+            uut.finish();
+        });
+        SwingUtilities.invokeAndWait(() -> {});
+
+        assertTrue(rendered.isEmpty());
+    }
+
+    @Test
+    void testThatSmallSourceIsItsOwnProxy() {
+        BufferedImage source = image(100);
+        uut.setSource(source);
+
+        assertSame(source, uut.getProxy());
+        assertEquals(1.0, uut.getProxyScale());
+    }
+
+    @Test
+    void testThatLargeSourceIsDownsampled() {
+        BufferedImage source = image(2000);
+        uut.setSource(source);
+
+        BufferedImage proxy = uut.getProxy();
+        assertTrue(proxy.getWidth() * proxy.getHeight() <= 512 * 512);
+        assertEquals(proxy.getWidth() / 2000.0, uut.getProxyScale());
+        assertSame(proxy, uut.getProxy());
+
+        uut.setSource(image(10));
+        assertNotSame(proxy, uut.getProxy());
+    }
+
+    private BufferedImage image(int size) {
+        return new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+    }
+}
@@ -0,0 +1,75 @@
+package com.defano.jmonet.tools.util;
+
+import com.defano.jmonet.context.AwtGraphicsContext;
+import com.defano.jmonet.context.GraphicsContext;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarchingAntsOverlayTest {
+
+    private final MarchingAntsOverlay uut = new MarchingAntsOverlay();
+
+    @Test
+    void testThatOverlayCoversPixelsOfFrameDrawnOnImage() {
+        Rectangle frame = new Rectangle(5, 4, 20, 12);
+        uut.setFrame(frame);
+
+        BufferedImage expected = new BufferedImage(32, 24, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = expected.createGraphics();
+        g.setColor(Color.BLACK);
+        g.draw(frame);
+        g.dispose();
+
+        for (int scale = 1; scale <= 3; scale++) {
+            BufferedImage painted = new BufferedImage(32 * scale, 24 * scale, BufferedImage.TYPE_INT_ARGB);
+            GraphicsContext overlayGraphics = new AwtGraphicsContext(painted.createGraphics());
+            overlayGraphics.scale(scale, scale);
+            uut.paint(overlayGraphics);
+            overlayGraphics.dispose();
+
+            for (int y = 0; y < painted.getHeight(); y++) {
+                for (int x = 0; x < painted.getWidth(); x++) {
+                    boolean isFrame = expected.getRGB(x / scale, y / scale) != 0;
+                    boolean isPainted = painted.getRGB(x, y) != 0;
+                    assertEquals(isFrame, isPainted, "Pixel mismatch at " + x + "," + y + " at scale " + scale);
+                    assertTrue(!isPainted || uut.getBounds().contains(x / scale, y / scale));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testThatFrameIsCopied() {
+        Rectangle frame = new Rectangle(5, 4, 20, 12);
+        uut.setFrame(frame);
+        Rectangle bounds = uut.getBounds();
+
+        frame.translate(10, 10);
+
+        assertEquals(bounds, uut.getBounds());
+        assertEquals(new Rectangle(5, 4, 20, 12), uut.getFrame().getBounds());
+    }
+
+    @Test
+    void testThatEmptyOverlayPaintsNothing() {
+        uut.setFrame(new Rectangle(5, 4, 20, 12));
+        uut.setFrame(null);
+
+        BufferedImage painted = new BufferedImage(32, 24, BufferedImage.TYPE_INT_ARGB);
+        GraphicsContext g = new AwtGraphicsContext(painted.createGraphics());
+        uut.paint(g);
+        g.dispose();
+
+        assertNull(uut.getBounds());
+        assertNull(uut.getFrame());
+        for (int y = 0; y < painted.getHeight(); y++) {
+            for (int x = 0; x < painted.getWidth(); x++) {
+                assertEquals(0, painted.getRGB(x, y));
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.defano.jmonet.transform.dither;
+
+import com.defano.jmonet.tools.util.ImageUtils;
+import com.defano.jmonet.transform.dither.quant.ColorReductionQuantizer;
+import com.defano.jmonet.transform.dither.quant.GrayscaleQuantizer;
+import com.defano.jmonet.transform.dither.quant.MonochromaticQuantizer;
+import com.defano.jmonet.transform.dither.quant.QuantizationFunction;
+import com.defano.jmonet.transform.image.TransformMonitor;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AbstractDithererTest {
+
+    private final Random random = new Random(1234);
+
+    private final AbstractDitherer[] ditherers = {
+            new AtkinsonDitherer(), new BurkesDitherer(), new FloydSteinbergDitherer(), new JarvisJudiceNinkeDitherer(),
+            new NullDitherer(), new SierraDitherer(), new SierraLiteDitherer(), new SierraTwoDitherer(), new StuckiDitherer()
+    };
+
+    private final QuantizationFunction[] quantizers = {
+            new ColorReductionQuantizer(2), new ColorReductionQuantizer(5), new GrayscaleQuantizer(4),
+            new GrayscaleQuantizer(256), new MonochromaticQuantizer()
+    };
+
+    @Test
+    void testThatKernelDitheringMatchesMatrixDithering() {
+        BufferedImage image = randomImage(73, 41);
+
+        for (AbstractDitherer thisDitherer : ditherers) {
+            DiffusionKernel kernel = thisDitherer.getKernel();
+
+            for (QuantizationFunction thisQuantizer : quantizers) {
+                assertImagesEqual(
+                        matrixDither(image, thisQuantizer, (matrix, x, y, qer, qeg, qeb) -> {
+                            for (int entry = 0; entry < kernel.size(); entry++) {
+                                distribute(matrix, x + kernel.getDx(entry), y + kernel.getDy(entry), qer, qeg, qeb, kernel.getFraction(entry));
+                            }
+                        }),
+                        thisDitherer.dither(image, thisQuantizer));
+            }
+        }
+    }
+
+    @Test
+    void testThatOverriddenDitherPixelMatchesMatrixDithering() {
+        BufferedImage image = randomImage(50, 30);
+        AbstractDitherer backwards = new AbstractDitherer() {
+            @Override
+            public void ditherPixel(int x, int y, double qer, double qeg, double qeb) {
+                distributeError(x - 1, y, qer, qeg, qeb, 0.3);
+                distributeError(x, y - 1, qer, qeg, qeb, 0.1);
+                distributeError(x + 3, y + 4, qer, qeg, qeb, 0.25);
+            }
+        };
+
+        assertImagesEqual(
+                matrixDither(image, quantizers[1], (matrix, x, y, qer, qeg, qeb) -> {
+                    distribute(matrix, x - 1, y, qer, qeg, qeb, 0.3);
+                    distribute(matrix, x, y - 1, qer, qeg, qeb, 0.1);
+                    distribute(matrix, x + 3, y + 4, qer, qeg, qeb, 0.25);
+                }),
+                backwards.dither(image, quantizers[1]));
+    }
+
+    @Test
+    void testThatDithererCanBeSharedAcrossThreads() {
+        BufferedImage[] images = IntStream.range(0, 8).mapToObj(i -> randomImage(60, 60)).toArray(BufferedImage[]::new);
+        AbstractDitherer uut = new StuckiDitherer();
+
+        BufferedImage[] sequential = IntStream.range(0, images.length)
+                .mapToObj(i -> uut.dither(images[i], quantizers[i % quantizers.length]))
+                .toArray(BufferedImage[]::new);
+        BufferedImage[] concurrent = IntStream.range(0, images.length).parallel()
+                .mapToObj(i -> uut.dither(images[i], quantizers[i % quantizers.length]))
+                .toArray(BufferedImage[]::new);
+
+        for (int index = 0; index < images.length; index++) {
+            assertImagesEqual(sequential[index], concurrent[index]);
+        }
+    }
+
+    @Test
+    void testThatParallelDitheringMatchesSequentialDithering() {
+        BufferedImage image = randomImage(300, 230);
+
+        for (AbstractDitherer thisDitherer : ditherers) {
+            QuantizationFunction quantizer = quantizers[random.nextInt(quantizers.length)];
+            assertImagesEqual(thisDitherer.dither(image, quantizer), thisDitherer.dither(image, quantizer, true));
+        }
+    }
+
+    @Test
+    void testThatParallelDitheringPropagatesQuantizerFailure() {
+        BufferedImage image = randomImage(300, 230);
+        QuantizationFunction failing = input -> {
+            if (input[0] > 0.999) {
+                throw new IllegalArgumentException("Unsupported color");
+            }
+            return quantizers[0].quantize(input);
+        };
+
+        assertThrows(RuntimeException.class, () -> new JarvisJudiceNinkeDitherer().dither(image, failing, true));
+    }
+
+    @Test
+    void testThatDitheringStopsWhenCancelled() {
+        BufferedImage image = randomImage(300, 230);
+        AtomicInteger rows = new AtomicInteger();
+        TransformMonitor cancelledAfterTenRows = new TransformMonitor() {
+            @Override
+            public void setProgress(double progress) {
+                rows.incrementAndGet();
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return rows.get() >= 10;
+            }
+        };
+
+        for (boolean parallel : new boolean[]{false, true}) {
+            rows.set(0);
+            assertThrows(CancellationException.class, () -> new FloydSteinbergDitherer().dither(image, quantizers[0], parallel, cancelledAfterTenRows));
+            assertTrue(rows.get() < image.getHeight());
+        }
+    }
+
+    @Test
+    void testThatDitheringReportsProgress() {
+        AbstractDitherer overridden = new FloydSteinbergDitherer() {
+            @Override
+            public void ditherPixel(int x, int y, double qer, double qeg, double qeb) {
+                super.ditherPixel(x, y, qer, qeg, qeb);
+            }
+        };
+
+        for (AbstractDitherer thisDitherer : new AbstractDitherer[]{new FloydSteinbergDitherer(), overridden}) {
+            double[] reported = new double[1];
+            TransformMonitor monitor = new TransformMonitor() {
+                @Override
+                public synchronized void setProgress(double progress) {
+                    reported[0] = Math.max(reported[0], progress);
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return false;
+                }
+            };
+
+            thisDitherer.dither(randomImage(30, 20), quantizers[0], false, monitor);
+            assertEquals(1.0, reported[0]);
+        }
+    }
+
+    @Test
+    void testThatKernelLagCoversItsFootprint() {
+        assertEquals(2, new FloydSteinbergDitherer().getKernel().getLag());
+        assertEquals(4, new JarvisJudiceNinkeDitherer().getKernel().getLag());
+        assertEquals(3, new AtkinsonDitherer().getKernel().getLag());
+        assertEquals(0, new NullDitherer().getKernel().getLag());
+    }
+
+    @Test
+    void testThatQuantizingIntoBufferMatchesQuantizing() {
+        for (QuantizationFunction thisQuantizer : quantizers) {
+            for (int trial = 0; trial < 100; trial++) {
+                double[] color = {random.nextDouble() * 1.2 - 0.1, random.nextDouble(), random.nextDouble(), random.nextInt(256)};
+                double[] quantized = new double[4];
+
+                thisQuantizer.quantize(color, quantized);
+                assertArrayEquals(thisQuantizer.quantize(color), quantized);
+            }
+        }
+    }
+
+    @Test
+    void testThatKernelCannotDiffuseErrorBackwards() {
+        assertThrows(IllegalArgumentException.class, () -> DiffusionKernel.builder().distribute(-1, 0, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> DiffusionKernel.builder().distribute(0, 0, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> DiffusionKernel.builder().distribute(1, -1, 0.5));
+        assertEquals(2, new JarvisJudiceNinkeDitherer().getKernel().getDepth());
+    }
+
+    @Test
+    void testThatErrorCannotBeDistributedOutsideDither() {
+        assertThrows(IllegalStateException.class, () -> new FloydSteinbergDitherer().ditherPixel(1, 1, 0.5, 0.5, 0.5));
+    }
+
+    private interface MatrixDiffusion {
+        void ditherPixel(double[][][] matrix, int x, int y, double qer, double qeg, double qeb);
+    }
+
+    /**
+     * Dithers an image using a matrix of color cubes covering the entire image, as ditherers always have.
+     */
+    private BufferedImage matrixDither(BufferedImage image, QuantizationFunction quantizer, MatrixDiffusion diffusion) {
+        double[][][] matrix = new double[image.getHeight()][image.getWidth()][4];
+        WritableRaster source = ImageUtils.argbCopy(image).getRaster();
+
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                double[] pixel = source.getPixel(x, y, (double[]) null);
+                matrix[y][x][0] = pixel[0] / 255.0;
+                matrix[y][x][1] = pixel[1] / 255.0;
+                matrix[y][x][2] = pixel[2] / 255.0;
+                matrix[y][x][3] = pixel[3];
+            }
+        }
+
+        for (int y = 0; y < matrix.length; y++) {
+            for (int x = 0; x < matrix[y].length; x++) {
+                double[] oldPixel = matrix[y][x];
+                double[] newPixel = quantizer.quantize(matrix[y][x]);
+                matrix[y][x] = newPixel;
+                diffusion.ditherPixel(matrix, x, y, oldPixel[0] - newPixel[0], oldPixel[1] - newPixel[1], oldPixel[2] - newPixel[2]);
+            }
+        }
+
+        BufferedImage restored = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < matrix.length; y++) {
+            for (int x = 0; x < matrix[y].length; x++) {
+                double[] pixel = matrix[y][x];
+                restored.getRaster().setPixel(x, y, new double[]{
+                        Math.min(255, Math.max(0, pixel[0] * 255)),
+                        Math.min(255, Math.max(0, pixel[1] * 255)),
+                        Math.min(255, Math.max(0, pixel[2] * 255)),
+                        pixel[3]});
+            }
+        }
+
+        return restored;
+    }
+
+    private static void distribute(double[][][] matrix, int x, int y, double qer, double qeg, double qeb, double fraction) {
+        if (y >= 0 && y < matrix.length && x >= 0 && x < matrix[y].length) {
+            matrix[y][x][0] += qer * fraction;
+            matrix[y][x][1] += qeg * fraction;
+            matrix[y][x][2] += qeb * fraction;
+        }
+    }
+
+    private BufferedImage randomImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+
+        return image;
+    }
+
+    private void assertImagesEqual(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel mismatch at " + x + "," + y);
+            }
+        }
+    }
+}
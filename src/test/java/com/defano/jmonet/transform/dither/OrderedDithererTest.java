@@ -0,0 +1,162 @@
+package com.defano.jmonet.transform.dither;
+
+import com.defano.jmonet.transform.dither.quant.ColorReductionQuantizer;
+import com.defano.jmonet.transform.dither.quant.GrayscaleQuantizer;
+import com.defano.jmonet.transform.dither.quant.MonochromaticQuantizer;
+import com.defano.jmonet.transform.dither.quant.QuantizationFunction;
+import com.defano.jmonet.transform.image.TransformMonitor;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderedDithererTest {
+
+    private final Random random = new Random(1234);
+
+    @Test
+    void testThatBayerMatrixIsRecursiveIndexMatrix() {
+        BayerDitherer uut = new BayerDitherer(2);
+        assertEquals(-0.375, uut.getThreshold(0, 0));
+        assertEquals(0.125, uut.getThreshold(1, 0));
+        assertEquals(0.375, uut.getThreshold(0, 1));
+        assertEquals(-0.125, uut.getThreshold(1, 1));
+        assertEquals(uut.getThreshold(0, 0), uut.getThreshold(-2, 4));
+
+        for (int size : new int[]{4, 8, 16}) {
+            assertEveryRankAppears(new BayerDitherer(size), size * size, 1);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new BayerDitherer(3));
+        assertThrows(IllegalArgumentException.class, () -> new BayerDitherer(32));
+    }
+
+    @Test
+    void testThatBlueNoiseMatrixIsBundled() {
+        BlueNoiseDitherer uut = new BlueNoiseDitherer();
+        assertEquals(64, uut.getSize());
+        assertEveryRankAppears(uut, 256, 16);
+    }
+
+    @Test
+    void testThatDitheringPreservesAverageBrightness() {
+        QuantizationFunction[] quantizers = {new MonochromaticQuantizer(), new ColorReductionQuantizer(2), new GrayscaleQuantizer(3)};
+        OrderedDitherer[] ditherers = {new BayerDitherer(8), new BlueNoiseDitherer()};
+
+        for (OrderedDitherer thisDitherer : ditherers) {
+            for (QuantizationFunction thisQuantizer : quantizers) {
+                for (int gray : new int[]{30, 100, 128, 200}) {
+                    BufferedImage dithered = thisDitherer.dither(grayImage(128, 128, gray), thisQuantizer);
+
+                    double total = 0;
+                    for (int y = 0; y < 128; y++) {
+                        for (int x = 0; x < 128; x++) {
+                            total += dithered.getRGB(x, y) & 0xff;
+                        }
+                    }
+
+                    assertEquals(gray, total / (128 * 128), 4.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testThatHalfGrayDithersToCheckerboardLikeTile() {
+        BufferedImage dithered = new BayerDitherer(4).dither(grayImage(4, 4, 128), new MonochromaticQuantizer());
+
+        int white = 0;
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 4; x++) {
+                white += dithered.getRGB(x, y) == Color.WHITE.getRGB() ? 1 : 0;
+            }
+        }
+
+        assertEquals(8, white);
+        assertEquals(dithered.getRGB(0, 0), dithered.getRGB(1, 1));
+        assertNotEquals(dithered.getRGB(0, 0), dithered.getRGB(1, 0));
+    }
+
+    @Test
+    void testThatParallelAndTiledDitheringMatchWholeImage() {
+        BufferedImage image = randomImage(320, 256);
+        QuantizationFunction quantizer = new ColorReductionQuantizer(3);
+        OrderedDitherer uut = new BlueNoiseDitherer();
+
+        BufferedImage whole = uut.dither(image, quantizer);
+        assertImagesEqual(whole, uut.dither(image, quantizer, true));
+
+        for (int y = 0; y < 256; y += 128) {
+            for (int x = 0; x < 320; x += 64) {
+                BufferedImage tile = uut.dither(image.getSubimage(x, y, 64, 128), quantizer);
+                assertImagesEqual(whole.getSubimage(x, y, 64, 128), tile);
+            }
+        }
+    }
+
+    @Test
+    void testThatCancelledDitheringStops() {
+        TransformMonitor cancelled = new TransformMonitor() {
+            @Override
+            public void setProgress(double progress) {
+                fail("Cancelled dithering should not progress.");
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+        };
+
+        assertThrows(CancellationException.class, () -> new BayerDitherer(4).dither(randomImage(320, 256), new MonochromaticQuantizer(), true, cancelled));
+    }
+
+    private void assertEveryRankAppears(OrderedDitherer ditherer, int levels, int occurrences) {
+        int[] counts = new int[levels];
+        for (int y = 0; y < ditherer.getSize(); y++) {
+            for (int x = 0; x < ditherer.getSize(); x++) {
+                counts[(int) Math.floor((ditherer.getThreshold(x, y) + 0.5) * levels)]++;
+            }
+        }
+
+        for (int thisCount : counts) {
+            assertEquals(occurrences, thisCount);
+        }
+    }
+
+    private BufferedImage grayImage(int width, int height, int gray) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(gray, gray, gray));
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+
+        return image;
+    }
+
+    private BufferedImage randomImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+
+        return image;
+    }
+
+    private void assertImagesEqual(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel mismatch at " + x + "," + y);
+            }
+        }
+    }
+}
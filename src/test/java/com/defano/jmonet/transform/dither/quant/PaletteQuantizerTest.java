@@ -0,0 +1,139 @@
+package com.defano.jmonet.transform.dither.quant;
+
+import com.defano.jmonet.transform.dither.FloydSteinbergDitherer;
+import com.defano.jmonet.transform.image.PaletteReductionTransform;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaletteQuantizerTest {
+
+    private final Random random = new Random(1234);
+
+    @Test
+    void testThatQuantizedColorIsNearestPaletteColor() {
+        for (int size : new int[]{1, 2, 16, 256}) {
+            int[] palette = new int[size];
+            for (int index = 0; index < size; index++) {
+                palette[index] = random.nextInt();
+            }
+
+            PaletteQuantizer uut = new PaletteQuantizer(palette);
+            for (int trial = 0; trial < 5000; trial++) {
+                double[] color = {random.nextDouble() * 1.2 - 0.1, random.nextDouble(), random.nextDouble(), random.nextInt(256)};
+                double[] quantized = uut.quantize(color);
+
+                assertEquals(nearest(palette, color), toRgb(quantized));
+                assertEquals(color[3], quantized[3]);
+            }
+        }
+    }
+
+    @Test
+    void testThatFixedPaletteColorsQuantizeToThemselves() {
+        PaletteQuantizer uut = new PaletteQuantizer(Color.BLACK, Color.WHITE, Color.RED, new Color(0x80, 0x80, 0x80));
+
+        for (int thisColor : uut.getPalette()) {
+            double[] color = {((thisColor >> 16) & 0xff) / 255.0, ((thisColor >> 8) & 0xff) / 255.0, (thisColor & 0xff) / 255.0, 255};
+            assertEquals(thisColor, toRgb(uut.quantize(color)));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new PaletteQuantizer(new int[0]));
+    }
+
+    @Test
+    void testThatAdaptivePalettesRecoverImageColors() {
+        int[] colors = {0xff000000, 0xffffffff, 0xffff0000, 0xff00ff00, 0xff0000ff, 0xff808080, 0xff123456, 0xffabcdef};
+        BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 64; y++) {
+            for (int x = 0; x < 64; x++) {
+                image.setRGB(x, y, colors[random.nextInt(colors.length)]);
+            }
+        }
+
+        Set<Integer> expected = toSet(colors);
+        assertEquals(expected, toSet(new MedianCutQuantizer(image, 8).getPalette()));
+        assertEquals(expected, toSet(new OctreeQuantizer(image, 8).getPalette()));
+        assertEquals(expected, toSet(new MedianCutQuantizer(image, 256).getPalette()));
+        assertEquals(expected, toSet(new OctreeQuantizer(image, 256).getPalette()));
+    }
+
+    @Test
+    void testThatAdaptivePalettesDoNotExceedColorCount() {
+        BufferedImage image = randomImage(200, 150);
+
+        for (int colors : new int[]{1, 2, 16, 256}) {
+            int medianCut = new MedianCutQuantizer(image, colors).getPalette().length;
+            int octree = new OctreeQuantizer(image, colors).getPalette().length;
+
+            assertEquals(colors, medianCut);
+            assertTrue(octree > 0 && octree <= colors);
+        }
+    }
+
+    @Test
+    void testThatPaletteReductionProducesOnlyPaletteColors() {
+        BufferedImage image = randomImage(120, 90);
+        BufferedImage reduced = new PaletteReductionTransform(new FloydSteinbergDitherer(), 16).apply(image);
+        Set<Integer> produced = new HashSet<>();
+
+        for (int y = 0; y < reduced.getHeight(); y++) {
+            for (int x = 0; x < reduced.getWidth(); x++) {
+                produced.add(reduced.getRGB(x, y) | 0xff000000);
+            }
+        }
+
+        assertTrue(toSet(new MedianCutQuantizer(image, 16).getPalette()).containsAll(produced));
+    }
+
+    /**
+     * Finds the nearest palette color by comparing the color with every color of the palette.
+     */
+    private int nearest(int[] palette, double[] color) {
+        double r = Math.min(1, Math.max(0, color[0]));
+        double g = Math.min(1, Math.max(0, color[1]));
+        double b = Math.min(1, Math.max(0, color[2]));
+        int nearest = 0;
+        double nearestDistance = Double.MAX_VALUE;
+
+        for (int thisColor : palette) {
+            double dr = r - ((thisColor >> 16) & 0xff) / 255.0;
+            double dg = g - ((thisColor >> 8) & 0xff) / 255.0;
+            double db = b - (thisColor & 0xff) / 255.0;
+            double distance = dr * dr + dg * dg + db * db;
+
+            if (distance < nearestDistance) {
+                nearest = thisColor;
+                nearestDistance = distance;
+            }
+        }
+
+        return nearest | 0xff000000;
+    }
+
+    private int toRgb(double[] color) {
+        return 0xff000000 | (int) Math.round(color[0] * 255) << 16 | (int) Math.round(color[1] * 255) << 8 | (int) Math.round(color[2] * 255);
+    }
+
+    private Set<Integer> toSet(int[] colors) {
+        return new HashSet<>(Arrays.asList(Arrays.stream(colors).boxed().toArray(Integer[]::new)));
+    }
+
+    private BufferedImage randomImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt() | 0xff000000);
+            }
+        }
+
+        return image;
+    }
+}
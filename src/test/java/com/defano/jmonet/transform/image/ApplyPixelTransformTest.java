@@ -0,0 +1,91 @@
+package com.defano.jmonet.transform.image;
+
+import com.defano.jmonet.transform.pixel.BrightnessPixelTransform;
+import com.defano.jmonet.transform.pixel.InvertPixelTransform;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplyPixelTransformTest {
+
+    private final Random random = new Random(1234);
+
+    @Test
+    void testThatMaskedTransformMatchesPixelTransform() {
+        BufferedImage image = randomImage(90, 70);
+        Polygon lasso = new Polygon(new int[]{3, 80, 40, 60, 10}, new int[]{5, 10, 35, 68, 50}, 5);
+        Shape[] masks = {null, lasso, new Ellipse2D.Double(10.5, 4.25, 60, 40), new Rectangle(-10, 20, 50, 100)};
+        PixelTransform[] transforms = {new BrightnessPixelTransform(35), new InvertPixelTransform(), rgb -> rgb & 0xff00ff00};
+
+        for (Shape thisMask : masks) {
+            for (PixelTransform thisTransform : transforms) {
+                assertImagesEqual(pixelTransform(image, thisTransform, thisMask), new ApplyPixelTransform(thisTransform, thisMask).apply(image));
+            }
+        }
+    }
+
+    @Test
+    void testThatLargeImageTransformMatchesPixelTransform() {
+        BufferedImage image = randomImage(400, 300);
+        Shape mask = new Ellipse2D.Double(20, 20, 350, 250);
+        PixelTransform transform = new BrightnessPixelTransform(-50);
+
+        assertImagesEqual(pixelTransform(image, transform, mask), new ApplyPixelTransform(transform, mask).apply(image));
+    }
+
+    @Test
+    void testThatTransformsNotThreadSafeAreAppliedOnCallingThread() {
+        Thread caller = Thread.currentThread();
+        Set<Thread> threads = new HashSet<>();
+
+        new ApplyPixelTransform(rgb -> {
+            threads.add(Thread.currentThread());
+            return rgb;
+        }).apply(randomImage(400, 300));
+
+        assertEquals(Collections.singleton(caller), threads);
+    }
+
+    /**
+     * Transforms an image one pixel at a time, as the transform has always done.
+     */
+    private BufferedImage pixelTransform(BufferedImage source, PixelTransform transform, Shape mask) {
+        BufferedImage transformed = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB);
+
+        for (int x = 0; x < source.getWidth(); x++) {
+            for (int y = 0; y < source.getHeight(); y++) {
+                int rgb = source.getRGB(x, y);
+                transformed.setRGB(x, y, mask == null || mask.contains(x, y) ? transform.apply(rgb) : rgb);
+            }
+        }
+
+        return transformed;
+    }
+
+    private BufferedImage randomImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt() | 0xff000000);
+            }
+        }
+
+        return image;
+    }
+
+    private void assertImagesEqual(BufferedImage expected, BufferedImage actual) {
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel mismatch at " + x + "," + y);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.defano.jmonet.transform.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ConvolveOp;
+import java.awt.image.Kernel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConvolutionTransformTest {
+
+    private final Random random = new Random(1234);
+
+    @Test
+    void testThatBandedConvolutionMatchesConvolveOp() {
+        BufferedImage image = randomImage(70, 200);
+
+        for (Kernel thisKernel : new Kernel[]{kernel(3, 3), kernel(5, 5), kernel(2, 4), kernel(1, 7)}) {
+            BufferedImage expected = new BufferedImage(70, 200, BufferedImage.TYPE_INT_ARGB);
+            new ConvolveOp(thisKernel, ConvolveOp.EDGE_ZERO_FILL, null).filter(image, expected);
+
+            BufferedImage actual = new ConvolutionTransform(thisKernel).apply(image);
+
+            for (int y = 0; y < 200; y++) {
+                for (int x = 0; x < 70; x++) {
+                    assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel differs at " + x + "," + y);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testThatConvolutionStopsWhenCancelled() {
+        TransformMonitor cancelled = new TransformMonitor() {
+            @Override
+            public void setProgress(double progress) {
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+        };
+
+        assertThrows(CancellationException.class, () -> new ConvolutionTransform(kernel(3, 3)).apply(randomImage(10, 10), cancelled));
+    }
+
+    @Test
+    void testThatConvolutionReportsProgress() {
+        List<Double> progress = new ArrayList<>();
+        TransformMonitor monitor = new TransformMonitor() {
+            @Override
+            public void setProgress(double fraction) {
+                progress.add(fraction);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        };
+
+        new ConvolutionTransform(kernel(3, 3)).apply(randomImage(10, 200), monitor);
+
+        assertEquals(4, progress.size());
+        assertEquals(1.0, progress.get(progress.size() - 1));
+    }
+
+    private Kernel kernel(int width, int height) {
+        float[] data = new float[width * height];
+        for (int index = 0; index < data.length; index++) {
+            data[index] = random.nextFloat() / data.length;
+        }
+
+        return new Kernel(width, height, data);
+    }
+
+    private BufferedImage randomImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+
+        return image;
+    }
+}
@@ -0,0 +1,114 @@
+package com.defano.jmonet.transform.image;
+
+import com.defano.jmonet.tools.attributes.FillFunction;
+import com.defano.jmonet.tools.attributes.MarkPredicate;
+import com.defano.jmonet.tools.attributes.RasterFillFunction;
+import com.defano.jmonet.tools.attributes.RasterPaint;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FillTransformTest {
+
+    private final Random random = new Random(1234);
+
+    @Test
+    void testThatMaskedFillMatchesPixelFill() {
+        BufferedImage image = randomImage(40, 30);
+        Shape mask = new Ellipse2D.Double(3, 4, 30, 20);
+
+        BufferedImage texture = randomImage(4, 7);
+        Paint[] paints = {Color.MAGENTA, new TexturePaint(texture, new Rectangle(0, 0, 4, 7))};
+
+        for (Paint thisPaint : paints) {
+            assertImagesEqual(
+                    pixelFill(image, mask, thisPaint, new FillFunction() {}, markedWhen(0, 255)),
+                    new FillTransform(mask, thisPaint, new FillFunction() {}).apply(image));
+        }
+    }
+
+    @Test
+    void testThatCustomFunctionsMatchPixelFill() {
+        BufferedImage image = randomImage(40, 30);
+        MarkPredicate predicate = markedWhen(0, 100);
+        FillFunction fill = new FillFunction() {
+            @Override
+            public void fill(BufferedImage image, int x, int y, Paint fillPaint) {
+                image.setRGB(x, y, x * y);
+            }
+        };
+
+        assertImagesEqual(
+                pixelFill(image, null, Color.BLACK, fill, predicate),
+                new FillTransform(null, Color.BLACK, fill, predicate).apply(image));
+    }
+
+    @Test
+    void testThatRasterFunctionIsNeverAppliedPixelByPixel() {
+        BufferedImage texture = randomImage(4, 7);
+        RasterFillFunction fill = new RasterFillFunction() {
+            @Override
+            public void fill(int[] pixels, int offset, int stride, int x, int y, int length, RasterPaint fillPaint) {
+                fillPaint.fill(pixels, offset + y * stride + x, x, y, length);
+            }
+
+            @Override
+            public void fill(BufferedImage image, int x, int y, Paint fillPaint) {
+                fail("Raster fill function applied to a single pixel");
+            }
+        };
+
+        new FillTransform(null, new TexturePaint(texture, new Rectangle(0, 0, 4, 7)), fill).apply(randomImage(40, 30));
+    }
+
+    private MarkPredicate markedWhen(int alphaAbove, int redAbove) {
+        return new MarkPredicate() {
+            @Override
+            public boolean isMarked(Color pixel, Color eraseColor) {
+                return pixel.getAlpha() > alphaAbove || pixel.getRed() > redAbove;
+            }
+        };
+    }
+
+    /**
+     * Fills an image one pixel at a time, as the transform has always done.
+     */
+    private BufferedImage pixelFill(BufferedImage source, Shape mask, Paint paint, FillFunction fill, MarkPredicate predicate) {
+        BufferedImage transformed = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        transformed.getGraphics().drawImage(source, 0, 0, null);
+
+        for (int x = 0; x < transformed.getWidth(); x++) {
+            for (int y = 0; y < transformed.getHeight(); y++) {
+                if ((mask == null || mask.contains(x, y)) && !predicate.isMarked(new Color(transformed.getRGB(x, y), true), null)) {
+                    fill.fill(transformed, x, y, paint);
+                }
+            }
+        }
+
+        return transformed;
+    }
+
+    private BufferedImage randomImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextBoolean() ? 0 : random.nextInt() | 0xff000000);
+            }
+        }
+
+        return image;
+    }
+
+    private void assertImagesEqual(BufferedImage expected, BufferedImage actual) {
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel mismatch at " + x + "," + y);
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.defano.jmonet.transform.image;
+
+import com.defano.jmonet.tools.attributes.BoundaryFunction;
+import com.defano.jmonet.tools.attributes.FillFunction;
+import com.defano.jmonet.tools.attributes.RasterBoundaryFunction;
+import com.defano.jmonet.tools.attributes.RasterFillFunction;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FloodFillTransformTest {
+
+    private final Random random = new Random(1234);
+
+    @Test
+    void testThatColorFillMatchesPixelFill() {
+        for (int trial = 0; trial < 20; trial++) {
+            BufferedImage canvas = mazeImage(60, 40);
+            Point origin = new Point(random.nextInt(60), random.nextInt(40));
+            assertFillsMatch(canvas, origin, new Color(10, 20, 30), new BoundaryFunction() {}, new FillFunction() {});
+        }
+    }
+
+    @Test
+    void testThatTextureFillMatchesPixelFill() {
+        BufferedImage texture = new BufferedImage(5, 3, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 5; x++) {
+                texture.setRGB(x, y, random.nextInt() | 0xff000000);
+            }
+        }
+
+        TexturePaint paint = new TexturePaint(texture, new Rectangle(0, 0, 5, 3));
+        for (int trial = 0; trial < 20; trial++) {
+            BufferedImage canvas = mazeImage(60, 40);
+            Point origin = new Point(random.nextInt(60), random.nextInt(40));
+            assertFillsMatch(canvas, origin, paint, new BoundaryFunction() {}, new FillFunction() {});
+        }
+    }
+
+    @Test
+    void testThatCustomFunctionsMatchPixelFill() {
+        BoundaryFunction boundary = new BoundaryFunction() {
+            @Override
+            public boolean isBoundary(BufferedImage canvas, BufferedImage scratch, int x, int y) {
+                return (canvas.getRGB(x, y) & 0xff) > 0x80 || scratch.getRGB(x, y) != 0;
+            }
+        };
+
+        FillFunction fill = new FillFunction() {
+            @Override
+            public void fill(BufferedImage image, int x, int y, Paint fillPaint) {
+                image.setRGB(x, y, (x + y) % 2 == 0 ? Color.RED.getRGB() : Color.BLUE.getRGB());
+            }
+        };
+
+        for (int trial = 0; trial < 20; trial++) {
+            BufferedImage canvas = mazeImage(60, 40);
+            Point origin = new Point(random.nextInt(60), random.nextInt(40));
+            assertFillsMatch(canvas, origin, Color.BLACK, boundary, new FillFunction() {});
+            assertFillsMatch(canvas, origin, Color.BLACK, new BoundaryFunction() {}, fill);
+            assertFillsMatch(canvas, origin, Color.BLACK, boundary, fill);
+        }
+    }
+
+    @Test
+    void testThatRasterFunctionsMatchPixelFill() {
+        RasterBoundaryFunction boundary = (canvas, scratch, offset, stride, x, y) ->
+                (canvas[offset + y * stride + x] & 0xff) > 0x80 || scratch[offset + y * stride + x] != 0;
+        RasterFillFunction fill = (pixels, offset, stride, x, y, length, fillPaint) -> {
+            for (int index = 0; index < length; index++) {
+                pixels[offset + y * stride + x + index] = (x + index + y) % 2 == 0 ? Color.RED.getRGB() : Color.BLUE.getRGB();
+            }
+        };
+
+        for (int trial = 0; trial < 20; trial++) {
+            BufferedImage canvas = mazeImage(60, 40);
+            Point origin = new Point(random.nextInt(60), random.nextInt(40));
+            assertFillsMatch(canvas, origin, Color.BLACK, boundary, fill);
+        }
+    }
+
+    @Test
+    void testThatPremultipliedCanvasIsReadAsNonPremultiplied() {
+        RasterBoundaryFunction boundary = (canvas, scratch, offset, stride, x, y) ->
+                ((canvas[offset + y * stride + x] >> 16) & 0xff) > 0x80 || scratch[offset + y * stride + x] != 0;
+
+        for (int trial = 0; trial < 20; trial++) {
+            BufferedImage maze = mazeImage(60, 40);
+            BufferedImage canvas = new BufferedImage(60, 40, BufferedImage.TYPE_INT_ARGB_PRE);
+
+            // Translucent walls whose premultiplied red channel would not be a boundary
+            for (int y = 0; y < 40; y++) {
+                for (int x = 0; x < 60; x++) {
+                    canvas.setRGB(x, y, maze.getRGB(x, y) == 0 ? 0 : 0x40ff0000);
+                }
+            }
+
+            Point origin = new Point(random.nextInt(60), random.nextInt(40));
+            assertFillsMatch(canvas, origin, Color.BLACK, boundary, new FillFunction() {});
+        }
+    }
+
+    @Test
+    void testThatParallelFillMatchesSequentialFill() {
+        for (int trial = 0; trial < 10; trial++) {
+            BufferedImage canvas = mazeImage(200, 600, 1500);
+            FloodFillTransform uut = floodFill(new Point(random.nextInt(200), random.nextInt(600)), Color.CYAN,
+                    new BoundaryFunction() {}, new FillFunction() {});
+
+            BufferedImage sequential = uut.apply(canvas);
+            uut.setParallel(true);
+            BufferedImage parallel = uut.apply(canvas);
+
+            for (int y = 0; y < canvas.getHeight(); y++) {
+                for (int x = 0; x < canvas.getWidth(); x++) {
+                    assertEquals(sequential.getRGB(x, y), parallel.getRGB(x, y), "Pixel mismatch at " + x + "," + y);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testThatOriginOutsideImageFillsNothing() {
+        FloodFillTransform uut = floodFill(new Point(100, 5), Color.BLACK, new BoundaryFunction() {}, new FillFunction() {});
+        BufferedImage filled = uut.apply(new BufferedImage(20, 20, BufferedImage.TYPE_INT_ARGB));
+
+        for (int y = 0; y < 20; y++) {
+            for (int x = 0; x < 20; x++) {
+                assertEquals(0, filled.getRGB(x, y));
+            }
+        }
+    }
+
+    private void assertFillsMatch(BufferedImage canvas, Point origin, Paint paint, BoundaryFunction boundary, FillFunction fill) {
+        BufferedImage expected = pixelFill(canvas, origin, paint, boundary, fill);
+        BufferedImage actual = floodFill(origin, paint, boundary, fill).apply(canvas);
+
+        for (int y = 0; y < canvas.getHeight(); y++) {
+            for (int x = 0; x < canvas.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel mismatch at " + x + "," + y);
+            }
+        }
+    }
+
+    private FloodFillTransform floodFill(Point origin, Paint paint, BoundaryFunction boundary, FillFunction fill) {
+        FloodFillTransform transform = new FloodFillTransform();
+        transform.setOrigin(origin);
+        transform.setFillPaint(paint);
+        transform.setBoundaryFunction(boundary);
+        transform.setFill(fill);
+        return transform;
+    }
+
+    /**
+     * Flood fills an image one pixel at a time, as the transform has always done.
+     */
+    private BufferedImage pixelFill(BufferedImage source, Point origin, Paint paint, BoundaryFunction boundary, FillFunction fill) {
+        ArrayList<Point> fillPixels = new ArrayList<>();
+        Rectangle bounds = new Rectangle(0, 0, source.getWidth(), source.getHeight());
+        BufferedImage transformed = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB);
+
+        fillPixels.add(origin);
+        while (!fillPixels.isEmpty()) {
+            Point popped = fillPixels.remove(fillPixels.size() - 1);
+            fill.fill(transformed, popped.x, popped.y, paint);
+
+            for (Point neighbor : new Point[]{
+                    new Point(popped.x + 1, popped.y), new Point(popped.x - 1, popped.y),
+                    new Point(popped.x, popped.y + 1), new Point(popped.x, popped.y - 1)}) {
+                if (bounds.contains(neighbor) && !boundary.isBoundary(source, transformed, neighbor.x, neighbor.y)) {
+                    fillPixels.add(neighbor);
+                }
+            }
+        }
+
+        return transformed;
+    }
+
+    /**
+     * Creates an image of transparent space partitioned by randomly placed opaque walls.
+     */
+    private BufferedImage mazeImage(int width, int height) {
+        return mazeImage(width, height, 25);
+    }
+
+    /**
+     * Creates an image of transparent space partitioned by a given number of randomly placed opaque walls.
+     */
+    private BufferedImage mazeImage(int width, int height, int walls) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+
+        for (int wall = 0; wall < walls; wall++) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            int length = random.nextInt(30);
+            boolean horizontal = random.nextBoolean();
+
+            for (int offset = 0; offset < length; offset++) {
+                int wx = horizontal ? x + offset : x;
+                int wy = horizontal ? y : y + offset;
+                if (wx < width && wy < height) {
+                    image.setRGB(wx, wy, random.nextInt() | 0xff000000);
+                }
+            }
+        }
+
+        return image;
+    }
+}
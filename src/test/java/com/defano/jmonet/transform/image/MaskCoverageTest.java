@@ -0,0 +1,64 @@
+package com.defano.jmonet.transform.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.GeneralPath;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaskCoverageTest {
+
+    private final Random random = new Random(1234);
+
+    @Test
+    void testThatCoverageMatchesContains() {
+        for (int trial = 0; trial < 30; trial++) {
+            Polygon polygon = new Polygon();
+            for (int point = 0; point < 8; point++) {
+                polygon.addPoint(random.nextInt(120) - 10, random.nextInt(100) - 10);
+            }
+
+            GeneralPath path = new GeneralPath();
+            path.moveTo(random.nextDouble() * 100, random.nextDouble() * 80);
+            for (int segment = 0; segment < 10; segment++) {
+                path.quadTo(random.nextDouble() * 100, random.nextDouble() * 80, random.nextDouble() * 100, random.nextDouble() * 80);
+            }
+            path.closePath();
+
+            assertCoverageMatches(polygon, 100, 80);
+            assertCoverageMatches(path, 100, 80);
+            assertCoverageMatches(new Ellipse2D.Double(random.nextDouble() * 60, random.nextDouble() * 60, random.nextDouble() * 70, random.nextDouble() * 50), 100, 80);
+        }
+    }
+
+    @Test
+    void testThatMaskOutsideImageCoversNothing() {
+        MaskCoverage uut = new MaskCoverage(new Rectangle(200, 200, 10, 10), 100, 80);
+
+        assertFalse(uut.isCovered(5, 5));
+        assertEquals(-1, uut.nextCovered(0, 5));
+    }
+
+    @Test
+    void testThatRunsAreFound() {
+        MaskCoverage uut = new MaskCoverage(new Rectangle(10, 5, 20, 5), 100, 80);
+
+        assertEquals(10, uut.nextCovered(0, 6));
+        assertEquals(30, uut.nextUncovered(10, 6));
+        assertEquals(-1, uut.nextCovered(30, 6));
+        assertEquals(-1, uut.nextCovered(0, 10));
+    }
+
+    private void assertCoverageMatches(Shape mask, int width, int height) {
+        MaskCoverage uut = new MaskCoverage(mask, width, height);
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                assertEquals(mask.contains(x, y), uut.isCovered(x, y), "Coverage mismatch at " + x + "," + y);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.defano.jmonet.transform.image;
+
+import com.defano.jmonet.transform.pixel.BrightnessPixelTransform;
+import com.defano.jmonet.transform.pixel.InvertPixelTransform;
+import com.defano.jmonet.transform.pixel.RemoveAlphaPixelTransform;
+import com.defano.jmonet.transform.pixel.TransparencyPixelTransform;
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PixelTransformPipelineTest {
+
+    private final Random random = new Random(1234);
+
+    private final PixelTransform[] transforms = {
+            new BrightnessPixelTransform(40),
+            new TransparencyPixelTransform(-70),
+            rgb -> rgb & 0xffff00ff,
+            new InvertPixelTransform(),
+            new RemoveAlphaPixelTransform(false),
+            new BrightnessPixelTransform(-90),
+            new TransparencyPixelTransform(30),
+            new RemoveAlphaPixelTransform(true)
+    };
+
+    @Test
+    void testThatPipelineMatchesSequentialTransforms() {
+        for (boolean lookupTables : new boolean[]{false, true}) {
+            PixelTransformPipeline uut = pipeline(lookupTables);
+            int[] pixels = randomPixels(2000);
+            int[] row = new int[pixels.length];
+            uut.applyRow(pixels, row, 0, pixels.length);
+
+            for (int index = 0; index < pixels.length; index++) {
+                int expected = pixels[index];
+                for (PixelTransform thisTransform : transforms) {
+                    expected = thisTransform.apply(expected);
+                }
+
+                assertEquals(expected, uut.apply(pixels[index]));
+                assertEquals(expected, row[index]);
+            }
+        }
+    }
+
+    @Test
+    void testThatSeparableTransformsCollapseIntoLookupTables() {
+        assertEquals(transforms.length, pipeline(false).getStages().size());
+        assertEquals(3, pipeline(true).getStages().size());
+        assertTrue(pipeline(true).getStages().get(0) instanceof SeparablePixelTransform);
+    }
+
+    @Test
+    void testThatSeparableTransformsMatchTheirChannels() {
+        int[] pixels = randomPixels(2000);
+
+        for (PixelTransform thisTransform : transforms) {
+            if (thisTransform instanceof SeparablePixelTransform) {
+                SeparablePixelTransform separable = (SeparablePixelTransform) thisTransform;
+                for (int thisPixel : pixels) {
+                    int expected = separable.apply(thisPixel);
+                    assertEquals(expected >>> 24, separable.applyChannel(SeparablePixelTransform.ALPHA, thisPixel >>> 24));
+                    assertEquals((expected >> 16) & 0xff, separable.applyChannel(SeparablePixelTransform.RED, (thisPixel >> 16) & 0xff));
+                    assertEquals((expected >> 8) & 0xff, separable.applyChannel(SeparablePixelTransform.GREEN, (thisPixel >> 8) & 0xff));
+                    assertEquals(expected & 0xff, separable.applyChannel(SeparablePixelTransform.BLUE, thisPixel & 0xff));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testThatEmptyPipelineCopiesPixels() {
+        PixelTransformPipeline uut = PixelTransformPipeline.builder().withLookupTables().build();
+        int[] pixels = randomPixels(100);
+        int[] row = new int[pixels.length];
+
+        uut.applyRow(pixels, row, 10, 80);
+        for (int index = 10; index < 90; index++) {
+            assertEquals(pixels[index], row[index]);
+            assertEquals(pixels[index], uut.apply(pixels[index]));
+        }
+    }
+
+    @Test
+    void testThatMaskedPipelineMatchesSequentialTransforms() {
+        BufferedImage image = new BufferedImage(80, 60, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, 80, 60, randomPixels(80 * 60), 0, 80);
+        Ellipse2D mask = new Ellipse2D.Double(5, 5, 60, 45);
+
+        BufferedImage expected = new ApplyPixelTransform(rgb -> {
+            for (PixelTransform thisTransform : transforms) {
+                rgb = thisTransform.apply(rgb);
+            }
+            return rgb;
+        }, mask).apply(image);
+
+        BufferedImage actual = new ApplyPixelTransform(pipeline(true), mask).apply(image);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel mismatch at " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void testThatNullTransformIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PixelTransformPipeline.builder().then(null));
+    }
+
+    private PixelTransformPipeline pipeline(boolean lookupTables) {
+        PixelTransformPipeline.Builder builder = PixelTransformPipeline.builder();
+        for (PixelTransform thisTransform : transforms) {
+            builder.then(thisTransform);
+        }
+
+        return lookupTables ? builder.withLookupTables().build() : builder.build();
+    }
+
+    private int[] randomPixels(int count) {
+        int[] pixels = new int[count];
+        for (int index = 0; index < count; index++) {
+            pixels[index] = random.nextInt();
+        }
+
+        return pixels;
+    }
+}
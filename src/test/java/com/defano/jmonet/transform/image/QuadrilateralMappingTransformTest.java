@@ -0,0 +1,198 @@
+package com.defano.jmonet.transform.image;
+
+import Jama.Matrix;
+import com.defano.jmonet.model.FlexQuadrilateral;
+import com.defano.jmonet.model.Interpolation;
+import com.defano.jmonet.model.Quadrilateral;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuadrilateralMappingTransformTest {
+
+    private final Random random = new Random(1234);
+
+    @Test
+    void testThatProjectionMatchesPixelProjection() {
+        for (int trial = 0; trial < 10; trial++) {
+            Quadrilateral quad = randomQuadrilateral(120, 90);
+            BufferedImage source = randomImage(70, 50);
+            assertImagesEqual(pixelMap(source, quad, true), new ProjectionTransform(quad).apply(source));
+        }
+    }
+
+    @Test
+    void testThatRubbersheetMatchesPixelRubbersheet() {
+        for (int trial = 0; trial < 10; trial++) {
+            Quadrilateral quad = randomQuadrilateral(120, 90);
+            BufferedImage source = randomImage(70, 50);
+            assertImagesEqual(pixelMap(source, quad, false), new RubbersheetTransform(quad).apply(source));
+        }
+    }
+
+    @Test
+    void testThatLargeProjectionMatchesPixelProjection() {
+        Quadrilateral quad = randomQuadrilateral(600, 500);
+        BufferedImage source = randomImage(300, 200);
+        assertImagesEqual(pixelMap(source, quad, true), new ProjectionTransform(quad).apply(source));
+    }
+
+    @Test
+    void testThatInterpolationCoversNearestNeighborPixels() {
+        Quadrilateral quad = randomQuadrilateral(120, 90);
+        BufferedImage source = new BufferedImage(70, 50, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = source.createGraphics();
+        g.setColor(new Color(40, 120, 200));
+        g.fillRect(0, 0, 70, 50);
+        g.dispose();
+
+        BufferedImage nearest = new ProjectionTransform(quad).apply(source);
+        for (Interpolation interpolation : new Interpolation[]{Interpolation.BILINEAR, Interpolation.BICUBIC}) {
+            assertImagesEqual(nearest, new ProjectionTransform(quad, interpolation).apply(source));
+        }
+    }
+
+    @Test
+    void testThatBilinearInterpolationBlendsNeighbors() {
+        BufferedImage source = new BufferedImage(7, 7, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 7; y++) {
+            for (int x = 0; x < 7; x++) {
+                source.setRGB(x, y, x < 3 ? 0xff000000 : 0xffffffff);
+            }
+        }
+
+        // Destination column 4 maps to source x of 24/7, straddling the black and white columns
+        Quadrilateral quad = new FlexQuadrilateral(new Point(0, 0), new Point(7, 0), new Point(0, 7), new Point(7, 7));
+        BufferedImage output = new ProjectionTransform(quad, Interpolation.BILINEAR).apply(source);
+
+        int blended = output.getRGB(4, 4) & 0xff;
+        assertTrue(blended > 0 && blended < 0xff, "Expected a blend of black and white but got " + blended);
+    }
+
+    @Test
+    void testThatSolvedCoefficientsAreReused() {
+        AtomicInteger solves = new AtomicInteger();
+        Quadrilateral quad = randomQuadrilateral(120, 90);
+        BufferedImage source = randomImage(70, 50);
+
+        ProjectionTransform counting = new ProjectionTransform(quad) {
+            @Override
+            protected double[][] getSystem(double[] dx, double[] dy, double[] sx, double[] sy) {
+                solves.incrementAndGet();
+                return super.getSystem(dx, dy, sx, sy);
+            }
+        };
+
+        counting.apply(source);
+        counting.apply(randomImage(70, 50));
+        assertEquals(1, solves.get());
+
+        // The source's dimensions are part of the mapping
+        BufferedImage first = counting.apply(source);
+        BufferedImage second = counting.apply(randomImage(30, 20));
+        assertEquals(2, solves.get());
+        assertEquals(first.getWidth(), second.getWidth());
+    }
+
+    @Test
+    void testThatNoInterpolationIsRejected() {
+        Quadrilateral quad = randomQuadrilateral(120, 90);
+        assertThrows(IllegalArgumentException.class, () -> new RubbersheetTransform(quad, Interpolation.NONE));
+    }
+
+    private void assertImagesEqual(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel mismatch at " + x + "," + y);
+            }
+        }
+    }
+
+    /**
+     * Creates a convex quadrilateral whose corners are randomly displaced inward from the corners of a rectangle.
+     */
+    private Quadrilateral randomQuadrilateral(int width, int height) {
+        int dx = width / 4;
+        int dy = height / 4;
+
+        return new FlexQuadrilateral(
+                new Point(random.nextInt(dx), random.nextInt(dy)),
+                new Point(width - random.nextInt(dx), random.nextInt(dy)),
+                new Point(random.nextInt(dx), height - random.nextInt(dy)),
+                new Point(width - random.nextInt(dx), height - random.nextInt(dy)));
+    }
+
+    private BufferedImage randomImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt() | 0xff000000);
+            }
+        }
+
+        return image;
+    }
+
+    /**
+     * Maps an image onto a quadrilateral one pixel at a time, scaling the source image by mapping its corners onto the
+     * corners of the quadrilateral.
+     */
+    private BufferedImage pixelMap(BufferedImage source, Quadrilateral projection, boolean homography) {
+        int width = projection.getWidth();
+        int height = projection.getHeight();
+        int sourceWidth = source.getWidth();
+        int sourceHeight = source.getHeight();
+
+        double[] dx = {
+                Math.abs(projection.getTopLeft().getX()), Math.abs(projection.getTopRight().getX()),
+                Math.abs(projection.getBottomRight().getX()), Math.abs(projection.getBottomLeft().getX())
+        };
+        double[] dy = {
+                Math.abs(projection.getTopLeft().getY()), Math.abs(projection.getTopRight().getY()),
+                Math.abs(projection.getBottomRight().getY()), Math.abs(projection.getBottomLeft().getY())
+        };
+        double[] sx = {0, sourceWidth - 1.0, sourceWidth - 1.0, 0};
+        double[] sy = {0, 0, sourceHeight - 1.0, sourceHeight - 1.0};
+
+        double[][] arrayA = new double[8][];
+        for (int corner = 0; corner < 4; corner++) {
+            arrayA[corner] = homography
+                    ? new double[]{dx[corner], dy[corner], 1, 0, 0, 0, -dx[corner] * sx[corner], -dy[corner] * sx[corner]}
+                    : new double[]{dx[corner] * dy[corner], dx[corner], dy[corner], 1, 0, 0, 0, 0};
+            arrayA[corner + 4] = homography
+                    ? new double[]{0, 0, 0, dx[corner], dy[corner], 1, -dx[corner] * sy[corner], -dy[corner] * sy[corner]}
+                    : new double[]{0, 0, 0, 0, dx[corner] * dy[corner], dx[corner], dy[corner], 1};
+        }
+
+        double[][] arrayB = {{sx[0]}, {sx[1]}, {sx[2]}, {sx[3]}, {sy[0]}, {sy[1]}, {sy[2]}, {sy[3]}};
+        Matrix solution = new Matrix(arrayA).solve(new Matrix(arrayB));
+        double a = solution.get(0, 0), b = solution.get(1, 0), c = solution.get(2, 0), d = solution.get(3, 0);
+        double e = solution.get(4, 0), f = solution.get(5, 0), g = solution.get(6, 0), h = solution.get(7, 0);
+
+        BufferedImage output = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int i = 0; i < width; i++) {
+            for (int j = 0; j < height; j++) {
+                int x = homography
+                        ? (int) (((a * i) + (b * j) + c) / ((g * i) + (h * j) + 1))
+                        : (int) ((a * i * j) + (b * i) + (c * j) + d);
+                int y = homography
+                        ? (int) (((d * i) + (e * j) + f) / ((g * i) + (h * j) + 1))
+                        : (int) ((e * i * j) + (f * i) + (g * j) + h);
+
+                if (x > 0 && x < sourceWidth && y > 0 && y < sourceHeight && i > 0 && i < width && j > 0 && j < height) {
+                    output.setRGB(i, j, source.getRGB(x, y));
+                }
+            }
+        }
+
+        return output;
+    }
+}
@@ -0,0 +1,194 @@
+package com.defano.jmonet.transform.image;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransformExecutorTest {
+
+    private final TransformExecutor uut = TransformExecutor.getInstance();
+    private final List<BufferedImage> committed = new ArrayList<>();
+
+    @Test
+    void testThatResultIsCommittedOnDispatchThread() throws Exception {
+        BufferedImage result = image();
+        List<Boolean> onDispatchThread = new ArrayList<>();
+
+        TransformFuture future = uut.submit(new Object(), image(), source -> result, () -> true, image -> {
+            onDispatchThread.add(SwingUtilities.isEventDispatchThread());
+            committed.add(image);
+        });
+
+        assertSame(result, future.get(5, TimeUnit.SECONDS));
+        flushDispatchThread();
+
+        assertEquals(1, committed.size());
+        assertSame(result, committed.get(0));
+        assertTrue(onDispatchThread.get(0));
+        assertEquals(1.0, future.getProgress());
+    }
+
+    @Test
+    void testThatNewerTransformSupersedesOlder() throws Exception {
+        Object target = new Object();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BufferedImage olderResult = image();
+        BufferedImage newerResult = image();
+
+        TransformFuture older = uut.submit(target, image(), source -> {
+            started.countDown();
+            await(release);
+            return olderResult;
+        }, () -> true, committed::add);
+
+        started.await(5, TimeUnit.SECONDS);
+        TransformFuture newer = uut.submit(target, image(), source -> newerResult, () -> true, committed::add);
+        release.countDown();
+
+        assertSame(newerResult, newer.get(5, TimeUnit.SECONDS));
+        assertTrue(older.isCancelled());
+        flushDispatchThread();
+
+        assertEquals(1, committed.size());
+        assertSame(newerResult, committed.get(0));
+    }
+
+    @Test
+    void testThatTransformsOfDifferentTargetsAreIndependent() throws Exception {
+        TransformFuture first = uut.submit(new Object(), image(), source -> source, () -> true, committed::add);
+        TransformFuture second = uut.submit(new Object(), image(), source -> source, () -> true, committed::add);
+
+        assertNotNull(first.get(5, TimeUnit.SECONDS));
+        assertNotNull(second.get(5, TimeUnit.SECONDS));
+        flushDispatchThread();
+
+        assertEquals(2, committed.size());
+    }
+
+    @Test
+    void testThatStaleResultIsDiscarded() throws Exception {
+        TransformFuture future = uut.submit(new Object(), image(), source -> source, () -> false, committed::add);
+
+        assertThrows(CancellationException.class, () -> future.get(5, TimeUnit.SECONDS));
+        flushDispatchThread();
+
+        assertTrue(future.isCancelled());
+        assertTrue(committed.isEmpty());
+    }
+
+    @Test
+    void testThatCancelledTransformIsNotCommitted() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        TransformFuture future = uut.submit(new Object(), image(), source -> {
+            await(release);
+            return source;
+        }, () -> true, committed::add);
+
+        assertTrue(future.cancel(false));
+        release.countDown();
+        Thread.sleep(100);
+        flushDispatchThread();
+
+        assertTrue(committed.isEmpty());
+    }
+
+    @Test
+    void testThatFailureCompletesExceptionally() throws Exception {
+        TransformFuture future = uut.submit(new Object(), image(), source -> {
+            throw new IllegalStateException("Failed");
+        }, () -> true, committed::add);
+
+        assertThrows(Exception.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(future.isCompletedExceptionally());
+        assertFalse(future.isCancelled());
+    }
+
+    @Test
+    void testThatPixelTransformStopsWhenCancelled() {
+        TransformMonitor cancelled = new TransformMonitor() {
+            @Override
+            public void setProgress(double progress) {
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+        };
+
+        ApplyPixelTransform transform = new ApplyPixelTransform(pixel -> pixel);
+        assertThrows(CancellationException.class, () -> transform.apply(image(), cancelled));
+    }
+
+    @Test
+    void testThatPixelTransformReportsProgress() {
+        List<Double> progress = new ArrayList<>();
+        TransformMonitor monitor = new TransformMonitor() {
+            @Override
+            public synchronized void setProgress(double fraction) {
+                progress.add(fraction);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        };
+
+        new ApplyPixelTransform(pixel -> pixel).apply(new BufferedImage(10, 100, BufferedImage.TYPE_INT_ARGB), monitor);
+
+        assertEquals(4, progress.size());
+        assertEquals(1.0, progress.get(progress.size() - 1));
+    }
+
+    @Test
+    void testThatDefaultAsyncTransformIsAppliedSynchronously() throws Exception {
+        BufferedImage result = image();
+        StaticImageTransformable transformable = new StaticImageTransformable() {
+            @Override
+            public void transform(StaticImageTransform transform) {
+                committed.add(transform.apply(image()));
+            }
+
+            @Override
+            public void transform(PixelTransform transform) {
+                transform(new ApplyPixelTransform(transform));
+            }
+        };
+
+        TransformFuture future = transformable.transformAsync((StaticImageTransform) source -> result);
+
+        assertTrue(future.isDone());
+        assertSame(result, future.get());
+        assertEquals(1, committed.size());
+        assertSame(result, committed.get(0));
+        assertTrue(transformable.transformAsync((StaticImageTransform) source -> {
+            throw new CancellationException();
+        }).isCancelled());
+    }
+
+    private BufferedImage image() {
+        return new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flushDispatchThread() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {});
+    }
+}
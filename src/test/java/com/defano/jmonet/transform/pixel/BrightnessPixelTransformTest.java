@@ -3,6 +3,7 @@ package com.defano.jmonet.transform.pixel;
 import org.junit.jupiter.api.Test;
 
 import java.awt.*;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -42,4 +43,20 @@ class BrightnessPixelTransformTest {
                 c.getAlpha()
         ).getRGB(), new BrightnessPixelTransform(delta).apply(c.getRGB()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testThatApplyRowMatchesApply() {
+        Random random = new Random(1234);
+        int[] src = random.ints(100).toArray();
+        int[] dst = new int[src.length];
+
+        for (int delta : new int[]{-300, -40, 0, 40, 300}) {
+            BrightnessPixelTransform uut = new BrightnessPixelTransform(delta);
+            uut.applyRow(src, dst, 10, 80);
+
+            for (int index = 10; index < 90; index++) {
+                assertEquals(uut.apply(src[index]), dst[index]);
+            }
+        }
+    }
+}
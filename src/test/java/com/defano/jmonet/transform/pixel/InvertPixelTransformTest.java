@@ -3,6 +3,7 @@ package com.defano.jmonet.transform.pixel;
 import org.junit.jupiter.api.Test;
 
 import java.awt.*;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,4 +21,17 @@ class InvertPixelTransformTest {
 
         assertEquals(transWhite.getRGB(), new InvertPixelTransform().apply(transBlack.getRGB()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testThatApplyRowMatchesApply() {
+        int[] pixels = new Random(1234).ints(100).toArray();
+        int[] expected = pixels.clone();
+        InvertPixelTransform uut = new InvertPixelTransform();
+
+        uut.applyRow(pixels, pixels, 10, 80);
+
+        for (int index = 0; index < pixels.length; index++) {
+            assertEquals(index < 10 || index >= 90 ? expected[index] : uut.apply(expected[index]), pixels[index]);
+        }
+    }
+}